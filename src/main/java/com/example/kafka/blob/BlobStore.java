@@ -0,0 +1,28 @@
+package com.example.kafka.blob;
+
+import java.io.IOException;
+
+/**
+ * Storage for payloads that are too large to travel inside a Kafka record.
+ * Records carry only the pointer returned by {@link #put(byte[])}.
+ */
+public interface BlobStore {
+
+    /**
+     * Stores the given content.
+     *
+     * @param content The bytes to store
+     * @return An opaque pointer that resolves the content via {@link #get(String)}
+     * @throws IOException if the content cannot be stored
+     */
+    String put(byte[] content) throws IOException;
+
+    /**
+     * Loads previously stored content.
+     *
+     * @param pointer The pointer returned by {@link #put(byte[])}
+     * @return The stored bytes
+     * @throws IOException if the pointer cannot be resolved
+     */
+    byte[] get(String pointer) throws IOException;
+}
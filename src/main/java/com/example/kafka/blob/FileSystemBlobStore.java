@@ -0,0 +1,46 @@
+package com.example.kafka.blob;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.UUID;
+
+/**
+ * {@link BlobStore} backed by a local directory. Blobs are written to a temporary
+ * file and atomically moved into place, so readers never observe partial content.
+ */
+public class FileSystemBlobStore implements BlobStore {
+
+    static final String SCHEME = "file:";
+
+    private final Path directory;
+
+    public FileSystemBlobStore(Path directory) {
+        this.directory = directory;
+    }
+
+    @Override
+    public String put(byte[] content) throws IOException {
+        String id = UUID.randomUUID().toString();
+        Path shard = directory.resolve(id.substring(0, 2));
+        Files.createDirectories(shard);
+
+        Path temp = Files.createTempFile(shard, id, ".tmp");
+        Files.write(temp, content);
+        Files.move(temp, shard.resolve(id), StandardCopyOption.ATOMIC_MOVE);
+        return SCHEME + id;
+    }
+
+    @Override
+    public byte[] get(String pointer) throws IOException {
+        if (pointer == null || !pointer.startsWith(SCHEME)) {
+            throw new IOException("Unsupported blob pointer: " + pointer);
+        }
+        String id = pointer.substring(SCHEME.length());
+        if (id.length() < 2 || id.contains("/") || id.contains("\\") || id.contains("..")) {
+            throw new IOException("Invalid blob pointer: " + pointer);
+        }
+        return Files.readAllBytes(directory.resolve(id.substring(0, 2)).resolve(id));
+    }
+}
@@ -0,0 +1,190 @@
+package com.example.kafka.coalescing;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BinaryOperator;
+import java.util.function.Consumer;
+
+/**
+ * Holds records per key for a short window and then flushes only the latest, or the merge
+ * of all of them, together with the records it superseded.
+ *
+ * <p>Flushes run on single-threaded workers striped by key, and every record of a key goes
+ * through them, even when it is not held, so records of the same key are flushed in order.
+ * At most {@code maxKeys} keys are held; a record for another key is then flushed at once.
+ * A key is flushed early once it holds {@code maxPerKey} records.
+ */
+@Slf4j
+public class Coalescer<T> implements AutoCloseable {
+
+    /**
+     * What a flush delivers.
+     *
+     * @param latest The record to send: the newest, or the merge of all held records
+     * @param superseded The held records replaced by {@code latest}, oldest first
+     */
+    public record Batch<T>(T latest, List<T> superseded) {
+    }
+
+    private final long windowMs;
+    private final int maxKeys;
+    private final int maxPerKey;
+    private final BinaryOperator<T> merge;
+    private final Consumer<Batch<T>> flush;
+    private final Map<String, Slot<T>> slots = new HashMap<>();
+    private final ScheduledExecutorService timer;
+    private final ExecutorService[] workers;
+    private final Counter sent;
+    private final Counter coalesced;
+    private int held;
+
+    /**
+     * @param merge Combines the held record with a newer one for the same key
+     * @param flush Sends a batch and acknowledges all its records
+     */
+    public Coalescer(long windowMs, int maxKeys, int maxPerKey, int workers,
+                     BinaryOperator<T> merge, Consumer<Batch<T>> flush, MeterRegistry meterRegistry) {
+        this.windowMs = windowMs;
+        this.maxKeys = maxKeys;
+        this.maxPerKey = maxPerKey;
+        this.merge = merge;
+        this.flush = flush;
+        this.timer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "coalescing-timer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.workers = new ExecutorService[workers];
+        for (int i = 0; i < workers; i++) {
+            String name = "coalescing-worker-" + i;
+            this.workers[i] = Executors.newSingleThreadExecutor(runnable -> new Thread(runnable, name));
+        }
+
+        sent = Counter.builder("pipeline.coalesce.records")
+                .description("Records sent after coalescing, and records superseded by them")
+                .tag("outcome", "sent")
+                .register(meterRegistry);
+        coalesced = Counter.builder("pipeline.coalesce.records")
+                .description("Records sent after coalescing, and records superseded by them")
+                .tag("outcome", "coalesced")
+                .register(meterRegistry);
+        Gauge.builder("pipeline.coalesce.ratio", this, Coalescer::ratio)
+                .description("Records coalesced away per record sent since start")
+                .register(meterRegistry);
+        Gauge.builder("pipeline.coalesce.held", this, Coalescer::held)
+                .description("Records held in coalescing windows")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Holds a record until its key's window closes, or flushes it at once if too many keys
+     * are already held.
+     */
+    public void offer(String key, T record) {
+        Batch<T> immediate = null;
+        synchronized (this) {
+            Slot<T> slot = slots.get(key);
+            if (slot == null) {
+                if (slots.size() >= maxKeys) {
+                    immediate = new Batch<>(record, List.of());
+                } else {
+                    Slot<T> created = new Slot<>(record);
+                    slots.put(key, created);
+                    held++;
+                    timer.schedule(() -> flush(key, created), windowMs, TimeUnit.MILLISECONDS);
+                }
+            } else {
+                slot.superseded.add(slot.latest);
+                slot.latest = merge.apply(slot.latest, record);
+                held++;
+                if (slot.superseded.size() + 1 >= maxPerKey) {
+                    immediate = take(key, slot);
+                }
+            }
+        }
+        if (immediate != null) {
+            dispatch(key, immediate);
+        }
+    }
+
+    public synchronized int held() {
+        return held;
+    }
+
+    /**
+     * Records coalesced away per record sent.
+     */
+    public double ratio() {
+        double sentCount = sent.count();
+        return sentCount > 0 ? coalesced.count() / sentCount : 0;
+    }
+
+    /**
+     * Stops flushing. Records still held are never acknowledged, so they are delivered again.
+     */
+    @Override
+    public void close() {
+        timer.shutdownNow();
+        for (ExecutorService worker : workers) {
+            worker.shutdown();
+        }
+        try {
+            for (ExecutorService worker : workers) {
+                worker.awaitTermination(30, TimeUnit.SECONDS);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void flush(String key, Slot<T> slot) {
+        Batch<T> batch;
+        synchronized (this) {
+            // Already flushed early; a newer window for the key has its own timer
+            if (slots.get(key) != slot) {
+                return;
+            }
+            batch = take(key, slot);
+        }
+        dispatch(key, batch);
+    }
+
+    private Batch<T> take(String key, Slot<T> slot) {
+        slots.remove(key);
+        held -= slot.superseded.size() + 1;
+        return new Batch<>(slot.latest, slot.superseded);
+    }
+
+    private void dispatch(String key, Batch<T> batch) {
+        workers[(key.hashCode() & Integer.MAX_VALUE) % workers.length].execute(() -> {
+            try {
+                flush.accept(batch);
+            } catch (RuntimeException e) {
+                log.error("Unhandled error flushing coalesced records: {}", e.getMessage(), e);
+            } finally {
+                sent.increment();
+                coalesced.increment(batch.superseded().size());
+            }
+        });
+    }
+
+    private static final class Slot<T> {
+        private final List<T> superseded = new ArrayList<>();
+        private T latest;
+
+        private Slot(T latest) {
+            this.latest = latest;
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.kafka.coalescing;
+
+import com.example.kafka.model.IncomingMessage;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Merges successive updates for the same customer: the newer message wins, and payload
+ * fields and metadata entries it leaves out are carried over from the older one.
+ */
+public final class CustomerStateMerger {
+
+    private CustomerStateMerger() {
+    }
+
+    public static IncomingMessage merge(IncomingMessage older, IncomingMessage newer) {
+        IncomingMessage.PayloadData before = older.getPayload();
+        IncomingMessage.PayloadData after = newer.getPayload();
+        IncomingMessage.PayloadData payload = before == null || after == null
+                ? after
+                : IncomingMessage.PayloadData.builder()
+                        .customerId(after.getCustomerId())
+                        .customerName(either(after.getCustomerName(), before.getCustomerName()))
+                        .email(either(after.getEmail(), before.getEmail()))
+                        .phone(either(after.getPhone(), before.getPhone()))
+                        .amount(either(after.getAmount(), before.getAmount()))
+                        .currency(either(after.getCurrency(), before.getCurrency()))
+                        .description(either(after.getDescription(), before.getDescription()))
+                        .active(either(after.getActive(), before.getActive()))
+                        .build();
+
+        Map<String, String> metadata = null;
+        if (older.getMetadata() != null || newer.getMetadata() != null) {
+            metadata = new LinkedHashMap<>();
+            if (older.getMetadata() != null) {
+                metadata.putAll(older.getMetadata());
+            }
+            if (newer.getMetadata() != null) {
+                metadata.putAll(newer.getMetadata());
+            }
+        }
+
+        return IncomingMessage.builder()
+                .messageId(newer.getMessageId())
+                .eventType(newer.getEventType())
+                .timestamp(newer.getTimestamp())
+                .payload(payload)
+                .metadata(metadata)
+                .build();
+    }
+
+    private static <V> V either(V preferred, V fallback) {
+        return preferred != null ? preferred : fallback;
+    }
+}
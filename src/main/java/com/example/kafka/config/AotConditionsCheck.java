@@ -0,0 +1,76 @@
+package com.example.kafka.config;
+
+import com.example.kafka.filter.RecordFilter;
+import com.example.kafka.lanes.PriorityLanes;
+import com.example.kafka.polling.PollTuner;
+import com.example.kafka.service.FileSourceService;
+import com.example.kafka.service.JfrRecordingService;
+import com.example.kafka.staleness.StaleRecordRouter;
+import com.example.kafka.tenancy.TenantDispatcher;
+import com.example.kafka.warmup.WarmupRunner;
+import com.example.kafka.workers.ProcessingWorkerPool;
+import org.springframework.aot.AotDetector;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.ListableBeanFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * With AOT, the {@code @ConditionalOnProperty} beans are fixed when the image is built while
+ * the rest of the configuration is still read at startup. A flag switched at runtime would
+ * then half-apply, e.g. {@code app.workers.enabled=true} turns on out-of-order acks without a
+ * worker pool, so startup fails instead when a flag disagrees with the beans that were built.
+ */
+@Component
+public class AotConditionsCheck implements InitializingBean {
+
+    private final ApplicationProperties applicationProperties;
+    private final ListableBeanFactory beanFactory;
+
+    public AotConditionsCheck(ApplicationProperties applicationProperties, ListableBeanFactory beanFactory) {
+        this.applicationProperties = applicationProperties;
+        this.beanFactory = beanFactory;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        if (!AotDetector.useGeneratedArtifacts()) {
+            return;
+        }
+        List<String> mismatches = mismatches();
+        if (!mismatches.isEmpty()) {
+            throw new IllegalStateException("Runtime flags disagree with the AOT build for " + mismatches
+                    + "; rebuild with the same settings, e.g. -Dspring-boot.aot.jvmArguments=\"-D"
+                    + mismatches.get(0) + "=...\"");
+        }
+    }
+
+    /**
+     * The {@code enabled} properties whose value does not match the presence of their bean.
+     */
+    List<String> mismatches() {
+        ApplicationProperties props = applicationProperties;
+        List<Condition> conditions = List.of(
+                new Condition("app.jfr.enabled", props.getJfr().isEnabled(), JfrRecordingService.class),
+                new Condition("app.file-source.enabled", props.getFileSource().isEnabled(), FileSourceService.class),
+                new Condition("app.warmup.enabled", props.getWarmup().isEnabled(), WarmupRunner.class),
+                new Condition("app.workers.enabled", props.getWorkers().isEnabled(), ProcessingWorkerPool.class),
+                new Condition("app.priority-lanes.enabled", props.getPriorityLanes().isEnabled(), PriorityLanes.class),
+                new Condition("app.tenancy.enabled", props.getTenancy().isEnabled(), TenantDispatcher.class),
+                new Condition("app.staleness.enabled", props.getStaleness().isEnabled(), StaleRecordRouter.class),
+                new Condition("app.filter.enabled", props.getFilter().isEnabled(), RecordFilter.class),
+                new Condition("app.poll-tuning.enabled", props.getPollTuning().isEnabled(), PollTuner.class));
+        return conditions.stream()
+                .filter(condition -> condition.enabled() != hasBean(condition.bean()))
+                .map(Condition::property)
+                .toList();
+    }
+
+    private boolean hasBean(Class<?> type) {
+        return beanFactory.getBeanNamesForType(type, true, false).length > 0;
+    }
+
+    private record Condition(String property, boolean enabled, Class<?> bean) {
+    }
+}
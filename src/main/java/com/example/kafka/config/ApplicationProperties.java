@@ -4,6 +4,11 @@ import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Configuration;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
 @Data
 @Configuration
 @ConfigurationProperties(prefix = "app")
@@ -12,16 +17,63 @@ public class ApplicationProperties {
     private Kafka kafka = new Kafka();
     private RestApi restApi = new RestApi();
     private Validation validation = new Validation();
+    private Dlq dlq = new Dlq();
+    private Jfr jfr = new Jfr();
+    private Logging logging = new Logging();
+    private Diagnostics diagnostics = new Diagnostics();
+    private Metrics metrics = new Metrics();
+    private Sink sink = new Sink();
+    private FileSource fileSource = new FileSource();
+    private Warmup warmup = new Warmup();
+    private Workers workers = new Workers();
+    private PollTuning pollTuning = new PollTuning();
+    private Filter filter = new Filter();
+    private Staleness staleness = new Staleness();
+    private PriorityLanes priorityLanes = new PriorityLanes();
+    private Tenancy tenancy = new Tenancy();
+    private Coalescing coalescing = new Coalescing();
+    private Map<String, Pipeline> pipelines = new LinkedHashMap<>();
 
     @Data
     public static class Kafka {
         private Topic topic = new Topic();
+        private Map<String, ProducerProfile> producerProfiles = new LinkedHashMap<>();
+        private Format format = new Format();
+        private Rebalance rebalance = new Rebalance();
 
         @Data
         public static class Topic {
             private String input;
             private String dlq;
         }
+
+        @Data
+        public static class Format {
+            private String defaultFormat = "json";
+            private String jsonDecoder = "streaming";
+            private Map<String, String> topics = new LinkedHashMap<>();
+            private String subject = "incoming-message";
+            private String schemaRegistryIndex = "classpath:schemas/registry.json";
+        }
+
+        @Data
+        public static class Rebalance {
+            private List<String> assignmentStrategies = new ArrayList<>(List.of("cooperative-sticky"));
+            private String groupInstanceId = "";
+            private int sessionTimeoutMs = 45000;
+            private long drainTimeoutMs = 10000;
+        }
+
+        @Data
+        public static class ProducerProfile {
+            private String acks = "all";
+            private int retries = 3;
+            private boolean enableIdempotence = true;
+            private int lingerMs = 0;
+            private int batchSize = 16384;
+            private String compressionType = "none";
+            private long bufferMemory = 32L * 1024 * 1024;
+        }
     }
 
     @Data
@@ -29,6 +81,7 @@ public class ApplicationProperties {
         private String baseUrl;
         private String endpoint;
         private Timeout timeout = new Timeout();
+        private Pool pool = new Pool();
         private Retry retry = new Retry();
         private Auth auth = new Auth();
 
@@ -38,6 +91,11 @@ public class ApplicationProperties {
             private int read;
         }
 
+        @Data
+        public static class Pool {
+            private int maxConnections;
+        }
+
         @Data
         public static class Retry {
             private int maxAttempts;
@@ -61,4 +119,204 @@ public class ApplicationProperties {
         private String jsonSchemaPath;
         private boolean failFast;
     }
+
+    @Data
+    public static class Dlq {
+        private String producerProfile = "low-latency";
+        private String replayProducerProfile = "dlq-bulk";
+        private long sendTimeoutMs = 5000;
+        private Journal journal = new Journal();
+        private ClaimCheck claimCheck = new ClaimCheck();
+
+        @Data
+        public static class Journal {
+            private boolean enabled = true;
+            private String directory = "data/dlq-journal";
+            private int segmentBytes = 8 * 1024 * 1024;
+            private long maxBytes = 256L * 1024 * 1024;
+            private long drainIntervalMs = 5000;
+        }
+
+        @Data
+        public static class ClaimCheck {
+            private boolean enabled = true;
+            private long thresholdBytes = 256 * 1024;
+            private String directory = "data/dlq-blobs";
+        }
+    }
+
+    @Data
+    public static class Jfr {
+        private boolean enabled = false;
+        private String directory = "data/jfr";
+        private String settings = "profile";
+        private long maxAgeSeconds = 900;
+        private long maxSizeBytes = 256L * 1024 * 1024;
+        private long thresholdNanos = 0;
+    }
+
+    @Data
+    public static class Logging {
+        private long successSampleRate = 100;
+        private long successMaxPerSecond = 0;
+        private Async async = new Async();
+
+        @Data
+        public static class Async {
+            private int queueSize = 8192;
+            private int discardingThreshold = 80;
+        }
+    }
+
+    @Data
+    public static class Diagnostics {
+        private int slowestSize = 20;
+        private long slowestWindowSeconds = 300;
+    }
+
+    @Data
+    public static class Metrics {
+        private boolean resourceAccounting = false;
+    }
+
+    @Data
+    public static class Sink {
+        private String mode = "rest";
+        private long fixedLatencyMs = 5;
+        private int recordingCapacity = 1000;
+    }
+
+    @Data
+    public static class FileSource {
+        private boolean enabled = false;
+        private List<String> files = new ArrayList<>();
+        private String checkpointDirectory = "data/file-source";
+        private int chunkSizeBytes = 8 * 1024 * 1024;
+        private int parallelism = 4;
+        private long shutdownTimeoutMs = 30000;
+    }
+
+    @Data
+    public static class Warmup {
+        private boolean enabled = true;
+        private int iterations = 20000;
+        private long timeBudgetMs = 30000;
+        private String connectionCheckPath = "/";
+    }
+
+    @Data
+    public static class Workers {
+        private boolean enabled = false;
+        private int initialWorkers = 4;
+        private int minWorkers = 1;
+        private int maxWorkers = 32;
+        private int maxInFlight = 256;
+        private long checkIntervalMs = 5000;
+        private long drainTargetSeconds = 60;
+        private int scaleUpChecks = 2;
+        private int scaleDownChecks = 6;
+        private double scaleDownRatio = 0.5;
+        private long cooldownMs = 15000;
+    }
+
+    @Data
+    public static class PollTuning {
+        private boolean enabled = true;
+        private double targetFraction = 0.5;
+        private double nearLimitFraction = 0.8;
+        private int minRecords = 1;
+        private int maxRecords = 500;
+        private double smoothing = 0.2;
+    }
+
+    @Data
+    public static class Filter {
+        private boolean enabled = false;
+        private String defaultAction = "accept";
+        private List<Rule> rules = new ArrayList<>();
+
+        @Data
+        public static class Rule {
+            private String name;
+            private String header;
+            private List<String> values = new ArrayList<>();
+            private String keyPrefix;
+            private String action = "discard";
+        }
+    }
+
+    @Data
+    public static class Staleness {
+        private boolean enabled = false;
+        private long defaultTtlMs = 0;
+        private Map<String, Long> ttlMs = new LinkedHashMap<>();
+        private String action = "catch-up";
+        private Map<String, String> actions = new LinkedHashMap<>();
+        private String catchUpTopic = "catch-up-messages";
+        private String lane = "";
+        private String producerProfile;
+        private int throttleRatePerSecond = 50;
+    }
+
+    @Data
+    public static class PriorityLanes {
+        private boolean enabled = false;
+        private int outboundConcurrency = 16;
+        private String defaultLane = "default";
+        private Map<String, Lane> lanes = new LinkedHashMap<>();
+
+        @Data
+        public static class Lane {
+            private List<String> eventTypes = new ArrayList<>();
+            private int weight = 1;
+            private int workers = 4;
+            private int maxInFlight = 128;
+        }
+    }
+
+    @Data
+    public static class Tenancy {
+        private boolean enabled = false;
+        private List<String> metadataKeys = new ArrayList<>(List.of("tenantId", "source"));
+        private String defaultTenant = "unknown";
+        private int workers = 8;
+        private int maxInFlight = 64;
+        private int queueCapacity = 256;
+        private int defaultWeight = 1;
+        private double defaultQuotaPerSecond = 0;
+        private int maxTrackedTenants = 10000;
+        private Map<String, Tenant> tenants = new LinkedHashMap<>();
+
+        @Data
+        public static class Tenant {
+            private Integer weight;
+            private Double quotaPerSecond;
+        }
+    }
+
+    @Data
+    public static class Coalescing {
+        private boolean enabled = false;
+        private long windowMs = 500;
+        private String mode = "latest";
+        private int maxKeys = 10000;
+        private int maxPerKey = 100;
+        private int workers = 4;
+    }
+
+    /**
+     * A named topic-to-endpoint bridge next to the default one; settings left unset fall back
+     * to the default pipeline's.
+     */
+    @Data
+    public static class Pipeline {
+        private boolean enabled = true;
+        private List<String> topics = new ArrayList<>();
+        private String dlqTopic;
+        private String groupId;
+        private int concurrency = 1;
+        private String format;
+        private String jsonSchemaPath;
+        private RestApi restApi = new RestApi();
+    }
 }
@@ -0,0 +1,19 @@
+package com.example.kafka.config;
+
+import com.example.kafka.blob.BlobStore;
+import com.example.kafka.blob.FileSystemBlobStore;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.nio.file.Path;
+
+@Configuration
+public class BlobStoreConfig {
+
+    @Bean
+    @ConditionalOnMissingBean
+    public BlobStore blobStore(ApplicationProperties applicationProperties) {
+        return new FileSystemBlobStore(Path.of(applicationProperties.getDlq().getClaimCheck().getDirectory()));
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.kafka.config;
+
+import com.example.kafka.metrics.PipelineMetrics;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Which DLQ topic a failed record goes to, by the topic it was consumed from: the DLQ of
+ * the named pipeline that reads that topic, or the default DLQ. Because DLQ records are
+ * routed, and replayed from the journal, by source topic, each topic belongs to exactly one
+ * pipeline.
+ */
+@Component
+public class DlqTopics {
+
+    private final String defaultDlqTopic;
+    private final Map<String, String> bySourceTopic = new HashMap<>();
+
+    public DlqTopics(ApplicationProperties properties) {
+        this.defaultDlqTopic = properties.getKafka().getTopic().getDlq();
+        Map<String, String> owners = new HashMap<>();
+        String input = properties.getKafka().getTopic().getInput();
+        if (input != null) {
+            owners.put(input, PipelineMetrics.DEFAULT_PIPELINE);
+        }
+        properties.getPipelines().forEach((name, pipeline) -> {
+            if (!pipeline.isEnabled()) {
+                return;
+            }
+            for (String topic : pipeline.getTopics()) {
+                String owner = owners.putIfAbsent(topic, name);
+                if (owner != null) {
+                    throw new IllegalStateException("Topic " + topic + " is read by pipelines " + owner + " and "
+                            + name + "; each topic belongs to one pipeline");
+                }
+                if (pipeline.getDlqTopic() != null && !pipeline.getDlqTopic().isBlank()) {
+                    bySourceTopic.put(topic, pipeline.getDlqTopic());
+                }
+            }
+        });
+    }
+
+    /**
+     * The default DLQ topic and every pipeline's own.
+     */
+    public Set<String> all() {
+        Set<String> topics = new LinkedHashSet<>();
+        topics.add(defaultDlqTopic);
+        topics.addAll(bySourceTopic.values());
+        return topics;
+    }
+
+    public String forSource(String sourceTopic) {
+        return sourceTopic != null ? bySourceTopic.getOrDefault(sourceTopic, defaultDlqTopic) : defaultDlqTopic;
+    }
+}
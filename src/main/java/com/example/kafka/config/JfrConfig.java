@@ -0,0 +1,27 @@
+package com.example.kafka.config;
+
+import com.example.kafka.endpoint.JfrRecordingEndpoint;
+import com.example.kafka.service.JfrRecordingService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Registers the JFR recording endpoint when {@code app.jfr.enabled} is true. The
+ * pipeline events themselves are always compiled in but cost nothing until a
+ * recording enables them.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "app.jfr", name = "enabled", havingValue = "true")
+public class JfrConfig {
+
+    @Bean
+    public JfrRecordingService jfrRecordingService(ApplicationProperties applicationProperties) {
+        return new JfrRecordingService(applicationProperties);
+    }
+
+    @Bean
+    public JfrRecordingEndpoint jfrRecordingEndpoint(JfrRecordingService jfrRecordingService) {
+        return new JfrRecordingEndpoint(jfrRecordingService);
+    }
+}
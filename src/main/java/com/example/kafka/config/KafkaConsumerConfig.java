@@ -1,11 +1,37 @@
 package com.example.kafka.config;
 
+import com.example.kafka.diagnostics.CommitTrackingInterceptor;
+import com.example.kafka.diagnostics.PipelineTracker;
+import com.example.kafka.filter.FilterRule;
+import com.example.kafka.filter.RecordFilter;
+import com.example.kafka.format.AvroMessageDecoder;
+import com.example.kafka.format.FormatAwareDeserializer;
+import com.example.kafka.format.JsonMessageDecoder;
+import com.example.kafka.format.LocalSchemaRegistry;
+import com.example.kafka.format.MessageDecoder;
+import com.example.kafka.format.MessageFormat;
+import com.example.kafka.format.ProtobufMessageDecoder;
+import com.example.kafka.format.SchemaRegistry;
+import com.example.kafka.format.StreamingJsonMessageDecoder;
+import com.example.kafka.metrics.PipelineMetrics;
 import com.example.kafka.model.IncomingMessage;
+import com.example.kafka.polling.PollTuner;
+import com.example.kafka.rebalance.RevocationDrainer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.CooperativeStickyAssignor;
+import org.apache.kafka.clients.consumer.RangeAssignor;
+import org.apache.kafka.clients.consumer.RoundRobinAssignor;
+import org.apache.kafka.clients.consumer.StickyAssignor;
 import org.apache.kafka.common.serialization.StringDeserializer;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.ResourceLoader;
 import org.springframework.kafka.annotation.EnableKafka;
 import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
 import org.springframework.kafka.core.ConsumerFactory;
@@ -14,7 +40,10 @@ import org.springframework.kafka.listener.ContainerProperties;
 import org.springframework.kafka.support.serializer.ErrorHandlingDeserializer;
 import org.springframework.kafka.support.serializer.JsonDeserializer;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 
 @Configuration
@@ -30,34 +59,187 @@ public class KafkaConsumerConfig {
     @Value("${spring.kafka.listener.concurrency:3}")
     private Integer concurrency;
 
+    @Value("${spring.kafka.consumer.max-poll-records:500}")
+    private Integer maxPollRecords;
+
+    @Value("${spring.kafka.consumer.properties.max.poll.interval.ms:300000}")
+    private Long maxPollIntervalMs;
+
+    private final ApplicationProperties applicationProperties;
+
+    public KafkaConsumerConfig(ApplicationProperties applicationProperties) {
+        this.applicationProperties = applicationProperties;
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    public SchemaRegistry schemaRegistry(ResourceLoader resourceLoader, ObjectMapper objectMapper) {
+        return new LocalSchemaRegistry(resourceLoader, objectMapper,
+                applicationProperties.getKafka().getFormat().getSchemaRegistryIndex());
+    }
+
+    /**
+     * Value deserializer that decodes JSON, Avro or Protobuf depending on the record's
+     * {@code value-format} header or the topic's configured format.
+     */
+    @Bean
+    public FormatAwareDeserializer incomingMessageDeserializer(SchemaRegistry schemaRegistry,
+                                                               PipelineMetrics pipelineMetrics) {
+        return deserializer(schemaRegistry, pipelineMetrics);
+    }
+
+    private FormatAwareDeserializer deserializer(SchemaRegistry schemaRegistry, PipelineMetrics pipelineMetrics) {
+        ApplicationProperties.Kafka.Format format = applicationProperties.getKafka().getFormat();
+        Map<String, MessageFormat> topicFormats = new HashMap<>();
+        format.getTopics().forEach((topic, name) -> topicFormats.put(topic, MessageFormat.fromName(name)));
+        // A named pipeline's format applies to its topics unless app.kafka.format.topics says otherwise
+        applicationProperties.getPipelines().values().stream()
+                .filter(pipeline -> pipeline.isEnabled() && pipeline.getFormat() != null)
+                .forEach(pipeline -> pipeline.getTopics().forEach(topic ->
+                        topicFormats.putIfAbsent(topic, MessageFormat.fromName(pipeline.getFormat()))));
+        MessageDecoder jsonDecoder = "databind".equalsIgnoreCase(format.getJsonDecoder())
+                ? new JsonMessageDecoder()
+                : new StreamingJsonMessageDecoder();
+
+        return new FormatAwareDeserializer(
+                List.of(jsonDecoder, new AvroMessageDecoder(), new ProtobufMessageDecoder()),
+                schemaRegistry,
+                format.getSubject(),
+                MessageFormat.fromName(format.getDefaultFormat()),
+                topicFormats,
+                pipelineMetrics);
+    }
+
+    /**
+     * Filter rules applied to headers and keys before values are deserialized.
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "app.filter", name = "enabled", havingValue = "true")
+    public RecordFilter recordFilter(MeterRegistry meterRegistry) {
+        ApplicationProperties.Filter filter = applicationProperties.getFilter();
+        List<FilterRule> rules = new ArrayList<>();
+        for (int i = 0; i < filter.getRules().size(); i++) {
+            ApplicationProperties.Filter.Rule rule = filter.getRules().get(i);
+            String name = rule.getName() != null ? rule.getName() : "rule-" + i;
+            rules.add(new FilterRule(name, rule.getHeader(), rule.getValues(), rule.getKeyPrefix(),
+                    FilterRule.Action.fromName(rule.getAction())));
+        }
+        return new RecordFilter(rules, FilterRule.Action.fromName(filter.getDefaultAction()), meterRegistry);
+    }
+
     @Bean
-    public ConsumerFactory<String, IncomingMessage> consumerFactory() {
+    public ConsumerFactory<String, IncomingMessage> consumerFactory(FormatAwareDeserializer incomingMessageDeserializer,
+                                                                    PipelineTracker pipelineTracker,
+                                                                    ObjectProvider<RecordFilter> recordFilter) {
+        Map<String, Object> config = consumerConfig(pipelineTracker);
+        RecordFilter filter = recordFilter.getIfAvailable();
+        if (filter != null) {
+            return new DefaultKafkaConsumerFactory<>(
+                    config,
+                    filter.keyDeserializer(),
+                    filter.valueDeserializer(new ErrorHandlingDeserializer<>(incomingMessageDeserializer))
+            );
+        }
+        return new DefaultKafkaConsumerFactory<>(
+                config,
+                new StringDeserializer(),
+                new ErrorHandlingDeserializer<>(incomingMessageDeserializer)
+        );
+    }
+
+    private Map<String, Object> consumerConfig(PipelineTracker pipelineTracker) {
         Map<String, Object> config = new HashMap<>();
         config.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
         config.put(ConsumerConfig.GROUP_ID_CONFIG, groupId);
         config.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
         config.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+        config.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, maxPollRecords);
+        config.put(ConsumerConfig.MAX_POLL_INTERVAL_MS_CONFIG, maxPollIntervalMs.intValue());
+
+        ApplicationProperties.Kafka.Rebalance rebalance = applicationProperties.getKafka().getRebalance();
+        config.put(ConsumerConfig.PARTITION_ASSIGNMENT_STRATEGY_CONFIG, rebalance.getAssignmentStrategies().stream()
+                .map(KafkaConsumerConfig::assignor)
+                .toList());
+        config.put(ConsumerConfig.SESSION_TIMEOUT_MS_CONFIG, rebalance.getSessionTimeoutMs());
+        if (!rebalance.getGroupInstanceId().isBlank()) {
+            // The container appends -0, -1, ... so that each listener thread is its own static member
+            config.put(ConsumerConfig.GROUP_INSTANCE_ID_CONFIG, rebalance.getGroupInstanceId());
+        }
         config.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
         config.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, ErrorHandlingDeserializer.class);
         config.put(ErrorHandlingDeserializer.VALUE_DESERIALIZER_CLASS, JsonDeserializer.class.getName());
         config.put(JsonDeserializer.TRUSTED_PACKAGES, "*");
         config.put(JsonDeserializer.TYPE_MAPPINGS, "incomingMessage:com.example.kafka.model.IncomingMessage");
         config.put(JsonDeserializer.VALUE_DEFAULT_TYPE, IncomingMessage.class.getName());
+        config.put(ConsumerConfig.INTERCEPTOR_CLASSES_CONFIG, CommitTrackingInterceptor.class.getName());
+        config.put(CommitTrackingInterceptor.TRACKER_CONFIG, pipelineTracker);
+        return config;
+    }
 
-        return new DefaultKafkaConsumerFactory<>(
-                config,
-                new StringDeserializer(),
-                new ErrorHandlingDeserializer<>(new JsonDeserializer<>(IncomingMessage.class, false))
-        );
+    @Bean
+    public RevocationDrainer revocationDrainer(PipelineTracker pipelineTracker, PipelineMetrics pipelineMetrics,
+                                               MeterRegistry meterRegistry) {
+        return new RevocationDrainer(pipelineTracker, pipelineMetrics,
+                applicationProperties.getKafka().getRebalance().getDrainTimeoutMs(), meterRegistry);
     }
 
     @Bean
-    public ConcurrentKafkaListenerContainerFactory<String, IncomingMessage> kafkaListenerContainerFactory() {
+    @ConditionalOnProperty(prefix = "app.poll-tuning", name = "enabled", havingValue = "true", matchIfMissing = true)
+    public PollTuner pollTuner(ConsumerFactory<String, IncomingMessage> consumerFactory, MeterRegistry meterRegistry) {
+        // Worker lanes ack out of order, so a skipped record would hold back the whole poll
+        return new PollTuner(consumerFactory, applicationProperties.getPollTuning(), maxPollRecords,
+                maxPollIntervalMs, !processesAsynchronously(), meterRegistry);
+    }
+
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, IncomingMessage> kafkaListenerContainerFactory(
+            ConsumerFactory<String, IncomingMessage> consumerFactory,
+            ObjectProvider<PollTuner> pollTuner,
+            RevocationDrainer revocationDrainer,
+            ObjectProvider<RecordFilter> recordFilter) {
         ConcurrentKafkaListenerContainerFactory<String, IncomingMessage> factory =
                 new ConcurrentKafkaListenerContainerFactory<>();
-        factory.setConsumerFactory(consumerFactory());
+        factory.setConsumerFactory(consumerFactory);
         factory.setConcurrency(concurrency);
         factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL);
+        // With warm-up enabled, WarmupRunner starts the containers once the process is warm
+        factory.setAutoStartup(!applicationProperties.getWarmup().isEnabled());
+        // Worker lanes acknowledge out of order; the container commits once gaps are filled
+        factory.getContainerProperties().setAsyncAcks(processesAsynchronously());
+        pollTuner.ifAvailable(factory::setRecordInterceptor);
+        factory.getContainerProperties().setConsumerRebalanceListener(revocationDrainer);
+        recordFilter.ifAvailable(filter -> {
+            // Discarded records are acknowledged here and committed with the rest of the poll
+            factory.setRecordFilterStrategy(filter.strategy());
+            factory.setAckDiscarded(true);
+        });
         return factory;
     }
+
+    @Bean
+    public PipelineContainerFactories pipelineContainerFactories(SchemaRegistry schemaRegistry,
+                                                                 PipelineTracker pipelineTracker) {
+        return new PipelineContainerFactories(consumerConfig(pipelineTracker),
+                metrics -> deserializer(schemaRegistry, metrics),
+                !applicationProperties.getWarmup().isEnabled());
+    }
+
+    /**
+     * Whether records are handed off to worker lanes, priority lanes, the tenant dispatcher or
+     * coalescing windows and acknowledged out of order.
+     */
+    private boolean processesAsynchronously() {
+        return applicationProperties.getWorkers().isEnabled() || applicationProperties.getPriorityLanes().isEnabled()
+                || applicationProperties.getTenancy().isEnabled() || applicationProperties.getCoalescing().isEnabled();
+    }
+
+    private static String assignor(String strategy) {
+        return switch (strategy.trim().toLowerCase(Locale.ROOT)) {
+            case "cooperative-sticky" -> CooperativeStickyAssignor.class.getName();
+            case "sticky" -> StickyAssignor.class.getName();
+            case "range" -> RangeAssignor.class.getName();
+            case "round-robin", "roundrobin" -> RoundRobinAssignor.class.getName();
+            default -> throw new IllegalArgumentException("Unknown partition assignment strategy " + strategy);
+        };
+    }
 }
@@ -1,39 +1,95 @@
 package com.example.kafka.config;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
 import org.apache.kafka.clients.producer.ProducerConfig;
 import org.apache.kafka.common.serialization.StringSerializer;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
 import org.springframework.kafka.core.DefaultKafkaProducerFactory;
 import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.core.MicrometerProducerListener;
 import org.springframework.kafka.core.ProducerFactory;
 import org.springframework.kafka.support.serializer.JsonSerializer;
 
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 
 @Configuration
 public class KafkaProducerConfig {
 
+    static final String DEFAULT_PROFILE = "default";
+
     @Value("${spring.kafka.bootstrap-servers}")
     private String bootstrapServers;
 
+    private final ApplicationProperties applicationProperties;
+    private final MeterRegistry meterRegistry;
+
+    public KafkaProducerConfig(ApplicationProperties applicationProperties, MeterRegistry meterRegistry) {
+        this.applicationProperties = applicationProperties;
+        this.meterRegistry = meterRegistry;
+    }
+
     @Bean
+    @Primary
     public ProducerFactory<String, Object> producerFactory() {
-        Map<String, Object> config = new HashMap<>();
-        config.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
-        config.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
-        config.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, JsonSerializer.class);
+        Map<String, Object> config = baseConfig();
         config.put(ProducerConfig.ACKS_CONFIG, "all");
         config.put(ProducerConfig.RETRIES_CONFIG, 3);
         config.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true);
-        
-        return new DefaultKafkaProducerFactory<>(config);
+
+        return withMetrics(new DefaultKafkaProducerFactory<>(config), DEFAULT_PROFILE);
     }
 
     @Bean
+    @Primary
     public KafkaTemplate<String, Object> kafkaTemplate() {
         return new KafkaTemplate<>(producerFactory());
     }
+
+    /**
+     * Builds one producer factory and template per profile under {@code app.kafka.producer-profiles}.
+     */
+    @Bean(destroyMethod = "destroy")
+    public KafkaProducerProfiles kafkaProducerProfiles() {
+        Map<String, KafkaTemplate<String, Object>> templates = new LinkedHashMap<>();
+        applicationProperties.getKafka().getProducerProfiles().forEach((name, profile) -> {
+            Map<String, Object> config = baseConfig();
+            config.put(ProducerConfig.ACKS_CONFIG, profile.getAcks());
+            config.put(ProducerConfig.RETRIES_CONFIG, profile.getRetries());
+            config.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, profile.isEnableIdempotence());
+            config.put(ProducerConfig.LINGER_MS_CONFIG, profile.getLingerMs());
+            config.put(ProducerConfig.BATCH_SIZE_CONFIG, profile.getBatchSize());
+            config.put(ProducerConfig.COMPRESSION_TYPE_CONFIG, profile.getCompressionType());
+            config.put(ProducerConfig.BUFFER_MEMORY_CONFIG, profile.getBufferMemory());
+            config.put(ProducerConfig.CLIENT_ID_CONFIG, "kafka-rest-bridge-" + name);
+
+            templates.put(name, new KafkaTemplate<>(withMetrics(new DefaultKafkaProducerFactory<>(config), name)));
+        });
+        return new KafkaProducerProfiles(kafkaTemplate(), templates);
+    }
+
+    private Map<String, Object> baseConfig() {
+        Map<String, Object> config = new HashMap<>();
+        config.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        config.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        config.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, JsonSerializer.class);
+        return config;
+    }
+
+    /**
+     * Binds the Kafka client metrics (batch size, record queue time, buffer usage, ...)
+     * of every producer created by the factory to Micrometer, tagged by profile.
+     */
+    private ProducerFactory<String, Object> withMetrics(DefaultKafkaProducerFactory<String, Object> factory,
+                                                       String profile) {
+        factory.addListener(new MicrometerProducerListener<>(meterRegistry,
+                List.of(Tag.of("producer.profile", profile))));
+        return factory;
+    }
 }
@@ -0,0 +1,58 @@
+package com.example.kafka.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Named {@link KafkaTemplate}s, one per producer profile configured under
+ * {@code app.kafka.producer-profiles}.
+ */
+@Slf4j
+public class KafkaProducerProfiles {
+
+    private final KafkaTemplate<String, Object> defaultTemplate;
+    private final Map<String, KafkaTemplate<String, Object>> templates;
+    private final Set<String> missingProfiles = ConcurrentHashMap.newKeySet();
+
+    public KafkaProducerProfiles(KafkaTemplate<String, Object> defaultTemplate,
+                                 Map<String, KafkaTemplate<String, Object>> templates) {
+        this.defaultTemplate = defaultTemplate;
+        this.templates = templates;
+    }
+
+    /**
+     * Returns the template for the given profile.
+     *
+     * @param profile The profile name, may be null
+     * @return The profile's template, or the default template if the profile is not configured
+     */
+    public KafkaTemplate<String, Object> template(String profile) {
+        if (profile == null) {
+            return defaultTemplate;
+        }
+        KafkaTemplate<String, Object> template = templates.get(profile);
+        if (template == null) {
+            if (missingProfiles.add(profile)) {
+                log.warn("Producer profile '{}' is not configured, using the default producer", profile);
+            }
+            return defaultTemplate;
+        }
+        return template;
+    }
+
+    public Set<String> names() {
+        return templates.keySet();
+    }
+
+    public void destroy() {
+        templates.values().stream()
+                .map(KafkaTemplate::getProducerFactory)
+                .filter(DefaultKafkaProducerFactory.class::isInstance)
+                .forEach(factory -> ((DefaultKafkaProducerFactory<?, ?>) factory).destroy());
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.kafka.config;
+
+import com.example.kafka.format.FormatAwareDeserializer;
+import com.example.kafka.metrics.PipelineMetrics;
+import com.example.kafka.model.IncomingMessage;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.ApplicationContextAware;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.listener.ContainerProperties;
+import org.springframework.kafka.support.serializer.ErrorHandlingDeserializer;
+
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Builds the container factory of each named pipeline, which is a bulkhead of its own: the
+ * filter rules, poll tuner and revocation drainer of the default pipeline do not apply to it.
+ * It delivers in order and acknowledges on its listener threads, and has its own consumer
+ * factory and value deserializer, so that the poll tuner's fetch sizes do not reach it and
+ * its deserialize stage is timed under its own name.
+ */
+public class PipelineContainerFactories implements ApplicationContextAware {
+
+    private final Map<String, Object> consumerConfig;
+    private final Function<PipelineMetrics, FormatAwareDeserializer> deserializers;
+    private final boolean autoStartup;
+    private ApplicationContext applicationContext;
+
+    PipelineContainerFactories(Map<String, Object> consumerConfig,
+                               Function<PipelineMetrics, FormatAwareDeserializer> deserializers,
+                               boolean autoStartup) {
+        this.consumerConfig = Map.copyOf(consumerConfig);
+        this.deserializers = deserializers;
+        this.autoStartup = autoStartup;
+    }
+
+    @Override
+    public void setApplicationContext(ApplicationContext applicationContext) {
+        this.applicationContext = applicationContext;
+    }
+
+    /**
+     * @param metrics The pipeline's metrics, which also time its deserialization
+     */
+    public ConcurrentKafkaListenerContainerFactory<String, IncomingMessage> create(PipelineMetrics metrics) {
+        ConcurrentKafkaListenerContainerFactory<String, IncomingMessage> factory =
+                new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(new DefaultKafkaConsumerFactory<>(
+                consumerConfig,
+                new StringDeserializer(),
+                new ErrorHandlingDeserializer<>(deserializers.apply(metrics))
+        ));
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL);
+        // With warm-up enabled, WarmupRunner starts the containers once the process is warm
+        factory.setAutoStartup(autoStartup);
+        if (applicationContext != null) {
+            factory.setApplicationContext(applicationContext);
+            factory.setApplicationEventPublisher(applicationContext);
+        }
+        return factory;
+    }
+}
@@ -0,0 +1,141 @@
+package com.example.kafka.config;
+
+import com.example.kafka.diagnostics.PipelineTracker;
+import com.example.kafka.metrics.PipelineMetrics;
+import com.example.kafka.metrics.ResourceAccounting;
+import com.example.kafka.pipelines.PipelineEndpoint;
+import com.example.kafka.pipelines.PipelineListener;
+import com.example.kafka.service.DeadLetterQueueService;
+import com.example.kafka.service.MessageProcessingService;
+import com.example.kafka.service.RestApiClient;
+import com.example.kafka.service.TransformationService;
+import com.example.kafka.service.ValidationService;
+import com.example.kafka.sink.MessageSink;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.annotation.KafkaListenerConfigurer;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistrar;
+
+import java.util.Map;
+
+/**
+ * Registers a listener endpoint for each enabled entry of {@code app.pipelines}, next to the
+ * default pipeline of {@code app.kafka.topic} and {@code app.rest-api}.
+ *
+ * <p>Each named pipeline is a bulkhead: its own consumer group, listener threads and
+ * deserializer from a container factory of its own ({@link PipelineContainerFactories}), without the default pipeline's filter, poll tuner
+ * or revocation drainer, its own REST template, timeouts and retry, its own JSON schema and
+ * DLQ topic and connection pool, and stage and end-to-end timers tagged with its name. A slow or failing endpoint
+ * only holds up its own pipeline. Settings a pipeline leaves unset are taken from the default
+ * pipeline.
+ */
+@Slf4j
+@Configuration
+public class PipelinesConfig implements KafkaListenerConfigurer {
+
+    private final ApplicationProperties applicationProperties;
+    private final PipelineContainerFactories containerFactories;
+    private final RestTemplateBuilder restTemplateBuilder;
+    private final ValidationService validationService;
+    private final TransformationService transformationService;
+    private final DeadLetterQueueService dlqService;
+    private final MessageSink messageSink;
+    private final PipelineTracker pipelineTracker;
+    private final ResourceAccounting resourceAccounting;
+    private final MeterRegistry meterRegistry;
+    private final String groupId;
+
+    public PipelinesConfig(ApplicationProperties applicationProperties,
+                           PipelineContainerFactories containerFactories,
+                           RestTemplateBuilder restTemplateBuilder,
+                           ValidationService validationService,
+                           TransformationService transformationService,
+                           DeadLetterQueueService dlqService,
+                           MessageSink messageSink,
+                           PipelineTracker pipelineTracker,
+                           ObjectProvider<ResourceAccounting> resourceAccounting,
+                           MeterRegistry meterRegistry,
+                           @Value("${spring.kafka.consumer.group-id}") String groupId) {
+        this.applicationProperties = applicationProperties;
+        this.containerFactories = containerFactories;
+        this.restTemplateBuilder = restTemplateBuilder;
+        this.validationService = validationService;
+        this.transformationService = transformationService;
+        this.dlqService = dlqService;
+        this.messageSink = messageSink;
+        this.pipelineTracker = pipelineTracker;
+        this.resourceAccounting = resourceAccounting.getIfAvailable();
+        this.meterRegistry = meterRegistry;
+        this.groupId = groupId;
+    }
+
+    @Override
+    public void configureKafkaListeners(KafkaListenerEndpointRegistrar registrar) {
+        for (Map.Entry<String, ApplicationProperties.Pipeline> entry : applicationProperties.getPipelines().entrySet()) {
+            String name = entry.getKey();
+            ApplicationProperties.Pipeline pipeline = entry.getValue();
+            if (!pipeline.isEnabled()) {
+                continue;
+            }
+            if (pipeline.getTopics().isEmpty()) {
+                throw new IllegalStateException("Pipeline " + name + " has no topics");
+            }
+            if (PipelineMetrics.DEFAULT_PIPELINE.equals(name)) {
+                throw new IllegalStateException("Pipeline name '" + name + "' is reserved for app.kafka.topic");
+            }
+
+            String pipelineGroupId = pipeline.getGroupId() != null ? pipeline.getGroupId() : groupId + "-" + name;
+            PipelineMetrics metrics = new PipelineMetrics(meterRegistry, resourceAccounting, name);
+            registrar.registerEndpoint(new PipelineEndpoint(name, pipelineGroupId, pipeline.getTopics(),
+                    pipeline.getConcurrency(), listener(name, pipeline, metrics)), containerFactories.create(metrics));
+            log.info("Pipeline {} registered: topics {}, group {}, concurrency {}",
+                    name, pipeline.getTopics(), pipelineGroupId, pipeline.getConcurrency());
+        }
+    }
+
+    private PipelineListener listener(String name, ApplicationProperties.Pipeline pipeline, PipelineMetrics metrics) {
+        ApplicationProperties.RestApi restApi = restApi(applicationProperties.getRestApi(), pipeline.getRestApi());
+        // Dry-run sinks replace every pipeline's endpoint alike
+        MessageSink sink = "rest".equals(applicationProperties.getSink().getMode())
+                ? new RestApiClient(RestClientConfig.restTemplate(restTemplateBuilder, restApi), restApi,
+                        RestClientConfig.retry(name, restApi.getRetry(), meterRegistry, pipelineTracker))
+                : messageSink;
+        ValidationService validation = pipeline.getJsonSchemaPath() != null
+                ? validationService.forSchema(pipeline.getJsonSchemaPath())
+                : validationService;
+
+        return new PipelineListener(validation,
+                new MessageProcessingService(transformationService, sink, metrics),
+                dlqService, metrics, pipelineTracker);
+    }
+
+    /**
+     * The pipeline's endpoint settings, with anything left unset taken from the default's.
+     */
+    static ApplicationProperties.RestApi restApi(ApplicationProperties.RestApi defaults,
+                                                 ApplicationProperties.RestApi own) {
+        ApplicationProperties.RestApi effective = new ApplicationProperties.RestApi();
+        effective.setBaseUrl(own.getBaseUrl() != null ? own.getBaseUrl() : defaults.getBaseUrl());
+        effective.setEndpoint(own.getEndpoint() != null ? own.getEndpoint() : defaults.getEndpoint());
+
+        ApplicationProperties.RestApi.Timeout timeout = new ApplicationProperties.RestApi.Timeout();
+        timeout.setConnect(own.getTimeout().getConnect() > 0
+                ? own.getTimeout().getConnect() : defaults.getTimeout().getConnect());
+        timeout.setRead(own.getTimeout().getRead() > 0 ? own.getTimeout().getRead() : defaults.getTimeout().getRead());
+        effective.setTimeout(timeout);
+
+        ApplicationProperties.RestApi.Pool pool = new ApplicationProperties.RestApi.Pool();
+        pool.setMaxConnections(own.getPool().getMaxConnections() > 0
+                ? own.getPool().getMaxConnections() : defaults.getPool().getMaxConnections());
+        effective.setPool(pool);
+
+        effective.setRetry(own.getRetry().getMaxAttempts() > 0 ? own.getRetry() : defaults.getRetry());
+        effective.setAuth(own.getAuth().isEnabled() || own.getAuth().getType() != null
+                ? own.getAuth() : defaults.getAuth());
+        return effective;
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.kafka.config;
+
+import com.example.kafka.lanes.PriorityLanes;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * With {@code app.priority-lanes.enabled=true}, listener threads hand each record to the
+ * {@link PriorityLanes} lane for its event type instead of processing it themselves.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "app.priority-lanes", name = "enabled", havingValue = "true")
+public class PriorityLanesConfig {
+
+    @Bean(destroyMethod = "close")
+    public PriorityLanes priorityLanes(ApplicationProperties applicationProperties, MeterRegistry meterRegistry) {
+        if (applicationProperties.getWorkers().isEnabled()) {
+            throw new IllegalStateException("app.priority-lanes and app.workers cannot both be enabled");
+        }
+        PriorityLanes lanes = new PriorityLanes(applicationProperties.getPriorityLanes(), meterRegistry);
+        ApplicationProperties.Staleness staleness = applicationProperties.getStaleness();
+        if (staleness.isEnabled() && !staleness.getLane().isBlank()) {
+            // Fail at startup rather than on the first stale record
+            lanes.lane(staleness.getLane());
+        }
+        return lanes;
+    }
+}
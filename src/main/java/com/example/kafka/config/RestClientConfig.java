@@ -1,16 +1,29 @@
 package com.example.kafka.config;
 
+import com.example.kafka.diagnostics.PipelineTracker;
+import com.example.kafka.metrics.PipelineMetrics;
 import io.github.resilience4j.retry.Retry;
 import io.github.resilience4j.retry.RetryConfig;
 import io.github.resilience4j.retry.RetryRegistry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.hc.core5.http.HttpRequest;
+import org.apache.hc.core5.http.HttpResponse;
+import org.apache.hc.core5.http.protocol.HttpContext;
+import org.apache.hc.core5.util.TimeValue;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.impl.DefaultHttpRequestRetryStrategy;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
 import org.springframework.http.client.ClientHttpRequestFactory;
-import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.RestTemplate;
 
-import java.time.Duration;
+import java.util.concurrent.TimeUnit;
 
 @Configuration
 public class RestClientConfig {
@@ -23,36 +36,97 @@ public class RestClientConfig {
 
     @Bean
     public RestTemplate restTemplate(RestTemplateBuilder builder) {
-        return builder
-                .requestFactory(this::clientHttpRequestFactory)
-                .setConnectTimeout(Duration.ofMillis(
-                        applicationProperties.getRestApi().getTimeout().getConnect()))
-                .setReadTimeout(Duration.ofMillis(
-                        applicationProperties.getRestApi().getTimeout().getRead()))
-                .build();
+        return restTemplate(builder, applicationProperties.getRestApi());
     }
 
-    private ClientHttpRequestFactory clientHttpRequestFactory() {
-        SimpleClientHttpRequestFactory factory = new SimpleClientHttpRequestFactory();
-        factory.setConnectTimeout(applicationProperties.getRestApi().getTimeout().getConnect());
-        factory.setReadTimeout(applicationProperties.getRestApi().getTimeout().getRead());
-        return factory;
+    @Bean
+    public Retry restApiRetry(MeterRegistry meterRegistry, PipelineTracker pipelineTracker) {
+        return retry(PipelineMetrics.DEFAULT_PIPELINE, applicationProperties.getRestApi().getRetry(),
+                meterRegistry, pipelineTracker);
     }
 
-    @Bean
-    public Retry restApiRetry() {
-        ApplicationProperties.RestApi.Retry retryConfig = applicationProperties.getRestApi().getRetry();
-        
+    /**
+     * A REST template with its own connect and read timeouts and its own connection pool.
+     */
+    static RestTemplate restTemplate(RestTemplateBuilder builder, ApplicationProperties.RestApi restApi) {
+        return builder
+                .requestFactory(() -> clientHttpRequestFactory(restApi.getTimeout(), restApi.getPool()))
+                .build();
+    }
+
+    /**
+     * The REST retry policy of one pipeline, counting retried attempts under its tag.
+     */
+    static Retry retry(String pipeline, ApplicationProperties.RestApi.Retry retryConfig,
+                       MeterRegistry meterRegistry, PipelineTracker pipelineTracker) {
         RetryConfig config = RetryConfig.custom()
                 .maxAttempts(retryConfig.getMaxAttempts())
-                .waitDuration(Duration.ofMillis(retryConfig.getInitialInterval()))
                 .intervalFunction(io.github.resilience4j.core.IntervalFunction
                         .ofExponentialBackoff(
                                 retryConfig.getInitialInterval(),
                                 retryConfig.getMultiplier()))
+                // A 4xx will not succeed on a second attempt
+                .ignoreExceptions(HttpClientErrorException.class)
                 .build();
 
         RetryRegistry registry = RetryRegistry.of(config);
-        return registry.retry("restApiRetry");
+        Retry retry = registry.retry(PipelineMetrics.DEFAULT_PIPELINE.equals(pipeline)
+                ? "restApiRetry" : "restApiRetry-" + pipeline);
+
+        // Count individual retry attempts; the HTTP stage timer covers the whole retried call
+        Counter attempts = Counter.builder("pipeline.http.retries")
+                .description("REST API call attempts that were retried")
+                .tag("pipeline", pipeline)
+                .register(meterRegistry);
+        // Retry events are published on the listener thread, so the tracker can attribute them
+        retry.getEventPublisher().onRetry(event -> {
+            attempts.increment();
+            pipelineTracker.attempt(event.getNumberOfRetryAttempts() + 1);
+        });
+        return retry;
+    }
+
+    /**
+     * Pooled connections to the endpoint, so calls reuse keep-alive connections and a
+     * pipeline holds no more connections than its pool allows.
+     */
+    static ClientHttpRequestFactory clientHttpRequestFactory(ApplicationProperties.RestApi.Timeout timeout,
+                                                             ApplicationProperties.RestApi.Pool pool) {
+        PoolingHttpClientConnectionManagerBuilder connections = PoolingHttpClientConnectionManagerBuilder.create()
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(timeout.getConnect(), TimeUnit.MILLISECONDS)
+                        .setSocketTimeout(timeout.getRead(), TimeUnit.MILLISECONDS)
+                        .build());
+        if (pool.getMaxConnections() > 0) {
+            // One endpoint per pipeline, so the whole pool may go to its route
+            connections.setMaxConnTotal(pool.getMaxConnections())
+                    .setMaxConnPerRoute(pool.getMaxConnections());
+        }
+        return new HttpComponentsClientHttpRequestFactory(HttpClients.custom()
+                .setConnectionManager(connections.build())
+                .setRetryStrategy(new StaleConnectionRetryStrategy())
+                .build());
+    }
+
+    /**
+     * Resends a request once when a pooled connection turns out to have been closed by the
+     * endpoint, as {@code HttpURLConnection} did before the pool. Everything else, including
+     * 503 and 429 responses, is left to the pipeline's {@link Retry}.
+     */
+    private static class StaleConnectionRetryStrategy extends DefaultHttpRequestRetryStrategy {
+
+        StaleConnectionRetryStrategy() {
+            super(1, TimeValue.ZERO_MILLISECONDS);
+        }
+
+        @Override
+        protected boolean handleAsIdempotent(HttpRequest request) {
+            return true;
+        }
+
+        @Override
+        public boolean retryRequest(HttpResponse response, int execCount, HttpContext context) {
+            return false;
+        }
     }
 }
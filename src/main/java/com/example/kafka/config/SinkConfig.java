@@ -0,0 +1,41 @@
+package com.example.kafka.config;
+
+import com.example.kafka.service.RestApiClient;
+import com.example.kafka.sink.FixedLatencySink;
+import com.example.kafka.sink.MessageSink;
+import com.example.kafka.sink.NullSink;
+import com.example.kafka.sink.RecordingSink;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+import java.time.Duration;
+
+/**
+ * Selects the {@link MessageSink} from {@code app.sink.mode}. Anything other than
+ * {@code rest} is a dry run: consumption, validation, transformation, acks and metrics stay
+ * real, only the HTTP call is replaced.
+ */
+@Slf4j
+@Configuration
+public class SinkConfig {
+
+    @Bean
+    @Primary
+    public MessageSink messageSink(ApplicationProperties applicationProperties, RestApiClient restApiClient) {
+        ApplicationProperties.Sink sink = applicationProperties.getSink();
+        MessageSink messageSink = switch (sink.getMode()) {
+            case "rest" -> restApiClient;
+            case "null" -> new NullSink();
+            case "fixed-latency" -> new FixedLatencySink(Duration.ofMillis(sink.getFixedLatencyMs()));
+            case "recording" -> new RecordingSink(sink.getRecordingCapacity());
+            default -> throw new IllegalStateException("Unknown app.sink.mode '" + sink.getMode()
+                    + "', expected rest, null, fixed-latency or recording");
+        };
+        if (messageSink != restApiClient) {
+            log.warn("Dry run: messages go to the {} sink instead of the REST API", sink.getMode());
+        }
+        return messageSink;
+    }
+}
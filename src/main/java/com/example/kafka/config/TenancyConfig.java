@@ -0,0 +1,24 @@
+package com.example.kafka.config;
+
+import com.example.kafka.tenancy.TenantDispatcher;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * With {@code app.tenancy.enabled=true}, listener threads queue records per tenant and a
+ * {@link TenantDispatcher} serves the tenants fairly into delivery.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "app.tenancy", name = "enabled", havingValue = "true")
+public class TenancyConfig {
+
+    @Bean(initMethod = "start", destroyMethod = "close")
+    public TenantDispatcher tenantDispatcher(ApplicationProperties applicationProperties, MeterRegistry meterRegistry) {
+        if (applicationProperties.getWorkers().isEnabled() || applicationProperties.getPriorityLanes().isEnabled()) {
+            throw new IllegalStateException("app.tenancy cannot be enabled together with app.workers or app.priority-lanes");
+        }
+        return new TenantDispatcher(applicationProperties.getTenancy(), meterRegistry);
+    }
+}
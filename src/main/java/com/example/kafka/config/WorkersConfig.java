@@ -0,0 +1,45 @@
+package com.example.kafka.config;
+
+import com.example.kafka.workers.ConcurrencyController;
+import com.example.kafka.workers.ProcessingWorkerPool;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+
+/**
+ * Decouples processing from the fixed set of consumer threads: with
+ * {@code app.workers.enabled=true}, listener threads hand records to a
+ * {@link ProcessingWorkerPool} whose size a {@link ConcurrencyController} adjusts at runtime,
+ * without touching group membership.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "app.workers", name = "enabled", havingValue = "true")
+public class WorkersConfig {
+
+    @Bean(destroyMethod = "close")
+    public ProcessingWorkerPool processingWorkerPool(ApplicationProperties applicationProperties,
+                                                     MeterRegistry meterRegistry) {
+        ApplicationProperties.Workers workers = applicationProperties.getWorkers();
+        return new ProcessingWorkerPool(workers.getInitialWorkers(), workers.getMaxWorkers(),
+                workers.getMaxInFlight(), meterRegistry);
+    }
+
+    /**
+     * With out-of-order acks the container stops polling until the previous poll is fully
+     * acknowledged, so at most {@code concurrency x max.poll.records} records are ever
+     * outstanding; that bounds the useful number of workers.
+     */
+    @Bean(initMethod = "start", destroyMethod = "close")
+    public ConcurrencyController concurrencyController(ProcessingWorkerPool processingWorkerPool,
+                                                       KafkaListenerEndpointRegistry listenerRegistry,
+                                                       ApplicationProperties applicationProperties,
+                                                       MeterRegistry meterRegistry,
+                                                       @Value("${spring.kafka.listener.concurrency:3}") int concurrency,
+                                                       @Value("${spring.kafka.consumer.max-poll-records:500}") int maxPollRecords) {
+        return new ConcurrencyController(processingWorkerPool, listenerRegistry, applicationProperties.getWorkers(),
+                concurrency * maxPollRecords, meterRegistry);
+    }
+}
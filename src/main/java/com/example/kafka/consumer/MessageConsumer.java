@@ -1,13 +1,28 @@
 package com.example.kafka.consumer;
 
+import com.example.kafka.coalescing.Coalescer;
+import com.example.kafka.coalescing.CustomerStateMerger;
 import com.example.kafka.config.ApplicationProperties;
-import com.example.kafka.exception.ValidationException;
+import com.example.kafka.diagnostics.PipelineTracker;
+import com.example.kafka.exception.StaleRecordException;
+import com.example.kafka.lanes.PriorityLane;
+import com.example.kafka.lanes.PriorityLanes;
+import com.example.kafka.logging.LogBudget;
+import com.example.kafka.metrics.PipelineMetrics;
 import com.example.kafka.model.IncomingMessage;
+import com.example.kafka.rebalance.RevocationDrainer;
 import com.example.kafka.service.DeadLetterQueueService;
 import com.example.kafka.service.MessageProcessingService;
 import com.example.kafka.service.ValidationService;
+import com.example.kafka.staleness.StaleRecordRouter;
+import com.example.kafka.staleness.StalenessPolicy;
+import com.example.kafka.tenancy.TenantDispatcher;
+import com.example.kafka.workers.ProcessingWorkerPool;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.kafka.support.Acknowledgment;
 import org.springframework.kafka.support.KafkaHeaders;
@@ -15,6 +30,9 @@ import org.springframework.messaging.handler.annotation.Header;
 import org.springframework.messaging.handler.annotation.Payload;
 import org.springframework.stereotype.Component;
 
+import java.util.Locale;
+import java.util.function.BinaryOperator;
+
 /**
  * Kafka consumer that listens to incoming messages, validates them,
  * transforms them, and forwards to REST API with error handling.
@@ -23,19 +41,38 @@ import org.springframework.stereotype.Component;
 @Component
 public class MessageConsumer {
 
-    private final ValidationService validationService;
-    private final MessageProcessingService processingService;
-    private final DeadLetterQueueService dlqService;
+    private final RecordProcessor processor;
     private final ApplicationProperties properties;
+    private final LogBudget logBudget;
+    private final ProcessingWorkerPool workerPool;
+    private final PriorityLanes priorityLanes;
+    private final TenantDispatcher tenantDispatcher;
+    private final RevocationDrainer drainer;
+    private final StaleRecordRouter staleRecordRouter;
+    private final Coalescer<Held> coalescer;
 
     public MessageConsumer(ValidationService validationService,
                           MessageProcessingService processingService,
                           DeadLetterQueueService dlqService,
-                          ApplicationProperties properties) {
-        this.validationService = validationService;
-        this.processingService = processingService;
-        this.dlqService = dlqService;
+                          ApplicationProperties properties,
+                          PipelineMetrics metrics,
+                          LogBudget logBudget,
+                          PipelineTracker tracker,
+                          ObjectProvider<ProcessingWorkerPool> workerPool,
+                          ObjectProvider<PriorityLanes> priorityLanes,
+                          ObjectProvider<TenantDispatcher> tenantDispatcher,
+                          RevocationDrainer drainer,
+                          ObjectProvider<StaleRecordRouter> staleRecordRouter,
+                          MeterRegistry meterRegistry) {
+        this.processor = new RecordProcessor(validationService, processingService, dlqService, metrics, tracker);
         this.properties = properties;
+        this.logBudget = logBudget;
+        this.workerPool = workerPool.getIfAvailable();
+        this.priorityLanes = priorityLanes.getIfAvailable();
+        this.tenantDispatcher = tenantDispatcher.getIfAvailable();
+        this.drainer = drainer;
+        this.staleRecordRouter = staleRecordRouter.getIfAvailable();
+        this.coalescer = properties.getCoalescing().isEnabled() ? coalescer(properties.getCoalescing(), meterRegistry) : null;
     }
 
     @KafkaListener(
@@ -48,55 +85,203 @@ public class MessageConsumer {
                        @Header(KafkaHeaders.RECEIVED_TOPIC) String topic,
                        @Header(KafkaHeaders.RECEIVED_PARTITION) int partition,
                        @Header(KafkaHeaders.OFFSET) long offset,
-                       Acknowledgment acknowledgment) {
+                       Acknowledgment acknowledgment) throws InterruptedException {
 
-        log.info("Received message from topic: {}, partition: {}, offset: {}, messageId: {}",
-                topic, partition, offset, message != null ? message.getMessageId() : "null");
+        RevocationDrainer.Ticket ticket = drainer.dispatch(topic, partition, offset);
+        // Once the partition has been handed over, a late ack could move the new owner's offset
+        Acknowledgment guarded = () -> {
+            if (drainer.owned(ticket)) {
+                acknowledgment.acknowledge();
+            }
+        };
+        if (priorityLanes != null) {
+            lane(message, record).submit(record.key(),
+                    () -> deliver(ticket, message, record, topic, partition, offset, guarded));
+            return;
+        }
+        if (tenantDispatcher != null) {
+            tenantDispatcher.submit(tenantDispatcher.tenantOf(message), record.key(),
+                    () -> deliver(ticket, message, record, topic, partition, offset, guarded));
+            return;
+        }
+        if (workerPool == null) {
+            deliver(ticket, message, record, topic, partition, offset, guarded);
+            return;
+        }
+        // Same key, same lane: per-key order is kept while the record is acknowledged out of order
+        workerPool.submit(record.key(), () -> deliver(ticket, message, record, topic, partition, offset, guarded));
+    }
+
+    private PriorityLane lane(IncomingMessage message, ConsumerRecord<String, IncomingMessage> record) {
+        if (message == null) {
+            return priorityLanes.laneFor(null);
+        }
+        String staleLane = staleRecordRouter != null ? staleRecordRouter.lane(record, message) : null;
+        return staleLane != null ? priorityLanes.lane(staleLane) : priorityLanes.laneFor(message.getEventType());
+    }
 
+    private void deliver(RevocationDrainer.Ticket ticket,
+                         IncomingMessage message,
+                         ConsumerRecord<String, IncomingMessage> record,
+                         String topic,
+                         int partition,
+                         long offset,
+                         Acknowledgment acknowledgment) {
+        if (!drainer.begin(ticket)) {
+            // Revoked while queued; the new owner delivers it
+            return;
+        }
+        boolean held = false;
         try {
-            // Step 1: Validate the message
-            if (message == null) {
-                throw new ValidationException("Received null message");
+            held = process(message, record, topic, partition, offset, acknowledgment, ticket);
+        } finally {
+            // A held record is complete once its coalescing window is flushed
+            if (!held) {
+                drainer.complete(ticket);
             }
+        }
+    }
 
-            validationService.validate(message);
-            log.debug("Message validation successful for messageId: {}", message.getMessageId());
+    /**
+     * Runs one record through validation, transformation and delivery, or the DLQ, and
+     * acknowledges it. Returns once the record is complete; it is never held for coalescing.
+     */
+    public void process(IncomingMessage message,
+                        ConsumerRecord<String, IncomingMessage> record,
+                        String topic,
+                        int partition,
+                        long offset,
+                        Acknowledgment acknowledgment) {
+        process(message, record, topic, partition, offset, acknowledgment, null);
+    }
 
-            // Step 2: Process (transform and send to REST API)
-            processingService.processMessage(message);
-            log.info("Message processed successfully. MessageId: {}", message.getMessageId());
+    /**
+     * @param ticket The record's drain ticket, or null if the record must be complete on return
+     * @return true if the record is held for coalescing; its ticket is completed when it is flushed
+     */
+    private boolean process(IncomingMessage message,
+                            ConsumerRecord<String, IncomingMessage> record,
+                            String topic,
+                            int partition,
+                            long offset,
+                            Acknowledgment acknowledgment,
+                            RevocationDrainer.Ticket ticket) {
 
-            // Step 3: Commit offset
-            acknowledgment.acknowledge();
-            log.debug("Message acknowledged. Offset: {}", offset);
+        log.debug("Received message from topic: {}, partition: {}, offset: {}, messageId: {}",
+                topic, partition, offset, message != null ? message.getMessageId() : "null");
+
+        return processor.run(record, message, acknowledgment, () -> {
+            if (staleRecordRouter != null && message != null && shedStale(message, record, acknowledgment)) {
+                return false;
+            }
 
-        } catch (ValidationException e) {
-            log.error("Validation failed for message at offset {}: {}", offset, e.getMessage());
-            handleFailure(record, e, acknowledgment);
+            // Step 1: Validate the message
+            processor.validate(message);
 
-        } catch (Exception e) {
-            log.error("Error processing message at offset {}: {}", offset, e.getMessage(), e);
-            handleFailure(record, e, acknowledgment);
+            String customerId = message.getPayload() != null ? message.getPayload().getCustomerId() : null;
+            if (coalescer != null && ticket != null && customerId != null) {
+                // Sent and acknowledged when the customer's window closes
+                coalescer.offer(customerId, new Held(message, record, acknowledgment, ticket));
+                return true;
+            }
+
+            // Step 2: Process (transform and send to REST API) and commit offset
+            processor.deliver(record, message, acknowledgment);
+
+            long processed = logBudget.sampleSuccess();
+            if (processed > 0) {
+                log.info("Message processed successfully. MessageId: {}, Partition: {}, Offset: {} "
+                        + "({} successes since last logged)", message.getMessageId(), partition, offset, processed);
+            }
+            return false;
+        });
+    }
+
+    /**
+     * Applies the staleness policy before validation.
+     *
+     * @return true if the record was republished for catch-up or dead-lettered as stale
+     */
+    private boolean shedStale(IncomingMessage message,
+                              ConsumerRecord<String, IncomingMessage> record,
+                              Acknowledgment acknowledgment) throws Exception {
+        StalenessPolicy.Action action = staleRecordRouter.route(record, message);
+        if (action == StalenessPolicy.Action.CATCH_UP) {
+            processor.acknowledge(record, acknowledgment, "catch-up");
+            return true;
+        }
+        if (action == StalenessPolicy.Action.DLQ) {
+            processor.handleFailure(record, new StaleRecordException(String.format(
+                    "Record is %dms old, TTL is %dms for eventType %s",
+                    System.currentTimeMillis() - record.timestamp(),
+                    staleRecordRouter.ttl(message.getEventType()), message.getEventType())), acknowledgment);
+            return true;
         }
+        return false;
     }
 
-    private void handleFailure(ConsumerRecord<String, IncomingMessage> record,
-                              Exception exception,
-                              Acknowledgment acknowledgment) {
+    /**
+     * Sends the latest, or merged, state of a customer and acknowledges every record it
+     * replaced along with its own. On failure that state, not just the newest record, goes
+     * to the DLQ, since it is all that is left of the superseded records.
+     */
+    private void flushCoalesced(Coalescer.Batch<Held> batch) {
+        Held latest = batch.latest();
+        ConsumerRecord<String, IncomingMessage> record = withValue(latest.record(), latest.message());
         try {
-            // Send to DLQ
-            dlqService.sendToDlq(record, exception, 0);
-
-            // Acknowledge the message to prevent reprocessing
-            acknowledgment.acknowledge();
-            log.info("Message sent to DLQ and acknowledged. Topic: {}, Partition: {}, Offset: {}",
-                    record.topic(), record.partition(), record.offset());
-
-        } catch (Exception e) {
-            log.error("Critical error handling failure for offset {}: {}",
-                    record.offset(), e.getMessage(), e);
-            // Still acknowledge to prevent blocking
-            acknowledgment.acknowledge();
+            processor.resume(record, latest.message(), latest.acknowledgment(), () -> {
+                try {
+                    processor.deliver(record, latest.message(), latest.acknowledgment());
+                } finally {
+                    for (Held superseded : batch.superseded()) {
+                        processor.acknowledgeSuperseded(superseded.record(), superseded.message(),
+                                superseded.acknowledgment());
+                    }
+                }
+                return false;
+            });
+        } finally {
+            for (Held superseded : batch.superseded()) {
+                drainer.complete(superseded.ticket());
+            }
+            drainer.complete(latest.ticket());
+        }
+    }
+
+    private static ConsumerRecord<String, IncomingMessage> withValue(ConsumerRecord<String, IncomingMessage> record,
+                                                                     IncomingMessage value) {
+        if (record.value() == value) {
+            return record;
         }
+        return new ConsumerRecord<>(record.topic(), record.partition(), record.offset(), record.timestamp(),
+                record.timestampType(), record.serializedKeySize(), record.serializedValueSize(), record.key(),
+                value, record.headers(), record.leaderEpoch());
+    }
+
+    private Coalescer<Held> coalescer(ApplicationProperties.Coalescing config, MeterRegistry meterRegistry) {
+        BinaryOperator<Held> merge = switch (config.getMode().trim().toLowerCase(Locale.ROOT)) {
+            case "latest" -> (older, newer) -> newer;
+            case "merge" -> (older, newer) -> new Held(CustomerStateMerger.merge(older.message(), newer.message()),
+                    newer.record(), newer.acknowledgment(), newer.ticket());
+            default -> throw new IllegalArgumentException("Unknown coalescing mode " + config.getMode());
+        };
+        return new Coalescer<>(config.getWindowMs(), config.getMaxKeys(), config.getMaxPerKey(), config.getWorkers(),
+                merge, this::flushCoalesced, meterRegistry);
+    }
+
+    @PreDestroy
+    public void close() {
+        if (coalescer != null) {
+            coalescer.close();
+        }
+    }
+
+    /**
+     * A validated record waiting in a coalescing window.
+     */
+    private record Held(IncomingMessage message,
+                        ConsumerRecord<String, IncomingMessage> record,
+                        Acknowledgment acknowledgment,
+                        RevocationDrainer.Ticket ticket) {
     }
 }
@@ -0,0 +1,218 @@
+package com.example.kafka.consumer;
+
+import com.example.kafka.diagnostics.PipelineTracker;
+import com.example.kafka.exception.ValidationException;
+import com.example.kafka.jfr.DlqSendEvent;
+import com.example.kafka.jfr.RecordContext;
+import com.example.kafka.jfr.ValidationEvent;
+import com.example.kafka.metrics.PipelineMetrics;
+import com.example.kafka.model.IncomingMessage;
+import com.example.kafka.service.DeadLetterQueueService;
+import com.example.kafka.service.MessageProcessingService;
+import com.example.kafka.service.ValidationService;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.kafka.support.Acknowledgment;
+
+/**
+ * The validate, deliver or dead-letter, and acknowledge flow of one pipeline, shared by the
+ * default pipeline's {@link MessageConsumer} and the named pipelines' listeners.
+ */
+@Slf4j
+public class RecordProcessor {
+
+    /**
+     * What happens to a record between setting up its context and acknowledging it.
+     */
+    @FunctionalInterface
+    public interface Steps {
+
+        /**
+         * @return true if the record is held and completed later, on another thread
+         */
+        boolean run() throws Exception;
+    }
+
+    private final ValidationService validationService;
+    private final MessageProcessingService processingService;
+    private final DeadLetterQueueService dlqService;
+    private final PipelineMetrics metrics;
+    private final PipelineTracker tracker;
+
+    public RecordProcessor(ValidationService validationService,
+                           MessageProcessingService processingService,
+                           DeadLetterQueueService dlqService,
+                           PipelineMetrics metrics,
+                           PipelineTracker tracker) {
+        this.validationService = validationService;
+        this.processingService = processingService;
+        this.dlqService = dlqService;
+        this.metrics = metrics;
+        this.tracker = tracker;
+    }
+
+    /**
+     * Validates and delivers a record, or sends it to the DLQ, and acknowledges it.
+     */
+    public void process(ConsumerRecord<String, IncomingMessage> record, Acknowledgment acknowledgment) {
+        run(record, record.value(), acknowledgment, () -> {
+            validate(record.value());
+            deliver(record, record.value(), acknowledgment);
+            return false;
+        });
+    }
+
+    /**
+     * Runs {@code steps} for a record with its JFR context, in-flight tracking and resource
+     * accounting set up; if they throw, the record goes to the DLQ and is acknowledged.
+     *
+     * @param message The message to process, which may differ from the record's value
+     * @return true if the steps hold the record
+     */
+    public boolean run(ConsumerRecord<String, IncomingMessage> record,
+                       IncomingMessage message,
+                       Acknowledgment acknowledgment,
+                       Steps steps) {
+        return run(record, message, acknowledgment, steps, false);
+    }
+
+    /**
+     * Like {@link #run}, for a record that an earlier run held; it stays in flight from when
+     * it was first received.
+     */
+    public void resume(ConsumerRecord<String, IncomingMessage> record,
+                       IncomingMessage message,
+                       Acknowledgment acknowledgment,
+                       Steps steps) {
+        run(record, message, acknowledgment, steps, true);
+    }
+
+    private boolean run(ConsumerRecord<String, IncomingMessage> record,
+                        IncomingMessage message,
+                        Acknowledgment acknowledgment,
+                        Steps steps,
+                        boolean resumed) {
+        String messageId = message != null ? message.getMessageId() : null;
+        RecordContext.set(record.topic(), record.partition(), record.offset(), messageId);
+        if (resumed) {
+            tracker.resume(record.topic(), record.partition(), record.offset(), messageId);
+        } else {
+            tracker.begin(record.topic(), record.partition(), record.offset(), messageId);
+        }
+        metrics.beginMessage();
+        boolean held = false;
+        try {
+            held = steps.run();
+            return held;
+
+        } catch (ValidationException e) {
+            log.error("Validation failed for message at {}-{}@{} in pipeline {}: {}",
+                    record.topic(), record.partition(), record.offset(), metrics.pipeline(), e.getMessage());
+            handleFailure(record, e, acknowledgment);
+
+        } catch (Exception e) {
+            log.error("Error processing message at {}-{}@{} in pipeline {}: {}",
+                    record.topic(), record.partition(), record.offset(), metrics.pipeline(), e.getMessage(), e);
+            handleFailure(record, e, acknowledgment);
+
+        } finally {
+            if (held) {
+                // Completed by whoever flushes it, so it stays visible as in flight meanwhile
+                tracker.release();
+            } else {
+                tracker.abandon(record.topic(), record.partition(), record.offset());
+            }
+            RecordContext.clear();
+        }
+        return false;
+    }
+
+    public void validate(IncomingMessage message) throws ValidationException {
+        if (message == null) {
+            throw new ValidationException("Received null message");
+        }
+
+        long start = System.nanoTime();
+        ValidationEvent event = new ValidationEvent();
+        event.begin();
+        String outcome = "failure";
+        try {
+            validationService.validate(message);
+            outcome = "success";
+        } finally {
+            metrics.recordStage(PipelineMetrics.Stage.VALIDATE, outcome, start);
+            event.finish(outcome);
+        }
+        log.debug("Message validation successful for messageId: {}", message.getMessageId());
+    }
+
+    /**
+     * Transforms and sends a message to the endpoint and acknowledges its record.
+     */
+    public void deliver(ConsumerRecord<String, IncomingMessage> record,
+                        IncomingMessage message,
+                        Acknowledgment acknowledgment) throws Exception {
+        processingService.processMessage(message);
+        acknowledge(record, acknowledgment, "delivered");
+    }
+
+    /**
+     * Sends a record to the DLQ and acknowledges it. It is acknowledged even if the DLQ send
+     * fails, so one bad record does not block the partition.
+     */
+    public void handleFailure(ConsumerRecord<String, IncomingMessage> record,
+                              Exception exception,
+                              Acknowledgment acknowledgment) {
+        try {
+            long start = System.nanoTime();
+            DlqSendEvent event = new DlqSendEvent();
+            event.begin();
+            String outcome = "failure";
+            try {
+                dlqService.sendToDlq(record, exception, 0);
+                outcome = "success";
+            } finally {
+                metrics.recordStage(PipelineMetrics.Stage.DLQ, outcome, start);
+                event.finish(outcome);
+            }
+            log.info("Message sent to DLQ and acknowledged. Topic: {}, Partition: {}, Offset: {}",
+                    record.topic(), record.partition(), record.offset());
+
+        } catch (Exception e) {
+            log.error("Critical error handling failure for offset {}: {}",
+                    record.offset(), e.getMessage(), e);
+        }
+        acknowledge(record, acknowledgment, "dlq");
+    }
+
+    /**
+     * Acknowledges a record that {@link #run} began on this thread and ends its accounting.
+     */
+    public void acknowledge(ConsumerRecord<String, IncomingMessage> record,
+                            Acknowledgment acknowledgment,
+                            String outcome) {
+        long start = System.nanoTime();
+        acknowledgment.acknowledge();
+        metrics.recordStage(PipelineMetrics.Stage.ACK, "success", start);
+        tracker.complete(record.topic(), record.partition(), record.offset(), outcome);
+        metrics.endMessage();
+
+        IncomingMessage message = record.value();
+        metrics.recordEndToEnd(record.timestamp(), record.partition(),
+                message != null ? message.getEventType() : null, outcome);
+    }
+
+    /**
+     * Acknowledges a record superseded by a coalesced one. Its acknowledgment is part of the
+     * coalesced record's, which is accounted as the message, so only its completion and
+     * end-to-end latency are recorded.
+     */
+    public void acknowledgeSuperseded(ConsumerRecord<String, IncomingMessage> record,
+                                      IncomingMessage message,
+                                      Acknowledgment acknowledgment) {
+        acknowledgment.acknowledge();
+        tracker.complete(record.topic(), record.partition(), record.offset(), "coalesced");
+        metrics.recordEndToEnd(record.timestamp(), record.partition(),
+                message != null ? message.getEventType() : null, "coalesced");
+    }
+}
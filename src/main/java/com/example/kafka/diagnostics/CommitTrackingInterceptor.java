@@ -0,0 +1,44 @@
+package com.example.kafka.diagnostics;
+
+import org.apache.kafka.clients.consumer.ConsumerInterceptor;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.TopicPartition;
+
+import java.util.Map;
+
+/**
+ * Consumer interceptor that reports committed offsets to the {@link PipelineTracker}.
+ * Kafka instantiates interceptors itself, so the tracker is passed in through the
+ * consumer configs under {@link #TRACKER_CONFIG}.
+ */
+public class CommitTrackingInterceptor implements ConsumerInterceptor<Object, Object> {
+
+    public static final String TRACKER_CONFIG = "pipeline.tracker";
+
+    private PipelineTracker tracker;
+
+    @Override
+    public void configure(Map<String, ?> configs) {
+        Object configured = configs.get(TRACKER_CONFIG);
+        if (configured instanceof PipelineTracker pipelineTracker) {
+            this.tracker = pipelineTracker;
+        }
+    }
+
+    @Override
+    public ConsumerRecords<Object, Object> onConsume(ConsumerRecords<Object, Object> records) {
+        return records;
+    }
+
+    @Override
+    public void onCommit(Map<TopicPartition, OffsetAndMetadata> offsets) {
+        if (tracker != null) {
+            tracker.onCommit(offsets);
+        }
+    }
+
+    @Override
+    public void close() {
+    }
+}
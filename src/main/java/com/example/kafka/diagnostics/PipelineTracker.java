@@ -0,0 +1,199 @@
+package com.example.kafka.diagnostics;
+
+import com.example.kafka.config.ApplicationProperties;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-memory view of what the pipeline is doing right now: records in flight per
+ * partition, the last completed and committed offsets, and the slowest recent deliveries.
+ *
+ * <p>The listener threads only touch concurrent maps, atomics and adders; the diagnostics
+ * endpoint reads the same structures without taking any lock.
+ */
+@Component
+public class PipelineTracker {
+
+    private final Map<TopicPartition, PartitionState> partitions = new ConcurrentHashMap<>();
+    private final ThreadLocal<InFlight> current = new ThreadLocal<>();
+    private final SlowestDeliveries slowest;
+
+    public PipelineTracker(ApplicationProperties properties) {
+        ApplicationProperties.Diagnostics diagnostics = properties.getDiagnostics();
+        this.slowest = new SlowestDeliveries(diagnostics.getSlowestSize(),
+                TimeUnit.SECONDS.toMillis(diagnostics.getSlowestWindowSeconds()));
+    }
+
+    /**
+     * Marks a record as in flight on the calling thread.
+     */
+    public void begin(String topic, int partition, long offset, String messageId) {
+        InFlight inFlight = new InFlight(messageId, offset, System.nanoTime(), System.currentTimeMillis());
+        state(topic, partition).inFlight.put(offset, inFlight);
+        current.set(inFlight);
+    }
+
+    /**
+     * Marks a record that {@link #release} left in flight as in flight on the calling thread,
+     * keeping the time it was first received.
+     */
+    public void resume(String topic, int partition, long offset, String messageId) {
+        InFlight inFlight = state(topic, partition).inFlight.get(offset);
+        if (inFlight == null) {
+            begin(topic, partition, offset, messageId);
+            return;
+        }
+        current.set(inFlight);
+    }
+
+    /**
+     * Leaves the record in flight but no longer on the calling thread, e.g. because it is
+     * held and completed later on another thread.
+     */
+    public void release() {
+        current.remove();
+    }
+
+    /**
+     * Records the REST attempt number of the record in flight on the calling thread.
+     */
+    public void attempt(int attempt) {
+        InFlight inFlight = current.get();
+        if (inFlight != null) {
+            inFlight.attempt = attempt;
+        }
+    }
+
+    /**
+     * Marks a record as completed, either delivered or sent to the DLQ.
+     */
+    public void complete(String topic, int partition, long offset, String outcome) {
+        current.remove();
+        PartitionState state = state(topic, partition);
+        InFlight inFlight = state.inFlight.remove(offset);
+        state.lastCompletedOffset.accumulateAndGet(offset, Math::max);
+        state.completed.increment();
+
+        if (inFlight != null) {
+            long now = System.currentTimeMillis();
+            slowest.record(new SlowestDeliveries.Delivery(topic, partition, offset, inFlight.messageId,
+                    System.nanoTime() - inFlight.startNanos, outcome, now));
+        }
+    }
+
+    /**
+     * Forgets a record that left the listener without completing, e.g. because of an
+     * unexpected error after which the container will redeliver it.
+     */
+    public void abandon(String topic, int partition, long offset) {
+        if (current.get() != null) {
+            current.remove();
+            state(topic, partition).inFlight.remove(offset);
+        }
+    }
+
+    /**
+     * Called with the offsets the consumer has just committed.
+     */
+    public void onCommit(Map<TopicPartition, OffsetAndMetadata> offsets) {
+        offsets.forEach((topicPartition, offset) -> partitions
+                .computeIfAbsent(topicPartition, key -> new PartitionState())
+                .lastCommittedOffset.set(offset.offset()));
+    }
+
+    /**
+     * The last offset committed for a partition, i.e. the next one to consume, or -1 if none
+     * has been committed by this process.
+     */
+    public long committedOffset(String topic, int partition) {
+        PartitionState state = partitions.get(new TopicPartition(topic, partition));
+        return state != null ? state.lastCommittedOffset.get() : -1;
+    }
+
+    public Snapshot snapshot() {
+        long nowNanos = System.nanoTime();
+        List<PartitionSnapshot> partitionSnapshots = new ArrayList<>(partitions.size());
+        int inRetry = 0;
+
+        for (Map.Entry<TopicPartition, PartitionState> entry : partitions.entrySet()) {
+            PartitionState state = entry.getValue();
+            List<InFlightSnapshot> inFlight = new ArrayList<>();
+            for (InFlight record : state.inFlight.values()) {
+                inFlight.add(new InFlightSnapshot(record.offset, record.messageId,
+                        TimeUnit.NANOSECONDS.toMillis(nowNanos - record.startNanos), record.startMillis, record.attempt));
+                if (record.attempt > 1) {
+                    inRetry++;
+                }
+            }
+            inFlight.sort(Comparator.comparingLong(InFlightSnapshot::offset));
+
+            partitionSnapshots.add(new PartitionSnapshot(entry.getKey().topic(), entry.getKey().partition(),
+                    inFlight, state.lastCompletedOffset.get(), state.lastCommittedOffset.get(), state.completed.sum()));
+        }
+        partitionSnapshots.sort(Comparator.comparing(PartitionSnapshot::topic)
+                .thenComparingInt(PartitionSnapshot::partition));
+
+        List<DeliverySnapshot> slowestDeliveries = slowest.snapshot().stream()
+                .map(delivery -> new DeliverySnapshot(delivery.topic(), delivery.partition(), delivery.offset(),
+                        delivery.messageId(), TimeUnit.NANOSECONDS.toMillis(delivery.durationNanos()),
+                        delivery.outcome(), delivery.completedAtMillis()))
+                .toList();
+
+        return new Snapshot(partitionSnapshots, slowestDeliveries, inRetry);
+    }
+
+    private PartitionState state(String topic, int partition) {
+        TopicPartition key = new TopicPartition(topic, partition);
+        PartitionState state = partitions.get(key);
+        return state != null ? state : partitions.computeIfAbsent(key, k -> new PartitionState());
+    }
+
+    private static final class PartitionState {
+        private final Map<Long, InFlight> inFlight = new ConcurrentHashMap<>();
+        private final AtomicLong lastCompletedOffset = new AtomicLong(-1);
+        private final AtomicLong lastCommittedOffset = new AtomicLong(-1);
+        private final LongAdder completed = new LongAdder();
+    }
+
+    private static final class InFlight {
+        private final String messageId;
+        private final long offset;
+        private final long startNanos;
+        private final long startMillis;
+        private volatile int attempt;
+
+        private InFlight(String messageId, long offset, long startNanos, long startMillis) {
+            this.messageId = messageId;
+            this.offset = offset;
+            this.startNanos = startNanos;
+            this.startMillis = startMillis;
+        }
+    }
+
+    public record Snapshot(List<PartitionSnapshot> partitions, List<DeliverySnapshot> slowest, int inRetry) {
+    }
+
+    /**
+     * {@code lastCommittedOffset} follows Kafka semantics: the next offset to be consumed.
+     */
+    public record PartitionSnapshot(String topic, int partition, List<InFlightSnapshot> inFlight,
+                                    long lastCompletedOffset, long lastCommittedOffset, long completed) {
+    }
+
+    public record InFlightSnapshot(long offset, String messageId, long ageMs, long startedAt, int attempt) {
+    }
+
+    public record DeliverySnapshot(String topic, int partition, long offset, String messageId,
+                                   long durationMs, String outcome, long completedAt) {
+    }
+}
@@ -0,0 +1,111 @@
+package com.example.kafka.diagnostics;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Lock-free, bounded top-K of the slowest deliveries completed within a sliding window.
+ *
+ * <p>Writers first compare against a cached floor, so the common case of a delivery that
+ * is not among the slowest costs two volatile reads. Otherwise the smallest or expired
+ * slot is replaced with a CAS; under a race a candidate may be lost, which is acceptable
+ * for diagnostics. Readers copy the slots and sort them without blocking writers.
+ */
+public class SlowestDeliveries {
+
+    /**
+     * A completed delivery.
+     */
+    public record Delivery(String topic, int partition, long offset, String messageId,
+                           long durationNanos, String outcome, long completedAtMillis) {
+    }
+
+    private static final int MAX_CAS_ATTEMPTS = 4;
+
+    private final AtomicReferenceArray<Delivery> slots;
+    private final long windowMillis;
+
+    private volatile long floorNanos;
+    private volatile long floorValidUntilMillis;
+
+    public SlowestDeliveries(int size, long windowMillis) {
+        this.slots = new AtomicReferenceArray<>(size);
+        this.windowMillis = windowMillis;
+    }
+
+    public void record(Delivery delivery) {
+        if (delivery.durationNanos() <= floorNanos && delivery.completedAtMillis() < floorValidUntilMillis) {
+            return;
+        }
+
+        for (int attempt = 0; attempt < MAX_CAS_ATTEMPTS; attempt++) {
+            int victim = -1;
+            Delivery victimDelivery = null;
+            for (int i = 0; i < slots.length(); i++) {
+                Delivery slot = slots.get(i);
+                if (slot == null || isExpired(slot, delivery.completedAtMillis())) {
+                    victim = i;
+                    victimDelivery = slot;
+                    break;
+                }
+                if (victimDelivery == null || slot.durationNanos() < victimDelivery.durationNanos()) {
+                    victim = i;
+                    victimDelivery = slot;
+                }
+            }
+
+            if (victimDelivery != null && !isExpired(victimDelivery, delivery.completedAtMillis())
+                    && victimDelivery.durationNanos() >= delivery.durationNanos()) {
+                return;
+            }
+            if (slots.compareAndSet(victim, victimDelivery, delivery)) {
+                updateFloor();
+                return;
+            }
+        }
+    }
+
+    /**
+     * Returns the slowest deliveries within the window, slowest first.
+     */
+    public List<Delivery> snapshot() {
+        long now = System.currentTimeMillis();
+        List<Delivery> deliveries = new ArrayList<>(slots.length());
+        for (int i = 0; i < slots.length(); i++) {
+            Delivery slot = slots.get(i);
+            if (slot != null && !isExpired(slot, now)) {
+                deliveries.add(slot);
+            }
+        }
+        deliveries.sort(Comparator.comparingLong(Delivery::durationNanos).reversed());
+        return deliveries;
+    }
+
+    private boolean isExpired(Delivery delivery, long now) {
+        return delivery.completedAtMillis() + windowMillis <= now;
+    }
+
+    /**
+     * The floor is the smallest retained duration, valid until the oldest slot expires.
+     * While any slot is empty there is no floor.
+     */
+    private void updateFloor() {
+        long min = Long.MAX_VALUE;
+        long validUntil = Long.MAX_VALUE;
+        for (int i = 0; i < slots.length(); i++) {
+            Delivery slot = slots.get(i);
+            if (slot == null) {
+                floorNanos = 0;
+                floorValidUntilMillis = 0;
+                return;
+            }
+            min = Math.min(min, slot.durationNanos());
+            validUntil = Math.min(validUntil, slot.completedAtMillis() + windowMillis);
+        }
+        floorValidUntilMillis = 0;
+        floorNanos = min;
+        floorValidUntilMillis = validUntil;
+    }
+}
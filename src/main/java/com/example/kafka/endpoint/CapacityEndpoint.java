@@ -0,0 +1,32 @@
+package com.example.kafka.endpoint;
+
+import com.example.kafka.metrics.CapacityReport;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+/**
+ * {@code GET /actuator/capacity}: observed throughput, stage cost per message and the
+ * projected ceiling; {@code DELETE} starts a new measurement window.
+ */
+@Component
+@Endpoint(id = "capacity")
+public class CapacityEndpoint {
+
+    private final CapacityReport capacityReport;
+
+    public CapacityEndpoint(CapacityReport capacityReport) {
+        this.capacityReport = capacityReport;
+    }
+
+    @ReadOperation
+    public CapacityReport.Report report() {
+        return capacityReport.report();
+    }
+
+    @DeleteOperation
+    public void reset() {
+        capacityReport.reset();
+    }
+}
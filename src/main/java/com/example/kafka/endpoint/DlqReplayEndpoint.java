@@ -0,0 +1,35 @@
+package com.example.kafka.endpoint;
+
+import com.example.kafka.service.DlqReplayService;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+/**
+ * {@code POST /actuator/dlqreplay}: republishes up to 100 dead-lettered records of the default
+ * DLQ to their source topic. {@code POST /actuator/dlqreplay/{topic}} with a body of
+ * {@code {"maxRecords": 500}} replays another DLQ topic.
+ */
+@Component
+@Endpoint(id = "dlqreplay")
+public class DlqReplayEndpoint {
+
+    private static final int DEFAULT_MAX_RECORDS = 100;
+
+    private final DlqReplayService replayService;
+
+    public DlqReplayEndpoint(DlqReplayService replayService) {
+        this.replayService = replayService;
+    }
+
+    @WriteOperation
+    public DlqReplayService.Result replay() {
+        return replayService.replay(null, DEFAULT_MAX_RECORDS);
+    }
+
+    @WriteOperation
+    public DlqReplayService.Result replay(@Selector String topic, int maxRecords) {
+        return replayService.replay(topic, maxRecords);
+    }
+}
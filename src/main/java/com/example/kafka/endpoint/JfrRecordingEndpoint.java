@@ -0,0 +1,42 @@
+package com.example.kafka.endpoint;
+
+import com.example.kafka.service.JfrRecordingService;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+
+/**
+ * Actuator endpoint for pipeline profiling.
+ *
+ * <ul>
+ *   <li>{@code GET /actuator/jfr} - recording status</li>
+ *   <li>{@code POST /actuator/jfr/start} - start recording</li>
+ *   <li>{@code POST /actuator/jfr/dump} - write the recording so far to a file</li>
+ *   <li>{@code POST /actuator/jfr/stop} - stop and write the recording to a file</li>
+ * </ul>
+ */
+@Endpoint(id = "jfr")
+public class JfrRecordingEndpoint {
+
+    private final JfrRecordingService recordingService;
+
+    public JfrRecordingEndpoint(JfrRecordingService recordingService) {
+        this.recordingService = recordingService;
+    }
+
+    @ReadOperation
+    public JfrRecordingService.Status status() {
+        return recordingService.status();
+    }
+
+    @WriteOperation
+    public JfrRecordingService.Status action(@Selector String action) {
+        return switch (action) {
+            case "start" -> recordingService.start();
+            case "dump" -> recordingService.dump();
+            case "stop" -> recordingService.stop();
+            default -> throw new IllegalArgumentException("Unknown action '" + action + "', expected start, dump or stop");
+        };
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.kafka.endpoint;
+
+import com.example.kafka.diagnostics.PipelineTracker;
+import com.example.kafka.service.DlqJournalService;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * {@code GET /actuator/pipeline}: records in flight per partition with their age, last
+ * completed vs. committed offsets, the slowest recent deliveries and the retry backlog.
+ */
+@Component
+@Endpoint(id = "pipeline")
+public class PipelineDiagnosticsEndpoint {
+
+    private final PipelineTracker tracker;
+    private final DlqJournalService journalService;
+
+    public PipelineDiagnosticsEndpoint(PipelineTracker tracker, DlqJournalService journalService) {
+        this.tracker = tracker;
+        this.journalService = journalService;
+    }
+
+    public record Diagnostics(List<PipelineTracker.PartitionSnapshot> partitions,
+                              List<PipelineTracker.DeliverySnapshot> slowest,
+                              RetryBacklog retryBacklog) {
+    }
+
+    /**
+     * Records currently being retried against the REST API and DLQ records waiting in the
+     * local spill journal.
+     */
+    public record RetryBacklog(int restInRetry, long dlqJournalDepth) {
+    }
+
+    @ReadOperation
+    public Diagnostics diagnostics() {
+        PipelineTracker.Snapshot snapshot = tracker.snapshot();
+        return new Diagnostics(snapshot.partitions(), snapshot.slowest(),
+                new RetryBacklog(snapshot.inRetry(), journalService.pendingRecords()));
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.kafka.exception;
+
+/**
+ * Exception recorded in the DLQ for records older than their event type's TTL.
+ */
+public class StaleRecordException extends Exception {
+
+    public StaleRecordException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.kafka.filter;
+
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.Headers;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * A rule matched against a record's headers and raw key, before its value is deserialized.
+ *
+ * <p>A rule matches when every condition it sets holds: the header is present and, if values
+ * are given, its last value is one of them; the key starts with the prefix.
+ */
+public final class FilterRule {
+
+    /**
+     * What happens to a record matched by a rule.
+     */
+    public enum Action {
+        ACCEPT, DISCARD;
+
+        public static Action fromName(String name) {
+            return Action.valueOf(name.trim().toUpperCase(Locale.ROOT));
+        }
+    }
+
+    private final String name;
+    private final String header;
+    private final byte[][] headerValues;
+    private final String keyPrefix;
+    private final Action action;
+
+    public FilterRule(String name, String header, List<String> headerValues, String keyPrefix, Action action) {
+        boolean hasHeader = header != null && !header.isBlank();
+        boolean hasKeyPrefix = keyPrefix != null && !keyPrefix.isEmpty();
+        if (!hasHeader && !hasKeyPrefix) {
+            throw new IllegalArgumentException("Filter rule " + name + " needs a header or a key prefix");
+        }
+        this.name = name;
+        this.header = hasHeader ? header : null;
+        this.headerValues = headerValues.stream()
+                .map(value -> value.getBytes(StandardCharsets.UTF_8))
+                .toArray(byte[][]::new);
+        this.keyPrefix = hasKeyPrefix ? keyPrefix : null;
+        this.action = action;
+    }
+
+    public boolean matches(String key, Headers headers) {
+        if (keyPrefix != null && (key == null || !key.startsWith(keyPrefix))) {
+            return false;
+        }
+        if (header == null) {
+            return true;
+        }
+        Header last = headers != null ? headers.lastHeader(header) : null;
+        if (last == null) {
+            return false;
+        }
+        if (headerValues.length == 0) {
+            return true;
+        }
+        // Compared as bytes so that no String is created per record
+        byte[] value = last.value();
+        for (byte[] candidate : headerValues) {
+            if (Arrays.equals(candidate, value)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public String name() {
+        return name;
+    }
+
+    public Action action() {
+        return action;
+    }
+}
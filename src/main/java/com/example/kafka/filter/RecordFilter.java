@@ -0,0 +1,172 @@
+package com.example.kafka.filter;
+
+import com.example.kafka.model.IncomingMessage;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.serialization.Deserializer;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.springframework.kafka.listener.adapter.RecordFilterStrategy;
+
+import java.nio.ByteBuffer;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Decides from headers and the raw key whether a record is worth deserializing.
+ *
+ * <p>Kafka deserializes a record's key and then its value on the same thread, with the same
+ * {@link Headers} instance. The {@linkplain #keyDeserializer() key deserializer} remembers the
+ * key next to those headers; the {@linkplain #valueDeserializer(Deserializer) value
+ * deserializer} evaluates the rules, first match wins, and for discarded records returns
+ * {@link #DISCARDED} without reading the value. The container's {@link #strategy() filter
+ * strategy} drops those records and acknowledges them, so they are committed with the rest
+ * of the poll.
+ */
+public class RecordFilter {
+
+    /**
+     * Stands in for the value of a discarded record; never reaches the listener.
+     */
+    public static final IncomingMessage DISCARDED = new IncomingMessage();
+
+    static final String DEFAULT_RULE = "default";
+
+    private final List<FilterRule> rules;
+    private final FilterRule.Action defaultAction;
+    private final Map<FilterRule, Counter> counters;
+    private final Counter defaultCounter;
+    private final ThreadLocal<KeySlot> keys = ThreadLocal.withInitial(KeySlot::new);
+
+    public RecordFilter(List<FilterRule> rules, FilterRule.Action defaultAction, MeterRegistry meterRegistry) {
+        this.rules = List.copyOf(rules);
+        this.defaultAction = defaultAction;
+        this.counters = new IdentityHashMap<>();
+        for (FilterRule rule : this.rules) {
+            counters.put(rule, counter(meterRegistry, rule.name(), rule.action()));
+        }
+        this.defaultCounter = counter(meterRegistry, DEFAULT_RULE, defaultAction);
+    }
+
+    /**
+     * Evaluates the rules and counts the outcome under the matching rule.
+     *
+     * @return true if the record should be deserialized and processed
+     */
+    public boolean accept(String key, Headers headers) {
+        for (FilterRule rule : rules) {
+            if (rule.matches(key, headers)) {
+                counters.get(rule).increment();
+                return rule.action() == FilterRule.Action.ACCEPT;
+            }
+        }
+        defaultCounter.increment();
+        return defaultAction == FilterRule.Action.ACCEPT;
+    }
+
+    public Deserializer<String> keyDeserializer() {
+        return new KeyDeserializer();
+    }
+
+    public Deserializer<IncomingMessage> valueDeserializer(Deserializer<IncomingMessage> delegate) {
+        return new ValueDeserializer(delegate);
+    }
+
+    public RecordFilterStrategy<String, IncomingMessage> strategy() {
+        return (ConsumerRecord<String, IncomingMessage> record) -> record.value() == DISCARDED;
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, String rule, FilterRule.Action action) {
+        return Counter.builder("pipeline.filter.records")
+                .description("Records matched by each pre-deserialization filter rule")
+                .tag("rule", rule)
+                .tag("action", action.name().toLowerCase(Locale.ROOT))
+                .register(meterRegistry);
+    }
+
+    private static final class KeySlot {
+        private Headers headers;
+        private String key;
+    }
+
+    private final class KeyDeserializer implements Deserializer<String> {
+
+        private final StringDeserializer delegate = new StringDeserializer();
+
+        @Override
+        public void configure(Map<String, ?> configs, boolean isKey) {
+            delegate.configure(configs, isKey);
+        }
+
+        @Override
+        public String deserialize(String topic, byte[] data) {
+            return delegate.deserialize(topic, data);
+        }
+
+        @Override
+        public String deserialize(String topic, Headers headers, byte[] data) {
+            return remember(headers, delegate.deserialize(topic, headers, data));
+        }
+
+        @Override
+        public String deserialize(String topic, Headers headers, ByteBuffer data) {
+            return remember(headers, delegate.deserialize(topic, headers, data));
+        }
+
+        private String remember(Headers headers, String key) {
+            KeySlot slot = keys.get();
+            slot.headers = headers;
+            slot.key = key;
+            return key;
+        }
+    }
+
+    private final class ValueDeserializer implements Deserializer<IncomingMessage> {
+
+        private final Deserializer<IncomingMessage> delegate;
+
+        private ValueDeserializer(Deserializer<IncomingMessage> delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void configure(Map<String, ?> configs, boolean isKey) {
+            delegate.configure(configs, isKey);
+        }
+
+        @Override
+        public IncomingMessage deserialize(String topic, byte[] data) {
+            return delegate.deserialize(topic, data);
+        }
+
+        @Override
+        public IncomingMessage deserialize(String topic, Headers headers, byte[] data) {
+            return accept(keyOf(headers), headers) ? delegate.deserialize(topic, headers, data) : DISCARDED;
+        }
+
+        @Override
+        public IncomingMessage deserialize(String topic, Headers headers, ByteBuffer data) {
+            return accept(keyOf(headers), headers) ? delegate.deserialize(topic, headers, data) : DISCARDED;
+        }
+
+        /**
+         * The key remembered for these headers; null keys are never deserialized, so a
+         * remembered key with other headers belongs to an earlier record.
+         */
+        private String keyOf(Headers headers) {
+            KeySlot slot = keys.get();
+            String key = slot.headers == headers ? slot.key : null;
+            slot.headers = null;
+            slot.key = null;
+            return key;
+        }
+
+        @Override
+        public void close() {
+            delegate.close();
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.kafka.format;
+
+import com.example.kafka.model.IncomingMessage;
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericDatumReader;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.avro.io.BinaryDecoder;
+import org.apache.avro.io.DecoderFactory;
+import org.apache.kafka.common.errors.SerializationException;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Decodes Avro binary values with a {@link GenericDatumReader} per registered schema.
+ */
+public class AvroMessageDecoder implements MessageDecoder {
+
+    private final Map<Integer, GenericDatumReader<GenericRecord>> readers = new ConcurrentHashMap<>();
+    private final ThreadLocal<BinaryDecoder> decoders = new ThreadLocal<>();
+
+    @Override
+    public MessageFormat format() {
+        return MessageFormat.AVRO;
+    }
+
+    @Override
+    public IncomingMessage decode(byte[] data, RegisteredSchema schema) {
+        GenericDatumReader<GenericRecord> reader = readers.computeIfAbsent(schema.id(),
+                id -> new GenericDatumReader<>(new Schema.Parser().parse(schema.definition())));
+
+        BinaryDecoder decoder = DecoderFactory.get().binaryDecoder(data, decoders.get());
+        decoders.set(decoder);
+
+        try {
+            return toMessage(reader.read(null, decoder));
+        } catch (IOException | RuntimeException e) {
+            throw new SerializationException("Failed to decode Avro message with schema " + schema.id(), e);
+        }
+    }
+
+    private IncomingMessage toMessage(GenericRecord record) {
+        GenericRecord payload = (GenericRecord) record.get("payload");
+
+        return IncomingMessage.builder()
+                .messageId(asString(record.get("messageId")))
+                .eventType(asString(record.get("eventType")))
+                .timestamp(MessageDecoder.toLocalDateTime((Long) record.get("timestamp")))
+                .payload(payload == null ? null : IncomingMessage.PayloadData.builder()
+                        .customerId(asString(payload.get("customerId")))
+                        .customerName(asString(payload.get("customerName")))
+                        .email(asString(payload.get("email")))
+                        .phone(asString(payload.get("phone")))
+                        .amount((Double) payload.get("amount"))
+                        .currency(asString(payload.get("currency")))
+                        .description(asString(payload.get("description")))
+                        .active((Boolean) payload.get("active"))
+                        .build())
+                .metadata(toMetadata(record.get("metadata")))
+                .build();
+    }
+
+    private Map<String, String> toMetadata(Object value) {
+        if (value == null) {
+            return null;
+        }
+        Map<?, ?> map = (Map<?, ?>) value;
+        Map<String, String> metadata = new HashMap<>(map.size() * 2);
+        map.forEach((k, v) -> metadata.put(k.toString(), asString(v)));
+        return metadata;
+    }
+
+    private static String asString(Object value) {
+        return value != null ? value.toString() : null;
+    }
+}
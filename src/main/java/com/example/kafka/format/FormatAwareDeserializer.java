@@ -0,0 +1,116 @@
+package com.example.kafka.format;
+
+import com.example.kafka.metrics.PipelineMetrics;
+import com.example.kafka.model.IncomingMessage;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.serialization.Deserializer;
+
+import java.nio.charset.StandardCharsets;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Value deserializer that picks the wire format per record.
+ *
+ * <p>The format comes from the {@value #FORMAT_HEADER} header, then the per-topic
+ * configuration, then the default format. Binary formats are decoded with the schema
+ * named by the {@value #SCHEMA_ID_HEADER} header, or the latest schema of the subject.
+ */
+public class FormatAwareDeserializer implements Deserializer<IncomingMessage> {
+
+    public static final String FORMAT_HEADER = "value-format";
+    public static final String SCHEMA_ID_HEADER = "schema-id";
+
+    private final Map<MessageFormat, MessageDecoder> decoders = new EnumMap<>(MessageFormat.class);
+    private final SchemaRegistry schemaRegistry;
+    private final String subject;
+    private final MessageFormat defaultFormat;
+    private final Map<String, MessageFormat> topicFormats;
+    private final PipelineMetrics metrics;
+
+    public FormatAwareDeserializer(List<MessageDecoder> decoders,
+                                   SchemaRegistry schemaRegistry,
+                                   String subject,
+                                   MessageFormat defaultFormat,
+                                   Map<String, MessageFormat> topicFormats) {
+        this(decoders, schemaRegistry, subject, defaultFormat, topicFormats, null);
+    }
+
+    /**
+     * @param metrics Records the deserialize stage timer, may be null
+     */
+    public FormatAwareDeserializer(List<MessageDecoder> decoders,
+                                   SchemaRegistry schemaRegistry,
+                                   String subject,
+                                   MessageFormat defaultFormat,
+                                   Map<String, MessageFormat> topicFormats,
+                                   PipelineMetrics metrics) {
+        decoders.forEach(decoder -> this.decoders.put(decoder.format(), decoder));
+        this.schemaRegistry = schemaRegistry;
+        this.subject = subject;
+        this.defaultFormat = defaultFormat;
+        this.topicFormats = topicFormats;
+        this.metrics = metrics;
+    }
+
+    @Override
+    public IncomingMessage deserialize(String topic, byte[] data) {
+        return deserialize(topic, null, data);
+    }
+
+    @Override
+    public IncomingMessage deserialize(String topic, Headers headers, byte[] data) {
+        if (data == null) {
+            return null;
+        }
+        if (metrics == null) {
+            return decode(topic, headers, data);
+        }
+
+        long start = System.nanoTime();
+        try {
+            IncomingMessage message = decode(topic, headers, data);
+            metrics.recordStage(PipelineMetrics.Stage.DESERIALIZE, "success", start);
+            return message;
+        } catch (RuntimeException e) {
+            metrics.recordStage(PipelineMetrics.Stage.DESERIALIZE, "failure", start);
+            throw e;
+        }
+    }
+
+    private IncomingMessage decode(String topic, Headers headers, byte[] data) {
+        String formatHeader = headerValue(headers, FORMAT_HEADER);
+        MessageFormat format = formatHeader != null
+                ? MessageFormat.fromName(formatHeader)
+                : topicFormats.getOrDefault(topic, defaultFormat);
+
+        MessageDecoder decoder = decoders.get(format);
+        if (decoder == null) {
+            throw new SerializationException("No decoder configured for format " + format);
+        }
+        if (format == MessageFormat.JSON) {
+            return decoder.decode(data, null);
+        }
+
+        String schemaId = headerValue(headers, SCHEMA_ID_HEADER);
+        RegisteredSchema schema = schemaId != null
+                ? schemaRegistry.getById(Integer.parseInt(schemaId))
+                : schemaRegistry.getLatest(subject, format);
+        if (schema.format() != format) {
+            throw new SerializationException("Schema " + schema.id() + " is " + schema.format()
+                    + " but the record is " + format);
+        }
+        return decoder.decode(data, schema);
+    }
+
+    private static String headerValue(Headers headers, String name) {
+        if (headers == null) {
+            return null;
+        }
+        Header header = headers.lastHeader(name);
+        return header != null ? new String(header.value(), StandardCharsets.UTF_8) : null;
+    }
+}
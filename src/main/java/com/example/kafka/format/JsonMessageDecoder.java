@@ -0,0 +1,30 @@
+package com.example.kafka.format;
+
+import com.example.kafka.model.IncomingMessage;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+
+/**
+ * Decodes JSON values through Spring Kafka's {@link JsonDeserializer}.
+ */
+public class JsonMessageDecoder implements MessageDecoder {
+
+    private final JsonDeserializer<IncomingMessage> delegate;
+
+    public JsonMessageDecoder() {
+        this(new JsonDeserializer<>(IncomingMessage.class, false));
+    }
+
+    public JsonMessageDecoder(JsonDeserializer<IncomingMessage> delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public MessageFormat format() {
+        return MessageFormat.JSON;
+    }
+
+    @Override
+    public IncomingMessage decode(byte[] data, RegisteredSchema schema) {
+        return delegate.deserialize(null, data);
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.kafka.format;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * File-backed {@link SchemaRegistry} standing in for a remote schema registry.
+ *
+ * <p>Schemas are listed in an index file of the form
+ * <pre>
+ * [{"id": 1, "subject": "incoming-message", "version": 1, "format": "avro",
+ *   "path": "incoming-message-v1.avsc"}]
+ * </pre>
+ * where each {@code path} is resolved relative to the index.
+ */
+@Slf4j
+public class LocalSchemaRegistry implements SchemaRegistry {
+
+    private final Map<Integer, RegisteredSchema> schemasById = new HashMap<>();
+
+    public LocalSchemaRegistry(ResourceLoader resourceLoader, ObjectMapper objectMapper, String indexLocation) {
+        Resource index = resourceLoader.getResource(indexLocation);
+        try (InputStream inputStream = index.getInputStream()) {
+            for (JsonNode entry : objectMapper.readTree(inputStream)) {
+                Resource definition = index.createRelative(entry.get("path").asText());
+                RegisteredSchema schema = new RegisteredSchema(
+                        entry.get("id").asInt(),
+                        entry.get("subject").asText(),
+                        entry.get("version").asInt(),
+                        MessageFormat.fromName(entry.get("format").asText()),
+                        entry.hasNonNull("messageType") ? entry.get("messageType").asText() : null,
+                        definition.getContentAsString(StandardCharsets.UTF_8));
+                schemasById.put(schema.id(), schema);
+            }
+            log.info("Loaded {} schemas from {}", schemasById.size(), indexLocation);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to load schema registry index " + indexLocation, e);
+        }
+    }
+
+    @Override
+    public RegisteredSchema getById(int id) {
+        RegisteredSchema schema = schemasById.get(id);
+        if (schema == null) {
+            throw new IllegalArgumentException("Unknown schema id: " + id);
+        }
+        return schema;
+    }
+
+    @Override
+    public RegisteredSchema getLatest(String subject, MessageFormat format) {
+        return schemasById.values().stream()
+                .filter(schema -> schema.subject().equals(subject) && schema.format() == format)
+                .max(Comparator.comparingInt(RegisteredSchema::version))
+                .orElseThrow(() -> new IllegalArgumentException(
+                        "No " + format + " schema registered for subject " + subject));
+    }
+}
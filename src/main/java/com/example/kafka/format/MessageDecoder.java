@@ -0,0 +1,30 @@
+package com.example.kafka.format;
+
+import com.example.kafka.model.IncomingMessage;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Decodes a record value in one {@link MessageFormat} into the internal message model,
+ * so validation and transformation are independent of the wire format.
+ */
+public interface MessageDecoder {
+
+    MessageFormat format();
+
+    /**
+     * @param data The raw record value
+     * @param schema The writer schema, or null for self-describing formats
+     * @return The decoded message
+     */
+    IncomingMessage decode(byte[] data, RegisteredSchema schema);
+
+    /**
+     * Converts a {@code local-timestamp-millis} value to the model's timestamp.
+     */
+    static LocalDateTime toLocalDateTime(long epochMillis) {
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(epochMillis, 1000L),
+                (int) Math.floorMod(epochMillis, 1000L) * 1_000_000, ZoneOffset.UTC);
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.kafka.format;
+
+import java.util.Locale;
+
+/**
+ * Wire formats supported for {@link com.example.kafka.model.IncomingMessage} values.
+ */
+public enum MessageFormat {
+
+    JSON,
+    AVRO,
+    PROTOBUF;
+
+    /**
+     * Resolves a format from a header or configuration value such as {@code avro}.
+     *
+     * @param name The format name, case-insensitive
+     * @return The matching format
+     * @throws IllegalArgumentException if the name is unknown
+     */
+    public static MessageFormat fromName(String name) {
+        return MessageFormat.valueOf(name.trim().toUpperCase(Locale.ROOT));
+    }
+}
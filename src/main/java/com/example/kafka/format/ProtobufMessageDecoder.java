@@ -0,0 +1,192 @@
+package com.example.kafka.format;
+
+import com.example.kafka.model.IncomingMessage;
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.DescriptorProtos;
+import com.google.protobuf.Descriptors;
+import com.google.protobuf.TextFormat;
+import com.google.protobuf.WireFormat;
+import org.apache.kafka.common.errors.SerializationException;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Decodes Protobuf values straight from the wire with a {@link CodedInputStream}.
+ * Field numbers are resolved by name from the registered {@code FileDescriptorProto}
+ * once per schema, so no generated classes or {@code DynamicMessage}s are needed.
+ */
+public class ProtobufMessageDecoder implements MessageDecoder {
+
+    private final Map<Integer, Layout> layouts = new ConcurrentHashMap<>();
+
+    @Override
+    public MessageFormat format() {
+        return MessageFormat.PROTOBUF;
+    }
+
+    @Override
+    public IncomingMessage decode(byte[] data, RegisteredSchema schema) {
+        Layout layout = layouts.computeIfAbsent(schema.id(), id -> new Layout(compile(schema)));
+        try {
+            return readMessage(CodedInputStream.newInstance(data), layout);
+        } catch (IOException | RuntimeException e) {
+            throw new SerializationException("Failed to decode Protobuf message with schema " + schema.id(), e);
+        }
+    }
+
+    /**
+     * Builds the root message descriptor from a {@code FileDescriptorProto} in text format.
+     */
+    public static Descriptors.Descriptor compile(RegisteredSchema schema) {
+        try {
+            DescriptorProtos.FileDescriptorProto.Builder file = DescriptorProtos.FileDescriptorProto.newBuilder();
+            TextFormat.merge(schema.definition(), file);
+            Descriptors.FileDescriptor fileDescriptor =
+                    Descriptors.FileDescriptor.buildFrom(file.build(), new Descriptors.FileDescriptor[0]);
+            Descriptors.Descriptor descriptor = fileDescriptor.findMessageTypeByName(schema.messageType());
+            if (descriptor == null) {
+                throw new IllegalArgumentException("Message type " + schema.messageType()
+                        + " not found in schema " + schema.id());
+            }
+            return descriptor;
+        } catch (TextFormat.ParseException | Descriptors.DescriptorValidationException e) {
+            throw new IllegalArgumentException("Invalid Protobuf schema " + schema.id(), e);
+        }
+    }
+
+    private IncomingMessage readMessage(CodedInputStream in, Layout layout) throws IOException {
+        IncomingMessage.IncomingMessageBuilder message = IncomingMessage.builder();
+        Map<String, String> metadata = null;
+
+        int tag;
+        while ((tag = in.readTag()) != 0) {
+            int field = WireFormat.getTagFieldNumber(tag);
+            if (field == layout.messageId) {
+                message.messageId(nullIfEmpty(in.readStringRequireUtf8()));
+            } else if (field == layout.eventType) {
+                message.eventType(nullIfEmpty(in.readStringRequireUtf8()));
+            } else if (field == layout.timestampMillis) {
+                // proto3 cannot tell 0 from absent; either way the timestamp is left to validation
+                long timestampMillis = in.readInt64();
+                message.timestamp(timestampMillis != 0 ? MessageDecoder.toLocalDateTime(timestampMillis) : null);
+            } else if (field == layout.payload) {
+                int limit = in.pushLimit(in.readRawVarint32());
+                message.payload(readPayload(in, layout));
+                in.popLimit(limit);
+            } else if (field == layout.metadata) {
+                if (metadata == null) {
+                    metadata = new HashMap<>();
+                }
+                int limit = in.pushLimit(in.readRawVarint32());
+                readMetadataEntry(in, metadata);
+                in.popLimit(limit);
+            } else {
+                in.skipField(tag);
+            }
+        }
+
+        return message.metadata(metadata).build();
+    }
+
+    private IncomingMessage.PayloadData readPayload(CodedInputStream in, Layout layout) throws IOException {
+        IncomingMessage.PayloadData.PayloadDataBuilder payload = IncomingMessage.PayloadData.builder()
+                .amount(0.0)
+                .active(false);
+
+        int tag;
+        while ((tag = in.readTag()) != 0) {
+            int field = WireFormat.getTagFieldNumber(tag);
+            if (field == layout.customerId) {
+                payload.customerId(nullIfEmpty(in.readStringRequireUtf8()));
+            } else if (field == layout.customerName) {
+                payload.customerName(nullIfEmpty(in.readStringRequireUtf8()));
+            } else if (field == layout.email) {
+                payload.email(nullIfEmpty(in.readStringRequireUtf8()));
+            } else if (field == layout.phone) {
+                payload.phone(nullIfEmpty(in.readStringRequireUtf8()));
+            } else if (field == layout.amount) {
+                payload.amount(in.readDouble());
+            } else if (field == layout.currency) {
+                payload.currency(nullIfEmpty(in.readStringRequireUtf8()));
+            } else if (field == layout.description) {
+                payload.description(nullIfEmpty(in.readStringRequireUtf8()));
+            } else if (field == layout.active) {
+                payload.active(in.readBool());
+            } else {
+                in.skipField(tag);
+            }
+        }
+        return payload.build();
+    }
+
+    private void readMetadataEntry(CodedInputStream in, Map<String, String> metadata) throws IOException {
+        String key = "";
+        String value = "";
+
+        int tag;
+        while ((tag = in.readTag()) != 0) {
+            switch (WireFormat.getTagFieldNumber(tag)) {
+                case 1 -> key = in.readStringRequireUtf8();
+                case 2 -> value = in.readStringRequireUtf8();
+                default -> in.skipField(tag);
+            }
+        }
+        metadata.put(key, value);
+    }
+
+    /**
+     * Proto3 strings default to empty; map them back to null like an absent JSON field.
+     */
+    private static String nullIfEmpty(String value) {
+        return value.isEmpty() ? null : value;
+    }
+
+    /**
+     * Field numbers of the registered schema, resolved once by field name.
+     */
+    private static final class Layout {
+
+        private final int messageId;
+        private final int eventType;
+        private final int timestampMillis;
+        private final int payload;
+        private final int metadata;
+        private final int customerId;
+        private final int customerName;
+        private final int email;
+        private final int phone;
+        private final int amount;
+        private final int currency;
+        private final int description;
+        private final int active;
+
+        private Layout(Descriptors.Descriptor type) {
+            messageId = number(type, "message_id");
+            eventType = number(type, "event_type");
+            timestampMillis = number(type, "timestamp_millis");
+            payload = number(type, "payload");
+            metadata = number(type, "metadata");
+
+            Descriptors.Descriptor payloadType = type.findFieldByName("payload").getMessageType();
+            customerId = number(payloadType, "customer_id");
+            customerName = number(payloadType, "customer_name");
+            email = number(payloadType, "email");
+            phone = number(payloadType, "phone");
+            amount = number(payloadType, "amount");
+            currency = number(payloadType, "currency");
+            description = number(payloadType, "description");
+            active = number(payloadType, "active");
+        }
+
+        private static int number(Descriptors.Descriptor type, String name) {
+            Descriptors.FieldDescriptor field = type.findFieldByName(name);
+            if (field == null) {
+                throw new IllegalArgumentException("Field " + name + " missing from " + type.getFullName());
+            }
+            return field.getNumber();
+        }
+    }
+}
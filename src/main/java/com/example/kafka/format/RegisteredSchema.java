@@ -0,0 +1,19 @@
+package com.example.kafka.format;
+
+/**
+ * A schema registered under a subject.
+ *
+ * @param id Globally unique schema id, carried in the {@code schema-id} record header
+ * @param subject Subject the schema belongs to, e.g. {@code incoming-message}
+ * @param version Version of the schema within its subject
+ * @param format Wire format the schema describes
+ * @param messageType Root message type for Protobuf schemas, null otherwise
+ * @param definition Schema source: Avro JSON or a Protobuf {@code FileDescriptorProto} in text format
+ */
+public record RegisteredSchema(int id,
+                               String subject,
+                               int version,
+                               MessageFormat format,
+                               String messageType,
+                               String definition) {
+}
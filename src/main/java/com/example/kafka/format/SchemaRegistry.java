@@ -0,0 +1,22 @@
+package com.example.kafka.format;
+
+/**
+ * Lookup of schemas used to decode binary message formats.
+ */
+public interface SchemaRegistry {
+
+    /**
+     * @param id The schema id
+     * @return The schema registered under the id
+     * @throws IllegalArgumentException if no schema has the id
+     */
+    RegisteredSchema getById(int id);
+
+    /**
+     * @param subject The subject name
+     * @param format The wire format
+     * @return The highest version registered for the subject and format
+     * @throws IllegalArgumentException if the subject has no schema in the format
+     */
+    RegisteredSchema getLatest(String subject, MessageFormat format);
+}
@@ -0,0 +1,207 @@
+package com.example.kafka.format;
+
+import com.example.kafka.model.IncomingMessage;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import org.apache.kafka.common.errors.SerializationException;
+
+import java.io.IOException;
+import java.time.DateTimeException;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Hand-written JSON decoder for {@link IncomingMessage} that reads the token stream
+ * directly instead of going through databind.
+ *
+ * <p>Field names are matched with a switch, the fixed {@code yyyy-MM-dd'T'HH:mm:ss}
+ * timestamp is parsed from the raw characters, and low-cardinality values
+ * ({@code eventType}, {@code currency}, metadata) are interned. It accepts the same
+ * input as the databind path: unknown fields are skipped, nulls are kept, and
+ * numbers or booleans given as strings are coerced.
+ */
+public class StreamingJsonMessageDecoder implements MessageDecoder {
+
+    private static final int TIMESTAMP_LENGTH = 19;
+
+    private final JsonFactory jsonFactory = new JsonFactory();
+    private final StringInterner interner = new StringInterner(1024);
+
+    @Override
+    public MessageFormat format() {
+        return MessageFormat.JSON;
+    }
+
+    @Override
+    public IncomingMessage decode(byte[] data, RegisteredSchema schema) {
+        try (JsonParser parser = jsonFactory.createParser(data)) {
+            JsonToken token = parser.nextToken();
+            if (token == null || token == JsonToken.VALUE_NULL) {
+                return null;
+            }
+            expect(parser, token, JsonToken.START_OBJECT);
+            return readMessage(parser);
+        } catch (IOException | RuntimeException e) {
+            throw new SerializationException("Failed to decode JSON message: " + e.getMessage(), e);
+        }
+    }
+
+    private IncomingMessage readMessage(JsonParser parser) throws IOException {
+        IncomingMessage message = new IncomingMessage();
+
+        String field;
+        while ((field = parser.nextFieldName()) != null) {
+            JsonToken token = parser.nextToken();
+            switch (field) {
+                case "messageId" -> message.setMessageId(text(parser, token));
+                case "eventType" -> message.setEventType(internedText(parser, token));
+                case "timestamp" -> message.setTimestamp(timestamp(parser, token));
+                case "payload" -> message.setPayload(token == JsonToken.VALUE_NULL ? null : readPayload(parser, token));
+                case "metadata" -> message.setMetadata(token == JsonToken.VALUE_NULL ? null : readMetadata(parser, token));
+                default -> parser.skipChildren();
+            }
+        }
+        return message;
+    }
+
+    private IncomingMessage.PayloadData readPayload(JsonParser parser, JsonToken token) throws IOException {
+        expect(parser, token, JsonToken.START_OBJECT);
+        IncomingMessage.PayloadData payload = new IncomingMessage.PayloadData();
+
+        String field;
+        while ((field = parser.nextFieldName()) != null) {
+            JsonToken value = parser.nextToken();
+            switch (field) {
+                case "customerId" -> payload.setCustomerId(text(parser, value));
+                case "customerName" -> payload.setCustomerName(text(parser, value));
+                case "email" -> payload.setEmail(text(parser, value));
+                case "phone" -> payload.setPhone(text(parser, value));
+                case "amount" -> payload.setAmount(number(parser, value));
+                case "currency" -> payload.setCurrency(internedText(parser, value));
+                case "description" -> payload.setDescription(text(parser, value));
+                case "active" -> payload.setActive(bool(parser, value));
+                default -> parser.skipChildren();
+            }
+        }
+        return payload;
+    }
+
+    private Map<String, String> readMetadata(JsonParser parser, JsonToken token) throws IOException {
+        expect(parser, token, JsonToken.START_OBJECT);
+        Map<String, String> metadata = new HashMap<>(8);
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String key = parser.getCurrentName();
+            metadata.put(key, internedText(parser, parser.nextToken()));
+        }
+        return metadata;
+    }
+
+    private String text(JsonParser parser, JsonToken token) throws IOException {
+        if (token == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        if (!token.isScalarValue()) {
+            throw new IOException("Expected a string but found " + token + " at " + parser.currentLocation());
+        }
+        return parser.getText();
+    }
+
+    private String internedText(JsonParser parser, JsonToken token) throws IOException {
+        if (token != JsonToken.VALUE_STRING) {
+            return text(parser, token);
+        }
+        return interner.intern(parser.getTextCharacters(), parser.getTextOffset(), parser.getTextLength());
+    }
+
+    private Double number(JsonParser parser, JsonToken token) throws IOException {
+        return switch (token) {
+            case VALUE_NULL -> null;
+            case VALUE_NUMBER_INT, VALUE_NUMBER_FLOAT -> parser.getDoubleValue();
+            case VALUE_STRING -> {
+                String text = parser.getText().trim();
+                if (text.isEmpty()) {
+                    yield null;
+                }
+                try {
+                    yield Double.parseDouble(text);
+                } catch (NumberFormatException e) {
+                    throw new IOException("Cannot coerce \"" + text + "\" to a number", e);
+                }
+            }
+            default -> throw new IOException("Expected a number but found " + token + " at " + parser.currentLocation());
+        };
+    }
+
+    private Boolean bool(JsonParser parser, JsonToken token) throws IOException {
+        return switch (token) {
+            case VALUE_NULL -> null;
+            case VALUE_TRUE -> Boolean.TRUE;
+            case VALUE_FALSE -> Boolean.FALSE;
+            case VALUE_STRING -> {
+                String text = parser.getText().trim();
+                if ("true".equalsIgnoreCase(text)) {
+                    yield Boolean.TRUE;
+                } else if ("false".equalsIgnoreCase(text)) {
+                    yield Boolean.FALSE;
+                } else if (text.isEmpty()) {
+                    yield null;
+                }
+                throw new IOException("Cannot coerce \"" + text + "\" to a boolean");
+            }
+            default -> throw new IOException("Expected a boolean but found " + token + " at " + parser.currentLocation());
+        };
+    }
+
+    /**
+     * Parses {@code yyyy-MM-dd'T'HH:mm:ss} from the parser's character buffer.
+     */
+    private LocalDateTime timestamp(JsonParser parser, JsonToken token) throws IOException {
+        if (token == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        if (token != JsonToken.VALUE_STRING) {
+            throw new IOException("Expected a timestamp string but found " + token);
+        }
+
+        char[] chars = parser.getTextCharacters();
+        int offset = parser.getTextOffset();
+        if (parser.getTextLength() != TIMESTAMP_LENGTH
+                || chars[offset + 4] != '-' || chars[offset + 7] != '-' || chars[offset + 10] != 'T'
+                || chars[offset + 13] != ':' || chars[offset + 16] != ':') {
+            throw new IOException("Timestamp \"" + parser.getText() + "\" does not match yyyy-MM-dd'T'HH:mm:ss");
+        }
+
+        try {
+            return LocalDateTime.of(
+                    digits(chars, offset, 4),
+                    digits(chars, offset + 5, 2),
+                    digits(chars, offset + 8, 2),
+                    digits(chars, offset + 11, 2),
+                    digits(chars, offset + 14, 2),
+                    digits(chars, offset + 17, 2));
+        } catch (DateTimeException e) {
+            throw new IOException("Invalid timestamp \"" + parser.getText() + "\": " + e.getMessage(), e);
+        }
+    }
+
+    private static int digits(char[] chars, int offset, int count) throws IOException {
+        int value = 0;
+        for (int i = offset; i < offset + count; i++) {
+            int digit = chars[i] - '0';
+            if (digit < 0 || digit > 9) {
+                throw new IOException("Non-digit '" + chars[i] + "' in timestamp");
+            }
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+
+    private static void expect(JsonParser parser, JsonToken actual, JsonToken expected) throws IOException {
+        if (actual != expected) {
+            throw new IOException("Expected " + expected + " but found " + actual + " at " + parser.currentLocation());
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.kafka.format;
+
+/**
+ * Lossy, lock-free cache that maps character ranges to canonical {@link String}s
+ * without allocating on a hit. Intended for low-cardinality values such as event
+ * types and currency codes; colliding values simply overwrite each other's slot.
+ */
+public class StringInterner {
+
+    private static final int MAX_LENGTH = 64;
+
+    private final String[] slots;
+    private final int mask;
+
+    /**
+     * @param capacity Number of slots, rounded up to a power of two
+     */
+    public StringInterner(int capacity) {
+        int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        this.slots = new String[size];
+        this.mask = size - 1;
+    }
+
+    public String intern(char[] chars, int offset, int length) {
+        if (length > MAX_LENGTH) {
+            return new String(chars, offset, length);
+        }
+
+        int hash = 0;
+        for (int i = offset; i < offset + length; i++) {
+            hash = 31 * hash + chars[i];
+        }
+        int slot = (hash ^ (hash >>> 16)) & mask;
+
+        String cached = slots[slot];
+        if (cached != null && matches(cached, chars, offset, length)) {
+            return cached;
+        }
+        String value = new String(chars, offset, length);
+        slots[slot] = value;
+        return value;
+    }
+
+    private static boolean matches(String cached, char[] chars, int offset, int length) {
+        if (cached.length() != length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (cached.charAt(i) != chars[offset + i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.kafka.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("com.example.kafka.DlqSend")
+@Label("DLQ Send")
+@Description("DLQ send of a single Kafka record")
+public class DlqSendEvent extends PipelineEvent {
+}
@@ -0,0 +1,53 @@
+package com.example.kafka.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.StackTrace;
+
+/**
+ * Base class for the pipeline's JDK Flight Recorder events.
+ *
+ * <p>Events are disabled by default and only recorded while a recording enables them
+ * (see {@code JfrRecordingService}). Callers follow the usual JFR pattern of
+ * {@code begin()} before the work and {@link #finish(String)} after it; while the event
+ * is disabled these calls are no-ops and the JIT eliminates the allocation.
+ */
+@Enabled(false)
+@StackTrace(false)
+@Category({"Kafka REST Bridge", "Pipeline"})
+public abstract class PipelineEvent extends Event {
+
+    @Label("Message ID")
+    String messageId;
+
+    @Label("Topic")
+    String topic;
+
+    @Label("Partition")
+    int partition;
+
+    @Label("Offset")
+    long offset;
+
+    @Label("Outcome")
+    String outcome;
+
+    /**
+     * Ends the event and, if it passes the recording's thresholds, commits it with the
+     * coordinates of the record currently being processed on this thread.
+     */
+    public void finish(String outcome) {
+        end();
+        if (shouldCommit()) {
+            RecordContext context = RecordContext.current();
+            this.messageId = context.messageId();
+            this.topic = context.topic();
+            this.partition = context.partition();
+            this.offset = context.offset();
+            this.outcome = outcome;
+            commit();
+        }
+    }
+}
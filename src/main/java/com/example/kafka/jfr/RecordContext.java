@@ -0,0 +1,53 @@
+package com.example.kafka.jfr;
+
+/**
+ * Coordinates of the record being processed on the current listener thread, so that
+ * events emitted deeper in the pipeline can be attributed to a message without
+ * threading the {@code ConsumerRecord} through every service.
+ *
+ * <p>One mutable holder is reused per thread; setting and clearing it does not allocate.
+ */
+public final class RecordContext {
+
+    private static final ThreadLocal<RecordContext> CURRENT = ThreadLocal.withInitial(RecordContext::new);
+
+    private String topic;
+    private int partition = -1;
+    private long offset = -1;
+    private String messageId;
+
+    private RecordContext() {
+    }
+
+    public static void set(String topic, int partition, long offset, String messageId) {
+        RecordContext context = CURRENT.get();
+        context.topic = topic;
+        context.partition = partition;
+        context.offset = offset;
+        context.messageId = messageId;
+    }
+
+    public static void clear() {
+        set(null, -1, -1, null);
+    }
+
+    static RecordContext current() {
+        return CURRENT.get();
+    }
+
+    String topic() {
+        return topic;
+    }
+
+    int partition() {
+        return partition;
+    }
+
+    long offset() {
+        return offset;
+    }
+
+    String messageId() {
+        return messageId;
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.kafka.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("com.example.kafka.RestAttempt")
+@Label("REST Attempt")
+@Description("A single REST API call attempt, one per retry")
+public class RestAttemptEvent extends PipelineEvent {
+
+    @Label("Attempt")
+    int attempt;
+
+    @Label("HTTP Status")
+    int statusCode;
+
+    public void setAttempt(int attempt) {
+        this.attempt = attempt;
+    }
+
+    public void setStatusCode(int statusCode) {
+        this.statusCode = statusCode;
+    }
+}
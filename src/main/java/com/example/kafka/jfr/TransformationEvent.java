@@ -0,0 +1,11 @@
+package com.example.kafka.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("com.example.kafka.Transformation")
+@Label("Transformation")
+@Description("Message transformation of a single Kafka record")
+public class TransformationEvent extends PipelineEvent {
+}
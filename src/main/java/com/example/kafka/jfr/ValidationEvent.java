@@ -0,0 +1,11 @@
+package com.example.kafka.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("com.example.kafka.Validation")
+@Label("Validation")
+@Description("Message validation of a single Kafka record")
+public class ValidationEvent extends PipelineEvent {
+}
@@ -0,0 +1,307 @@
+package com.example.kafka.journal;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Append-only, memory-mapped local journal that buffers DLQ records which could
+ * not be delivered to Kafka.
+ *
+ * <p>The journal is a sequence of fixed-size segment files. Each segment starts
+ * with an 8-byte header holding the read position, followed by records of the form
+ * {@code [int length][long enqueuedAt][int keyLength][key][value]}. The length is
+ * written last, so a record torn by a crash reads as end-of-data. Fully drained
+ * segments are deleted, and the number of segments is capped so that disk usage
+ * never exceeds the configured maximum.
+ */
+@Slf4j
+public class DlqSpillJournal implements Closeable {
+
+    private static final String SEGMENT_PREFIX = "dlq-";
+    private static final String SEGMENT_SUFFIX = ".journal";
+    private static final int HEADER_SIZE = Long.BYTES;
+    private static final int LENGTH_SIZE = Integer.BYTES;
+    private static final int RECORD_OVERHEAD = Long.BYTES + Integer.BYTES;
+
+    private final Path directory;
+    private final int segmentBytes;
+    private final int maxSegments;
+    private final Deque<Segment> segments = new ArrayDeque<>();
+
+    private long nextSequence;
+    private long pendingRecords;
+    private long pendingBytes;
+
+    public DlqSpillJournal(Path directory, int segmentBytes, long maxBytes) {
+        if (segmentBytes <= HEADER_SIZE + LENGTH_SIZE + RECORD_OVERHEAD) {
+            throw new IllegalArgumentException("Segment size too small: " + segmentBytes);
+        }
+        this.directory = directory;
+        this.segmentBytes = segmentBytes;
+        this.maxSegments = (int) Math.max(1, maxBytes / segmentBytes);
+        recover();
+    }
+
+    /**
+     * Appends a record to the journal and flushes it to disk.
+     *
+     * @param key The Kafka record key, may be null
+     * @param value The serialized record value
+     * @param enqueuedAt Epoch millis at which the record was spilled
+     * @return false if the record does not fit within the disk budget
+     */
+    public synchronized boolean append(String key, byte[] value, long enqueuedAt) {
+        byte[] keyBytes = key != null ? key.getBytes(StandardCharsets.UTF_8) : null;
+        int keyLength = keyBytes != null ? keyBytes.length : -1;
+        int bodyLength = RECORD_OVERHEAD + Math.max(keyLength, 0) + value.length;
+        int recordLength = LENGTH_SIZE + bodyLength;
+
+        if (HEADER_SIZE + recordLength > segmentBytes) {
+            log.error("DLQ journal record of {} bytes exceeds segment size {}", recordLength, segmentBytes);
+            return false;
+        }
+
+        Segment tail = segments.peekLast();
+        if (tail == null || tail.writePosition + recordLength > segmentBytes) {
+            if (segments.size() >= maxSegments) {
+                return false;
+            }
+            tail = openSegment(nextSequence++, true);
+            segments.addLast(tail);
+        }
+
+        MappedByteBuffer buffer = tail.buffer;
+        int position = tail.writePosition;
+        buffer.putLong(position + LENGTH_SIZE, enqueuedAt);
+        buffer.putInt(position + LENGTH_SIZE + Long.BYTES, keyLength);
+        int cursor = position + LENGTH_SIZE + RECORD_OVERHEAD;
+        if (keyBytes != null) {
+            buffer.put(cursor, keyBytes);
+            cursor += keyBytes.length;
+        }
+        buffer.put(cursor, value);
+        buffer.putInt(position, bodyLength);
+        buffer.force(position, recordLength);
+
+        tail.writePosition += recordLength;
+        pendingRecords++;
+        pendingBytes += recordLength;
+        return true;
+    }
+
+    /**
+     * Returns the oldest undrained record without removing it.
+     *
+     * @return The oldest entry, or null if the journal is empty
+     */
+    public synchronized Entry peek() {
+        Segment head = headSegment();
+        if (head == null) {
+            return null;
+        }
+
+        MappedByteBuffer buffer = head.buffer;
+        int position = head.readPosition;
+        int bodyLength = buffer.getInt(position);
+        long enqueuedAt = buffer.getLong(position + LENGTH_SIZE);
+        int keyLength = buffer.getInt(position + LENGTH_SIZE + Long.BYTES);
+        int cursor = position + LENGTH_SIZE + RECORD_OVERHEAD;
+
+        String key = null;
+        if (keyLength >= 0) {
+            byte[] keyBytes = new byte[keyLength];
+            buffer.get(cursor, keyBytes);
+            key = new String(keyBytes, StandardCharsets.UTF_8);
+            cursor += keyLength;
+        }
+        byte[] value = new byte[bodyLength - RECORD_OVERHEAD - Math.max(keyLength, 0)];
+        buffer.get(cursor, value);
+
+        return new Entry(key, value, enqueuedAt);
+    }
+
+    /**
+     * Marks the record returned by the last {@link #peek()} as delivered.
+     */
+    public synchronized void advance() {
+        Segment head = headSegment();
+        if (head == null) {
+            return;
+        }
+
+        int recordLength = LENGTH_SIZE + head.buffer.getInt(head.readPosition);
+        head.readPosition += recordLength;
+        head.buffer.putLong(0, head.readPosition);
+        head.buffer.force(0, HEADER_SIZE);
+        pendingRecords--;
+        pendingBytes -= recordLength;
+
+        if (head.readPosition >= head.writePosition && head != segments.peekLast()) {
+            segments.removeFirst();
+            head.delete();
+        }
+    }
+
+    public synchronized long depth() {
+        return pendingRecords;
+    }
+
+    public synchronized long pendingBytes() {
+        return pendingBytes;
+    }
+
+    /**
+     * @return Epoch millis of the oldest undrained record, or -1 if empty
+     */
+    public synchronized long oldestEnqueuedAt() {
+        Segment head = headSegment();
+        return head != null ? head.buffer.getLong(head.readPosition + LENGTH_SIZE) : -1L;
+    }
+
+    @Override
+    public synchronized void close() {
+        for (Segment segment : segments) {
+            segment.close();
+        }
+        segments.clear();
+    }
+
+    private Segment headSegment() {
+        while (!segments.isEmpty()) {
+            Segment head = segments.peekFirst();
+            if (head.readPosition < head.writePosition) {
+                return head;
+            }
+            if (head == segments.peekLast()) {
+                return null;
+            }
+            segments.removeFirst();
+            head.delete();
+        }
+        return null;
+    }
+
+    private void recover() {
+        try {
+            Files.createDirectories(directory);
+            List<Path> files = new ArrayList<>();
+            try (Stream<Path> stream = Files.list(directory)) {
+                stream.filter(path -> path.getFileName().toString().startsWith(SEGMENT_PREFIX)
+                                && path.getFileName().toString().endsWith(SEGMENT_SUFFIX))
+                        .sorted()
+                        .forEach(files::add);
+            }
+
+            for (Path file : files) {
+                Segment segment = openSegment(parseSequence(file), false);
+                segments.addLast(segment);
+                nextSequence = segment.sequence + 1;
+                scan(segment);
+            }
+
+            if (pendingRecords > 0) {
+                log.warn("Recovered {} undelivered DLQ records ({} bytes) from journal at {}",
+                        pendingRecords, pendingBytes, directory);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to open DLQ journal at " + directory, e);
+        }
+    }
+
+    private void scan(Segment segment) {
+        MappedByteBuffer buffer = segment.buffer;
+        int position = HEADER_SIZE;
+        while (position + LENGTH_SIZE <= segmentBytes) {
+            int bodyLength = buffer.getInt(position);
+            if (bodyLength <= 0 || position + LENGTH_SIZE + bodyLength > segmentBytes) {
+                break;
+            }
+            if (position >= segment.readPosition) {
+                pendingRecords++;
+                pendingBytes += LENGTH_SIZE + bodyLength;
+            }
+            position += LENGTH_SIZE + bodyLength;
+        }
+        segment.writePosition = position;
+    }
+
+    private Segment openSegment(long sequence, boolean create) {
+        Path file = directory.resolve(String.format("%s%020d%s", SEGMENT_PREFIX, sequence, SEGMENT_SUFFIX));
+        try {
+            FileChannel channel = create
+                    ? FileChannel.open(file, StandardOpenOption.CREATE_NEW,
+                            StandardOpenOption.READ, StandardOpenOption.WRITE)
+                    : FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentBytes);
+            Segment segment = new Segment(sequence, file, channel, buffer);
+            if (create) {
+                buffer.putLong(0, HEADER_SIZE);
+                buffer.force(0, HEADER_SIZE);
+            }
+            segment.readPosition = (int) Math.max(HEADER_SIZE, buffer.getLong(0));
+            segment.writePosition = HEADER_SIZE;
+            return segment;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to open DLQ journal segment " + file, e);
+        }
+    }
+
+    private static long parseSequence(Path file) {
+        String name = file.getFileName().toString();
+        return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    /**
+     * A journaled DLQ record.
+     */
+    public record Entry(String key, byte[] value, long enqueuedAt) {
+    }
+
+    private static final class Segment {
+
+        private final long sequence;
+        private final Path file;
+        private final FileChannel channel;
+        private final MappedByteBuffer buffer;
+        private int readPosition;
+        private int writePosition;
+
+        private Segment(long sequence, Path file, FileChannel channel, MappedByteBuffer buffer) {
+            this.sequence = sequence;
+            this.file = file;
+            this.channel = channel;
+            this.buffer = buffer;
+        }
+
+        private void close() {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                log.warn("Failed to close DLQ journal segment {}", file, e);
+            }
+        }
+
+        private void delete() {
+            close();
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                log.warn("Failed to delete drained DLQ journal segment {}", file, e);
+            }
+        }
+    }
+}
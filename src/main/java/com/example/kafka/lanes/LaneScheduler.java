@@ -0,0 +1,109 @@
+package com.example.kafka.lanes;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Shares a fixed number of outbound permits between priority lanes in proportion to their
+ * weights, using stride scheduling: each grant advances the lane's pass by
+ * {@code 1 / weight}, and the waiting lane with the lowest pass goes next.
+ *
+ * <p>Permits are never held back for an idle lane, so a lane alone gets all of them. A lane
+ * that was idle starts again from the current virtual time rather than with the credit it
+ * would otherwise have saved up.
+ */
+public class LaneScheduler {
+
+    private final int permits;
+    private final List<Share> shares = new ArrayList<>();
+    private int available;
+    private double virtualTime;
+
+    public LaneScheduler(int permits) {
+        if (permits < 1) {
+            throw new IllegalArgumentException("Outbound concurrency must be at least 1: " + permits);
+        }
+        this.permits = permits;
+        this.available = permits;
+    }
+
+    /**
+     * Registers a lane; call before any lane acquires a permit.
+     */
+    public synchronized Share share(String lane, int weight) {
+        if (weight < 1) {
+            throw new IllegalArgumentException("Lane " + lane + " weight must be at least 1: " + weight);
+        }
+        Share share = new Share(lane, 1.0 / weight);
+        shares.add(share);
+        return share;
+    }
+
+    /**
+     * Blocks until it is the lane's turn and a permit is free.
+     */
+    public synchronized void acquire(Share share) throws InterruptedException {
+        if (share.waiting++ == 0) {
+            share.pass = Math.max(share.pass, virtualTime);
+        }
+        try {
+            while (available == 0 || next() != share) {
+                wait();
+            }
+        } catch (InterruptedException e) {
+            // Another lane may be next now
+            notifyAll();
+            throw e;
+        } finally {
+            share.waiting--;
+        }
+        available--;
+        virtualTime = share.pass;
+        share.pass += share.stride;
+        if (available > 0) {
+            notifyAll();
+        }
+    }
+
+    public synchronized void release() {
+        available++;
+        notifyAll();
+    }
+
+    public synchronized int available() {
+        return available;
+    }
+
+    public int permits() {
+        return permits;
+    }
+
+    private Share next() {
+        Share next = null;
+        for (Share share : shares) {
+            if (share.waiting > 0 && (next == null || share.pass < next.pass)) {
+                next = share;
+            }
+        }
+        return next;
+    }
+
+    /**
+     * A lane's place in the schedule; guarded by the scheduler.
+     */
+    public static final class Share {
+        private final String lane;
+        private final double stride;
+        private double pass;
+        private int waiting;
+
+        private Share(String lane, double stride) {
+            this.lane = lane;
+            this.stride = stride;
+        }
+
+        public String lane() {
+            return lane;
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package com.example.kafka.lanes;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * One priority lane: its own single-threaded workers, so records with the same key stay in
+ * order, and its own bound on records queued or running. Each record waits for an outbound
+ * permit from the {@link LaneScheduler} before it runs.
+ */
+@Slf4j
+public class PriorityLane implements AutoCloseable {
+
+    private final String name;
+    private final ExecutorService[] workers;
+    private final Semaphore capacity;
+    private final LaneScheduler scheduler;
+    private final LaneScheduler.Share share;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicLong roundRobin = new AtomicLong();
+    private final Timer queueDelay;
+    private final Counter processed;
+
+    /**
+     * @param workers Worker threads in the lane
+     * @param maxInFlight Records queued or running in the lane before submitters block
+     * @param weight The lane's share of outbound permits relative to the other lanes
+     */
+    public PriorityLane(String name, int workers, int maxInFlight, int weight,
+                        LaneScheduler scheduler, MeterRegistry meterRegistry) {
+        if (workers < 1 || maxInFlight < 1) {
+            throw new IllegalArgumentException("Lane " + name + " needs at least one worker and one in-flight record");
+        }
+        this.name = name;
+        this.workers = new ExecutorService[workers];
+        for (int i = 0; i < workers; i++) {
+            String threadName = "lane-" + name + "-" + i;
+            this.workers[i] = Executors.newSingleThreadExecutor(runnable -> new Thread(runnable, threadName));
+        }
+        this.capacity = new Semaphore(maxInFlight);
+        this.scheduler = scheduler;
+        this.share = scheduler.share(name, weight);
+
+        Gauge.builder("pipeline.lane.in.flight", inFlight, AtomicInteger::get)
+                .description("Records queued or being processed in the lane")
+                .tag("lane", name)
+                .register(meterRegistry);
+        queueDelay = Timer.builder("pipeline.lane.queue.delay")
+                .description("Time from submission to the lane until processing starts, outbound wait included")
+                .tag("lane", name)
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        processed = Counter.builder("pipeline.lane.records")
+                .description("Records processed by the lane")
+                .tag("lane", name)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Queues a record, blocking while the lane is full.
+     *
+     * @param key The record key, or null if ordering does not matter
+     */
+    public void submit(Object key, Runnable task) throws InterruptedException {
+        capacity.acquire();
+        long slot = key != null ? key.hashCode() & Integer.MAX_VALUE : roundRobin.getAndIncrement();
+        long queuedAt = System.nanoTime();
+        inFlight.incrementAndGet();
+        try {
+            workers[(int) (slot % workers.length)].execute(() -> run(queuedAt, task));
+        } catch (RuntimeException e) {
+            inFlight.decrementAndGet();
+            capacity.release();
+            throw e;
+        }
+    }
+
+    public String name() {
+        return name;
+    }
+
+    public int inFlight() {
+        return inFlight.get();
+    }
+
+    @Override
+    public void close() {
+        for (ExecutorService worker : workers) {
+            worker.shutdown();
+        }
+        try {
+            for (ExecutorService worker : workers) {
+                worker.awaitTermination(30, TimeUnit.SECONDS);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void run(long queuedAt, Runnable task) {
+        try {
+            scheduler.acquire(share);
+        } catch (InterruptedException e) {
+            // Shutting down; the record is not acknowledged and is delivered again
+            Thread.currentThread().interrupt();
+            inFlight.decrementAndGet();
+            capacity.release();
+            return;
+        }
+        queueDelay.record(System.nanoTime() - queuedAt, TimeUnit.NANOSECONDS);
+        try {
+            task.run();
+        } catch (RuntimeException e) {
+            log.error("Unhandled error in lane {}: {}", name, e.getMessage(), e);
+        } finally {
+            scheduler.release();
+            processed.increment();
+            inFlight.decrementAndGet();
+            capacity.release();
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.kafka.lanes;
+
+import com.example.kafka.config.ApplicationProperties;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The configured priority lanes, and which lane each event type goes to. Event types no
+ * lane claims, and records that failed to deserialize, go to the default lane.
+ */
+public class PriorityLanes implements AutoCloseable {
+
+    private final LaneScheduler scheduler;
+    private final Map<String, PriorityLane> lanes = new LinkedHashMap<>();
+    private final Map<String, PriorityLane> byEventType = new HashMap<>();
+    private final PriorityLane defaultLane;
+
+    public PriorityLanes(ApplicationProperties.PriorityLanes config, MeterRegistry meterRegistry) {
+        this.scheduler = new LaneScheduler(config.getOutboundConcurrency());
+        Map<String, ApplicationProperties.PriorityLanes.Lane> definitions = new LinkedHashMap<>(config.getLanes());
+        // The default lane need not be configured explicitly
+        definitions.putIfAbsent(config.getDefaultLane(), new ApplicationProperties.PriorityLanes.Lane());
+
+        definitions.forEach((name, definition) -> {
+            PriorityLane lane = new PriorityLane(name, definition.getWorkers(), definition.getMaxInFlight(),
+                    definition.getWeight(), scheduler, meterRegistry);
+            lanes.put(name, lane);
+            for (String eventType : definition.getEventTypes()) {
+                PriorityLane previous = byEventType.putIfAbsent(eventType, lane);
+                if (previous != null) {
+                    throw new IllegalArgumentException("Event type " + eventType + " is claimed by lanes "
+                            + previous.name() + " and " + name);
+                }
+            }
+        });
+        this.defaultLane = lanes.get(config.getDefaultLane());
+
+        Gauge.builder("pipeline.lanes.outbound.available", scheduler, LaneScheduler::available)
+                .description("Outbound permits not currently held by any lane")
+                .register(meterRegistry);
+    }
+
+    public PriorityLane laneFor(String eventType) {
+        PriorityLane lane = eventType != null ? byEventType.get(eventType) : null;
+        return lane != null ? lane : defaultLane;
+    }
+
+    /**
+     * @throws IllegalArgumentException if no lane has that name
+     */
+    public PriorityLane lane(String name) {
+        PriorityLane lane = lanes.get(name);
+        if (lane == null) {
+            throw new IllegalArgumentException("Unknown priority lane " + name);
+        }
+        return lane;
+    }
+
+    @Override
+    public void close() {
+        for (PriorityLane lane : lanes.values()) {
+            lane.close();
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.kafka.logging;
+
+import com.example.kafka.config.ApplicationProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-message logging policy for the success path. Failures are always logged by the
+ * caller; successes are logged for 1 in {@code success-sample-rate} messages or, when
+ * {@code success-max-per-second} is set, for at most that many messages per second.
+ */
+@Component
+public class LogBudget {
+
+    private final long sampleRate;
+    private final long maxPerSecond;
+
+    private final AtomicLong successes = new AtomicLong();
+    private final AtomicLong windowSecond = new AtomicLong();
+    private final AtomicLong windowCount = new AtomicLong();
+    private final AtomicLong suppressedSinceLast = new AtomicLong();
+
+    private final Counter logged;
+    private final Counter suppressed;
+
+    public LogBudget(ApplicationProperties properties, MeterRegistry meterRegistry) {
+        ApplicationProperties.Logging logging = properties.getLogging();
+        this.sampleRate = Math.max(1, logging.getSuccessSampleRate());
+        this.maxPerSecond = Math.max(0, logging.getSuccessMaxPerSecond());
+        this.logged = Counter.builder("logging.success.messages")
+                .description("Success-path log lines by sampling decision")
+                .tag("result", "logged")
+                .register(meterRegistry);
+        this.suppressed = Counter.builder("logging.success.messages")
+                .description("Success-path log lines by sampling decision")
+                .tag("result", "suppressed")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Decides whether the success of the current message should be logged.
+     *
+     * @return the number of successes suppressed since the last logged one plus one, or
+     *         {@code 0} if this success should not be logged
+     */
+    public long sampleSuccess() {
+        if (admit()) {
+            logged.increment();
+            return suppressedSinceLast.getAndSet(0) + 1;
+        }
+        suppressed.increment();
+        suppressedSinceLast.incrementAndGet();
+        return 0;
+    }
+
+    private boolean admit() {
+        if (maxPerSecond == 0) {
+            return successes.getAndIncrement() % sampleRate == 0;
+        }
+
+        long second = System.currentTimeMillis() / 1000;
+        long current = windowSecond.get();
+        if (second != current && windowSecond.compareAndSet(current, second)) {
+            windowCount.set(0);
+        }
+        return windowCount.incrementAndGet() <= maxPerSecond;
+    }
+}
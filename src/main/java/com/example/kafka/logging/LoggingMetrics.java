@@ -0,0 +1,55 @@
+package com.example.kafka.logging;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+
+/**
+ * Publishes drop counters and queue depth of the {@link DroppingAsyncAppender}s attached
+ * to the root logger.
+ */
+@Slf4j
+@Component
+public class LoggingMetrics {
+
+    public LoggingMetrics(MeterRegistry meterRegistry) {
+        if (!(LoggerFactory.getILoggerFactory() instanceof LoggerContext context)) {
+            return;
+        }
+
+        Iterator<Appender<ILoggingEvent>> appenders =
+                context.getLogger(Logger.ROOT_LOGGER_NAME).iteratorForAppenders();
+        while (appenders.hasNext()) {
+            if (appenders.next() instanceof DroppingAsyncAppender appender) {
+                bind(appender, meterRegistry);
+                log.debug("Bound metrics for async log appender {}", appender.getName());
+            }
+        }
+    }
+
+    private static void bind(DroppingAsyncAppender appender, MeterRegistry meterRegistry) {
+        FunctionCounter.builder("logging.async.dropped", appender, DroppingAsyncAppender::getDiscardedCount)
+                .description("Log events dropped by the async appender")
+                .tag("appender", appender.getName())
+                .tag("reason", "discarded")
+                .register(meterRegistry);
+        FunctionCounter.builder("logging.async.dropped", appender, DroppingAsyncAppender::getOverflowCount)
+                .description("Log events dropped by the async appender")
+                .tag("appender", appender.getName())
+                .tag("reason", "overflow")
+                .register(meterRegistry);
+        Gauge.builder("logging.async.queue.depth", appender, DroppingAsyncAppender::getQueueDepth)
+                .description("Log events waiting in the async appender queue")
+                .tag("appender", appender.getName())
+                .register(meterRegistry);
+    }
+}
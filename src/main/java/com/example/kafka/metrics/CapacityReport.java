@@ -0,0 +1,140 @@
+package com.example.kafka.metrics;
+
+import com.example.kafka.config.ApplicationProperties;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput and per-stage cost derived from {@link PipelineMetrics}, meant for dry runs
+ * where the sink is not the bottleneck. Figures cover the window since startup or the last
+ * {@link #reset()}, so warm-up can be excluded.
+ *
+ * <p>The projection divides a second by the stage time spent per message, i.e. what one
+ * consumer thread could sustain if it were never idle, then multiplies by the listener
+ * concurrency.
+ */
+@Slf4j
+@Component
+public class CapacityReport {
+
+    private final MeterRegistry meterRegistry;
+    private final String sinkMode;
+    private final int consumerThreads;
+    private final Map<Meter.Id, Baseline> baselines = new ConcurrentHashMap<>();
+    private volatile long windowStartNanos = System.nanoTime();
+
+    public CapacityReport(MeterRegistry meterRegistry, ApplicationProperties properties,
+                          @Value("${spring.kafka.listener.concurrency:3}") int consumerThreads) {
+        this.meterRegistry = meterRegistry;
+        this.sinkMode = properties.getSink().getMode();
+        this.consumerThreads = consumerThreads;
+    }
+
+    public record Report(String sink, double elapsedSeconds, long messages, double messagesPerSecond,
+                         double stageMillisPerMessage, double projectedPerThread, int consumerThreads,
+                         double projectedMessagesPerSecond, List<StageCapacity> stages) {
+    }
+
+    /**
+     * @param shareOfTime Fraction of all stage time spent in this stage
+     */
+    public record StageCapacity(String stage, long count, double meanMillis, double maxMillis, double shareOfTime) {
+    }
+
+    private record Baseline(long count, double totalNanos) {
+    }
+
+    public Report report() {
+        double elapsedSeconds = (System.nanoTime() - windowStartNanos) / 1e9;
+        long messages = 0;
+        for (Timer timer : timers(PipelineMetrics.END_TO_END_TIMER)) {
+            messages += timer.count() - baseline(timer).count();
+        }
+
+        List<StageCapacity> stages = new ArrayList<>();
+        double[] totalNanos = new double[PipelineMetrics.Stage.values().length];
+        long[] counts = new long[totalNanos.length];
+        double[] maxMillis = new double[totalNanos.length];
+        for (Timer timer : timers(PipelineMetrics.STAGE_TIMER)) {
+            int stage = stageIndex(timer.getId().getTag("stage"));
+            if (stage >= 0) {
+                Baseline baseline = baseline(timer);
+                counts[stage] += timer.count() - baseline.count();
+                totalNanos[stage] += timer.totalTime(TimeUnit.NANOSECONDS) - baseline.totalNanos();
+                maxMillis[stage] = Math.max(maxMillis[stage], timer.max(TimeUnit.MILLISECONDS));
+            }
+        }
+        double allNanos = 0;
+        for (double nanos : totalNanos) {
+            allNanos += nanos;
+        }
+        for (PipelineMetrics.Stage stage : PipelineMetrics.Stage.values()) {
+            int i = stage.ordinal();
+            if (counts[i] > 0) {
+                stages.add(new StageCapacity(stage.tag, counts[i], totalNanos[i] / counts[i] / 1e6, maxMillis[i],
+                        allNanos > 0 ? totalNanos[i] / allNanos : 0));
+            }
+        }
+
+        double stageMillisPerMessage = messages > 0 ? allNanos / messages / 1e6 : 0;
+        double projectedPerThread = stageMillisPerMessage > 0 ? 1000 / stageMillisPerMessage : 0;
+        return new Report(sinkMode, elapsedSeconds, messages, elapsedSeconds > 0 ? messages / elapsedSeconds : 0,
+                stageMillisPerMessage, projectedPerThread, consumerThreads, projectedPerThread * consumerThreads, stages);
+    }
+
+    /**
+     * Starts a new measurement window, e.g. once warm-up traffic has been processed.
+     */
+    public void reset() {
+        baselines.clear();
+        for (String name : List.of(PipelineMetrics.END_TO_END_TIMER, PipelineMetrics.STAGE_TIMER)) {
+            for (Timer timer : timers(name)) {
+                baselines.put(timer.getId(), new Baseline(timer.count(), timer.totalTime(TimeUnit.NANOSECONDS)));
+            }
+        }
+        windowStartNanos = System.nanoTime();
+    }
+
+    @PreDestroy
+    void logFinalReport() {
+        if ("rest".equals(sinkMode)) {
+            return;
+        }
+        Report report = report();
+        log.info("Capacity report ({} sink): {} messages in {}s, {} msg/s observed, {} ms of stage time per message, "
+                        + "projected {} msg/s per thread and {} msg/s with {} threads, stages {}",
+                report.sink(), report.messages(), Math.round(report.elapsedSeconds()),
+                Math.round(report.messagesPerSecond()), String.format("%.3f", report.stageMillisPerMessage()),
+                Math.round(report.projectedPerThread()), Math.round(report.projectedMessagesPerSecond()),
+                report.consumerThreads(), report.stages());
+    }
+
+    private Collection<Timer> timers(String name) {
+        return meterRegistry.find(name).timers();
+    }
+
+    private Baseline baseline(Timer timer) {
+        return baselines.getOrDefault(timer.getId(), new Baseline(0, 0));
+    }
+
+    private static int stageIndex(String tag) {
+        for (PipelineMetrics.Stage stage : PipelineMetrics.Stage.values()) {
+            if (stage.tag.equals(tag)) {
+                return stage.ordinal();
+            }
+        }
+        return -1;
+    }
+}
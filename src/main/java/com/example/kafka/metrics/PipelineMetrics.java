@@ -0,0 +1,204 @@
+package com.example.kafka.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Micrometer timers for each stage of the message pipeline and for the
+ * end-to-end latency from the Kafka record timestamp to the offset acknowledgment.
+ *
+ * <p>All timers but the per-partition one publish percentile histograms. Tag values taken
+ * from message content are capped so that a misbehaving producer cannot explode cardinality.
+ */
+@Component
+public class PipelineMetrics {
+
+    public static final String STAGE_TIMER = "pipeline.stage";
+    public static final String END_TO_END_TIMER = "pipeline.end.to.end";
+    public static final String PARTITION_END_TO_END_TIMER = "pipeline.end.to.end.partition";
+    public static final String ACKNOWLEDGED_COUNTER = "pipeline.acknowledged";
+
+    public static final String DEFAULT_PIPELINE = "default";
+
+    static final int MAX_EVENT_TYPES = 50;
+    static final int MAX_PARTITIONS = 256;
+    static final String OTHER = "other";
+
+    private static final Duration MIN_EXPECTED_STAGE = Duration.ofNanos(10_000);
+    private static final Duration MIN_EXPECTED = Duration.ofMillis(1);
+    private static final Duration MAX_EXPECTED = Duration.ofMinutes(5);
+
+    /**
+     * Pipeline stages as seen from {@code MessageConsumer}.
+     */
+    public enum Stage {
+        DESERIALIZE, VALIDATE, TRANSFORM, HTTP, DLQ, ACK;
+
+        final String tag = name().toLowerCase(Locale.ROOT);
+    }
+
+    private final MeterRegistry meterRegistry;
+    private final ResourceAccounting resourceAccounting;
+    private final String pipeline;
+    private final Map<Stage, Map<String, Timer>> stageTimers = new EnumMap<>(Stage.class);
+    private final Map<String, Timer> endToEndTimers = new ConcurrentHashMap<>();
+    private final Map<String, Timer> partitionTimers = new ConcurrentHashMap<>();
+    private final Map<String, Counter> acknowledgedCounters = new ConcurrentHashMap<>();
+    private final Set<String> eventTypes = ConcurrentHashMap.newKeySet();
+
+    public PipelineMetrics(MeterRegistry meterRegistry) {
+        this(meterRegistry, null);
+    }
+
+    @Autowired
+    public PipelineMetrics(MeterRegistry meterRegistry, ResourceAccounting resourceAccounting) {
+        this(meterRegistry, resourceAccounting, DEFAULT_PIPELINE);
+    }
+
+    /**
+     * @param pipeline Value of the {@code pipeline} tag on every timer
+     */
+    public PipelineMetrics(MeterRegistry meterRegistry, ResourceAccounting resourceAccounting, String pipeline) {
+        this.meterRegistry = meterRegistry;
+        this.resourceAccounting = resourceAccounting;
+        this.pipeline = pipeline;
+        for (Stage stage : Stage.values()) {
+            stageTimers.put(stage, new ConcurrentHashMap<>());
+        }
+    }
+
+    /**
+     * Records the time spent in a stage since {@code startNanos}.
+     *
+     * @param stage The pipeline stage
+     * @param outcome {@code success} or {@code failure}
+     * @param startNanos Value of {@link System#nanoTime()} when the stage started
+     */
+    public void recordStage(Stage stage, String outcome, long startNanos) {
+        stageTimer(stage, outcome).record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+        if (resourceAccounting != null) {
+            resourceAccounting.stage(pipeline, stage);
+        }
+    }
+
+    /**
+     * Marks the start of a message for {@link ResourceAccounting}, if enabled.
+     */
+    public void beginMessage() {
+        if (resourceAccounting != null) {
+            resourceAccounting.start();
+        }
+    }
+
+    /**
+     * Marks the end of a message for {@link ResourceAccounting}, if enabled.
+     */
+    public void endMessage() {
+        if (resourceAccounting != null) {
+            resourceAccounting.finish(pipeline);
+        }
+    }
+
+    public String pipeline() {
+        return pipeline;
+    }
+
+    public Timer stageTimer(Stage stage, String outcome) {
+        return stageTimers.get(stage).computeIfAbsent(outcome, key -> Timer.builder(STAGE_TIMER)
+                .description("Time spent in each message pipeline stage")
+                .tag("pipeline", pipeline)
+                .tag("stage", stage.tag)
+                .tag("outcome", key)
+                .publishPercentileHistogram()
+                .minimumExpectedValue(MIN_EXPECTED_STAGE)
+                .maximumExpectedValue(MAX_EXPECTED)
+                .register(meterRegistry));
+    }
+
+    /**
+     * Records the latency from the record's producer/broker timestamp to its acknowledgment,
+     * and counts the acknowledgment against its partition.
+     *
+     * <p>The per-partition latency publishes client-side p50 and p99 instead of a histogram,
+     * which would multiply the timer's series by the partition count, and its timers are
+     * removed with {@link #removePartitions} when partitions are revoked.
+     *
+     * @param recordTimestamp The Kafka record timestamp in epoch millis
+     * @param partition The source partition
+     * @param eventType The message event type, may be null
+     * @param outcome {@code delivered} or {@code dlq}
+     */
+    public void recordEndToEnd(long recordTimestamp, int partition, String eventType, String outcome) {
+        String partitionTag = partition >= 0 && partition < MAX_PARTITIONS ? Integer.toString(partition) : OTHER;
+        acknowledgedCounters.computeIfAbsent(partitionTag + '|' + outcome, key -> Counter.builder(ACKNOWLEDGED_COUNTER)
+                        .description("Acknowledged records by source partition")
+                        .tag("pipeline", pipeline)
+                        .tag("partition", partitionTag)
+                        .tag("outcome", outcome)
+                        .register(meterRegistry))
+                .increment();
+        if (recordTimestamp <= 0) {
+            return;
+        }
+        long latencyMillis = Math.max(0, System.currentTimeMillis() - recordTimestamp);
+        String eventTypeTag = boundedEventType(eventType);
+
+        endToEndTimers.computeIfAbsent(eventTypeTag + '|' + outcome,
+                        key -> Timer.builder(END_TO_END_TIMER)
+                                .description("Latency from Kafka record timestamp to offset acknowledgment")
+                                .tag("pipeline", pipeline)
+                                .tag("eventType", eventTypeTag)
+                                .tag("outcome", outcome)
+                                .publishPercentileHistogram()
+                                .minimumExpectedValue(MIN_EXPECTED)
+                                .maximumExpectedValue(MAX_EXPECTED)
+                                .register(meterRegistry))
+                .record(latencyMillis, TimeUnit.MILLISECONDS);
+
+        partitionTimers.computeIfAbsent(partitionTag, key -> Timer.builder(PARTITION_END_TO_END_TIMER)
+                        .description("Latency from Kafka record timestamp to offset acknowledgment by source partition")
+                        .tag("pipeline", pipeline)
+                        .tag("partition", key)
+                        .publishPercentiles(0.5, 0.99)
+                        .register(meterRegistry))
+                .record(latencyMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Removes the per-partition latency timers of partitions that are no longer assigned,
+     * so that their series follow the assignment instead of every partition ever seen.
+     */
+    public void removePartitions(Collection<Integer> partitions) {
+        for (int partition : partitions) {
+            Timer timer = partitionTimers.remove(Integer.toString(partition));
+            if (timer != null) {
+                meterRegistry.remove(timer);
+            }
+        }
+    }
+
+    String boundedEventType(String eventType) {
+        if (eventType == null || eventType.isEmpty()) {
+            return "unknown";
+        }
+        if (eventTypes.contains(eventType)) {
+            return eventType;
+        }
+        if (eventTypes.size() < MAX_EVENT_TYPES && eventTypes.add(eventType)) {
+            return eventType;
+        }
+        return eventTypes.contains(eventType) ? eventType : OTHER;
+    }
+}
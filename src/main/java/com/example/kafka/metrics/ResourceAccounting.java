@@ -0,0 +1,159 @@
+package com.example.kafka.metrics;
+
+import com.example.kafka.config.ApplicationProperties;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Optional per-message accounting of bytes allocated and CPU time consumed by the listener
+ * thread, from the JVM's per-thread counters. Each stage is charged with what the thread
+ * used since the previous stage ended, and each message with what it used since
+ * {@link #start()}. Meters are tagged with the pipeline the message belongs to.
+ *
+ * <p>Disabled by default; when disabled every method returns immediately. Deserialization
+ * runs in the poll loop before the listener is invoked and is therefore not accounted.
+ */
+@Slf4j
+@Component
+public class ResourceAccounting {
+
+    private static final int MESSAGE_BYTES = 0;
+    private static final int MESSAGE_CPU = 1;
+    private static final int STAGE_BYTES = 2;
+    private static final int STAGE_CPU = 3;
+
+    private final boolean enabled;
+    private final com.sun.management.ThreadMXBean threads;
+    private final ThreadLocal<long[]> marks = ThreadLocal.withInitial(() -> new long[4]);
+
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Meters> meters = new ConcurrentHashMap<>();
+
+    public ResourceAccounting(ApplicationProperties properties, MeterRegistry meterRegistry) {
+        this.threads = ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean bean
+                ? bean : null;
+        this.meterRegistry = meterRegistry;
+        this.enabled = properties.getMetrics().isResourceAccounting() && supported();
+
+        if (!enabled) {
+            return;
+        }
+
+        threads.setThreadAllocatedMemoryEnabled(true);
+        threads.setThreadCpuTimeEnabled(true);
+        meters(PipelineMetrics.DEFAULT_PIPELINE);
+
+        log.info("Per-message allocation and CPU accounting is enabled");
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Marks the start of a message on the calling thread.
+     */
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        long[] mark = marks.get();
+        mark[MESSAGE_BYTES] = mark[STAGE_BYTES] = threads.getCurrentThreadAllocatedBytes();
+        mark[MESSAGE_CPU] = mark[STAGE_CPU] = threads.getCurrentThreadCpuTime();
+    }
+
+    /**
+     * Charges what the calling thread used since the previous stage to {@code stage}.
+     *
+     * @param pipeline Value of the {@code pipeline} tag
+     */
+    public void stage(String pipeline, PipelineMetrics.Stage stage) {
+        if (!enabled || stage == PipelineMetrics.Stage.DESERIALIZE) {
+            return;
+        }
+        long[] mark = marks.get();
+        long bytes = threads.getCurrentThreadAllocatedBytes();
+        long cpu = threads.getCurrentThreadCpuTime();
+        Meters pipelineMeters = meters(pipeline);
+        pipelineMeters.stageBytes().get(stage).record(bytes - mark[STAGE_BYTES]);
+        pipelineMeters.stageCpu().get(stage).record(cpu - mark[STAGE_CPU], TimeUnit.NANOSECONDS);
+        mark[STAGE_BYTES] = bytes;
+        mark[STAGE_CPU] = cpu;
+    }
+
+    /**
+     * Charges what the calling thread used since {@link #start()} to the message.
+     *
+     * @param pipeline Value of the {@code pipeline} tag
+     */
+    public void finish(String pipeline) {
+        if (!enabled) {
+            return;
+        }
+        long[] mark = marks.get();
+        Meters pipelineMeters = meters(pipeline);
+        pipelineMeters.messageBytes().record(threads.getCurrentThreadAllocatedBytes() - mark[MESSAGE_BYTES]);
+        pipelineMeters.messageCpu().record(threads.getCurrentThreadCpuTime() - mark[MESSAGE_CPU],
+                TimeUnit.NANOSECONDS);
+    }
+
+    private Meters meters(String pipeline) {
+        return meters.computeIfAbsent(pipeline, this::register);
+    }
+
+    private Meters register(String pipeline) {
+        Map<PipelineMetrics.Stage, DistributionSummary> stageBytes = new EnumMap<>(PipelineMetrics.Stage.class);
+        Map<PipelineMetrics.Stage, Timer> stageCpu = new EnumMap<>(PipelineMetrics.Stage.class);
+        for (PipelineMetrics.Stage stage : PipelineMetrics.Stage.values()) {
+            stageBytes.put(stage, DistributionSummary.builder("pipeline.stage.allocated")
+                    .description("Bytes allocated by the listener thread per pipeline stage")
+                    .baseUnit("bytes")
+                    .tag("pipeline", pipeline)
+                    .tag("stage", stage.tag)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry));
+            stageCpu.put(stage, Timer.builder("pipeline.stage.cpu")
+                    .description("CPU time of the listener thread per pipeline stage")
+                    .tag("pipeline", pipeline)
+                    .tag("stage", stage.tag)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry));
+        }
+        DistributionSummary messageBytes = DistributionSummary.builder("pipeline.message.allocated")
+                .description("Bytes allocated by the listener thread per message")
+                .baseUnit("bytes")
+                .tag("pipeline", pipeline)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        Timer messageCpu = Timer.builder("pipeline.message.cpu")
+                .description("CPU time of the listener thread per message")
+                .tag("pipeline", pipeline)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        return new Meters(stageBytes, stageCpu, messageBytes, messageCpu);
+    }
+
+    private boolean supported() {
+        if (threads == null || !threads.isThreadAllocatedMemorySupported() || !threads.isThreadCpuTimeSupported()) {
+            log.warn("Per-thread allocation or CPU time counters are not supported by this JVM; "
+                    + "resource accounting stays disabled");
+            return false;
+        }
+        return true;
+    }
+
+    private record Meters(Map<PipelineMetrics.Stage, DistributionSummary> stageBytes,
+                          Map<PipelineMetrics.Stage, Timer> stageCpu,
+                          DistributionSummary messageBytes,
+                          Timer messageCpu) {
+    }
+}
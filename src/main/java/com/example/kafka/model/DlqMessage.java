@@ -1,5 +1,6 @@
 package com.example.kafka.model;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -44,4 +45,19 @@ public class DlqMessage {
 
     @JsonProperty("retryCount")
     private Integer retryCount;
+
+    /**
+     * Blob store pointer to the full message when it was offloaded as a claim check.
+     */
+    @JsonProperty("payloadRef")
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String payloadRef;
+
+    @JsonProperty("payloadChecksum")
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String payloadChecksum;
+
+    @JsonProperty("payloadSize")
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Integer payloadSize;
 }
@@ -0,0 +1,89 @@
+package com.example.kafka.pipelines;
+
+import org.springframework.kafka.config.KafkaListenerEndpoint;
+import org.springframework.kafka.listener.MessageListenerContainer;
+import org.springframework.kafka.support.TopicPartitionOffset;
+import org.springframework.kafka.support.converter.MessageConverter;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Listener endpoint of one named pipeline. Registered with the listener container factory,
+ * it gets its own containers, consumer group and threads, and shows up in the endpoint
+ * registry under {@code pipeline-<name>} like any {@code @KafkaListener}.
+ */
+public class PipelineEndpoint implements KafkaListenerEndpoint {
+
+    private final String name;
+    private final String groupId;
+    private final List<String> topics;
+    private final int concurrency;
+    private final PipelineListener listener;
+
+    public PipelineEndpoint(String name, String groupId, List<String> topics, int concurrency,
+                            PipelineListener listener) {
+        this.name = name;
+        this.groupId = groupId;
+        this.topics = List.copyOf(topics);
+        this.concurrency = concurrency;
+        this.listener = listener;
+    }
+
+    @Override
+    public String getId() {
+        return "pipeline-" + name;
+    }
+
+    @Override
+    public String getGroupId() {
+        return groupId;
+    }
+
+    @Override
+    public String getGroup() {
+        return null;
+    }
+
+    @Override
+    public Collection<String> getTopics() {
+        return topics;
+    }
+
+    @Override
+    public TopicPartitionOffset[] getTopicPartitionsToAssign() {
+        return null;
+    }
+
+    @Override
+    public Pattern getTopicPattern() {
+        return null;
+    }
+
+    @Override
+    public String getClientIdPrefix() {
+        return getId();
+    }
+
+    @Override
+    public Integer getConcurrency() {
+        return concurrency;
+    }
+
+    @Override
+    public Boolean getAutoStartup() {
+        // The container factory decides, so warm-up holds back every pipeline alike
+        return null;
+    }
+
+    @Override
+    public void setupListenerContainer(MessageListenerContainer listenerContainer, MessageConverter messageConverter) {
+        listenerContainer.setupMessageListener(listener);
+    }
+
+    @Override
+    public boolean isSplitIterables() {
+        return true;
+    }
+}
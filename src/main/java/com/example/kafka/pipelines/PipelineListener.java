@@ -0,0 +1,35 @@
+package com.example.kafka.pipelines;
+
+import com.example.kafka.consumer.RecordProcessor;
+import com.example.kafka.diagnostics.PipelineTracker;
+import com.example.kafka.metrics.PipelineMetrics;
+import com.example.kafka.model.IncomingMessage;
+import com.example.kafka.service.DeadLetterQueueService;
+import com.example.kafka.service.MessageProcessingService;
+import com.example.kafka.service.ValidationService;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.kafka.listener.AcknowledgingMessageListener;
+import org.springframework.kafka.support.Acknowledgment;
+
+/**
+ * Listener of one named pipeline: validates each record, transforms and delivers it to the
+ * pipeline's endpoint, or sends it to the pipeline's DLQ, and acknowledges it, on the
+ * pipeline's own listener thread.
+ */
+public class PipelineListener implements AcknowledgingMessageListener<String, IncomingMessage> {
+
+    private final RecordProcessor processor;
+
+    public PipelineListener(ValidationService validationService,
+                            MessageProcessingService processingService,
+                            DeadLetterQueueService dlqService,
+                            PipelineMetrics metrics,
+                            PipelineTracker tracker) {
+        this.processor = new RecordProcessor(validationService, processingService, dlqService, metrics, tracker);
+    }
+
+    @Override
+    public void onMessage(ConsumerRecord<String, IncomingMessage> record, Acknowledgment acknowledgment) {
+        processor.process(record, acknowledgment);
+    }
+}
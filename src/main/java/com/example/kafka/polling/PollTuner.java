@@ -0,0 +1,184 @@
+package com.example.kafka.polling;
+
+import com.example.kafka.config.ApplicationProperties;
+import com.example.kafka.model.IncomingMessage;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.listener.RecordInterceptor;
+
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps each poll cycle, from {@code poll()} returning to the next {@code poll()}, within a
+ * fraction of {@code max.poll.interval.ms}.
+ *
+ * <p>Per-record processing time is measured on the consumer threads and turned into a limit
+ * on records per poll. The limit applies immediately: records beyond it, or past the cycle's
+ * time budget, are skipped and the partition is rewound so that the next poll returns them
+ * again. It is also pushed to the consumer factory as {@code max.poll.records} and
+ * {@code max.partition.fetch.bytes}, which consumers created later (after a restart or
+ * rebalance recovery) fetch with; live consumers cannot change those settings.
+ */
+@Slf4j
+public class PollTuner implements RecordInterceptor<String, IncomingMessage> {
+
+    static final int MIN_PARTITION_FETCH_BYTES = 64 * 1024;
+    static final int MAX_PARTITION_FETCH_BYTES = 1024 * 1024;
+
+    private static final double PUSH_THRESHOLD = 0.25;
+
+    private final ConsumerFactory<?, ?> consumerFactory;
+    private final ApplicationProperties.PollTuning config;
+    private final long targetNanos;
+    private final long nearLimitNanos;
+    private final boolean deferEnabled;
+    private final ThreadLocal<Cycle> cycles = ThreadLocal.withInitial(Cycle::new);
+
+    private final Timer cycleTimer;
+    private final Counter nearLimitCounter;
+    private final Counter deferredCounter;
+
+    private volatile int limit;
+    private volatile double perRecordNanos;
+    private volatile double recordBytes;
+    private int pushedLimit;
+
+    /**
+     * @param maxPollRecords The configured {@code max.poll.records}, the starting limit
+     * @param maxPollIntervalMs The configured {@code max.poll.interval.ms}
+     * @param deferEnabled Whether records may be skipped and re-polled; not with out-of-order
+     *        acks, where the container waits for every record of a poll to be acknowledged
+     */
+    public PollTuner(ConsumerFactory<?, ?> consumerFactory,
+                     ApplicationProperties.PollTuning config,
+                     int maxPollRecords,
+                     long maxPollIntervalMs,
+                     boolean deferEnabled,
+                     MeterRegistry meterRegistry) {
+        this.consumerFactory = consumerFactory;
+        this.config = config;
+        this.targetNanos = (long) (TimeUnit.MILLISECONDS.toNanos(maxPollIntervalMs) * config.getTargetFraction());
+        this.nearLimitNanos = (long) (TimeUnit.MILLISECONDS.toNanos(maxPollIntervalMs) * config.getNearLimitFraction());
+        this.deferEnabled = deferEnabled;
+        this.limit = clamp(maxPollRecords);
+        this.pushedLimit = maxPollRecords;
+
+        this.cycleTimer = Timer.builder("pipeline.poll.cycle")
+                .description("Time from poll() returning records until they are all processed")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.nearLimitCounter = Counter.builder("pipeline.poll.cycles.near.limit")
+                .description("Poll cycles that took more than the near-limit fraction of max.poll.interval.ms")
+                .register(meterRegistry);
+        this.deferredCounter = Counter.builder("pipeline.poll.records.deferred")
+                .description("Records skipped and rewound to the next poll to keep the cycle within budget")
+                .register(meterRegistry);
+        Gauge.builder("pipeline.poll.records.limit", this, tuner -> tuner.limit)
+                .description("Tuned records per poll")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public ConsumerRecord<String, IncomingMessage> intercept(ConsumerRecord<String, IncomingMessage> record,
+                                                             Consumer<String, IncomingMessage> consumer) {
+        Cycle cycle = cycles.get();
+        long now = System.nanoTime();
+        if (cycle.startNanos == 0) {
+            cycle.startNanos = now;
+        }
+        if (deferEnabled && (cycle.deferring || cycle.processed >= limit || now - cycle.startNanos >= targetNanos)) {
+            cycle.deferring = true;
+            TopicPartition partition = new TopicPartition(record.topic(), record.partition());
+            if (cycle.rewound.add(partition)) {
+                consumer.seek(partition, record.offset());
+            }
+            deferredCounter.increment();
+            return null;
+        }
+        cycle.processed++;
+        cycle.bytes += Math.max(0, record.serializedKeySize()) + Math.max(0, record.serializedValueSize());
+        return record;
+    }
+
+    @Override
+    public void clearThreadState(Consumer<?, ?> consumer) {
+        Cycle cycle = cycles.get();
+        if (cycle.startNanos != 0 && cycle.processed > 0) {
+            completeCycle(System.nanoTime() - cycle.startNanos, cycle.processed, cycle.bytes);
+        }
+        cycle.reset();
+    }
+
+    /**
+     * Folds one finished poll cycle into the per-record estimate and recomputes the limit.
+     * Increases in per-record time are taken at once, decreases are smoothed, so that a
+     * slow upstream shrinks batches immediately but a brief recovery does not grow them.
+     */
+    synchronized void completeCycle(long cycleNanos, int processed, long bytes) {
+        cycleTimer.record(cycleNanos, TimeUnit.NANOSECONDS);
+        if (cycleNanos >= nearLimitNanos) {
+            nearLimitCounter.increment();
+            log.warn("Poll cycle of {} records took {} ms, close to max.poll.interval.ms",
+                    processed, TimeUnit.NANOSECONDS.toMillis(cycleNanos));
+        }
+
+        double sample = (double) cycleNanos / processed;
+        double smoothing = config.getSmoothing();
+        perRecordNanos = perRecordNanos == 0 || sample > perRecordNanos
+                ? sample
+                : perRecordNanos + smoothing * (sample - perRecordNanos);
+        double sampleBytes = (double) bytes / processed;
+        recordBytes = recordBytes == 0 ? sampleBytes : recordBytes + smoothing * (sampleBytes - recordBytes);
+
+        limit = clamp((int) Math.min(Integer.MAX_VALUE, targetNanos / perRecordNanos));
+        if (Math.abs(limit - pushedLimit) > pushedLimit * PUSH_THRESHOLD) {
+            push();
+        }
+    }
+
+    private void push() {
+        int partitionFetchBytes = (int) Math.max(MIN_PARTITION_FETCH_BYTES,
+                Math.min(MAX_PARTITION_FETCH_BYTES, limit * recordBytes * 2));
+        consumerFactory.updateConfigs(Map.of(
+                ConsumerConfig.MAX_POLL_RECORDS_CONFIG, limit,
+                ConsumerConfig.MAX_PARTITION_FETCH_BYTES_CONFIG, partitionFetchBytes));
+        log.info("Records per poll tuned from {} to {} ({} ms per record, partition fetch {} bytes)",
+                pushedLimit, limit, String.format("%.1f", perRecordNanos / 1_000_000), partitionFetchBytes);
+        pushedLimit = limit;
+    }
+
+    private int clamp(int records) {
+        return Math.max(config.getMinRecords(), Math.min(config.getMaxRecords(), records));
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    private static final class Cycle {
+        private long startNanos;
+        private int processed;
+        private long bytes;
+        private boolean deferring;
+        private final Set<TopicPartition> rewound = new HashSet<>();
+
+        private void reset() {
+            startNanos = 0;
+            processed = 0;
+            bytes = 0;
+            deferring = false;
+            rewound.clear();
+        }
+    }
+}
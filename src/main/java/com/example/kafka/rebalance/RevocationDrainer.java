@@ -0,0 +1,243 @@
+package com.example.kafka.rebalance;
+
+import com.example.kafka.diagnostics.PipelineTracker;
+import com.example.kafka.metrics.PipelineMetrics;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.kafka.listener.ConsumerAwareRebalanceListener;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Hands partitions over cleanly when they are revoked.
+ *
+ * <p>Every record is registered when the listener dispatches it and tracked until it is
+ * acknowledged. When partitions are revoked, records of those partitions that have not
+ * started yet are cancelled, running ones are given {@code drainTimeout} to finish, and the
+ * container then commits what was acknowledged before the partitions move. Records the new
+ * owner will deliver again (completed but not committable, or still running when the budget
+ * ran out) are counted as duplicates; acknowledgments that arrive after the handover are
+ * dropped so that they cannot move the new owner's committed offset.
+ */
+@Slf4j
+public class RevocationDrainer implements ConsumerAwareRebalanceListener {
+
+    private static final long POLL_INTERVAL_MILLIS = 5;
+
+    private final Map<TopicPartition, PartitionState> partitions = new ConcurrentHashMap<>();
+    private final PipelineTracker tracker;
+    private final PipelineMetrics metrics;
+    private final long drainTimeoutNanos;
+
+    private final Counter assigned;
+    private final Counter revoked;
+    private final Counter lost;
+    private final Counter cancelled;
+    private final DistributionSummary duplicates;
+    private final Timer drainTimer;
+
+    public RevocationDrainer(PipelineTracker tracker, PipelineMetrics metrics, long drainTimeoutMs,
+                             MeterRegistry meterRegistry) {
+        this.tracker = tracker;
+        this.metrics = metrics;
+        this.drainTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(drainTimeoutMs);
+        this.assigned = partitionCounter(meterRegistry, "assigned");
+        this.revoked = partitionCounter(meterRegistry, "revoked");
+        this.lost = partitionCounter(meterRegistry, "lost");
+        this.cancelled = Counter.builder("pipeline.rebalance.cancelled")
+                .description("Records not yet started when their partition was revoked; the new owner delivers them")
+                .register(meterRegistry);
+        this.duplicates = DistributionSummary.builder("pipeline.rebalance.duplicates")
+                .description("Records delivered here that the new owner will deliver again, per rebalance")
+                .register(meterRegistry);
+        this.drainTimer = Timer.builder("pipeline.rebalance.drain")
+                .description("Time spent waiting for in-flight records of revoked partitions")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Registers a record handed out by the listener; called on the consumer thread.
+     */
+    public Ticket dispatch(String topic, int partition, long offset) {
+        PartitionState state = partitions.computeIfAbsent(new TopicPartition(topic, partition),
+                key -> new PartitionState());
+        return new Ticket(state, topic, partition, offset);
+    }
+
+    /**
+     * Called before processing a dispatched record.
+     *
+     * @return false if the record's partition was revoked since dispatch; it must be skipped
+     */
+    public boolean begin(Ticket ticket) {
+        PartitionState state = ticket.state;
+        state.running.incrementAndGet();
+        if (state.revoked) {
+            state.running.decrementAndGet();
+            cancelled.increment();
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Whether the record's partition is still owned by this consumer, i.e. its acknowledgment
+     * may still be committed.
+     */
+    public boolean owned(Ticket ticket) {
+        return !ticket.state.revoked;
+    }
+
+    /**
+     * Called once a record that {@link #begin began} has been acknowledged. Completed records
+     * are kept until a commit covers them.
+     */
+    public void complete(Ticket ticket) {
+        PartitionState state = ticket.state;
+        state.completed.add(ticket.offset);
+        state.pruneCommitted(tracker.committedOffset(ticket.topic, ticket.partition));
+        state.running.decrementAndGet();
+    }
+
+    @Override
+    public void onPartitionsAssigned(Consumer<?, ?> consumer, Collection<TopicPartition> assignedPartitions) {
+        for (TopicPartition partition : assignedPartitions) {
+            partitions.put(partition, new PartitionState());
+        }
+        assigned.increment(assignedPartitions.size());
+        log.info("Partitions assigned: {}", assignedPartitions);
+    }
+
+    @Override
+    public void onPartitionsRevokedBeforeCommit(Consumer<?, ?> consumer, Collection<TopicPartition> revokedPartitions) {
+        List<PartitionState> states = fence(revokedPartitions);
+        if (states.isEmpty()) {
+            return;
+        }
+        revoked.increment(revokedPartitions.size());
+
+        // Acknowledgments made while draining are committed by the container right after this
+        long start = System.nanoTime();
+        long deadline = start + drainTimeoutNanos;
+        while (running(states) > 0 && System.nanoTime() < deadline) {
+            try {
+                TimeUnit.MILLISECONDS.sleep(POLL_INTERVAL_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        drainTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        int stillRunning = running(states);
+        if (stillRunning > 0) {
+            log.warn("{} records of revoked partitions {} still running after {} ms; they will be delivered again",
+                    stillRunning, revokedPartitions, TimeUnit.NANOSECONDS.toMillis(drainTimeoutNanos));
+        }
+    }
+
+    @Override
+    public void onPartitionsRevokedAfterCommit(Consumer<?, ?> consumer, Collection<TopicPartition> revokedPartitions) {
+        handOver(revokedPartitions, "revoked");
+    }
+
+    @Override
+    public void onPartitionsLost(Consumer<?, ?> consumer, Collection<TopicPartition> lostPartitions) {
+        // Nothing can be committed any more: everything completed since the last commit is redelivered
+        fence(lostPartitions);
+        lost.increment(lostPartitions.size());
+        handOver(lostPartitions, "lost");
+    }
+
+    private List<PartitionState> fence(Collection<TopicPartition> topicPartitions) {
+        List<PartitionState> states = new ArrayList<>(topicPartitions.size());
+        for (TopicPartition partition : topicPartitions) {
+            PartitionState state = partitions.get(partition);
+            if (state != null) {
+                state.revoked = true;
+                states.add(state);
+            }
+        }
+        return states;
+    }
+
+    private void handOver(Collection<TopicPartition> topicPartitions, String reason) {
+        long total = 0;
+        boolean handedOver = false;
+        for (TopicPartition partition : topicPartitions) {
+            PartitionState state = partitions.remove(partition);
+            if (state != null) {
+                state.pruneCommitted(tracker.committedOffset(partition.topic(), partition.partition()));
+                total += state.completed.size() + state.running.get();
+                handedOver = true;
+            }
+        }
+        if (handedOver) {
+            duplicates.record(total);
+        }
+        metrics.removePartitions(topicPartitions.stream().map(TopicPartition::partition).toList());
+        if (total > 0) {
+            log.warn("Partitions {} {} with {} delivered but uncommitted records; they will be delivered again",
+                    topicPartitions, reason, total);
+        }
+    }
+
+    private static int running(List<PartitionState> states) {
+        int running = 0;
+        for (PartitionState state : states) {
+            running += state.running.get();
+        }
+        return running;
+    }
+
+    private static Counter partitionCounter(MeterRegistry meterRegistry, String event) {
+        return Counter.builder("pipeline.rebalance.partitions")
+                .description("Partitions assigned, revoked or lost in rebalances")
+                .tag("event", event)
+                .register(meterRegistry);
+    }
+
+    /**
+     * A dispatched record, tied to the partition assignment it was dispatched under.
+     */
+    public static final class Ticket {
+        private final PartitionState state;
+        private final String topic;
+        private final int partition;
+        private final long offset;
+
+        private Ticket(PartitionState state, String topic, int partition, long offset) {
+            this.state = state;
+            this.topic = topic;
+            this.partition = partition;
+            this.offset = offset;
+        }
+    }
+
+    /**
+     * One assignment of a partition; replaced when the partition is assigned again, so that
+     * records dispatched under an earlier assignment stay fenced.
+     */
+    private static final class PartitionState {
+        private final ConcurrentSkipListSet<Long> completed = new ConcurrentSkipListSet<>();
+        private final AtomicInteger running = new AtomicInteger();
+        private volatile boolean revoked;
+
+        private void pruneCommitted(long committedOffset) {
+            if (committedOffset >= 0) {
+                completed.headSet(committedOffset).clear();
+            }
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package com.example.kafka.service;
+
+import com.example.kafka.blob.BlobStore;
+import com.example.kafka.config.ApplicationProperties;
+import com.example.kafka.model.DlqMessage;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Service that applies the claim-check pattern to oversized DLQ messages.
+ * The full message is compressed into the {@link BlobStore} and the Kafka record
+ * keeps only the error summary, a pointer and a checksum.
+ */
+@Slf4j
+@Service
+public class ClaimCheckService {
+
+    private static final String CHECKSUM_PREFIX = "sha256:";
+
+    private final BlobStore blobStore;
+    private final ObjectMapper objectMapper;
+    private final ApplicationProperties properties;
+
+    public ClaimCheckService(BlobStore blobStore,
+                             ObjectMapper objectMapper,
+                             ApplicationProperties properties) {
+        this.blobStore = blobStore;
+        this.objectMapper = objectMapper;
+        this.properties = properties;
+    }
+
+    /**
+     * Offloads the message body to the blob store if it exceeds the configured threshold.
+     *
+     * @param dlqMessage The DLQ message to inspect
+     * @return The message to publish, either the original or a claim-check stub
+     */
+    public DlqMessage offloadIfOversized(DlqMessage dlqMessage) {
+        ApplicationProperties.Dlq.ClaimCheck config = properties.getDlq().getClaimCheck();
+        if (!config.isEnabled() || estimateSize(dlqMessage) <= config.getThresholdBytes()) {
+            return dlqMessage;
+        }
+
+        try {
+            byte[] serialized = objectMapper.writeValueAsBytes(dlqMessage);
+            byte[] compressed = gzip(serialized);
+            String pointer = blobStore.put(compressed);
+
+            log.info("Offloaded DLQ payload of {} bytes ({} compressed) to {}",
+                    serialized.length, compressed.length, pointer);
+
+            return DlqMessage.builder()
+                    .topic(dlqMessage.getTopic())
+                    .partition(dlqMessage.getPartition())
+                    .offset(dlqMessage.getOffset())
+                    .errorType(dlqMessage.getErrorType())
+                    .errorMessage(dlqMessage.getErrorMessage())
+                    .timestamp(dlqMessage.getTimestamp())
+                    .retryCount(dlqMessage.getRetryCount())
+                    .payloadRef(pointer)
+                    .payloadChecksum(checksum(compressed))
+                    .payloadSize(serialized.length)
+                    .build();
+
+        } catch (IOException e) {
+            log.error("Failed to offload DLQ payload, sending it inline", e);
+            return dlqMessage;
+        }
+    }
+
+    /**
+     * Restores the full DLQ message from a claim-check stub.
+     *
+     * @param dlqMessage A message read from the DLQ topic
+     * @return The full message; messages without a pointer are returned unchanged
+     * @throws IOException if the blob is missing or fails checksum verification
+     */
+    public DlqMessage resolve(DlqMessage dlqMessage) throws IOException {
+        if (dlqMessage.getPayloadRef() == null) {
+            return dlqMessage;
+        }
+
+        byte[] compressed = blobStore.get(dlqMessage.getPayloadRef());
+        String actual = checksum(compressed);
+        if (!actual.equals(dlqMessage.getPayloadChecksum())) {
+            throw new IOException("Checksum mismatch for DLQ payload " + dlqMessage.getPayloadRef()
+                    + ": expected " + dlqMessage.getPayloadChecksum() + ", got " + actual);
+        }
+        return objectMapper.readValue(gunzip(compressed), DlqMessage.class);
+    }
+
+    private long estimateSize(DlqMessage dlqMessage) {
+        long size = 0;
+        if (dlqMessage.getOriginalMessage() != null) {
+            size += dlqMessage.getOriginalMessage().length();
+        }
+        if (dlqMessage.getStackTrace() != null) {
+            size += dlqMessage.getStackTrace().length();
+        }
+        if (dlqMessage.getErrorMessage() != null) {
+            size += dlqMessage.getErrorMessage().length();
+        }
+        return size;
+    }
+
+    private static byte[] gzip(byte[] content) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(content.length / 4 + 64);
+        try (OutputStream out = new GZIPOutputStream(buffer)) {
+            out.write(content);
+        }
+        return buffer.toByteArray();
+    }
+
+    private static byte[] gunzip(byte[] content) throws IOException {
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(content))) {
+            return in.readAllBytes();
+        }
+    }
+
+    private static String checksum(byte[] content) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return CHECKSUM_PREFIX + HexFormat.of().formatHex(digest.digest(content));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -1,6 +1,8 @@
 package com.example.kafka.service;
 
 import com.example.kafka.config.ApplicationProperties;
+import com.example.kafka.config.DlqTopics;
+import com.example.kafka.config.KafkaProducerProfiles;
 import com.example.kafka.model.DlqMessage;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -13,7 +15,7 @@ import org.springframework.stereotype.Service;
 import java.io.PrintWriter;
 import java.io.StringWriter;
 import java.time.LocalDateTime;
-import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Service responsible for handling messages that fail processing
@@ -23,20 +25,29 @@ import java.util.concurrent.CompletableFuture;
 @Service
 public class DeadLetterQueueService {
 
-    private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final KafkaProducerProfiles producerProfiles;
     private final ApplicationProperties properties;
     private final ObjectMapper objectMapper;
+    private final DlqJournalService journalService;
+    private final ClaimCheckService claimCheckService;
+    private final DlqTopics dlqTopics;
 
-    public DeadLetterQueueService(KafkaTemplate<String, Object> kafkaTemplate,
+    public DeadLetterQueueService(KafkaProducerProfiles producerProfiles,
                                  ApplicationProperties properties,
-                                 ObjectMapper objectMapper) {
-        this.kafkaTemplate = kafkaTemplate;
+                                 ObjectMapper objectMapper,
+                                 DlqJournalService journalService,
+                                 ClaimCheckService claimCheckService,
+                                 DlqTopics dlqTopics) {
+        this.producerProfiles = producerProfiles;
         this.properties = properties;
         this.objectMapper = objectMapper;
+        this.journalService = journalService;
+        this.claimCheckService = claimCheckService;
+        this.dlqTopics = dlqTopics;
     }
 
     /**
-     * Sends a failed message to the DLQ topic with error details.
+     * Sends a failed message to the DLQ topic of its pipeline with error details.
      *
      * @param record The original Kafka record
      * @param exception The exception that caused the failure
@@ -44,43 +55,36 @@ public class DeadLetterQueueService {
      */
     public void sendToDlq(ConsumerRecord<String, ?> record, Exception exception, int retryCount) {
         try {
-            String originalMessage = serializeValue(record.value());
+            DlqMessage dlqMessage = buildDlqMessage(record, exception, retryCount);
 
-            DlqMessage dlqMessage = DlqMessage.builder()
-                    .originalMessage(originalMessage)
-                    .topic(record.topic())
-                    .partition(record.partition())
-                    .offset(record.offset())
-                    .errorType(exception.getClass().getSimpleName())
-                    .errorMessage(exception.getMessage())
-                    .stackTrace(getStackTrace(exception))
-                    .timestamp(LocalDateTime.now())
-                    .retryCount(retryCount)
-                    .build();
-
-            String dlqTopic = properties.getKafka().getTopic().getDlq();
-            
             log.warn("Sending message to DLQ. Topic: {}, Partition: {}, Offset: {}, Error: {}",
                     record.topic(), record.partition(), record.offset(), exception.getMessage());
 
-            CompletableFuture<SendResult<String, Object>> future = 
-                    kafkaTemplate.send(dlqTopic, record.key(), dlqMessage);
-
-            future.whenComplete((result, ex) -> {
-                if (ex != null) {
-                    log.error("Failed to send message to DLQ: {}", ex.getMessage(), ex);
-                } else {
-                    log.info("Successfully sent message to DLQ. Topic: {}, Partition: {}, Offset: {}",
-                            dlqTopic, result.getRecordMetadata().partition(), 
-                            result.getRecordMetadata().offset());
-                }
-            });
+            publish(record.key(), dlqMessage);
 
         } catch (Exception e) {
             log.error("Critical error: Failed to send message to DLQ", e);
         }
     }
 
+    /**
+     * Builds the DLQ envelope for a failed record: the serialized original value,
+     * its source coordinates and the error details.
+     */
+    public DlqMessage buildDlqMessage(ConsumerRecord<String, ?> record, Exception exception, int retryCount) {
+        return DlqMessage.builder()
+                .originalMessage(serializeValue(record.value()))
+                .topic(record.topic())
+                .partition(record.partition())
+                .offset(record.offset())
+                .errorType(exception.getClass().getSimpleName())
+                .errorMessage(exception.getMessage())
+                .stackTrace(getStackTrace(exception))
+                .timestamp(LocalDateTime.now())
+                .retryCount(retryCount)
+                .build();
+    }
+
     /**
      * Sends a failed message to DLQ without consumer record context.
      *
@@ -103,26 +107,50 @@ public class DeadLetterQueueService {
                     .retryCount(0)
                     .build();
 
-            String dlqTopic = properties.getKafka().getTopic().getDlq();
-            
             log.warn("Sending message to DLQ. Error: {}", exception.getMessage());
 
-            CompletableFuture<SendResult<String, Object>> future = 
-                    kafkaTemplate.send(dlqTopic, dlqMessage);
-
-            future.whenComplete((result, ex) -> {
-                if (ex != null) {
-                    log.error("Failed to send message to DLQ: {}", ex.getMessage(), ex);
-                } else {
-                    log.info("Successfully sent message to DLQ");
-                }
-            });
+            publish(null, dlqMessage);
 
         } catch (Exception e) {
             log.error("Critical error: Failed to send message to DLQ", e);
         }
     }
 
+    /**
+     * Sends the DLQ message and waits for the broker to accept it, so the caller
+     * only acknowledges the source record once the DLQ copy is safe. Sends that
+     * fail retriably or time out are spilled to the local journal for later replay;
+     * those that can never succeed are quarantined instead.
+     * Oversized messages are offloaded to the blob store first.
+     */
+    private void publish(String key, DlqMessage message) {
+        String dlqTopic = dlqTopics.forSource(message.getTopic());
+        DlqMessage dlqMessage = claimCheckService.offloadIfOversized(message);
+
+        try {
+            KafkaTemplate<String, Object> template = producerProfiles.template(properties.getDlq().getProducerProfile());
+            SendResult<String, Object> result = template.send(dlqTopic, key, dlqMessage)
+                    .get(properties.getDlq().getSendTimeoutMs(), TimeUnit.MILLISECONDS);
+            log.info("Successfully sent message to DLQ. Topic: {}, Partition: {}, Offset: {}",
+                    dlqTopic, result.getRecordMetadata().partition(),
+                    result.getRecordMetadata().offset());
+
+        } catch (Exception ex) {
+            if (ex instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            log.error("Failed to send message to DLQ: {}", ex.getMessage(), ex);
+
+            if (!DlqJournalService.isRetriable(ex)) {
+                if (journalService.quarantine(key, dlqMessage)) {
+                    log.warn("DLQ message quarantined in local journal. Offset: {}", dlqMessage.getOffset());
+                }
+            } else if (journalService.spill(key, dlqMessage)) {
+                log.warn("DLQ message spilled to local journal for replay. Offset: {}", dlqMessage.getOffset());
+            }
+        }
+    }
+
     private String serializeValue(Object value) {
         try {
             if (value instanceof String) {
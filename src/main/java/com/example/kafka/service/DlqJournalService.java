@@ -0,0 +1,266 @@
+package com.example.kafka.service;
+
+import com.example.kafka.config.ApplicationProperties;
+import com.example.kafka.config.DlqTopics;
+import com.example.kafka.config.KafkaProducerProfiles;
+import com.example.kafka.journal.DlqSpillJournal;
+import com.example.kafka.model.DlqMessage;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.common.KafkaException;
+import org.apache.kafka.common.errors.RetriableException;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Service that spills DLQ records to a local journal when Kafka rejects them,
+ * and replays the journal to the DLQ topic once the producer recovers.
+ * Records that can never be sent, e.g. too large or undecodable, go to a
+ * quarantine journal in its {@code quarantine} subdirectory that is not replayed.
+ */
+@Slf4j
+@Service
+public class DlqJournalService {
+
+    private final ApplicationProperties properties;
+    private final KafkaProducerProfiles producerProfiles;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final DlqTopics dlqTopics;
+
+    private DlqSpillJournal journal;
+    private DlqSpillJournal quarantine;
+    private ScheduledExecutorService drainer;
+    private Counter spilledCounter;
+    private Counter replayedCounter;
+    private Counter rejectedCounter;
+    private Counter quarantinedCounter;
+
+    public DlqJournalService(ApplicationProperties properties,
+                             KafkaProducerProfiles producerProfiles,
+                             ObjectMapper objectMapper,
+                             MeterRegistry meterRegistry,
+                             DlqTopics dlqTopics) {
+        this.properties = properties;
+        this.producerProfiles = producerProfiles;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        this.dlqTopics = dlqTopics;
+    }
+
+    @PostConstruct
+    public void init() {
+        ApplicationProperties.Dlq.Journal config = properties.getDlq().getJournal();
+        if (!config.isEnabled()) {
+            log.info("DLQ spill journal is disabled");
+            return;
+        }
+
+        journal = new DlqSpillJournal(Path.of(config.getDirectory()),
+                config.getSegmentBytes(), config.getMaxBytes());
+        quarantine = new DlqSpillJournal(Path.of(config.getDirectory()).resolve("quarantine"),
+                config.getSegmentBytes(), config.getMaxBytes());
+
+        spilledCounter = meterRegistry.counter("dlq.journal.spilled");
+        replayedCounter = meterRegistry.counter("dlq.journal.replayed");
+        rejectedCounter = meterRegistry.counter("dlq.journal.rejected");
+        quarantinedCounter = meterRegistry.counter("dlq.journal.quarantined");
+        Gauge.builder("dlq.journal.depth", journal, DlqSpillJournal::depth)
+                .description("Undelivered DLQ records held in the local journal")
+                .register(meterRegistry);
+        Gauge.builder("dlq.journal.bytes", journal, DlqSpillJournal::pendingBytes)
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder("dlq.journal.quarantine.depth", quarantine, DlqSpillJournal::depth)
+                .description("DLQ records that can never be sent, held for inspection")
+                .register(meterRegistry);
+        TimeGauge.builder("dlq.journal.oldest.age", journal, TimeUnit.MILLISECONDS, this::oldestAgeMillis)
+                .description("Age of the oldest undelivered DLQ record in the local journal")
+                .register(meterRegistry);
+
+        drainer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "dlq-journal-drainer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        drainer.scheduleWithFixedDelay(this::drain,
+                config.getDrainIntervalMs(), config.getDrainIntervalMs(), TimeUnit.MILLISECONDS);
+
+        log.info("DLQ spill journal opened at {} with {} pending records",
+                config.getDirectory(), journal.depth());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (drainer != null) {
+            drainer.shutdownNow();
+        }
+        if (journal != null) {
+            journal.close();
+        }
+        if (quarantine != null) {
+            quarantine.close();
+        }
+    }
+
+    /**
+     * Number of DLQ records waiting in the journal, zero if the journal is disabled.
+     */
+    public long pendingRecords() {
+        return journal != null ? journal.depth() : 0;
+    }
+
+    /**
+     * Number of DLQ records in the quarantine journal, zero if the journal is disabled.
+     */
+    public long quarantinedRecords() {
+        return quarantine != null ? quarantine.depth() : 0;
+    }
+
+    /**
+     * Whether a failed DLQ send may succeed if retried, i.e. it was caused by a
+     * {@link RetriableException} or a timeout rather than, say, a record that is too large.
+     */
+    public static boolean isRetriable(Throwable failure) {
+        for (Throwable cause = failure; cause != null; cause = cause.getCause()) {
+            if (cause instanceof RetriableException || cause instanceof TimeoutException
+                    || cause instanceof InterruptedException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Writes a DLQ record that could not be sent to Kafka to the local journal.
+     *
+     * @param key The Kafka record key, may be null
+     * @param dlqMessage The DLQ message to retain
+     * @return true if the record was durably journaled
+     */
+    public boolean spill(String key, DlqMessage dlqMessage) {
+        if (journal == null) {
+            return false;
+        }
+        try {
+            byte[] value = objectMapper.writeValueAsBytes(dlqMessage);
+            if (journal.append(key, value, System.currentTimeMillis())) {
+                spilledCounter.increment();
+                return true;
+            }
+            rejectedCounter.increment();
+            log.error("DLQ journal is full ({} bytes pending); record for offset {} was not retained",
+                    journal.pendingBytes(), dlqMessage.getOffset());
+        } catch (Exception e) {
+            rejectedCounter.increment();
+            log.error("Failed to write DLQ record to local journal", e);
+        }
+        return false;
+    }
+
+    /**
+     * Writes a DLQ record that Kafka will never accept to the quarantine journal.
+     *
+     * @param key The Kafka record key, may be null
+     * @param dlqMessage The DLQ message to retain
+     * @return true if the record was durably quarantined
+     */
+    public boolean quarantine(String key, DlqMessage dlqMessage) {
+        if (quarantine == null) {
+            return false;
+        }
+        try {
+            return quarantine(key, objectMapper.writeValueAsBytes(dlqMessage));
+        } catch (Exception e) {
+            rejectedCounter.increment();
+            log.error("Failed to write DLQ record to quarantine journal", e);
+            return false;
+        }
+    }
+
+    private boolean quarantine(String key, byte[] value) {
+        if (quarantine.append(key, value, System.currentTimeMillis())) {
+            quarantinedCounter.increment();
+            return true;
+        }
+        rejectedCounter.increment();
+        log.error("DLQ quarantine journal is full ({} bytes pending); record was not retained",
+                quarantine.pendingBytes());
+        return false;
+    }
+
+    /**
+     * Replays journaled records to the DLQ topic of their pipeline in order, stopping at
+     * the first retriable failure so the remainder is retried on the next pass. Records
+     * that cannot be decoded or sent at all are quarantined and skipped.
+     */
+    void drain() {
+        long timeoutMs = properties.getDlq().getSendTimeoutMs();
+        KafkaTemplate<String, Object> template = producerProfiles.template(properties.getDlq().getProducerProfile());
+        int replayed = 0;
+
+        try {
+            DlqSpillJournal.Entry entry;
+            while ((entry = journal.peek()) != null) {
+                DlqMessage dlqMessage;
+                try {
+                    dlqMessage = objectMapper.readValue(entry.value(), DlqMessage.class);
+                } catch (IOException e) {
+                    skip(entry, e);
+                    continue;
+                }
+                try {
+                    template.send(dlqTopics.forSource(dlqMessage.getTopic()), entry.key(), dlqMessage)
+                            .get(timeoutMs, TimeUnit.MILLISECONDS);
+                } catch (ExecutionException | KafkaException e) {
+                    if (isRetriable(e)) {
+                        throw e;
+                    }
+                    skip(entry, e);
+                    continue;
+                }
+                journal.advance();
+                replayedCounter.increment();
+                replayed++;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            log.warn("DLQ journal replay paused, {} records pending: {}", journal.depth(), e.getMessage());
+        }
+
+        if (replayed > 0) {
+            log.info("Replayed {} records from DLQ journal", replayed);
+        }
+    }
+
+    /**
+     * Moves the head entry to the quarantine journal, or drops it if that is full, so a
+     * record that can never be sent does not block the ones behind it.
+     */
+    private void skip(DlqSpillJournal.Entry entry, Exception failure) {
+        boolean quarantined = quarantine(entry.key(), entry.value());
+        journal.advance();
+        log.error("DLQ journal record {} and skipped: {}",
+                quarantined ? "quarantined" : "dropped", failure.getMessage());
+    }
+
+    private double oldestAgeMillis(DlqSpillJournal journal) {
+        long oldest = journal.oldestEnqueuedAt();
+        return oldest < 0 ? 0 : System.currentTimeMillis() - oldest;
+    }
+}
@@ -0,0 +1,221 @@
+package com.example.kafka.service;
+
+import com.example.kafka.config.ApplicationProperties;
+import com.example.kafka.config.DlqTopics;
+import com.example.kafka.config.KafkaProducerProfiles;
+import com.example.kafka.format.FormatAwareDeserializer;
+import com.example.kafka.model.DlqMessage;
+import com.example.kafka.model.IncomingMessage;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.serialization.ByteArrayDeserializer;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.regex.Pattern;
+
+/**
+ * Re-drives dead-lettered records to the topic they were consumed from, once the cause of
+ * their failure is fixed. Claim-check stubs are resolved from the blob store first, so
+ * offloaded records replay like inline ones.
+ *
+ * <p>Progress is committed under its own consumer group, so each replay continues where the
+ * previous one stopped.
+ */
+@Slf4j
+@Service
+public class DlqReplayService {
+
+    public static final String REPLAYED_FROM_HEADER = "x-replayed-from";
+
+    private static final Duration POLL_TIMEOUT = Duration.ofSeconds(1);
+    private static final Pattern LEGAL_TOPIC = Pattern.compile("(?!\\.{1,2}$)[a-zA-Z0-9._-]{1,249}");
+
+    private final ApplicationProperties properties;
+    private final KafkaProducerProfiles producerProfiles;
+    private final ClaimCheckService claimCheckService;
+    private final DlqTopics dlqTopics;
+    private final ObjectMapper objectMapper;
+    private final String bootstrapServers;
+    private final String groupId;
+
+    public DlqReplayService(ApplicationProperties properties,
+                            KafkaProducerProfiles producerProfiles,
+                            ClaimCheckService claimCheckService,
+                            DlqTopics dlqTopics,
+                            ObjectMapper objectMapper,
+                            @Value("${spring.kafka.bootstrap-servers}") String bootstrapServers,
+                            @Value("${spring.kafka.consumer.group-id}") String groupId) {
+        this.properties = properties;
+        this.producerProfiles = producerProfiles;
+        this.claimCheckService = claimCheckService;
+        this.dlqTopics = dlqTopics;
+        this.objectMapper = objectMapper;
+        this.bootstrapServers = bootstrapServers;
+        this.groupId = groupId + "-dlq-replay";
+    }
+
+    /**
+     * Replays up to {@code maxRecords} records of a DLQ topic. Records that cannot be replayed,
+     * such as values that never deserialized or lines of the file source, are skipped. A claim
+     * check that cannot be resolved, or a send that fails, stops the replay at that record, so
+     * it is retried on the next call; every record before it stays committed.
+     *
+     * @param dlqTopic The DLQ topic, or null for the default DLQ
+     */
+    public synchronized Result replay(String dlqTopic, int maxRecords) {
+        String topic = dlqTopic != null ? dlqTopic : properties.getKafka().getTopic().getDlq();
+        if (!dlqTopics.all().contains(topic)) {
+            throw new IllegalArgumentException("Unknown DLQ topic '" + topic + "', expected one of " + dlqTopics.all());
+        }
+
+        KafkaTemplate<String, Object> template = producerProfiles.template(properties.getDlq().getReplayProducerProfile());
+        int replayed = 0;
+        int skipped = 0;
+        String stoppedBy = null;
+
+        try (KafkaConsumer<String, byte[]> consumer = consumer(Math.min(maxRecords, 500))) {
+            List<TopicPartition> partitions = consumer.partitionsFor(topic).stream()
+                    .map(info -> new TopicPartition(topic, info.partition()))
+                    .toList();
+            consumer.assign(partitions);
+            // Records that fail again while this replay runs are left for the next one
+            Map<TopicPartition, Long> endOffsets = consumer.endOffsets(partitions);
+
+            while (!reachedEnd(consumer, endOffsets) && replayed + skipped < maxRecords && stoppedBy == null) {
+                List<Pending> pending = new ArrayList<>();
+                for (ConsumerRecord<String, byte[]> record : consumer.poll(POLL_TIMEOUT)) {
+                    // Records polled past the limit or a failure stay uncommitted for the next replay
+                    if (replayed + skipped + pending.size() >= maxRecords || stoppedBy != null) {
+                        break;
+                    }
+                    TopicPartition partition = new TopicPartition(record.topic(), record.partition());
+                    if (record.offset() >= endOffsets.get(partition)) {
+                        continue;
+                    }
+                    try {
+                        ProducerRecord<String, Object> source = toSourceRecord(topic, record.key(), record.value());
+                        pending.add(new Pending(partition, record.offset(), source != null ? template.send(source) : null));
+                    } catch (IOException e) {
+                        stoppedBy = "offset " + record.offset() + " of partition " + record.partition() + ": " + e.getMessage();
+                    }
+                }
+
+                // Progress is committed up to the first record per partition whose send failed
+                Map<TopicPartition, OffsetAndMetadata> progress = new HashMap<>();
+                Set<TopicPartition> failed = new HashSet<>();
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(properties.getDlq().getSendTimeoutMs());
+                for (Pending record : pending) {
+                    if (failed.contains(record.partition())) {
+                        continue;
+                    }
+                    if (record.send() == null) {
+                        skipped++;
+                    } else {
+                        try {
+                            record.send().get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                            replayed++;
+                        } catch (ExecutionException | TimeoutException e) {
+                            failed.add(record.partition());
+                            stoppedBy = "offset " + record.offset() + " of partition " + record.partition().partition()
+                                    + ": " + e.getMessage();
+                            continue;
+                        }
+                    }
+                    progress.put(record.partition(), new OffsetAndMetadata(record.offset() + 1));
+                }
+                if (!progress.isEmpty()) {
+                    consumer.commitSync(progress);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            stoppedBy = "interrupted";
+        } catch (Exception e) {
+            stoppedBy = e.getMessage();
+        }
+
+        if (stoppedBy != null) {
+            log.warn("DLQ replay of {} stopped after {} records: {}", topic, replayed, stoppedBy);
+        }
+        log.info("Replayed {} records from {}, skipped {}", replayed, topic, skipped);
+        return new Result(topic, replayed, skipped, stoppedBy);
+    }
+
+    /**
+     * The record to republish for a DLQ record: its original message, resolved from the blob
+     * store if it was offloaded, sent to the topic it was consumed from.
+     *
+     * @return the record, or null if the DLQ record carries nothing that can be replayed
+     * @throws IOException if a claim check cannot be resolved or fails verification
+     */
+    ProducerRecord<String, Object> toSourceRecord(String dlqTopic, String key, byte[] value) throws IOException {
+        DlqMessage dlqMessage = claimCheckService.resolve(objectMapper.readValue(value, DlqMessage.class));
+        String sourceTopic = dlqMessage.getTopic();
+        // File source lines are not Kafka records; they are backfilled from their file again
+        if (sourceTopic == null || sourceTopic.startsWith(FileSourceService.TOPIC_PREFIX)
+                || !LEGAL_TOPIC.matcher(sourceTopic).matches() || "unknown".equals(sourceTopic)
+                || dlqMessage.getOriginalMessage() == null) {
+            return null;
+        }
+
+        IncomingMessage message;
+        try {
+            message = objectMapper.readValue(dlqMessage.getOriginalMessage(), IncomingMessage.class);
+        } catch (IOException e) {
+            log.debug("DLQ record at offset {} of {} is not an IncomingMessage: {}",
+                    dlqMessage.getOffset(), sourceTopic, e.getMessage());
+            return null;
+        }
+
+        ProducerRecord<String, Object> record = new ProducerRecord<>(sourceTopic, key, message);
+        record.headers().add(FormatAwareDeserializer.FORMAT_HEADER, "json".getBytes(StandardCharsets.UTF_8));
+        record.headers().add(REPLAYED_FROM_HEADER, dlqTopic.getBytes(StandardCharsets.UTF_8));
+        return record;
+    }
+
+    private static boolean reachedEnd(KafkaConsumer<String, byte[]> consumer, Map<TopicPartition, Long> endOffsets) {
+        return endOffsets.entrySet().stream()
+                .allMatch(end -> consumer.position(end.getKey()) >= end.getValue());
+    }
+
+    private KafkaConsumer<String, byte[]> consumer(int maxPollRecords) {
+        Map<String, Object> config = new HashMap<>();
+        config.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        config.put(ConsumerConfig.GROUP_ID_CONFIG, groupId);
+        config.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
+        config.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+        config.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, maxPollRecords);
+        return new KafkaConsumer<>(config, new StringDeserializer(), new ByteArrayDeserializer());
+    }
+
+    private record Pending(TopicPartition partition, long offset, CompletableFuture<?> send) {
+    }
+
+    /**
+     * @param stoppedBy Why the replay stopped early, or null if it ran out of records or reached the limit
+     */
+    public record Result(String topic, int replayed, int skipped, String stoppedBy) {
+    }
+}
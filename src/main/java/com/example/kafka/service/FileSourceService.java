@@ -0,0 +1,182 @@
+package com.example.kafka.service;
+
+import com.example.kafka.config.ApplicationProperties;
+import com.example.kafka.consumer.MessageConsumer;
+import com.example.kafka.format.FormatAwareDeserializer;
+import com.example.kafka.model.IncomingMessage;
+import com.example.kafka.source.FileCheckpointStore;
+import com.example.kafka.source.NdjsonFileReader;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.apache.kafka.common.record.TimestampType;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Backfills NDJSON files through the same pipeline as Kafka records.
+ *
+ * <p>Each file is read in memory-mapped chunks; a chunk is cut into line-aligned segments
+ * that worker threads split and process in parallel. Every line becomes a synthetic record
+ * (topic {@code file:<name>}, partition 0, offset = byte offset of the line) handed to
+ * {@link MessageConsumer#process}, so validation, transformation, delivery, the DLQ and all
+ * metrics behave exactly as for Kafka. Lines that are not valid JSON go to the DLQ as text.
+ *
+ * <p>The checkpoint moves to the end of a chunk once all of its lines are acknowledged, so a
+ * restarted backfill resumes at the first incomplete chunk and may re-deliver up to one
+ * chunk of lines, the same at-least-once contract as the Kafka listener. Lines within a
+ * chunk are not delivered in file order.
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(prefix = "app.file-source", name = "enabled", havingValue = "true")
+public class FileSourceService {
+
+    static final String TOPIC_PREFIX = "file:";
+
+    private final ApplicationProperties properties;
+    private final MessageConsumer messageConsumer;
+    private final FormatAwareDeserializer deserializer;
+    private final DeadLetterQueueService dlqService;
+    private final MeterRegistry meterRegistry;
+
+    private final AtomicLong checkpointedBytes = new AtomicLong();
+    private ExecutorService workers;
+    private Thread reader;
+    private volatile boolean running = true;
+
+    public FileSourceService(ApplicationProperties properties,
+                             MessageConsumer messageConsumer,
+                             FormatAwareDeserializer incomingMessageDeserializer,
+                             DeadLetterQueueService dlqService,
+                             MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.messageConsumer = messageConsumer;
+        this.deserializer = incomingMessageDeserializer;
+        this.dlqService = dlqService;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        Gauge.builder("file.source.checkpointed.bytes", checkpointedBytes, AtomicLong::get)
+                .description("Bytes of the current source file processed and checkpointed")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+
+        int parallelism = properties.getFileSource().getParallelism();
+        workers = Executors.newFixedThreadPool(parallelism, runnable -> {
+            Thread thread = new Thread(runnable, "file-source-worker");
+            thread.setDaemon(true);
+            return thread;
+        });
+        reader = new Thread(this::ingestAll, "file-source-reader");
+        reader.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        if (reader != null) {
+            reader.join(properties.getFileSource().getShutdownTimeoutMs());
+        }
+        if (workers != null) {
+            workers.shutdownNow();
+        }
+    }
+
+    private void ingestAll() {
+        ApplicationProperties.FileSource config = properties.getFileSource();
+        try {
+            FileCheckpointStore checkpoints = new FileCheckpointStore(Path.of(config.getCheckpointDirectory()));
+            for (String file : config.getFiles()) {
+                if (!running) {
+                    return;
+                }
+                ingest(Path.of(file), checkpoints, config);
+            }
+            log.info("File source finished {} file(s)", config.getFiles().size());
+        } catch (IOException e) {
+            log.error("File source stopped: {}", e.getMessage(), e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void ingest(Path file, FileCheckpointStore checkpoints, ApplicationProperties.FileSource config)
+            throws IOException, InterruptedException {
+        long size = file.toFile().length();
+        long resumeAt = checkpoints.load(file, size);
+        String topic = TOPIC_PREFIX + file.getFileName();
+        log.info("File source reading {} ({} bytes) from offset {}", file, size, resumeAt);
+
+        long lines = 0;
+        try (NdjsonFileReader fileReader = new NdjsonFileReader(file, resumeAt, config.getChunkSizeBytes())) {
+            checkpointedBytes.set(fileReader.position());
+            while (running && fileReader.hasNext()) {
+                NdjsonFileReader.Chunk chunk = fileReader.next();
+                List<Future<Long>> segments = new ArrayList<>();
+                for (NdjsonFileReader.Segment segment : chunk.segments(config.getParallelism())) {
+                    segments.add(workers.submit(() -> process(topic, segment)));
+                }
+                for (Future<Long> segment : segments) {
+                    lines += await(segment);
+                }
+                checkpoints.save(file, chunk.end(), fileReader.size());
+                checkpointedBytes.set(chunk.end());
+                log.debug("File source checkpoint {} at {} of {} bytes", file, chunk.end(), fileReader.size());
+            }
+        }
+        log.info("File source {} {} after {} line(s)", running ? "completed" : "paused", file, lines);
+    }
+
+    private long process(String topic, NdjsonFileReader.Segment segment) {
+        long[] lines = {0};
+        segment.forEachLine((offset, line) -> {
+            lines[0]++;
+            IncomingMessage message;
+            try {
+                message = deserializer.deserialize(topic, line);
+            } catch (RuntimeException e) {
+                log.error("Unparseable line at {}:{}: {}", topic, offset, e.getMessage());
+                dlqService.sendToDlq(record(topic, offset, null, new String(line, StandardCharsets.UTF_8)), e, 0);
+                return;
+            }
+            ConsumerRecord<String, IncomingMessage> record = record(topic, offset,
+                    message != null && message.getPayload() != null ? message.getPayload().getCustomerId() : null, message);
+            // Each line is complete once process() returns, so the acknowledgment has nothing to commit
+            messageConsumer.process(message, record, topic, 0, offset, () -> { });
+        });
+        return lines[0];
+    }
+
+    private static <V> ConsumerRecord<String, V> record(String topic, long offset, String key, V value) {
+        return new ConsumerRecord<>(topic, 0, offset, System.currentTimeMillis(), TimestampType.LOG_APPEND_TIME,
+                -1, -1, key, value, new RecordHeaders(), Optional.empty());
+    }
+
+    private static long await(Future<Long> future) throws IOException, InterruptedException {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            throw new IOException("File source worker failed", e.getCause());
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package com.example.kafka.service;
+
+import com.example.kafka.config.ApplicationProperties;
+import com.example.kafka.jfr.DlqSendEvent;
+import com.example.kafka.jfr.RestAttemptEvent;
+import com.example.kafka.jfr.TransformationEvent;
+import com.example.kafka.jfr.ValidationEvent;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.Configuration;
+import jdk.jfr.Event;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+/**
+ * Starts, dumps and stops an in-process Flight Recorder recording with the pipeline
+ * events enabled, on top of a standard JFR settings profile for CPU and blocking samples.
+ */
+@Slf4j
+public class JfrRecordingService {
+
+    static final String RECORDING_NAME = "kafka-rest-bridge";
+
+    private static final List<Class<? extends Event>> PIPELINE_EVENTS = List.of(
+            ValidationEvent.class, TransformationEvent.class, RestAttemptEvent.class, DlqSendEvent.class);
+
+    private static final DateTimeFormatter FILE_TIMESTAMP =
+            DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss").withZone(ZoneOffset.UTC);
+
+    private final ApplicationProperties.Jfr properties;
+    private Recording recording;
+
+    public JfrRecordingService(ApplicationProperties properties) {
+        this.properties = properties.getJfr();
+    }
+
+    /**
+     * Current state of the recording.
+     */
+    public record Status(String state, Instant startTime, Duration duration, String file) {
+    }
+
+    public synchronized Status start() {
+        if (recording != null && recording.getState() == RecordingState.RUNNING) {
+            return status(null);
+        }
+
+        Recording newRecording = createRecording();
+        newRecording.setName(RECORDING_NAME);
+        newRecording.setToDisk(true);
+        newRecording.setMaxAge(Duration.ofSeconds(properties.getMaxAgeSeconds()));
+        newRecording.setMaxSize(properties.getMaxSizeBytes());
+        PIPELINE_EVENTS.forEach(event -> newRecording.enable(event).withThreshold(
+                Duration.ofNanos(properties.getThresholdNanos())));
+        newRecording.start();
+
+        recording = newRecording;
+        log.info("Started JFR recording {} with settings '{}'", RECORDING_NAME, properties.getSettings());
+        return status(null);
+    }
+
+    /**
+     * Writes the recording collected so far to a new file and keeps it running.
+     */
+    public synchronized Status dump() {
+        requireRecording();
+        return status(writeTo(newFile()));
+    }
+
+    /**
+     * Stops the recording, writes it to a new file and releases its resources.
+     */
+    public synchronized Status stop() {
+        requireRecording();
+        recording.stop();
+        Path file = writeTo(newFile());
+        Status status = status(file);
+        recording.close();
+        recording = null;
+        log.info("Stopped JFR recording, written to {}", file);
+        return status;
+    }
+
+    public synchronized Status status() {
+        return status(null);
+    }
+
+    @PreDestroy
+    public synchronized void close() {
+        if (recording != null) {
+            recording.close();
+            recording = null;
+        }
+    }
+
+    private Recording createRecording() {
+        String settings = properties.getSettings();
+        if (settings == null || settings.isBlank() || "none".equalsIgnoreCase(settings)) {
+            return new Recording();
+        }
+        try {
+            return new Recording(Configuration.getConfiguration(settings));
+        } catch (IOException | ParseException e) {
+            throw new IllegalStateException("Unable to load JFR settings '" + settings + "'", e);
+        }
+    }
+
+    private Path writeTo(Path file) {
+        try {
+            Files.createDirectories(file.getParent());
+            recording.dump(file);
+            return file;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write JFR recording to " + file, e);
+        }
+    }
+
+    private Path newFile() {
+        return Path.of(properties.getDirectory())
+                .resolve(RECORDING_NAME + "-" + FILE_TIMESTAMP.format(Instant.now()) + "-"
+                        + System.nanoTime() % 1_000_000 + ".jfr")
+                .toAbsolutePath();
+    }
+
+    private void requireRecording() {
+        if (recording == null) {
+            throw new IllegalStateException("No JFR recording is running");
+        }
+    }
+
+    private Status status(Path file) {
+        if (recording == null) {
+            return new Status("NONE", null, null, null);
+        }
+        return new Status(recording.getState().name(), recording.getStartTime(),
+                recording.getStartTime() != null ? Duration.between(recording.getStartTime(), Instant.now()) : null,
+                file != null ? file.toString() : null);
+    }
+}
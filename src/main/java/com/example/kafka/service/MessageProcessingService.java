@@ -1,27 +1,33 @@
 package com.example.kafka.service;
 
 import com.example.kafka.exception.RestApiException;
+import com.example.kafka.jfr.TransformationEvent;
+import com.example.kafka.metrics.PipelineMetrics;
 import com.example.kafka.model.ApiRequestDto;
 import com.example.kafka.model.ApiResponseDto;
 import com.example.kafka.model.IncomingMessage;
+import com.example.kafka.sink.MessageSink;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
 /**
  * Main service that orchestrates the processing of incoming messages.
- * Coordinates transformation and REST API delivery.
+ * Coordinates transformation and delivery to the {@link MessageSink}, normally the REST API.
  */
 @Slf4j
 @Service
 public class MessageProcessingService {
 
     private final TransformationService transformationService;
-    private final RestApiClient restApiClient;
+    private final MessageSink messageSink;
+    private final PipelineMetrics metrics;
 
     public MessageProcessingService(TransformationService transformationService,
-                                   RestApiClient restApiClient) {
+                                   MessageSink messageSink,
+                                   PipelineMetrics metrics) {
         this.transformationService = transformationService;
-        this.restApiClient = restApiClient;
+        this.messageSink = messageSink;
+        this.metrics = metrics;
     }
 
     /**
@@ -31,16 +37,35 @@ public class MessageProcessingService {
      * @throws RestApiException if REST API call fails
      */
     public void processMessage(IncomingMessage message) throws RestApiException {
-        log.info("Processing message: {}", message.getMessageId());
+        log.debug("Processing message: {}", message.getMessageId());
 
         // Transform the message
-        ApiRequestDto apiRequest = transformationService.transform(message);
+        long start = System.nanoTime();
+        TransformationEvent event = new TransformationEvent();
+        event.begin();
+        ApiRequestDto apiRequest;
+        String outcome = "failure";
+        try {
+            apiRequest = transformationService.transform(message);
+            outcome = "success";
+        } finally {
+            metrics.recordStage(PipelineMetrics.Stage.TRANSFORM, outcome, start);
+            event.finish(outcome);
+        }
         log.debug("Message transformed successfully: {}", message.getMessageId());
 
-        // Send to REST API
-        ApiResponseDto response = restApiClient.sendRequest(apiRequest);
-        
-        log.info("Message processed successfully. MessageId: {}, Response: {}", 
+        // Send to the sink, timed across all retry attempts
+        start = System.nanoTime();
+        ApiResponseDto response;
+        try {
+            response = messageSink.send(apiRequest);
+            metrics.recordStage(PipelineMetrics.Stage.HTTP, "success", start);
+        } catch (RestApiException e) {
+            metrics.recordStage(PipelineMetrics.Stage.HTTP, "failure", start);
+            throw e;
+        }
+
+        log.debug("Message processed successfully. MessageId: {}, Response: {}", 
                 message.getMessageId(), response.getMessage());
     }
 }
@@ -2,10 +2,13 @@ package com.example.kafka.service;
 
 import com.example.kafka.config.ApplicationProperties;
 import com.example.kafka.exception.RestApiException;
+import com.example.kafka.jfr.RestAttemptEvent;
 import com.example.kafka.model.ApiRequestDto;
 import com.example.kafka.model.ApiResponseDto;
+import com.example.kafka.sink.MessageSink;
 import io.github.resilience4j.retry.Retry;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.*;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.HttpClientErrorException;
@@ -19,18 +22,33 @@ import java.util.function.Supplier;
  */
 @Slf4j
 @Service
-public class RestApiClient {
+public class RestApiClient implements MessageSink {
 
     private final RestTemplate restTemplate;
-    private final ApplicationProperties properties;
+    private final ApplicationProperties.RestApi restApi;
     private final Retry retry;
 
+    @Autowired
     public RestApiClient(RestTemplate restTemplate,
                         ApplicationProperties properties,
                         Retry restApiRetry) {
+        this(restTemplate, properties.getRestApi(), restApiRetry);
+    }
+
+    /**
+     * Client for one endpoint, as used by each named pipeline.
+     */
+    public RestApiClient(RestTemplate restTemplate,
+                        ApplicationProperties.RestApi restApi,
+                        Retry retry) {
         this.restTemplate = restTemplate;
-        this.properties = properties;
-        this.retry = restApiRetry;
+        this.restApi = restApi;
+        this.retry = retry;
+    }
+
+    @Override
+    public ApiResponseDto send(ApiRequestDto request) throws RestApiException {
+        return sendRequest(request);
     }
 
     /**
@@ -43,10 +61,15 @@ public class RestApiClient {
     public ApiResponseDto sendRequest(ApiRequestDto apiRequest) throws RestApiException {
         String url = buildUrl();
         
-        log.info("Sending request to REST API: {} for transaction: {}", 
+        log.debug("Sending request to REST API: {} for transaction: {}", 
                 url, apiRequest.getTransactionId());
 
+        int[] attempts = {0};
         Supplier<ApiResponseDto> supplier = Retry.decorateSupplier(retry, () -> {
+            RestAttemptEvent attempt = new RestAttemptEvent();
+            attempt.begin();
+            attempt.setAttempt(++attempts[0]);
+            String outcome = "failure";
             try {
                 HttpHeaders headers = createHeaders();
                 HttpEntity<ApiRequestDto> entity = new HttpEntity<>(apiRequest, headers);
@@ -58,8 +81,10 @@ public class RestApiClient {
                         ApiResponseDto.class
                 );
 
+                attempt.setStatusCode(response.getStatusCode().value());
                 if (response.getStatusCode().is2xxSuccessful() && response.getBody() != null) {
-                    log.info("Successfully sent request to REST API. Transaction: {}, Status: {}",
+                    outcome = "success";
+                    log.debug("Successfully sent request to REST API. Transaction: {}, Status: {}",
                             apiRequest.getTransactionId(), response.getStatusCode());
                     return response.getBody();
                 } else {
@@ -67,16 +92,15 @@ public class RestApiClient {
                 }
 
             } catch (HttpClientErrorException e) {
+                attempt.setStatusCode(e.getStatusCode().value());
                 log.error("Client error calling REST API (4xx): {} - {}", 
                         e.getStatusCode(), e.getResponseBodyAsString());
                 
-                // Don't retry for client errors (4xx)
-                if (e.getStatusCode().value() >= 400 && e.getStatusCode().value() < 500) {
-                    throw new RuntimeException("Non-retryable client error: " + e.getStatusCode(), e);
-                }
+                // Client errors (4xx) are ignored by the retry policy and fail straight away
                 throw e;
 
             } catch (HttpServerErrorException e) {
+                attempt.setStatusCode(e.getStatusCode().value());
                 log.warn("Server error calling REST API (5xx): {} - {}. Will retry...", 
                         e.getStatusCode(), e.getResponseBodyAsString());
                 throw e; // Retry for server errors
@@ -84,6 +108,9 @@ public class RestApiClient {
             } catch (Exception e) {
                 log.error("Error calling REST API: {}", e.getMessage(), e);
                 throw e;
+
+            } finally {
+                attempt.finish(outcome);
             }
         });
 
@@ -103,8 +130,8 @@ public class RestApiClient {
     }
 
     private String buildUrl() {
-        String baseUrl = properties.getRestApi().getBaseUrl();
-        String endpoint = properties.getRestApi().getEndpoint();
+        String baseUrl = restApi.getBaseUrl();
+        String endpoint = restApi.getEndpoint();
         
         if (baseUrl.endsWith("/") && endpoint.startsWith("/")) {
             return baseUrl + endpoint.substring(1);
@@ -118,17 +145,17 @@ public class RestApiClient {
         HttpHeaders headers = new HttpHeaders();
         headers.setContentType(MediaType.APPLICATION_JSON);
 
-        if (properties.getRestApi().getAuth().isEnabled()) {
-            String authType = properties.getRestApi().getAuth().getType();
+        if (restApi.getAuth().isEnabled()) {
+            String authType = restApi.getAuth().getType();
             
             if ("bearer".equalsIgnoreCase(authType)) {
-                String token = properties.getRestApi().getAuth().getToken();
+                String token = restApi.getAuth().getToken();
                 headers.setBearerAuth(token);
                 log.debug("Added Bearer token authentication");
                 
             } else if ("basic".equalsIgnoreCase(authType)) {
-                String username = properties.getRestApi().getAuth().getUsername();
-                String password = properties.getRestApi().getAuth().getPassword();
+                String username = restApi.getAuth().getUsername();
+                String password = restApi.getAuth().getPassword();
                 headers.setBasicAuth(username, password);
                 log.debug("Added Basic authentication");
             }
@@ -3,6 +3,7 @@ package com.example.kafka.service;
 import com.example.kafka.config.ApplicationProperties;
 import com.example.kafka.exception.ValidationException;
 import com.example.kafka.model.IncomingMessage;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.networknt.schema.JsonSchema;
@@ -31,6 +32,7 @@ public class ValidationService {
 
     private final Validator validator;
     private final ObjectMapper objectMapper;
+    private final ObjectMapper schemaMapper;
     private final ApplicationProperties properties;
     private final ResourceLoader resourceLoader;
     private JsonSchema jsonSchema;
@@ -41,19 +43,35 @@ public class ValidationService {
                            ResourceLoader resourceLoader) {
         this.validator = validator;
         this.objectMapper = objectMapper;
+        // Absent optional fields must not reach the schema as explicit nulls
+        this.schemaMapper = objectMapper.copy().setSerializationInclusion(JsonInclude.Include.NON_NULL);
         this.properties = properties;
         this.resourceLoader = resourceLoader;
     }
 
     @PostConstruct
     public void init() {
+        this.jsonSchema = loadSchema(properties.getValidation().getJsonSchemaPath());
+    }
+
+    /**
+     * A validator for another JSON schema, for a named pipeline with a schema of its own.
+     */
+    public ValidationService forSchema(String jsonSchemaPath) {
+        ValidationService service = new ValidationService(validator, objectMapper, properties, resourceLoader);
+        service.jsonSchema = loadSchema(jsonSchemaPath);
+        return service;
+    }
+
+    private JsonSchema loadSchema(String jsonSchemaPath) {
         try {
-            Resource resource = resourceLoader.getResource(properties.getValidation().getJsonSchemaPath());
+            Resource resource = resourceLoader.getResource(jsonSchemaPath);
             try (InputStream inputStream = resource.getInputStream()) {
                 JsonSchemaFactory factory = JsonSchemaFactory.getInstance(SpecVersion.VersionFlag.V7);
                 JsonNode schemaNode = objectMapper.readTree(inputStream);
-                this.jsonSchema = factory.getSchema(schemaNode);
-                log.info("JSON Schema loaded successfully from: {}", properties.getValidation().getJsonSchemaPath());
+                JsonSchema schema = factory.getSchema(schemaNode);
+                log.info("JSON Schema loaded successfully from: {}", jsonSchemaPath);
+                return schema;
             }
         } catch (Exception e) {
             log.error("Failed to load JSON schema", e);
@@ -81,7 +99,7 @@ public class ValidationService {
 
     private void validateJsonSchema(IncomingMessage message) throws ValidationException {
         try {
-            JsonNode messageNode = objectMapper.valueToTree(message);
+            JsonNode messageNode = schemaMapper.valueToTree(message);
             Set<ValidationMessage> errors = jsonSchema.validate(messageNode);
 
             if (!errors.isEmpty()) {
@@ -0,0 +1,33 @@
+package com.example.kafka.sink;
+
+import com.example.kafka.exception.RestApiException;
+import com.example.kafka.model.ApiRequestDto;
+import com.example.kafka.model.ApiResponseDto;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Accepts every message after a fixed delay, standing in for an upstream with a known
+ * response time.
+ */
+public class FixedLatencySink implements MessageSink {
+
+    private final long latencyNanos;
+    private final MessageSink delegate = new NullSink();
+
+    public FixedLatencySink(Duration latency) {
+        this.latencyNanos = latency.toNanos();
+    }
+
+    @Override
+    public ApiResponseDto send(ApiRequestDto request) throws RestApiException {
+        try {
+            TimeUnit.NANOSECONDS.sleep(latencyNanos);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RestApiException("Interrupted in fixed-latency sink", e);
+        }
+        return delegate.send(request);
+    }
+}
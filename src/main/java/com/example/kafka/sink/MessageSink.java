@@ -0,0 +1,21 @@
+package com.example.kafka.sink;
+
+import com.example.kafka.exception.RestApiException;
+import com.example.kafka.model.ApiRequestDto;
+import com.example.kafka.model.ApiResponseDto;
+
+/**
+ * Destination for transformed messages. In production this is the REST API; the in-process
+ * sinks replace it to measure what the rest of the pipeline can sustain on its own.
+ */
+public interface MessageSink {
+
+    /**
+     * Delivers a transformed message.
+     *
+     * @param request The request to deliver
+     * @return The downstream response
+     * @throws RestApiException if delivery fails
+     */
+    ApiResponseDto send(ApiRequestDto request) throws RestApiException;
+}
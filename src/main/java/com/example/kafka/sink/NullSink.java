@@ -0,0 +1,21 @@
+package com.example.kafka.sink;
+
+import com.example.kafka.model.ApiRequestDto;
+import com.example.kafka.model.ApiResponseDto;
+
+/**
+ * Accepts every message immediately and discards it.
+ */
+public class NullSink implements MessageSink {
+
+    @Override
+    public ApiResponseDto send(ApiRequestDto request) {
+        // A fresh response per call: the DTO is mutable and callers may keep it
+        return ApiResponseDto.builder()
+                .success(true)
+                .message("discarded by null sink")
+                .transactionId(request.getTransactionId())
+                .statusCode(200)
+                .build();
+    }
+}
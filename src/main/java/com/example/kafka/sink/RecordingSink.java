@@ -0,0 +1,63 @@
+package com.example.kafka.sink;
+
+import com.example.kafka.model.ApiRequestDto;
+import com.example.kafka.model.ApiResponseDto;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Accepts every message and keeps the most recent ones in a fixed-size ring, so that a
+ * dry run can be checked for what would have been sent without growing the heap.
+ */
+public class RecordingSink implements MessageSink {
+
+    private final AtomicReferenceArray<ApiRequestDto> ring;
+    private final AtomicLong count = new AtomicLong();
+
+    public RecordingSink(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Recording sink capacity must be positive: " + capacity);
+        }
+        this.ring = new AtomicReferenceArray<>(capacity);
+    }
+
+    @Override
+    public ApiResponseDto send(ApiRequestDto request) {
+        long sequence = count.getAndIncrement();
+        ring.set((int) (sequence % ring.length()), request);
+        // A fresh response per call: the DTO is mutable and callers may keep it
+        return ApiResponseDto.builder()
+                .success(true)
+                .message("recorded")
+                .transactionId(request.getTransactionId())
+                .statusCode(200)
+                .build();
+    }
+
+    /**
+     * Total messages accepted, including those no longer retained.
+     */
+    public long count() {
+        return count.get();
+    }
+
+    /**
+     * The retained messages, oldest first. Under concurrent sends the boundary entries may
+     * already have been overwritten by newer ones.
+     */
+    public List<ApiRequestDto> recorded() {
+        long end = count.get();
+        long start = Math.max(0, end - ring.length());
+        List<ApiRequestDto> recorded = new ArrayList<>((int) (end - start));
+        for (long sequence = start; sequence < end; sequence++) {
+            ApiRequestDto request = ring.get((int) (sequence % ring.length()));
+            if (request != null) {
+                recorded.add(request);
+            }
+        }
+        return recorded;
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.kafka.source;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * Persists how far each source file has been processed, as one small text file per source
+ * holding the byte offset of the next unprocessed line and the source size at the time.
+ * Checkpoints are replaced atomically so a crash leaves either the old or the new offset.
+ */
+public class FileCheckpointStore {
+
+    private final Path directory;
+
+    public FileCheckpointStore(Path directory) throws IOException {
+        this.directory = Files.createDirectories(directory);
+    }
+
+    /**
+     * @return The offset to resume {@code file} from, or 0 if it has no checkpoint or has
+     * shrunk since, i.e. was replaced by a different file
+     */
+    public long load(Path file, long currentSize) throws IOException {
+        Path checkpoint = checkpointFile(file);
+        if (!Files.exists(checkpoint)) {
+            return 0;
+        }
+        String[] fields = Files.readString(checkpoint, StandardCharsets.UTF_8).trim().split(" ");
+        long position = Long.parseLong(fields[0]);
+        return position <= currentSize ? position : 0;
+    }
+
+    public void save(Path file, long position, long size) throws IOException {
+        Path checkpoint = checkpointFile(file);
+        Path temp = checkpoint.resolveSibling(checkpoint.getFileName() + ".tmp");
+        Files.writeString(temp, position + " " + size + "\n", StandardCharsets.UTF_8);
+        Files.move(temp, checkpoint, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private Path checkpointFile(Path file) {
+        return directory.resolve(file.getFileName() + ".checkpoint");
+    }
+}
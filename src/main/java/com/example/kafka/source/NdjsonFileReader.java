@@ -0,0 +1,172 @@
+package com.example.kafka.source;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads a newline-delimited JSON file as a sequence of memory-mapped chunks that always end
+ * on a line boundary. Each chunk can be cut into segments, also on line boundaries, so that
+ * several threads can split and process its lines at once.
+ *
+ * <p>Lines are handed out as slices of the mapping; nothing is copied until the caller asks
+ * for the bytes of a line. A line longer than the chunk size cannot be read.
+ */
+public class NdjsonFileReader implements Closeable {
+
+    private static final byte NEWLINE = '\n';
+
+    private final FileChannel channel;
+    private final long size;
+    private final int chunkSize;
+    private long position;
+
+    /**
+     * @param file The NDJSON file
+     * @param startPosition Byte offset to resume from, which must be the start of a line
+     * @param chunkSize Maximum bytes mapped at a time
+     */
+    public NdjsonFileReader(Path file, long startPosition, int chunkSize) throws IOException {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("Chunk size must be positive: " + chunkSize);
+        }
+        this.channel = FileChannel.open(file, StandardOpenOption.READ);
+        this.size = channel.size();
+        this.chunkSize = chunkSize;
+        this.position = Math.min(startPosition, size);
+    }
+
+    public long size() {
+        return size;
+    }
+
+    public long position() {
+        return position;
+    }
+
+    public boolean hasNext() {
+        return position < size;
+    }
+
+    /**
+     * Maps the next chunk, trimmed to its last newline unless it reaches the end of the file.
+     *
+     * @throws IOException if a single line is longer than the chunk size
+     */
+    public Chunk next() throws IOException {
+        long length = Math.min(chunkSize, size - position);
+        MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+
+        int end = (int) length;
+        if (position + length < size) {
+            end = lastNewline(mapped, (int) length) + 1;
+            if (end == 0) {
+                throw new IOException("Line at offset " + position + " is longer than the chunk size of "
+                        + chunkSize + " bytes");
+            }
+        }
+        Chunk chunk = new Chunk(position, mapped.limit(end).slice());
+        position += end;
+        return chunk;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private static int lastNewline(ByteBuffer buffer, int length) {
+        for (int i = length - 1; i >= 0; i--) {
+            if (buffer.get(i) == NEWLINE) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * A run of complete lines starting at byte offset {@code start} of the file.
+     */
+    public record Chunk(long start, ByteBuffer buffer) {
+
+        public long end() {
+            return start + buffer.limit();
+        }
+
+        /**
+         * Cuts the chunk into at most {@code parts} segments of roughly equal size, each
+         * starting at the beginning of a line.
+         */
+        public List<Segment> segments(int parts) {
+            int limit = buffer.limit();
+            List<Segment> segments = new ArrayList<>(parts);
+            int from = 0;
+            for (int part = 1; part <= parts && from < limit; part++) {
+                int to = part == parts ? limit : nextLineStart(Math.max(from, (int) ((long) limit * part / parts)));
+                if (to > from) {
+                    segments.add(new Segment(start, buffer, from, to));
+                    from = to;
+                }
+            }
+            return segments;
+        }
+
+        private int nextLineStart(int from) {
+            int limit = buffer.limit();
+            for (int i = from; i < limit; i++) {
+                if (buffer.get(i) == NEWLINE) {
+                    return i + 1;
+                }
+            }
+            return limit;
+        }
+    }
+
+    /**
+     * Lines {@code [from, to)} of a chunk.
+     */
+    public record Segment(long chunkStart, ByteBuffer buffer, int from, int to) {
+
+        /**
+         * Calls {@code handler} for each non-blank line, in file order, with the line's
+         * absolute byte offset and its bytes without the line terminator.
+         */
+        public void forEachLine(LineHandler handler) {
+            int lineStart = from;
+            while (lineStart < to) {
+                int lineEnd = lineStart;
+                while (lineEnd < to && buffer.get(lineEnd) != NEWLINE) {
+                    lineEnd++;
+                }
+                int contentEnd = lineEnd > lineStart && buffer.get(lineEnd - 1) == '\r' ? lineEnd - 1 : lineEnd;
+                if (!isBlank(lineStart, contentEnd)) {
+                    byte[] line = new byte[contentEnd - lineStart];
+                    buffer.get(lineStart, line);
+                    handler.onLine(chunkStart + lineStart, line);
+                }
+                lineStart = lineEnd + 1;
+            }
+        }
+
+        private boolean isBlank(int start, int end) {
+            for (int i = start; i < end; i++) {
+                byte b = buffer.get(i);
+                if (b != ' ' && b != '\t') {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    @FunctionalInterface
+    public interface LineHandler {
+        void onLine(long offset, byte[] line);
+    }
+}
@@ -0,0 +1,170 @@
+package com.example.kafka.staleness;
+
+import com.example.kafka.config.ApplicationProperties;
+import com.example.kafka.config.KafkaProducerProfiles;
+import com.example.kafka.format.FormatAwareDeserializer;
+import com.example.kafka.model.IncomingMessage;
+import io.github.resilience4j.ratelimiter.RateLimiter;
+import io.github.resilience4j.ratelimiter.RateLimiterConfig;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.header.Header;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Applies the {@link StalenessPolicy} to records before they are validated and delivered,
+ * so that a replayed backlog does not hold up fresh traffic.
+ *
+ * <p>Stale records are republished to the catch-up topic, held to a rate limit, moved to a
+ * low-priority lane, or left to the caller to dead-letter, depending on the configured action.
+ * Throttling waits on the thread that delivers the record, so it is only accepted when
+ * records are handed off from the listener threads to workers, priority lanes or tenants.
+ */
+@Component
+@ConditionalOnProperty(prefix = "app.staleness", name = "enabled", havingValue = "true")
+public class StaleRecordRouter {
+
+    public static final String ORIGINAL_TOPIC_HEADER = "x-original-topic";
+    public static final String ORIGINAL_PARTITION_HEADER = "x-original-partition";
+    public static final String ORIGINAL_OFFSET_HEADER = "x-original-offset";
+
+    private static final String OTHER = "other";
+
+    private final StalenessPolicy policy;
+    private final ApplicationProperties.Staleness config;
+    private final KafkaProducerProfiles producerProfiles;
+    private final long sendTimeoutMs;
+    private final RateLimiter rateLimiter;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Counter> counters = new ConcurrentHashMap<>();
+
+    public StaleRecordRouter(ApplicationProperties properties,
+                             KafkaProducerProfiles producerProfiles,
+                             MeterRegistry meterRegistry) {
+        this.config = properties.getStaleness();
+        this.producerProfiles = producerProfiles;
+        this.sendTimeoutMs = properties.getDlq().getSendTimeoutMs();
+        this.meterRegistry = meterRegistry;
+
+        Map<String, StalenessPolicy.Action> actions = new LinkedHashMap<>();
+        config.getActions().forEach((eventType, action) -> actions.put(eventType, StalenessPolicy.Action.fromName(action)));
+        this.policy = new StalenessPolicy(config.getDefaultTtlMs(), config.getTtlMs(),
+                StalenessPolicy.Action.fromName(config.getAction()), actions);
+        if (policy.uses(StalenessPolicy.Action.THROTTLE) && !dispatchesAsynchronously(properties)) {
+            throw new IllegalStateException("app.staleness action 'throttle' would block the Kafka listener "
+                    + "threads; enable app.workers, app.priority-lanes or app.tenancy, or choose another action");
+        }
+        this.rateLimiter = RateLimiter.of("stale-records", RateLimiterConfig.custom()
+                .limitForPeriod(config.getThrottleRatePerSecond())
+                .limitRefreshPeriod(Duration.ofSeconds(1))
+                .timeoutDuration(Duration.ofSeconds(1))
+                .build());
+    }
+
+    /**
+     * Decides on a record and carries out throttling or the catch-up republish.
+     *
+     * @return {@code DELIVER} or {@code THROTTLE} if the record should now be delivered as usual,
+     *         {@code CATCH_UP} if it was republished and only needs acknowledging, {@code DLQ}
+     *         if the caller should dead-letter it
+     */
+    public StalenessPolicy.Action route(ConsumerRecord<String, IncomingMessage> record, IncomingMessage message)
+            throws InterruptedException, ExecutionException, TimeoutException {
+        String eventType = message.getEventType();
+        StalenessPolicy.Action action = policy.evaluate(record.timestamp(), eventType, System.currentTimeMillis());
+        if (action == StalenessPolicy.Action.DELIVER || action == StalenessPolicy.Action.LANE) {
+            // Stale records for the lane were counted when they were dispatched to it
+            return StalenessPolicy.Action.DELIVER;
+        }
+        counter(eventType, action).increment();
+
+        switch (action) {
+            case THROTTLE -> throttle();
+            case CATCH_UP -> republish(record, message);
+            default -> {
+            }
+        }
+        return action;
+    }
+
+    /**
+     * The priority lane for the record if it is stale and its action is {@code lane}.
+     *
+     * @return the lane name, or null if the record goes to its event type's lane
+     */
+    public String lane(ConsumerRecord<String, IncomingMessage> record, IncomingMessage message) {
+        String eventType = message.getEventType();
+        if (config.getLane().isBlank()
+                || policy.evaluate(record.timestamp(), eventType, System.currentTimeMillis()) != StalenessPolicy.Action.LANE) {
+            return null;
+        }
+        counter(eventType, StalenessPolicy.Action.LANE).increment();
+        return config.getLane();
+    }
+
+    public long ttl(String eventType) {
+        return policy.ttl(eventType);
+    }
+
+    private static boolean dispatchesAsynchronously(ApplicationProperties properties) {
+        return properties.getWorkers().isEnabled() || properties.getPriorityLanes().isEnabled()
+                || properties.getTenancy().isEnabled();
+    }
+
+    private void throttle() throws InterruptedException {
+        while (!rateLimiter.acquirePermission()) {
+            if (Thread.currentThread().isInterrupted()) {
+                throw new InterruptedException("Interrupted while waiting for the stale-record rate limit");
+            }
+        }
+    }
+
+    /**
+     * Republishes the record, keeping its key, headers and timestamp, and waits for the broker
+     * to accept it before the caller acknowledges the original.
+     */
+    private void republish(ConsumerRecord<String, IncomingMessage> record, IncomingMessage message)
+            throws InterruptedException, ExecutionException, TimeoutException {
+        ProducerRecord<String, Object> catchUp = new ProducerRecord<>(config.getCatchUpTopic(), null,
+                record.timestamp(), record.key(), message);
+        for (Header header : record.headers()) {
+            catchUp.headers().add(header);
+        }
+        // The value is re-encoded as JSON whatever its original format
+        catchUp.headers().remove(FormatAwareDeserializer.FORMAT_HEADER);
+        catchUp.headers().add(FormatAwareDeserializer.FORMAT_HEADER, bytes("json"));
+        catchUp.headers().add(ORIGINAL_TOPIC_HEADER, bytes(record.topic()));
+        catchUp.headers().add(ORIGINAL_PARTITION_HEADER, bytes(Integer.toString(record.partition())));
+        catchUp.headers().add(ORIGINAL_OFFSET_HEADER, bytes(Long.toString(record.offset())));
+
+        KafkaTemplate<String, Object> template = producerProfiles.template(config.getProducerProfile());
+        template.send(catchUp).get(sendTimeoutMs, TimeUnit.MILLISECONDS);
+    }
+
+    private Counter counter(String eventType, StalenessPolicy.Action action) {
+        String eventTypeTag = policy.configured(eventType) ? eventType : OTHER;
+        return counters.computeIfAbsent(eventTypeTag + '|' + action, key -> Counter.builder("pipeline.stale.records")
+                .description("Records older than their event type's TTL, by what was done with them")
+                .tag("eventType", eventTypeTag)
+                .tag("action", action.name().toLowerCase(Locale.ROOT).replace('_', '-'))
+                .register(meterRegistry));
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
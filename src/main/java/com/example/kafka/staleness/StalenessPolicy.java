@@ -0,0 +1,82 @@
+package com.example.kafka.staleness;
+
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Decides what happens to a record from its age, the time since its Kafka timestamp, and
+ * the TTL of its event type.
+ */
+public class StalenessPolicy {
+
+    /**
+     * What happens to a record.
+     */
+    public enum Action {
+        /** Fresh, or no TTL applies: deliver as usual. */
+        DELIVER,
+        /** Republish to the catch-up topic and acknowledge. */
+        CATCH_UP,
+        /** Deliver, but no faster than the stale-record rate limit. */
+        THROTTLE,
+        /** Send to the DLQ as stale. */
+        DLQ,
+        /** Deliver through the stale-record priority lane. */
+        LANE;
+
+        public static Action fromName(String name) {
+            return Action.valueOf(name.trim().replace('-', '_').toUpperCase(Locale.ROOT));
+        }
+    }
+
+    private final long defaultTtlMs;
+    private final Map<String, Long> ttlMs;
+    private final Action defaultAction;
+    private final Map<String, Action> actions;
+
+    /**
+     * @param defaultTtlMs TTL for event types without their own; 0 means such records never go stale
+     * @param ttlMs TTL per event type
+     * @param defaultAction What happens to stale records of event types without their own action
+     * @param actions Action per event type
+     */
+    public StalenessPolicy(long defaultTtlMs, Map<String, Long> ttlMs, Action defaultAction, Map<String, Action> actions) {
+        this.defaultTtlMs = defaultTtlMs;
+        this.ttlMs = Map.copyOf(ttlMs);
+        this.defaultAction = defaultAction;
+        this.actions = Map.copyOf(actions);
+    }
+
+    /**
+     * @param recordTimestamp The Kafka record timestamp in epoch millis; negative if unknown
+     * @param eventType The message event type, may be null
+     * @param nowMillis The current time in epoch millis
+     */
+    public Action evaluate(long recordTimestamp, String eventType, long nowMillis) {
+        long ttl = ttl(eventType);
+        if (ttl <= 0 || recordTimestamp < 0 || nowMillis - recordTimestamp <= ttl) {
+            return Action.DELIVER;
+        }
+        Action action = eventType != null ? actions.get(eventType) : null;
+        return action != null ? action : defaultAction;
+    }
+
+    public long ttl(String eventType) {
+        Long ttl = eventType != null ? ttlMs.get(eventType) : null;
+        return ttl != null ? ttl : defaultTtlMs;
+    }
+
+    /**
+     * Whether stale records of any event type are handled with {@code action}.
+     */
+    public boolean uses(Action action) {
+        return defaultAction == action || actions.containsValue(action);
+    }
+
+    /**
+     * Whether the event type has its own TTL, i.e. is worth its own metric tag.
+     */
+    public boolean configured(String eventType) {
+        return eventType != null && (ttlMs.containsKey(eventType) || actions.containsKey(eventType));
+    }
+}
@@ -0,0 +1,200 @@
+package com.example.kafka.tenancy;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Bounded per-tenant FIFO queues served by deficit round-robin: on its turn a tenant earns
+ * its weight in records and is served until that credit or its queue runs out. A tenant
+ * over its records-per-second quota loses its turn until its token bucket refills.
+ *
+ * <p>Not thread-safe; {@link TenantDispatcher} guards it with its lock.
+ */
+public class FairQueue<T> {
+
+    /**
+     * Weight and quota of one tenant.
+     *
+     * @param weight Records served per round-robin turn
+     * @param quotaPerSecond Records per second, with a burst of one second; 0 for no quota
+     */
+    public record Policy(int weight, double quotaPerSecond) {
+        public Policy {
+            if (weight < 1) {
+                throw new IllegalArgumentException("Tenant weight must be at least 1: " + weight);
+            }
+        }
+    }
+
+    private final int capacityPerTenant;
+    private final int maxTenants;
+    private final Map<String, Policy> policies;
+    private final Policy defaultPolicy;
+    private final Consumer<String> quotaExceeded;
+    private final Map<String, Tenant<T>> tenants = new HashMap<>();
+    private final ArrayDeque<Tenant<T>> active = new ArrayDeque<>();
+    private int size;
+
+    /**
+     * @param capacityPerTenant Records queued per tenant before {@link #offer} refuses more
+     * @param maxTenants Tenants tracked before idle ones are forgotten
+     * @param quotaExceeded Called with the tenant each time it loses a turn to its quota
+     */
+    public FairQueue(int capacityPerTenant, int maxTenants, Map<String, Policy> policies, Policy defaultPolicy,
+                     Consumer<String> quotaExceeded) {
+        this.capacityPerTenant = capacityPerTenant;
+        this.maxTenants = maxTenants;
+        this.policies = Map.copyOf(policies);
+        this.defaultPolicy = defaultPolicy;
+        this.quotaExceeded = quotaExceeded;
+    }
+
+    /**
+     * @return false if the tenant's queue is full
+     */
+    public boolean offer(String tenantId, T item, long nowNanos) {
+        Tenant<T> tenant = tenants.get(tenantId);
+        if (tenant == null) {
+            if (tenants.size() >= maxTenants) {
+                forgetIdle(nowNanos);
+            }
+            tenant = new Tenant<>(tenantId, policies.getOrDefault(tenantId, defaultPolicy), nowNanos);
+            tenants.put(tenantId, tenant);
+        }
+        if (tenant.queue.size() >= capacityPerTenant) {
+            return false;
+        }
+        tenant.queue.addLast(item);
+        size++;
+        if (!tenant.active) {
+            tenant.active = true;
+            active.addLast(tenant);
+        }
+        return true;
+    }
+
+    /**
+     * @return the next record to dispatch, or null if nothing is queued or every tenant with
+     *         queued records is over its quota
+     */
+    public T poll(long nowNanos) {
+        int skipped = 0;
+        while (!active.isEmpty() && skipped < active.size()) {
+            Tenant<T> tenant = active.peekFirst();
+            if (!tenant.refill(nowNanos)) {
+                // Over quota: the turn passes on, and no credit is kept for later
+                tenant.deficit = 0;
+                active.addLast(active.pollFirst());
+                quotaExceeded.accept(tenant.id);
+                skipped++;
+                continue;
+            }
+            if (tenant.deficit < 1) {
+                tenant.deficit += tenant.policy.weight();
+            }
+            T item = tenant.queue.pollFirst();
+            size--;
+            tenant.deficit--;
+            tenant.take();
+            if (tenant.queue.isEmpty()) {
+                active.pollFirst();
+                tenant.active = false;
+                tenant.deficit = 0;
+            } else if (tenant.deficit < 1) {
+                active.addLast(active.pollFirst());
+            }
+            return item;
+        }
+        return null;
+    }
+
+    /**
+     * How long until an over-quota tenant with queued records may be served again.
+     */
+    public long nanosUntilEligible(long nowNanos) {
+        long wait = Long.MAX_VALUE;
+        for (Tenant<T> tenant : active) {
+            wait = Math.min(wait, tenant.nanosUntilToken(nowNanos));
+        }
+        return wait;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int size(String tenantId) {
+        Tenant<T> tenant = tenants.get(tenantId);
+        return tenant != null ? tenant.queue.size() : 0;
+    }
+
+    public int trackedTenants() {
+        return tenants.size();
+    }
+
+    /**
+     * Drops tenants with nothing queued and a full token bucket; recreating them loses nothing.
+     */
+    private void forgetIdle(long nowNanos) {
+        Iterator<Tenant<T>> iterator = tenants.values().iterator();
+        while (iterator.hasNext()) {
+            Tenant<T> tenant = iterator.next();
+            if (!tenant.active && tenant.idle(nowNanos)) {
+                iterator.remove();
+            }
+        }
+    }
+
+    private static final class Tenant<T> {
+        private final String id;
+        private final Policy policy;
+        private final ArrayDeque<T> queue = new ArrayDeque<>();
+        private final double burst;
+        private double tokens;
+        private long refilledAt;
+        private int deficit;
+        private boolean active;
+
+        private Tenant(String id, Policy policy, long nowNanos) {
+            this.id = id;
+            this.policy = policy;
+            this.burst = Math.max(1, policy.quotaPerSecond());
+            this.tokens = burst;
+            this.refilledAt = nowNanos;
+        }
+
+        /**
+         * @return true if a record may be taken now
+         */
+        private boolean refill(long nowNanos) {
+            if (policy.quotaPerSecond() <= 0) {
+                return true;
+            }
+            tokens = Math.min(burst, tokens + (nowNanos - refilledAt) * policy.quotaPerSecond() / 1e9);
+            refilledAt = nowNanos;
+            return tokens >= 1;
+        }
+
+        private void take() {
+            if (policy.quotaPerSecond() > 0) {
+                tokens--;
+            }
+        }
+
+        private long nanosUntilToken(long nowNanos) {
+            if (policy.quotaPerSecond() <= 0) {
+                return 0;
+            }
+            refill(nowNanos);
+            return tokens >= 1 ? 0 : (long) Math.ceil((1 - tokens) * 1e9 / policy.quotaPerSecond());
+        }
+
+        private boolean idle(long nowNanos) {
+            refill(nowNanos);
+            return policy.quotaPerSecond() <= 0 || tokens >= burst;
+        }
+    }
+}
@@ -0,0 +1,258 @@
+package com.example.kafka.tenancy;
+
+import com.example.kafka.config.ApplicationProperties;
+import com.example.kafka.model.IncomingMessage;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Fair-queuing dispatch stage between the Kafka listener threads and delivery.
+ *
+ * <p>Listener threads queue each record under its tenant, read from the message metadata,
+ * and block only while that tenant's queue is full. A dispatcher thread takes records from
+ * the {@link FairQueue} by weighted deficit round-robin, within each tenant's quota, and
+ * hands them to single-threaded delivery workers striped by record key, so records with the
+ * same key are delivered in order. At most {@code maxInFlight} records are handed over and
+ * not yet finished, so the fairness decided here is not lost in the workers' queues.
+ */
+@Slf4j
+public class TenantDispatcher implements AutoCloseable {
+
+    private static final String OTHER = "other";
+
+    private final ApplicationProperties.Tenancy config;
+    private final FairQueue<Entry> queue;
+    private final ExecutorService[] workers;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition dispatchable = lock.newCondition();
+    private final Condition space = lock.newCondition();
+    private final AtomicLong roundRobin = new AtomicLong();
+    private final MeterRegistry meterRegistry;
+    private final Map<String, TenantMeters> meters = new ConcurrentHashMap<>();
+    private int inFlight;
+    private volatile boolean running;
+    private Thread dispatcher;
+
+    public TenantDispatcher(ApplicationProperties.Tenancy config, MeterRegistry meterRegistry) {
+        this.config = config;
+        this.meterRegistry = meterRegistry;
+
+        Map<String, FairQueue.Policy> policies = new LinkedHashMap<>();
+        config.getTenants().forEach((tenant, settings) -> policies.put(tenant, new FairQueue.Policy(
+                settings.getWeight() != null ? settings.getWeight() : config.getDefaultWeight(),
+                settings.getQuotaPerSecond() != null ? settings.getQuotaPerSecond() : config.getDefaultQuotaPerSecond())));
+        this.queue = new FairQueue<>(config.getQueueCapacity(), config.getMaxTrackedTenants(), policies,
+                new FairQueue.Policy(config.getDefaultWeight(), config.getDefaultQuotaPerSecond()),
+                tenant -> meters(tenant).quotaExceeded.increment());
+
+        this.workers = new ExecutorService[config.getWorkers()];
+        for (int i = 0; i < workers.length; i++) {
+            String name = "tenant-worker-" + i;
+            workers[i] = Executors.newSingleThreadExecutor(runnable -> new Thread(runnable, name));
+        }
+
+        Gauge.builder("pipeline.tenant.queued", this, TenantDispatcher::queued)
+                .description("Records waiting in the tenant queues")
+                .register(meterRegistry);
+        Gauge.builder("pipeline.tenant.tracked", this, TenantDispatcher::trackedTenants)
+                .description("Tenants with queue and quota state")
+                .register(meterRegistry);
+    }
+
+    public void start() {
+        running = true;
+        dispatcher = new Thread(this::dispatchLoop, "tenant-dispatcher");
+        dispatcher.setDaemon(true);
+        dispatcher.start();
+    }
+
+    /**
+     * The tenant of a message: the first of the configured metadata keys it carries.
+     */
+    public String tenantOf(IncomingMessage message) {
+        Map<String, String> metadata = message != null ? message.getMetadata() : null;
+        if (metadata != null) {
+            for (String key : config.getMetadataKeys()) {
+                String tenant = metadata.get(key);
+                if (tenant != null && !tenant.isBlank()) {
+                    return tenant;
+                }
+            }
+        }
+        return config.getDefaultTenant();
+    }
+
+    /**
+     * Queues a record under its tenant, blocking while that tenant's queue is full.
+     *
+     * @param key The record key, or null if ordering does not matter
+     */
+    public void submit(String tenant, Object key, Runnable task) throws InterruptedException {
+        Entry entry = new Entry(tenant, key, task, System.nanoTime());
+        lock.lockInterruptibly();
+        try {
+            while (!queue.offer(tenant, entry, System.nanoTime())) {
+                space.await();
+            }
+            dispatchable.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int queued() {
+        lock.lock();
+        try {
+            return queue.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private int trackedTenants() {
+        lock.lock();
+        try {
+            return queue.trackedTenants();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        try {
+            if (dispatcher != null) {
+                dispatcher.interrupt();
+                dispatcher.join(TimeUnit.SECONDS.toMillis(5));
+            }
+            for (ExecutorService worker : workers) {
+                worker.shutdown();
+            }
+            for (ExecutorService worker : workers) {
+                worker.awaitTermination(30, TimeUnit.SECONDS);
+            }
+        } catch (InterruptedException e) {
+            for (ExecutorService worker : workers) {
+                worker.shutdown();
+            }
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void dispatchLoop() {
+        while (running) {
+            try {
+                Entry entry = next();
+                meters(entry.tenant).dispatched(System.nanoTime() - entry.queuedAt);
+                long slot = entry.key != null ? entry.key.hashCode() & Integer.MAX_VALUE : roundRobin.getAndIncrement();
+                workers[(int) (slot % workers.length)].execute(() -> run(entry));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.error("Tenant dispatcher failed to hand over a record: {}", e.getMessage(), e);
+                finished();
+            }
+        }
+    }
+
+    /**
+     * Waits for a free delivery slot and a tenant that may be served.
+     */
+    private Entry next() throws InterruptedException {
+        lock.lockInterruptibly();
+        try {
+            while (true) {
+                if (inFlight < config.getMaxInFlight()) {
+                    long now = System.nanoTime();
+                    Entry entry = queue.poll(now);
+                    if (entry != null) {
+                        inFlight++;
+                        space.signalAll();
+                        return entry;
+                    }
+                    if (queue.size() > 0) {
+                        // Everyone with queued records is over quota
+                        dispatchable.awaitNanos(Math.max(queue.nanosUntilEligible(now), 1));
+                        continue;
+                    }
+                }
+                dispatchable.await();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void run(Entry entry) {
+        try {
+            entry.task.run();
+        } catch (RuntimeException e) {
+            log.error("Unhandled error delivering record for tenant {}: {}", entry.tenant, e.getMessage(), e);
+        } finally {
+            finished();
+        }
+    }
+
+    private void finished() {
+        lock.lock();
+        try {
+            inFlight--;
+            dispatchable.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Configured tenants get their own meters; the rest share the {@code other} tag.
+     */
+    private TenantMeters meters(String tenant) {
+        String tag = config.getTenants().containsKey(tenant) ? tenant : OTHER;
+        return meters.computeIfAbsent(tag, key -> new TenantMeters(key, meterRegistry));
+    }
+
+    private record Entry(String tenant, Object key, Runnable task, long queuedAt) {
+    }
+
+    private static final class TenantMeters {
+        private final Timer queueDelay;
+        private final Counter records;
+        private final Counter quotaExceeded;
+
+        private TenantMeters(String tenant, MeterRegistry meterRegistry) {
+            queueDelay = Timer.builder("pipeline.tenant.queue.delay")
+                    .description("Time records wait in their tenant's queue before dispatch")
+                    .tag("tenant", tenant)
+                    .publishPercentiles(0.5, 0.99)
+                    .register(meterRegistry);
+            records = Counter.builder("pipeline.tenant.records")
+                    .description("Records dispatched to delivery per tenant")
+                    .tag("tenant", tenant)
+                    .register(meterRegistry);
+            quotaExceeded = Counter.builder("pipeline.tenant.quota.exceeded")
+                    .description("Turns a tenant lost because it was over its records-per-second quota")
+                    .tag("tenant", tenant)
+                    .register(meterRegistry);
+        }
+
+        private void dispatched(long queuedNanos) {
+            queueDelay.record(queuedNanos, TimeUnit.NANOSECONDS);
+            records.increment();
+        }
+    }
+}
@@ -0,0 +1,227 @@
+package com.example.kafka.warmup;
+
+import com.example.kafka.config.ApplicationProperties;
+import com.example.kafka.exception.ValidationException;
+import com.example.kafka.format.JsonMessageDecoder;
+import com.example.kafka.format.MessageDecoder;
+import com.example.kafka.format.StreamingJsonMessageDecoder;
+import com.example.kafka.model.ApiRequestDto;
+import com.example.kafka.model.IncomingMessage;
+import com.example.kafka.service.TransformationService;
+import com.example.kafka.service.ValidationService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpMethod;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.listener.MessageListenerContainer;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestClientResponseException;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Warms the process up before it joins the consumer group. Synthetic messages, a few of
+ * them invalid, are run through JSON decoding, validation, transformation and request
+ * serialization so the JIT, Jackson and Hibernate Validator have built their code and
+ * metadata, while one connection per listener thread is opened to the REST API.
+ *
+ * <p>Runs as an {@link ApplicationRunner}, so the readiness probe reports
+ * {@code REFUSING_TRAFFIC} until it finishes. Listener containers do not start on their own
+ * while warm-up is enabled (see {@code KafkaConsumerConfig}); they are started here once
+ * warm-up completes or its time budget runs out.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "app.warmup", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class WarmupRunner implements ApplicationRunner {
+
+    private static final int DISTINCT_MESSAGES = 64;
+    private static final int INVALID_EVERY = 8;
+
+    private final ApplicationProperties properties;
+    private final ValidationService validationService;
+    private final TransformationService transformationService;
+    private final ObjectMapper objectMapper;
+    private final RestTemplate restTemplate;
+    private final KafkaListenerEndpointRegistry listenerRegistry;
+    private final MeterRegistry meterRegistry;
+    private final int connections;
+
+    public WarmupRunner(ApplicationProperties properties,
+                        ValidationService validationService,
+                        TransformationService transformationService,
+                        ObjectMapper objectMapper,
+                        RestTemplate restTemplate,
+                        KafkaListenerEndpointRegistry listenerRegistry,
+                        MeterRegistry meterRegistry,
+                        @Value("${spring.kafka.listener.concurrency:3}") int connections) {
+        this.properties = properties;
+        this.validationService = validationService;
+        this.transformationService = transformationService;
+        this.objectMapper = objectMapper;
+        this.restTemplate = restTemplate;
+        this.listenerRegistry = listenerRegistry;
+        this.meterRegistry = meterRegistry;
+        this.connections = connections;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        ApplicationProperties.Warmup config = properties.getWarmup();
+        long start = System.nanoTime();
+        long deadline = start + TimeUnit.MILLISECONDS.toNanos(config.getTimeBudgetMs());
+
+        ExecutorService connectors = Executors.newFixedThreadPool(Math.max(1, connections), runnable -> {
+            Thread thread = new Thread(runnable, "warmup-connect");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            CompletableFuture<Integer> reachable = prewarmConnections(connectors, config);
+            long messages = exercisePipeline(config.getIterations(), deadline);
+            int connected = await(reachable, deadline);
+
+            long elapsed = System.nanoTime() - start;
+            Timer.builder("warmup.duration")
+                    .description("Time spent warming up before the listeners started")
+                    .tag("outcome", System.nanoTime() < deadline ? "completed" : "budget_exhausted")
+                    .register(meterRegistry)
+                    .record(elapsed, TimeUnit.NANOSECONDS);
+            log.info("Warm-up ran {} synthetic messages and opened {}/{} REST API connections in {} ms",
+                    messages, connected, connections, TimeUnit.NANOSECONDS.toMillis(elapsed));
+        } finally {
+            connectors.shutdownNow();
+            startListeners();
+        }
+    }
+
+    /**
+     * @return the number of messages run, fewer than {@code iterations} if the budget ran out
+     */
+    long exercisePipeline(int iterations, long deadlineNanos) {
+        MessageDecoder decoder = "databind".equalsIgnoreCase(properties.getKafka().getFormat().getJsonDecoder())
+                ? new JsonMessageDecoder()
+                : new StreamingJsonMessageDecoder();
+        List<byte[]> corpus = new ArrayList<>(DISTINCT_MESSAGES);
+        for (IncomingMessage message : syntheticMessages(DISTINCT_MESSAGES)) {
+            corpus.add(serialize(message));
+        }
+
+        long run = 0;
+        for (int i = 0; i < iterations && System.nanoTime() < deadlineNanos; i++) {
+            IncomingMessage message = decoder.decode(corpus.get(i % DISTINCT_MESSAGES), null);
+            try {
+                validationService.validate(message);
+                ApiRequestDto request = transformationService.transform(message);
+                serialize(request);
+            } catch (ValidationException e) {
+                // Expected for the invalid variants, which warm the failure path
+            }
+            run++;
+        }
+        return run;
+    }
+
+    /**
+     * Opens and validates one connection per listener thread. Any HTTP response proves DNS,
+     * TCP and TLS work; the idle connection then stays in the JDK keep-alive cache for the
+     * first real requests.
+     */
+    private CompletableFuture<Integer> prewarmConnections(ExecutorService connectors, ApplicationProperties.Warmup config) {
+        String url = properties.getRestApi().getBaseUrl() + config.getConnectionCheckPath();
+        List<CompletableFuture<Boolean>> attempts = new ArrayList<>();
+        for (int i = 0; i < connections; i++) {
+            attempts.add(CompletableFuture.supplyAsync(() -> probe(url), connectors));
+        }
+        return CompletableFuture.allOf(attempts.toArray(CompletableFuture[]::new))
+                .thenApply(done -> (int) attempts.stream().filter(CompletableFuture::join).count());
+    }
+
+    private boolean probe(String url) {
+        try {
+            restTemplate.execute(url, HttpMethod.HEAD, null, response -> response.getStatusCode());
+            return true;
+        } catch (RestClientResponseException e) {
+            return true;
+        } catch (RestClientException e) {
+            log.warn("Warm-up could not reach the REST API at {}: {}", url, e.getMessage());
+            return false;
+        }
+    }
+
+    private void startListeners() {
+        for (MessageListenerContainer container : listenerRegistry.getListenerContainers()) {
+            if (!container.isRunning()) {
+                container.start();
+            }
+        }
+    }
+
+    private byte[] serialize(Object value) {
+        try {
+            return objectMapper.writeValueAsBytes(value);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static int await(CompletableFuture<Integer> future, long deadlineNanos) {
+        try {
+            return future.get(Math.max(0, deadlineNanos - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return 0;
+        } catch (ExecutionException | TimeoutException e) {
+            return 0;
+        }
+    }
+
+    /**
+     * Varied messages across event types and currencies, one in {@value #INVALID_EVERY}
+     * failing validation.
+     */
+    static List<IncomingMessage> syntheticMessages(int count) {
+        String[] eventTypes = {"PAYMENT_CREATED", "PAYMENT_UPDATED", "REFUND_PROCESSED", "ORDER_PLACED"};
+        String[] currencies = {"USD", "EUR", "GBP", "JPY"};
+        List<IncomingMessage> messages = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            IncomingMessage.PayloadData payload = IncomingMessage.PayloadData.builder()
+                    .customerId("WARMUP-" + i)
+                    .customerName("Warmup Customer " + i)
+                    .email(i % INVALID_EVERY == INVALID_EVERY - 1 ? "not-an-email" : "warmup" + i + "@example.com")
+                    .phone("+1202555" + String.format("%04d", i))
+                    .amount(10.0 + i * 7.25)
+                    .currency(currencies[i % currencies.length])
+                    .description("Warm-up message " + i)
+                    .active(i % 2 == 0)
+                    .build();
+            messages.add(IncomingMessage.builder()
+                    .messageId("WARMUP-" + i)
+                    .eventType(eventTypes[i % eventTypes.length])
+                    .timestamp(LocalDateTime.of(2025, 1, 1, 0, 0).plusMinutes(i))
+                    .payload(payload)
+                    .metadata(Map.of("source", "warmup", "version", "v1"))
+                    .build());
+        }
+        return messages;
+    }
+}
@@ -0,0 +1,186 @@
+package com.example.kafka.workers;
+
+import com.example.kafka.config.ApplicationProperties;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.common.Metric;
+import org.apache.kafka.common.MetricName;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.listener.MessageListenerContainer;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sizes the {@link ProcessingWorkerPool} from consumer lag and processing latency.
+ *
+ * <p>By Little's law the pool needs {@code rate x latency} busy workers, where the rate is
+ * the arrival rate plus what it takes to drain the current lag within
+ * {@code drainTargetSeconds}. The target must stay above the current size for
+ * {@code scaleUpChecks} consecutive checks before scaling up, and below
+ * {@code scaleDownRatio} of it for {@code scaleDownChecks} checks before scaling down, and
+ * no change follows another within the cooldown.
+ */
+@Slf4j
+public class ConcurrencyController implements AutoCloseable {
+
+    private static final String FETCH_MANAGER_GROUP = "consumer-fetch-manager-metrics";
+    private static final String RECORDS_LAG = "records-lag";
+
+    private final ProcessingWorkerPool pool;
+    private final KafkaListenerEndpointRegistry listenerRegistry;
+    private final ApplicationProperties.Workers config;
+    private final int workerCeiling;
+
+    private ScheduledExecutorService scheduler;
+    private long lastSubmitted;
+    private long lastCompleted;
+    private long lastBusyNanos;
+    private long lastCheckNanos = System.nanoTime();
+    private long lastResizeNanos;
+    private int aboveChecks;
+    private int belowChecks;
+    private volatile int target;
+    private volatile long lag;
+
+    /**
+     * @param workerCeiling Most records the listeners can have outstanding at once; more
+     *                      workers than this would never be busy
+     */
+    public ConcurrencyController(ProcessingWorkerPool pool, KafkaListenerEndpointRegistry listenerRegistry,
+                                 ApplicationProperties.Workers config, int workerCeiling, MeterRegistry meterRegistry) {
+        this.pool = pool;
+        this.listenerRegistry = listenerRegistry;
+        this.config = config;
+        this.workerCeiling = workerCeiling;
+        this.target = pool.activeWorkers();
+        this.lastResizeNanos = System.nanoTime() - TimeUnit.MILLISECONDS.toNanos(config.getCooldownMs());
+
+        Gauge.builder("pipeline.workers.target", this, controller -> controller.target)
+                .description("Worker count the concurrency controller is aiming for")
+                .register(meterRegistry);
+        Gauge.builder("pipeline.consumer.lag", this, controller -> controller.lag)
+                .description("Total records behind the log end across assigned partitions")
+                .register(meterRegistry);
+    }
+
+    public void start() {
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "concurrency-controller");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::checkSafely, config.getCheckIntervalMs(), config.getCheckIntervalMs(),
+                TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void close() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    private void checkSafely() {
+        try {
+            check();
+        } catch (RuntimeException e) {
+            log.warn("Concurrency check failed: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Samples lag and latency and resizes the pool when the hysteresis allows it.
+     */
+    public void check() {
+        Map<String, Long> partitionLag = partitionLag();
+        lag = partitionLag.values().stream().mapToLong(Long::longValue).sum();
+
+        long now = System.nanoTime();
+        long submitted = pool.submitted();
+        long completed = pool.completed();
+        long busyNanos = pool.busyNanos();
+        double seconds = (now - lastCheckNanos) / 1e9;
+        double arrivalRate = seconds > 0 ? (submitted - lastSubmitted) / seconds : 0;
+        long finished = completed - lastCompleted;
+        double latencySeconds = finished > 0 ? (busyNanos - lastBusyNanos) / 1e9 / finished : 0;
+        lastSubmitted = submitted;
+        lastCompleted = completed;
+        lastBusyNanos = busyNanos;
+        lastCheckNanos = now;
+
+        int current = pool.activeWorkers();
+        target = desiredWorkers(arrivalRate, lag, latencySeconds);
+        int next = decide(current, target, now);
+        if (next != current) {
+            log.info("Scaling processing workers {} -> {} (lag {}, arrival {}/s, latency {} ms, per partition {})",
+                    current, next, lag, Math.round(arrivalRate), Math.round(latencySeconds * 1000), partitionLag);
+            try {
+                pool.resize(next);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    int desiredWorkers(double arrivalRate, long lag, double latencySeconds) {
+        if (latencySeconds <= 0) {
+            return pool.activeWorkers();
+        }
+        double requiredRate = arrivalRate + (double) lag / config.getDrainTargetSeconds();
+        int workers = (int) Math.ceil(requiredRate * latencySeconds);
+        int ceiling = Math.min(config.getMaxWorkers(), workerCeiling);
+        return Math.max(config.getMinWorkers(), Math.min(workers, ceiling));
+    }
+
+    int decide(int current, int desired, long nowNanos) {
+        if (desired > current) {
+            aboveChecks++;
+            belowChecks = 0;
+        } else if (desired < current * config.getScaleDownRatio()) {
+            belowChecks++;
+            aboveChecks = 0;
+        } else {
+            aboveChecks = 0;
+            belowChecks = 0;
+        }
+        if (nowNanos - lastResizeNanos < TimeUnit.MILLISECONDS.toNanos(config.getCooldownMs())) {
+            return current;
+        }
+        if (aboveChecks >= config.getScaleUpChecks()) {
+            aboveChecks = 0;
+            lastResizeNanos = nowNanos;
+            return desired;
+        }
+        if (belowChecks >= config.getScaleDownChecks()) {
+            belowChecks = 0;
+            lastResizeNanos = nowNanos;
+            // Step down gradually; a burst often follows a lull
+            return Math.max(desired, current - Math.max(1, current / 4));
+        }
+        return current;
+    }
+
+    private Map<String, Long> partitionLag() {
+        Map<String, Long> lagByPartition = new HashMap<>();
+        for (MessageListenerContainer container : listenerRegistry.getListenerContainers()) {
+            for (Map<MetricName, ? extends Metric> metrics : container.metrics().values()) {
+                metrics.forEach((name, metric) -> {
+                    if (RECORDS_LAG.equals(name.name()) && FETCH_MANAGER_GROUP.equals(name.group())
+                            && name.tags().containsKey("partition")) {
+                        Object value = metric.metricValue();
+                        if (value instanceof Double records && !records.isNaN()) {
+                            lagByPartition.put(name.tags().get("topic") + "-" + name.tags().get("partition"),
+                                    records.longValue());
+                        }
+                    }
+                });
+            }
+        }
+        return lagByPartition;
+    }
+}
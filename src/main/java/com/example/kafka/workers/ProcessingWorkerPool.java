@@ -0,0 +1,207 @@
+package com.example.kafka.workers;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Resizable pool of single-threaded worker lanes between the Kafka listener threads and
+ * the processing pipeline. Records with the same key always go to the same lane, so they
+ * are processed in order; records without a key are spread round-robin.
+ *
+ * <p>Resizing changes which lane a key maps to, so {@link #resize(int)} first blocks new
+ * submissions and waits for the lanes to drain. The listener threads are the only
+ * submitters and block while the pool is full, which is the backpressure on polling.
+ */
+@Slf4j
+public class ProcessingWorkerPool implements AutoCloseable {
+
+    private final AtomicReferenceArray<ExecutorService> lanes;
+    private final Semaphore capacity;
+    private final int maxInFlight;
+    private final ReentrantReadWriteLock resizeLock = new ReentrantReadWriteLock();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicLong roundRobin = new AtomicLong();
+    private final LongAdder submitted = new LongAdder();
+    private final LongAdder busyNanos = new LongAdder();
+    private final LongAdder completed = new LongAdder();
+    private final Counter scaleUps;
+    private final Counter scaleDowns;
+    private volatile int active;
+
+    /**
+     * @param initial Lanes active at start
+     * @param max Upper bound on lanes
+     * @param maxInFlight Records queued or running across all lanes before submitters block
+     */
+    public ProcessingWorkerPool(int initial, int max, int maxInFlight, MeterRegistry meterRegistry) {
+        if (initial < 1 || initial > max) {
+            throw new IllegalArgumentException("Initial workers must be between 1 and " + max + ": " + initial);
+        }
+        this.lanes = new AtomicReferenceArray<>(max);
+        this.maxInFlight = maxInFlight;
+        this.capacity = new Semaphore(maxInFlight);
+        this.active = initial;
+
+        Gauge.builder("pipeline.workers.active", this, ProcessingWorkerPool::activeWorkers)
+                .description("Processing worker lanes currently in use")
+                .register(meterRegistry);
+        Gauge.builder("pipeline.workers.in.flight", inFlight, AtomicInteger::get)
+                .description("Records queued or being processed by the worker lanes")
+                .register(meterRegistry);
+        scaleUps = Counter.builder("pipeline.workers.resizes").tag("direction", "up").register(meterRegistry);
+        scaleDowns = Counter.builder("pipeline.workers.resizes").tag("direction", "down").register(meterRegistry);
+    }
+
+    /**
+     * Queues a record for processing, blocking while the pool is full or resizing.
+     *
+     * @param key The record key, or null if ordering does not matter
+     */
+    public void submit(Object key, Runnable task) throws InterruptedException {
+        capacity.acquire();
+        try {
+            resizeLock.readLock().lockInterruptibly();
+        } catch (InterruptedException e) {
+            capacity.release();
+            throw e;
+        }
+        try {
+            int lanesNow = active;
+            long slot = key != null ? key.hashCode() & Integer.MAX_VALUE : roundRobin.getAndIncrement();
+            ExecutorService lane = lane((int) (slot % lanesNow));
+            inFlight.incrementAndGet();
+            submitted.increment();
+            lane.execute(() -> run(task));
+        } catch (RuntimeException e) {
+            capacity.release();
+            throw e;
+        } finally {
+            resizeLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Changes the number of active lanes once everything already submitted has finished.
+     */
+    public void resize(int workers) throws InterruptedException {
+        int target = Math.max(1, Math.min(workers, lanes.length()));
+        if (target == active) {
+            return;
+        }
+        resizeLock.writeLock().lockInterruptibly();
+        try {
+            while (inFlight.get() > 0) {
+                TimeUnit.MILLISECONDS.sleep(1);
+            }
+            int previous = active;
+            active = target;
+            for (int i = target; i < previous; i++) {
+                ExecutorService lane = lanes.getAndSet(i, null);
+                if (lane != null) {
+                    lane.shutdown();
+                }
+            }
+            (target > previous ? scaleUps : scaleDowns).increment();
+            log.info("Processing workers resized from {} to {}", previous, target);
+        } finally {
+            resizeLock.writeLock().unlock();
+        }
+    }
+
+    public int activeWorkers() {
+        return active;
+    }
+
+    public int maxWorkers() {
+        return lanes.length();
+    }
+
+    public int inFlight() {
+        return inFlight.get();
+    }
+
+    public int maxInFlight() {
+        return maxInFlight;
+    }
+
+    /**
+     * Records submitted since creation.
+     */
+    public long submitted() {
+        return submitted.sum();
+    }
+
+    /**
+     * Records completed since creation.
+     */
+    public long completed() {
+        return completed.sum();
+    }
+
+    /**
+     * Total time spent processing records since creation.
+     */
+    public long busyNanos() {
+        return busyNanos.sum();
+    }
+
+    @Override
+    public void close() {
+        for (int i = 0; i < lanes.length(); i++) {
+            ExecutorService lane = lanes.get(i);
+            if (lane != null) {
+                lane.shutdown();
+            }
+        }
+        try {
+            for (int i = 0; i < lanes.length(); i++) {
+                ExecutorService lane = lanes.get(i);
+                if (lane != null) {
+                    lane.awaitTermination(30, TimeUnit.SECONDS);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void run(Runnable task) {
+        long start = System.nanoTime();
+        try {
+            task.run();
+        } catch (RuntimeException e) {
+            log.error("Unhandled error in processing worker: {}", e.getMessage(), e);
+        } finally {
+            busyNanos.add(System.nanoTime() - start);
+            completed.increment();
+            inFlight.decrementAndGet();
+            capacity.release();
+        }
+    }
+
+    private ExecutorService lane(int index) {
+        ExecutorService lane = lanes.get(index);
+        if (lane == null) {
+            String name = "pipeline-worker-" + index;
+            ExecutorService created = Executors.newSingleThreadExecutor(runnable -> new Thread(runnable, name));
+            if (lanes.compareAndSet(index, null, created)) {
+                return created;
+            }
+            created.shutdown();
+            lane = lanes.get(index);
+        }
+        return lane;
+    }
+}
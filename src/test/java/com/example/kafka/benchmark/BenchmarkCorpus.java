@@ -0,0 +1,165 @@
+package com.example.kafka.benchmark;
+
+import com.example.kafka.model.IncomingMessage;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Deterministic message corpora generated from the files in {@code sample-data/}.
+ *
+ * <p>Valid messages are the valid samples with varied ids, customers, amounts and
+ * descriptions. Invalid messages are the invalid samples that still bind to
+ * {@link IncomingMessage}, plus valid samples with one of the defects the invalid samples
+ * exhibit (blank id, bad email or phone, non-positive amount, short currency, missing fields).
+ */
+public final class BenchmarkCorpus {
+
+    /**
+     * Corpus size; a power of two so that benchmarks can cycle with a mask.
+     */
+    public static final int SIZE = 256;
+
+    private static final Path SAMPLE_DATA = Path.of("sample-data");
+    private static final long SEED = 42L;
+
+    private static final List<Consumer<IncomingMessage>> DEFECTS = List.of(
+            message -> message.setMessageId(""),
+            message -> message.getPayload().setEmail("not-an-email"),
+            message -> message.getPayload().setPhone("123"),
+            message -> message.getPayload().setAmount(-50.0),
+            message -> message.getPayload().setCurrency("US"),
+            message -> {
+                message.getPayload().setCustomerName(null);
+                message.getPayload().setEmail(null);
+            },
+            message -> message.setEventType(null));
+
+    private BenchmarkCorpus() {
+    }
+
+    /**
+     * Object mapper configured like the application's ({@code spring.jackson.*}).
+     */
+    public static ObjectMapper objectMapper() {
+        return JsonMapper.builder()
+                .addModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+                .build();
+    }
+
+    public static IncomingMessage[] valid() {
+        ObjectMapper mapper = objectMapper();
+        List<IncomingMessage> templates = load(mapper, "valid-");
+        Random random = new Random(SEED);
+
+        IncomingMessage[] corpus = new IncomingMessage[SIZE];
+        for (int i = 0; i < SIZE; i++) {
+            corpus[i] = vary(mapper, templates.get(i % templates.size()), i, random);
+        }
+        return corpus;
+    }
+
+    public static IncomingMessage[] invalid() {
+        ObjectMapper mapper = objectMapper();
+        List<IncomingMessage> invalidSamples = load(mapper, "invalid-");
+        List<IncomingMessage> validTemplates = load(mapper, "valid-");
+        Random random = new Random(SEED);
+
+        IncomingMessage[] corpus = new IncomingMessage[SIZE];
+        for (int i = 0; i < SIZE; i++) {
+            if (i % 4 == 0 && !invalidSamples.isEmpty()) {
+                corpus[i] = copy(mapper, invalidSamples.get((i / 4) % invalidSamples.size()));
+            } else {
+                IncomingMessage message = vary(mapper, validTemplates.get(i % validTemplates.size()), i, random);
+                DEFECTS.get(i % DEFECTS.size()).accept(message);
+                corpus[i] = message;
+            }
+        }
+        return corpus;
+    }
+
+    /**
+     * Three valid messages for every invalid one, roughly a bad day in production.
+     */
+    public static IncomingMessage[] mixed() {
+        IncomingMessage[] valid = valid();
+        IncomingMessage[] invalid = invalid();
+        IncomingMessage[] corpus = new IncomingMessage[SIZE];
+        for (int i = 0; i < SIZE; i++) {
+            corpus[i] = i % 4 == 3 ? invalid[i] : valid[i];
+        }
+        return corpus;
+    }
+
+    public static IncomingMessage[] byName(String name) {
+        return switch (name) {
+            case "valid" -> valid();
+            case "invalid" -> invalid();
+            case "mixed" -> mixed();
+            default -> throw new IllegalArgumentException("Unknown corpus " + name);
+        };
+    }
+
+    public static byte[][] toJson(ObjectMapper mapper, Object[] values) {
+        byte[][] json = new byte[values.length][];
+        for (int i = 0; i < values.length; i++) {
+            try {
+                json[i] = mapper.writeValueAsBytes(values[i]);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return json;
+    }
+
+    private static IncomingMessage vary(ObjectMapper mapper, IncomingMessage template, int index, Random random) {
+        IncomingMessage message = copy(mapper, template);
+        message.setMessageId(template.getMessageId() + "-" + index);
+        message.setTimestamp(template.getTimestamp().plusSeconds(random.nextInt(86_400)));
+        IncomingMessage.PayloadData payload = message.getPayload();
+        payload.setCustomerId("CUST-" + (1000 + random.nextInt(9000)));
+        payload.setAmount(Math.round(random.nextDouble() * 1_000_000) / 100.0 + 0.01);
+        if (payload.getDescription() != null) {
+            payload.setDescription(payload.getDescription() + " #" + random.nextInt(100_000));
+        }
+        return message;
+    }
+
+    private static IncomingMessage copy(ObjectMapper mapper, IncomingMessage message) {
+        return mapper.convertValue(message, IncomingMessage.class);
+    }
+
+    private static List<IncomingMessage> load(ObjectMapper mapper, String prefix) {
+        List<IncomingMessage> messages = new ArrayList<>();
+        try (Stream<Path> files = Files.list(SAMPLE_DATA)) {
+            for (Path file : files.filter(path -> path.getFileName().toString().startsWith(prefix)
+                    && path.toString().endsWith(".json")).sorted().toList()) {
+                try {
+                    messages.add(mapper.readValue(file.toFile(), IncomingMessage.class));
+                } catch (IOException e) {
+                    // Samples that do not even bind are deserializer benchmarks, not corpus entries
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read " + SAMPLE_DATA.toAbsolutePath(), e);
+        }
+        if (messages.isEmpty()) {
+            throw new IllegalStateException("No " + prefix + "*.json samples in " + SAMPLE_DATA.toAbsolutePath());
+        }
+        return messages;
+    }
+}
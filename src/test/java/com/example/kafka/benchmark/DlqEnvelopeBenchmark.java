@@ -0,0 +1,76 @@
+package com.example.kafka.benchmark;
+
+import com.example.kafka.config.ApplicationProperties;
+import com.example.kafka.config.DlqTopics;
+import com.example.kafka.exception.RestApiException;
+import com.example.kafka.exception.ValidationException;
+import com.example.kafka.model.DlqMessage;
+import com.example.kafka.model.IncomingMessage;
+import com.example.kafka.service.DeadLetterQueueService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Building the DLQ envelope for a failed record (value serialization and stack trace
+ * rendering), and the envelope's serialization as the DLQ producer performs it.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DlqEnvelopeBenchmark {
+
+    private ObjectMapper objectMapper;
+    private DeadLetterQueueService dlqService;
+    private List<ConsumerRecord<String, IncomingMessage>> records;
+    private Exception[] failures;
+    private DlqMessage envelope;
+    private int cursor;
+
+    @Setup
+    public void setUp() {
+        objectMapper = BenchmarkCorpus.objectMapper();
+        ApplicationProperties properties = new ApplicationProperties();
+        dlqService = new DeadLetterQueueService(null, properties, objectMapper, null, null, new DlqTopics(properties));
+
+        IncomingMessage[] messages = BenchmarkCorpus.invalid();
+        records = new ArrayList<>(messages.length);
+        failures = new Exception[messages.length];
+        for (int i = 0; i < messages.length; i++) {
+            records.add(new ConsumerRecord<>("input-messages", i % 3, i, messages[i].getMessageId(), messages[i]));
+            failures[i] = i % 2 == 0
+                    ? new ValidationException("Bean validation failed: payload.email: Email must be valid")
+                    : new RestApiException("Failed to send request to REST API: 503 Service Unavailable", 503,
+                            new IllegalStateException("upstream unavailable"));
+        }
+        envelope = dlqService.buildDlqMessage(records.get(0), failures[0], 0);
+    }
+
+    @Benchmark
+    public DlqMessage buildEnvelope() {
+        int index = cursor++ & (BenchmarkCorpus.SIZE - 1);
+        return dlqService.buildDlqMessage(records.get(index), failures[index], 0);
+    }
+
+    @Benchmark
+    public byte[] serializeEnvelope() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(envelope);
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.kafka.benchmark;
+
+import com.example.kafka.model.ApiRequestDto;
+import com.example.kafka.model.IncomingMessage;
+import com.example.kafka.service.TransformationService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson databind cost of the two payloads on the hot path: {@link IncomingMessage}
+ * read from Kafka and {@link ApiRequestDto} written to the REST API, in both directions.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JacksonSerdeBenchmark {
+
+    private ObjectReader incomingReader;
+    private ObjectWriter incomingWriter;
+    private ObjectReader requestReader;
+    private ObjectWriter requestWriter;
+
+    private IncomingMessage[] messages;
+    private byte[][] messageJson;
+    private ApiRequestDto[] requests;
+    private byte[][] requestJson;
+    private int cursor;
+
+    @Setup
+    public void setUp() {
+        ObjectMapper mapper = BenchmarkCorpus.objectMapper();
+        incomingReader = mapper.readerFor(IncomingMessage.class);
+        incomingWriter = mapper.writerFor(IncomingMessage.class);
+        requestReader = mapper.readerFor(ApiRequestDto.class);
+        requestWriter = mapper.writerFor(ApiRequestDto.class);
+
+        TransformationService transformationService = new TransformationService();
+        messages = BenchmarkCorpus.valid();
+        requests = Arrays.stream(messages).map(transformationService::transform).toArray(ApiRequestDto[]::new);
+        messageJson = BenchmarkCorpus.toJson(mapper, messages);
+        requestJson = BenchmarkCorpus.toJson(mapper, requests);
+    }
+
+    @Benchmark
+    public IncomingMessage readIncomingMessage() throws IOException {
+        return incomingReader.readValue(messageJson[next()]);
+    }
+
+    @Benchmark
+    public byte[] writeIncomingMessage() throws IOException {
+        return incomingWriter.writeValueAsBytes(messages[next()]);
+    }
+
+    @Benchmark
+    public ApiRequestDto readApiRequest() throws IOException {
+        return requestReader.readValue(requestJson[next()]);
+    }
+
+    @Benchmark
+    public byte[] writeApiRequest() throws IOException {
+        return requestWriter.writeValueAsBytes(requests[next()]);
+    }
+
+    private int next() {
+        return cursor++ & (BenchmarkCorpus.SIZE - 1);
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.kafka.benchmark;
+
+import com.example.kafka.format.FormatFixtures;
+import com.example.kafka.format.JsonMessageDecoder;
+import com.example.kafka.format.StreamingJsonMessageDecoder;
+import com.example.kafka.model.IncomingMessage;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Stock {@code JsonDeserializer<IncomingMessage>} against the hand-written streaming decoder.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JsonDecoderBenchmark {
+
+    private final JsonMessageDecoder databind = new JsonMessageDecoder();
+    private final StreamingJsonMessageDecoder streaming = new StreamingJsonMessageDecoder();
+    private byte[] data;
+
+    @Setup
+    public void setUp() {
+        data = FormatFixtures.json(FormatFixtures.sampleMessage());
+    }
+
+    @Benchmark
+    public IncomingMessage databind() {
+        return databind.decode(data, null);
+    }
+
+    @Benchmark
+    public IncomingMessage streaming() {
+        return streaming.decode(data, null);
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.kafka.benchmark;
+
+import com.example.kafka.format.AvroMessageDecoder;
+import com.example.kafka.format.FormatAwareDeserializer;
+import com.example.kafka.format.FormatFixtures;
+import com.example.kafka.format.JsonMessageDecoder;
+import com.example.kafka.format.LocalSchemaRegistry;
+import com.example.kafka.format.MessageFormat;
+import com.example.kafka.format.ProtobufMessageDecoder;
+import com.example.kafka.model.IncomingMessage;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decode cost per record of the same message in each supported value format,
+ * through the consumer's {@link FormatAwareDeserializer}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MessageDecodeBenchmark {
+
+    @Param({"json", "avro", "protobuf"})
+    private String format;
+
+    private FormatAwareDeserializer deserializer;
+    private RecordHeaders headers;
+    private byte[] data;
+
+    @Setup
+    public void setUp() {
+        LocalSchemaRegistry registry = FormatFixtures.schemaRegistry();
+        deserializer = new FormatAwareDeserializer(
+                List.of(new JsonMessageDecoder(), new AvroMessageDecoder(), new ProtobufMessageDecoder()),
+                registry, "incoming-message", MessageFormat.JSON, Map.of());
+
+        IncomingMessage message = FormatFixtures.sampleMessage();
+        MessageFormat messageFormat = MessageFormat.fromName(format);
+        data = switch (messageFormat) {
+            case JSON -> FormatFixtures.json(message);
+            case AVRO -> FormatFixtures.avro(message, registry);
+            case PROTOBUF -> FormatFixtures.protobuf(message, registry);
+        };
+
+        headers = new RecordHeaders();
+        headers.add(FormatAwareDeserializer.FORMAT_HEADER, format.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Benchmark
+    public IncomingMessage decode() {
+        return deserializer.deserialize("input-messages", headers, data);
+    }
+}
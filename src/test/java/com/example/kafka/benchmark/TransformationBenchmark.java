@@ -0,0 +1,43 @@
+package com.example.kafka.benchmark;
+
+import com.example.kafka.model.ApiRequestDto;
+import com.example.kafka.model.IncomingMessage;
+import com.example.kafka.service.TransformationService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link TransformationService#transform} over the valid corpus.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TransformationBenchmark {
+
+    private final TransformationService transformationService = new TransformationService();
+    private IncomingMessage[] messages;
+    private int cursor;
+
+    @Setup
+    public void setUp() {
+        messages = BenchmarkCorpus.valid();
+    }
+
+    @Benchmark
+    public ApiRequestDto transform() {
+        return transformationService.transform(messages[cursor++ & (BenchmarkCorpus.SIZE - 1)]);
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.kafka.benchmark;
+
+import com.example.kafka.config.ApplicationProperties;
+import com.example.kafka.exception.ValidationException;
+import com.example.kafka.model.IncomingMessage;
+import com.example.kafka.service.ValidationService;
+import jakarta.validation.Validation;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.io.DefaultResourceLoader;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link ValidationService#validate} (JSON Schema plus Bean Validation) over valid,
+ * invalid and mixed corpora. Invalid messages include the cost of building the error message.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ValidationBenchmark {
+
+    @Param({"valid", "invalid", "mixed"})
+    private String corpus;
+
+    private ValidationService validationService;
+    private IncomingMessage[] messages;
+    private int cursor;
+
+    @Setup
+    public void setUp() {
+        ApplicationProperties properties = new ApplicationProperties();
+        properties.getValidation().setJsonSchemaPath("classpath:schema/message-schema.json");
+        validationService = new ValidationService(
+                Validation.buildDefaultValidatorFactory().getValidator(),
+                BenchmarkCorpus.objectMapper(),
+                properties,
+                new DefaultResourceLoader());
+        validationService.init();
+        messages = BenchmarkCorpus.byName(corpus);
+    }
+
+    @Benchmark
+    public boolean validate() {
+        IncomingMessage message = messages[cursor++ & (BenchmarkCorpus.SIZE - 1)];
+        try {
+            validationService.validate(message);
+            return true;
+        } catch (ValidationException e) {
+            return false;
+        }
+    }
+}
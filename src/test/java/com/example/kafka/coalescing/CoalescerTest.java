@@ -0,0 +1,100 @@
+package com.example.kafka.coalescing;
+
+import com.example.kafka.model.IncomingMessage;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CoalescerTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final BlockingQueue<Coalescer.Batch<String>> flushed = new LinkedBlockingQueue<>();
+    private Coalescer<String> coalescer;
+
+    @AfterEach
+    void tearDown() {
+        if (coalescer != null) {
+            coalescer.close();
+        }
+    }
+
+    @Test
+    void shouldFlushOnlyTheLatestRecordPerKeyWhenTheWindowCloses() throws Exception {
+        // Given
+        coalescer = new Coalescer<>(100, 100, 100, 2, (older, newer) -> newer, flushed::add, registry);
+
+        // When
+        coalescer.offer("CUST-1", "v1");
+        coalescer.offer("CUST-1", "v2");
+        coalescer.offer("CUST-2", "w1");
+        coalescer.offer("CUST-1", "v3");
+        Coalescer.Batch<String> first = flushed.poll(5, TimeUnit.SECONDS);
+        Coalescer.Batch<String> second = flushed.poll(5, TimeUnit.SECONDS);
+
+        // Then
+        assertThat(List.of(first, second)).containsExactlyInAnyOrder(
+                new Coalescer.Batch<>("v3", List.of("v1", "v2")),
+                new Coalescer.Batch<>("w1", List.of()));
+        assertThat(coalescer.held()).isZero();
+        awaitRatio(1.0);
+        assertThat(registry.get("pipeline.coalesce.records").tag("outcome", "coalesced").counter().count())
+                .isEqualTo(2);
+    }
+
+    @Test
+    void shouldFlushAtOnceWhenMemoryBoundsAreReached() throws Exception {
+        // Given: one key held at a time, at most two records per key, and a long window
+        coalescer = new Coalescer<>(60_000, 1, 2, 1, (older, newer) -> newer, flushed::add, registry);
+
+        // When
+        coalescer.offer("CUST-1", "v1");
+        coalescer.offer("CUST-2", "w1");
+        coalescer.offer("CUST-1", "v2");
+
+        // Then: the second key is not held, and the first is flushed once it holds two records
+        assertThat(flushed.poll(5, TimeUnit.SECONDS)).isEqualTo(new Coalescer.Batch<>("w1", List.of()));
+        assertThat(flushed.poll(5, TimeUnit.SECONDS)).isEqualTo(new Coalescer.Batch<>("v2", List.of("v1")));
+        assertThat(coalescer.held()).isZero();
+    }
+
+    @Test
+    void shouldMergeFieldsTheNewerUpdateLeavesOut() {
+        // Given
+        IncomingMessage older = IncomingMessage.builder()
+                .messageId("msg-1")
+                .payload(IncomingMessage.PayloadData.builder().customerId("CUST-1").email("a@example.com")
+                        .phone("+15550001").build())
+                .metadata(Map.of("source", "crm", "version", "1"))
+                .build();
+        IncomingMessage newer = IncomingMessage.builder()
+                .messageId("msg-2")
+                .payload(IncomingMessage.PayloadData.builder().customerId("CUST-1").email("b@example.com").build())
+                .metadata(Map.of("version", "2"))
+                .build();
+
+        // When
+        IncomingMessage merged = CustomerStateMerger.merge(older, newer);
+
+        // Then
+        assertThat(merged.getMessageId()).isEqualTo("msg-2");
+        assertThat(merged.getPayload().getEmail()).isEqualTo("b@example.com");
+        assertThat(merged.getPayload().getPhone()).isEqualTo("+15550001");
+        assertThat(merged.getMetadata()).containsEntry("source", "crm").containsEntry("version", "2");
+    }
+
+    private void awaitRatio(double expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (coalescer.ratio() != expected && System.nanoTime() < deadline) {
+            TimeUnit.MILLISECONDS.sleep(5);
+        }
+        assertThat(coalescer.ratio()).isEqualTo(expected);
+    }
+}
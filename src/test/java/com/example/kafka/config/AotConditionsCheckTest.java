@@ -0,0 +1,56 @@
+package com.example.kafka.config;
+
+import com.example.kafka.polling.PollTuner;
+import com.example.kafka.warmup.WarmupRunner;
+import com.example.kafka.workers.ProcessingWorkerPool;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.beans.factory.support.RootBeanDefinition;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AotConditionsCheckTest {
+
+    @Test
+    void shouldAcceptBeansMatchingTheFlags() {
+        // Given
+        ApplicationProperties properties = new ApplicationProperties();
+        DefaultListableBeanFactory beanFactory = beanFactory(WarmupRunner.class, PollTuner.class);
+
+        // When / Then
+        assertThat(new AotConditionsCheck(properties, beanFactory).mismatches()).isEmpty();
+    }
+
+    @Test
+    void shouldReportFlagsSwitchedAfterTheBuild() {
+        // Given
+        ApplicationProperties properties = new ApplicationProperties();
+        properties.getWorkers().setEnabled(true);
+        properties.getWarmup().setEnabled(false);
+        DefaultListableBeanFactory beanFactory = beanFactory(WarmupRunner.class, PollTuner.class);
+
+        // When / Then
+        assertThat(new AotConditionsCheck(properties, beanFactory).mismatches())
+                .containsExactly("app.warmup.enabled", "app.workers.enabled");
+    }
+
+    @Test
+    void shouldReportBeanBuiltForDisabledFlag() {
+        // Given
+        ApplicationProperties properties = new ApplicationProperties();
+        DefaultListableBeanFactory beanFactory = beanFactory(WarmupRunner.class, PollTuner.class,
+                ProcessingWorkerPool.class);
+
+        // When / Then
+        assertThat(new AotConditionsCheck(properties, beanFactory).mismatches())
+                .containsExactly("app.workers.enabled");
+    }
+
+    private static DefaultListableBeanFactory beanFactory(Class<?>... beanTypes) {
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        for (Class<?> type : beanTypes) {
+            beanFactory.registerBeanDefinition(type.getSimpleName(), new RootBeanDefinition(type));
+        }
+        return beanFactory;
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.kafka.config;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class DlqTopicsTest {
+
+    @Test
+    void shouldRouteBySourceTopic() {
+        // Given
+        ApplicationProperties properties = new ApplicationProperties();
+        properties.getPipelines().put("orders", pipeline("orders", "orders-dlq"));
+        properties.getPipelines().put("audit", pipeline("audit", null));
+
+        // When
+        DlqTopics dlqTopics = new DlqTopics(properties);
+
+        // Then
+        String defaultDlq = properties.getKafka().getTopic().getDlq();
+        assertThat(dlqTopics.forSource("orders")).isEqualTo("orders-dlq");
+        assertThat(dlqTopics.forSource("audit")).isEqualTo(defaultDlq);
+        assertThat(dlqTopics.forSource("unknown")).isEqualTo(defaultDlq);
+    }
+
+    @Test
+    void shouldRejectTopicReadByTwoPipelines() {
+        // Given
+        ApplicationProperties properties = new ApplicationProperties();
+        properties.getPipelines().put("orders", pipeline("orders", "orders-dlq"));
+        properties.getPipelines().put("orders-v2", pipeline("orders", "orders-v2-dlq"));
+
+        // When / Then
+        assertThatThrownBy(() -> new DlqTopics(properties))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("orders");
+    }
+
+    private static ApplicationProperties.Pipeline pipeline(String topic, String dlqTopic) {
+        ApplicationProperties.Pipeline pipeline = new ApplicationProperties.Pipeline();
+        pipeline.setTopics(List.of(topic));
+        pipeline.setDlqTopic(dlqTopic);
+        return pipeline;
+    }
+}
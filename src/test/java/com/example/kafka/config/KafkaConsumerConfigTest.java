@@ -0,0 +1,71 @@
+package com.example.kafka.config;
+
+import com.example.kafka.diagnostics.PipelineTracker;
+import com.example.kafka.metrics.PipelineMetrics;
+import com.example.kafka.model.IncomingMessage;
+import com.example.kafka.rebalance.RevocationDrainer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.listener.ContainerProperties;
+import org.springframework.kafka.support.serializer.ErrorHandlingDeserializer;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class KafkaConsumerConfigTest {
+
+    @Test
+    void shouldKeepDefaultPipelineSettingsOutOfNamedPipelines() {
+        // Given
+        ApplicationProperties properties = new ApplicationProperties();
+        properties.getFilter().setEnabled(true);
+        properties.getCoalescing().setEnabled(true);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+        new ApplicationContextRunner()
+                .withPropertyValues("spring.kafka.bootstrap-servers=localhost:9092",
+                        "spring.kafka.consumer.group-id=test", "app.filter.enabled=true")
+                .withBean(ApplicationProperties.class, () -> properties)
+                .withBean(MeterRegistry.class, () -> registry)
+                .withBean(ObjectMapper.class, ObjectMapper::new)
+                .withBean(PipelineMetrics.class, () -> new PipelineMetrics(registry))
+                .withBean(PipelineTracker.class, () -> new PipelineTracker(properties))
+                .withUserConfiguration(KafkaConsumerConfig.class)
+                // When
+                .run(context -> {
+                    ConcurrentKafkaListenerContainerFactory<?, ?> defaults =
+                            context.getBean("kafkaListenerContainerFactory", ConcurrentKafkaListenerContainerFactory.class);
+                    ConcurrentKafkaListenerContainerFactory<String, IncomingMessage> pipelines =
+                            context.getBean(PipelineContainerFactories.class)
+                                    .create(new PipelineMetrics(registry, null, "orders"));
+                    pipelines.getConsumerFactory().getValueDeserializer().deserialize("orders",
+                            "{\"messageId\":\"m-1\"}".getBytes(StandardCharsets.UTF_8));
+
+                    // Then
+                    ContainerProperties defaultProperties = defaults.getContainerProperties();
+                    assertThat(defaultProperties.isAsyncAcks()).isTrue();
+                    assertThat(defaultProperties.getConsumerRebalanceListener()).isInstanceOf(RevocationDrainer.class);
+                    assertThat(defaults.getConsumerFactory().getValueDeserializer())
+                            .isNotInstanceOf(ErrorHandlingDeserializer.class);
+
+                    ContainerProperties pipelineProperties = pipelines.getContainerProperties();
+                    assertThat(pipelineProperties.isAsyncAcks()).isFalse();
+                    assertThat(pipelineProperties.getAckMode()).isEqualTo(ContainerProperties.AckMode.MANUAL);
+                    assertThat(pipelineProperties.getConsumerRebalanceListener()).isNull();
+                    assertThat(pipelines.getConsumerFactory())
+                            .isNotSameAs(context.getBean(ConsumerFactory.class));
+                    assertThat(pipelines.getConsumerFactory().getValueDeserializer())
+                            .isInstanceOf(ErrorHandlingDeserializer.class);
+                    assertThat(registry.get(PipelineMetrics.STAGE_TIMER).tag("stage", "deserialize")
+                            .tag("pipeline", "orders").timer().count()).isEqualTo(1);
+                    assertThat(registry.find(PipelineMetrics.STAGE_TIMER).tag("stage", "deserialize")
+                            .tag("pipeline", PipelineMetrics.DEFAULT_PIPELINE).timer()).isNull();
+                });
+    }
+}
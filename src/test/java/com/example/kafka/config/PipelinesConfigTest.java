@@ -0,0 +1,31 @@
+package com.example.kafka.config;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PipelinesConfigTest {
+
+    @Test
+    void shouldTakeUnsetEndpointSettingsFromTheDefaultPipeline() {
+        // Given
+        ApplicationProperties.RestApi defaults = new ApplicationProperties.RestApi();
+        defaults.setBaseUrl("http://default:8081");
+        defaults.getTimeout().setConnect(5000);
+        defaults.getTimeout().setRead(10000);
+        defaults.getPool().setMaxConnections(20);
+        ApplicationProperties.RestApi own = new ApplicationProperties.RestApi();
+        own.getTimeout().setRead(2000);
+        own.getPool().setMaxConnections(4);
+
+        // When
+        ApplicationProperties.RestApi effective = PipelinesConfig.restApi(defaults, own);
+
+        // Then
+        assertThat(effective.getBaseUrl()).isEqualTo("http://default:8081");
+        assertThat(effective.getTimeout().getConnect()).isEqualTo(5000);
+        assertThat(effective.getTimeout().getRead()).isEqualTo(2000);
+        assertThat(effective.getPool().getMaxConnections()).isEqualTo(4);
+        assertThat(defaults.getPool().getMaxConnections()).isEqualTo(20);
+    }
+}
@@ -0,0 +1,175 @@
+package com.example.kafka.consumer;
+
+import com.example.kafka.config.ApplicationProperties;
+import com.example.kafka.diagnostics.PipelineTracker;
+import com.example.kafka.exception.RestApiException;
+import com.example.kafka.lanes.PriorityLanes;
+import com.example.kafka.logging.LogBudget;
+import com.example.kafka.metrics.PipelineMetrics;
+import com.example.kafka.model.IncomingMessage;
+import com.example.kafka.rebalance.RevocationDrainer;
+import com.example.kafka.service.DeadLetterQueueService;
+import com.example.kafka.service.MessageProcessingService;
+import com.example.kafka.service.ValidationService;
+import com.example.kafka.staleness.StaleRecordRouter;
+import com.example.kafka.tenancy.TenantDispatcher;
+import com.example.kafka.workers.ProcessingWorkerPool;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.kafka.support.Acknowledgment;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class MessageConsumerTest {
+
+    private static final TopicPartition PARTITION = new TopicPartition("input", 0);
+
+    private SimpleMeterRegistry registry;
+    private ApplicationProperties properties;
+    private MessageProcessingService processingService;
+    private DeadLetterQueueService dlqService;
+    private PipelineTracker tracker;
+    private RevocationDrainer drainer;
+    private MessageConsumer consumer;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        properties = new ApplicationProperties();
+        properties.getCoalescing().setEnabled(true);
+        properties.getCoalescing().setWindowMs(200);
+        processingService = mock(MessageProcessingService.class);
+        dlqService = mock(DeadLetterQueueService.class);
+        tracker = new PipelineTracker(properties);
+        drainer = new RevocationDrainer(tracker, new PipelineMetrics(registry), 5_000, registry);
+        drainer.onPartitionsAssigned(mock(Consumer.class), List.of(PARTITION));
+    }
+
+    @AfterEach
+    void tearDown() {
+        consumer.close();
+    }
+
+    @Test
+    void shouldDeadLetterMergedStateWhenCoalescedFlushFails() throws Exception {
+        // Given
+        properties.getCoalescing().setMode("merge");
+        consumer = consumer();
+        ConsumerRecord<String, IncomingMessage> older = record(10, "m-1", "Ada", null);
+        ConsumerRecord<String, IncomingMessage> newer = record(11, "m-2", null, "ada@example.com");
+        Acknowledgment olderAck = mock(Acknowledgment.class);
+        Acknowledgment newerAck = mock(Acknowledgment.class);
+        doThrow(new RestApiException("endpoint down")).when(processingService).processMessage(any());
+
+        // When
+        consume(older, olderAck);
+        consume(newer, newerAck);
+
+        // Then
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<ConsumerRecord<String, IncomingMessage>> dead = ArgumentCaptor.forClass(ConsumerRecord.class);
+        verify(dlqService, timeout(2_000)).sendToDlq(dead.capture(), any(RestApiException.class), eq(0));
+        assertThat(dead.getValue().offset()).isEqualTo(11);
+        assertThat(dead.getValue().value().getPayload().getCustomerName()).isEqualTo("Ada");
+        assertThat(dead.getValue().value().getPayload().getEmail()).isEqualTo("ada@example.com");
+        verify(olderAck, timeout(2_000)).acknowledge();
+        verify(newerAck, timeout(2_000)).acknowledge();
+    }
+
+    @Test
+    void shouldDrainHeldRecordsBeforeRevocation() throws Exception {
+        // Given
+        consumer = consumer();
+        ConsumerRecord<String, IncomingMessage> record = record(10, "m-1", "Ada", null);
+        consume(record, mock(Acknowledgment.class));
+
+        // When
+        drainer.onPartitionsRevokedBeforeCommit(mock(Consumer.class), List.of(PARTITION));
+
+        // Then
+        verify(processingService).processMessage(record.value());
+    }
+
+    @Test
+    void shouldShowHeldRecordsAsInFlightUntilFlushed() throws Exception {
+        // Given
+        consumer = consumer();
+        ConsumerRecord<String, IncomingMessage> record = record(10, "m-1", "Ada", null);
+
+        // When
+        consume(record, mock(Acknowledgment.class));
+
+        // Then
+        assertThat(inFlightOffsets()).containsExactly(10L);
+        verify(processingService, timeout(2_000)).processMessage(record.value());
+        await().atMost(Duration.ofSeconds(2)).untilAsserted(() -> assertThat(inFlightOffsets()).isEmpty());
+    }
+
+    @Test
+    void shouldNotHoldRecordsPassedToProcess() throws Exception {
+        // Given
+        consumer = consumer();
+        ConsumerRecord<String, IncomingMessage> record = record(10, "m-1", "Ada", null);
+        Acknowledgment acknowledgment = mock(Acknowledgment.class);
+
+        // When
+        consumer.process(record.value(), record, record.topic(), record.partition(), record.offset(), acknowledgment);
+
+        // Then
+        verify(processingService).processMessage(record.value());
+        verify(acknowledgment, times(1)).acknowledge();
+    }
+
+    private MessageConsumer consumer() {
+        DefaultListableBeanFactory beans = new DefaultListableBeanFactory();
+        return new MessageConsumer(mock(ValidationService.class), processingService, dlqService, properties,
+                new PipelineMetrics(registry), new LogBudget(properties, registry), tracker,
+                beans.getBeanProvider(ProcessingWorkerPool.class), beans.getBeanProvider(PriorityLanes.class),
+                beans.getBeanProvider(TenantDispatcher.class), drainer,
+                beans.getBeanProvider(StaleRecordRouter.class), registry);
+    }
+
+    private List<Long> inFlightOffsets() {
+        return tracker.snapshot().partitions().stream()
+                .flatMap(partition -> partition.inFlight().stream())
+                .map(PipelineTracker.InFlightSnapshot::offset)
+                .toList();
+    }
+
+    private void consume(ConsumerRecord<String, IncomingMessage> record, Acknowledgment acknowledgment)
+            throws InterruptedException {
+        consumer.consume(record.value(), record, record.topic(), record.partition(), record.offset(), acknowledgment);
+    }
+
+    private static ConsumerRecord<String, IncomingMessage> record(long offset, String messageId,
+                                                                  String customerName, String email) {
+        IncomingMessage message = IncomingMessage.builder()
+                .messageId(messageId)
+                .eventType("CUSTOMER_UPDATED")
+                .payload(IncomingMessage.PayloadData.builder()
+                        .customerId("c-1")
+                        .customerName(customerName)
+                        .email(email)
+                        .build())
+                .build();
+        return new ConsumerRecord<>(PARTITION.topic(), PARTITION.partition(), offset, "c-1", message);
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.kafka.diagnostics;
+
+import com.example.kafka.config.ApplicationProperties;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PipelineTrackerTest {
+
+    private PipelineTracker tracker;
+
+    @BeforeEach
+    void setUp() {
+        ApplicationProperties properties = new ApplicationProperties();
+        properties.getDiagnostics().setSlowestSize(3);
+        tracker = new PipelineTracker(properties);
+    }
+
+    @Test
+    void shouldReportInFlightAndOffsetsPerPartition() {
+        // Given
+        tracker.begin("input", 0, 10L, "MSG-010");
+        tracker.complete("input", 0, 10L, "delivered");
+        tracker.begin("input", 0, 11L, "MSG-011");
+        tracker.attempt(2);
+        tracker.onCommit(Map.of(new TopicPartition("input", 0), new OffsetAndMetadata(11L)));
+
+        // When
+        PipelineTracker.Snapshot snapshot = tracker.snapshot();
+
+        // Then
+        assertThat(snapshot.partitions()).hasSize(1);
+        PipelineTracker.PartitionSnapshot partition = snapshot.partitions().get(0);
+        assertThat(partition.lastCompletedOffset()).isEqualTo(10L);
+        assertThat(partition.lastCommittedOffset()).isEqualTo(11L);
+        assertThat(partition.completed()).isEqualTo(1);
+        assertThat(partition.inFlight()).singleElement().satisfies(inFlight -> {
+            assertThat(inFlight.offset()).isEqualTo(11L);
+            assertThat(inFlight.messageId()).isEqualTo("MSG-011");
+            assertThat(inFlight.attempt()).isEqualTo(2);
+        });
+        assertThat(snapshot.inRetry()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldForgetAbandonedRecords() {
+        // Given
+        tracker.begin("input", 1, 5L, "MSG-005");
+
+        // When
+        tracker.abandon("input", 1, 5L);
+
+        // Then
+        assertThat(tracker.snapshot().partitions().get(0).inFlight()).isEmpty();
+    }
+
+    @Test
+    void shouldKeepSlowestDeliveriesWithinWindow() {
+        // Given
+        SlowestDeliveries slowest = new SlowestDeliveries(3, 60_000);
+        long now = System.currentTimeMillis();
+
+        for (long duration : new long[]{900, 800, 700}) {
+            slowest.record(new SlowestDeliveries.Delivery("input", 0, duration, "MSG-old-" + duration,
+                    duration, "delivered", now - 120_000));
+        }
+
+        // When
+        for (long duration : new long[]{50, 10, 70, 20, 90, 30, 60}) {
+            slowest.record(new SlowestDeliveries.Delivery("input", 0, duration, "MSG-" + duration,
+                    duration, "delivered", now));
+        }
+
+        // Then
+        List<Long> durations = slowest.snapshot().stream()
+                .map(SlowestDeliveries.Delivery::durationNanos)
+                .toList();
+        assertThat(durations).containsExactly(90L, 70L, 60L);
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.kafka.filter;
+
+import com.example.kafka.model.IncomingMessage;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.apache.kafka.common.serialization.Deserializer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class RecordFilterTest {
+
+    private static final byte[] VALUE = "{}".getBytes(StandardCharsets.UTF_8);
+
+    private SimpleMeterRegistry registry;
+    private Deserializer<IncomingMessage> delegate;
+    private IncomingMessage parsed;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        delegate = mock(Deserializer.class);
+        parsed = new IncomingMessage();
+        when(delegate.deserialize(anyString(), any(Headers.class), any(byte[].class))).thenReturn(parsed);
+        when(delegate.deserialize(anyString(), any(Headers.class), any(ByteBuffer.class))).thenReturn(parsed);
+    }
+
+    @Test
+    void shouldDiscardByHeaderOrKeyPrefixWithoutParsing() {
+        // Given
+        RecordFilter filter = new RecordFilter(List.of(
+                new FilterRule("ignored-types", "eventType", List.of("AUDIT", "HEARTBEAT"), null, FilterRule.Action.DISCARD),
+                new FilterRule("internal-keys", null, List.of(), "internal:", FilterRule.Action.DISCARD)),
+                FilterRule.Action.ACCEPT, registry);
+        Deserializer<String> keys = filter.keyDeserializer();
+        Deserializer<IncomingMessage> values = filter.valueDeserializer(delegate);
+
+        // When
+        IncomingMessage audit = deserialize(keys, values, "CUST-1", headers("eventType", "AUDIT"));
+        IncomingMessage internal = deserialize(keys, values, "internal:42", headers("eventType", "ORDER_CREATED"));
+        IncomingMessage order = deserialize(keys, values, "CUST-2", headers("eventType", "ORDER_CREATED"));
+
+        // Then
+        assertThat(audit).isSameAs(RecordFilter.DISCARDED);
+        assertThat(internal).isSameAs(RecordFilter.DISCARDED);
+        assertThat(order).isSameAs(parsed);
+        verify(delegate, times(1)).deserialize(eq("input"), any(Headers.class), any(ByteBuffer.class));
+        assertThat(registry.get("pipeline.filter.records").tag("rule", "ignored-types").counter().count()).isEqualTo(1);
+        assertThat(registry.get("pipeline.filter.records").tag("rule", "internal-keys").counter().count()).isEqualTo(1);
+        assertThat(registry.get("pipeline.filter.records").tag("rule", RecordFilter.DEFAULT_RULE).counter().count())
+                .isEqualTo(1);
+        assertThat(filter.strategy().filter(new ConsumerRecord<>("input", 0, 0, "CUST-1", audit))).isTrue();
+        assertThat(filter.strategy().filter(new ConsumerRecord<>("input", 0, 1, "CUST-2", order))).isFalse();
+    }
+
+    @Test
+    void shouldNotCarryAKeyOverToARecordWithoutOne() {
+        // Given: only keyed records are wanted
+        RecordFilter filter = new RecordFilter(List.of(
+                new FilterRule("customers", null, List.of(), "CUST-", FilterRule.Action.ACCEPT)),
+                FilterRule.Action.DISCARD, registry);
+        Deserializer<String> keys = filter.keyDeserializer();
+        Deserializer<IncomingMessage> values = filter.valueDeserializer(delegate);
+
+        // When: a keyed tombstone, whose value is never deserialized, then a record without a key
+        keys.deserialize("input", headers("eventType", "ORDER_CREATED"),
+                ByteBuffer.wrap("CUST-1".getBytes(StandardCharsets.UTF_8)));
+        IncomingMessage unkeyed = values.deserialize("input", headers("eventType", "ORDER_CREATED"),
+                ByteBuffer.wrap(VALUE));
+
+        // Then
+        assertThat(unkeyed).isSameAs(RecordFilter.DISCARDED);
+        assertThat(registry.get("pipeline.filter.records").tag("rule", RecordFilter.DEFAULT_RULE)
+                .tag("action", "discard").counter().count()).isEqualTo(1);
+    }
+
+    private static IncomingMessage deserialize(Deserializer<String> keys, Deserializer<IncomingMessage> values,
+                                               String key, Headers headers) {
+        keys.deserialize("input", headers, ByteBuffer.wrap(key.getBytes(StandardCharsets.UTF_8)));
+        return values.deserialize("input", headers, ByteBuffer.wrap(VALUE));
+    }
+
+    private static Headers headers(String name, String value) {
+        RecordHeaders headers = new RecordHeaders();
+        headers.add(name, value.getBytes(StandardCharsets.UTF_8));
+        return headers;
+    }
+}
@@ -0,0 +1,104 @@
+package com.example.kafka.format;
+
+import com.example.kafka.model.IncomingMessage;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class FormatAwareDeserializerTest {
+
+    private LocalSchemaRegistry registry;
+    private FormatAwareDeserializer deserializer;
+
+    @BeforeEach
+    void setUp() {
+        registry = FormatFixtures.schemaRegistry();
+        deserializer = new FormatAwareDeserializer(
+                List.of(new JsonMessageDecoder(), new AvroMessageDecoder(), new ProtobufMessageDecoder()),
+                registry,
+                "incoming-message",
+                MessageFormat.JSON,
+                Map.of("avro-topic", MessageFormat.AVRO));
+    }
+
+    @Test
+    void shouldDecodeJsonByDefault() {
+        // Given
+        IncomingMessage message = FormatFixtures.sampleMessage();
+
+        // When
+        IncomingMessage result = deserializer.deserialize("input", new RecordHeaders(), FormatFixtures.json(message));
+
+        // Then
+        assertThat(result).isEqualTo(message);
+    }
+
+    @Test
+    void shouldDecodeAvroSelectedByTopic() {
+        // Given
+        IncomingMessage message = FormatFixtures.sampleMessage();
+
+        // When
+        IncomingMessage result = deserializer.deserialize("avro-topic", new RecordHeaders(),
+                FormatFixtures.avro(message, registry));
+
+        // Then
+        assertThat(result).isEqualTo(message);
+    }
+
+    @Test
+    void shouldDecodeProtobufSelectedByHeaders() {
+        // Given
+        IncomingMessage message = FormatFixtures.sampleMessage();
+        RecordHeaders headers = new RecordHeaders();
+        headers.add(FormatAwareDeserializer.FORMAT_HEADER, "protobuf".getBytes(StandardCharsets.UTF_8));
+        headers.add(FormatAwareDeserializer.SCHEMA_ID_HEADER,
+                String.valueOf(FormatFixtures.PROTOBUF_SCHEMA_ID).getBytes(StandardCharsets.UTF_8));
+
+        // When
+        IncomingMessage result = deserializer.deserialize("input", headers, FormatFixtures.protobuf(message, registry));
+
+        // Then
+        assertThat(result).isEqualTo(message);
+    }
+
+    @Test
+    void shouldLeaveMissingProtobufTimestampForValidation() {
+        // Given
+        IncomingMessage message = FormatFixtures.sampleMessage();
+        message.setTimestamp(null);
+        RecordHeaders headers = new RecordHeaders();
+        headers.add(FormatAwareDeserializer.FORMAT_HEADER, "protobuf".getBytes(StandardCharsets.UTF_8));
+        headers.add(FormatAwareDeserializer.SCHEMA_ID_HEADER,
+                String.valueOf(FormatFixtures.PROTOBUF_SCHEMA_ID).getBytes(StandardCharsets.UTF_8));
+
+        // When
+        IncomingMessage result = deserializer.deserialize("input", headers, FormatFixtures.protobuf(message, registry));
+
+        // Then
+        assertThat(result.getTimestamp()).isNull();
+        assertThat(result).isEqualTo(message);
+    }
+
+    @Test
+    void shouldRejectSchemaOfDifferentFormat() {
+        // Given
+        RecordHeaders headers = new RecordHeaders();
+        headers.add(FormatAwareDeserializer.FORMAT_HEADER, "protobuf".getBytes(StandardCharsets.UTF_8));
+        headers.add(FormatAwareDeserializer.SCHEMA_ID_HEADER,
+                String.valueOf(FormatFixtures.AVRO_SCHEMA_ID).getBytes(StandardCharsets.UTF_8));
+
+        // When & Then
+        assertThatThrownBy(() -> deserializer.deserialize("input", headers, new byte[]{1}))
+                .isInstanceOf(SerializationException.class)
+                .hasMessageContaining("AVRO");
+    }
+}
@@ -0,0 +1,146 @@
+package com.example.kafka.format;
+
+import com.example.kafka.model.IncomingMessage;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.google.protobuf.Descriptors;
+import com.google.protobuf.DynamicMessage;
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericDatumWriter;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.avro.io.BinaryEncoder;
+import org.apache.avro.io.EncoderFactory;
+import org.springframework.core.io.DefaultResourceLoader;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Encodes {@link IncomingMessage}s in every supported wire format, for tests and benchmarks.
+ */
+public final class FormatFixtures {
+
+    public static final int AVRO_SCHEMA_ID = 1;
+    public static final int PROTOBUF_SCHEMA_ID = 2;
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    private FormatFixtures() {
+    }
+
+    public static LocalSchemaRegistry schemaRegistry() {
+        return new LocalSchemaRegistry(new DefaultResourceLoader(), OBJECT_MAPPER, "classpath:schemas/registry.json");
+    }
+
+    public static IncomingMessage sampleMessage() {
+        Map<String, String> metadata = new HashMap<>();
+        metadata.put("source", "web-app");
+        metadata.put("region", "EU-WEST");
+
+        return IncomingMessage.builder()
+                .messageId("MSG-20251224-001")
+                .eventType("PAYMENT_CREATED")
+                .timestamp(LocalDateTime.of(2025, 12, 24, 14, 30, 0))
+                .payload(IncomingMessage.PayloadData.builder()
+                        .customerId("CUST-5678")
+                        .customerName("Jane Smith")
+                        .email("jane.smith@example.com")
+                        .phone("+447911123456")
+                        .amount(250.75)
+                        .currency("GBP")
+                        .description("Online purchase - Electronics")
+                        .active(true)
+                        .build())
+                .metadata(metadata)
+                .build();
+    }
+
+    public static byte[] json(IncomingMessage message) {
+        try {
+            return OBJECT_MAPPER.writeValueAsBytes(message);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public static byte[] avro(IncomingMessage message, LocalSchemaRegistry registry) {
+        Schema schema = new Schema.Parser().parse(registry.getById(AVRO_SCHEMA_ID).definition());
+        Schema payloadSchema = schema.getField("payload").schema();
+        IncomingMessage.PayloadData payload = message.getPayload();
+
+        GenericRecord payloadRecord = new GenericData.Record(payloadSchema);
+        payloadRecord.put("customerId", payload.getCustomerId());
+        payloadRecord.put("customerName", payload.getCustomerName());
+        payloadRecord.put("email", payload.getEmail());
+        payloadRecord.put("phone", payload.getPhone());
+        payloadRecord.put("amount", payload.getAmount());
+        payloadRecord.put("currency", payload.getCurrency());
+        payloadRecord.put("description", payload.getDescription());
+        payloadRecord.put("active", payload.getActive());
+
+        GenericRecord record = new GenericData.Record(schema);
+        record.put("messageId", message.getMessageId());
+        record.put("eventType", message.getEventType());
+        record.put("timestamp", epochMillis(message.getTimestamp()));
+        record.put("payload", payloadRecord);
+        record.put("metadata", message.getMetadata());
+
+        try {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            BinaryEncoder encoder = EncoderFactory.get().binaryEncoder(out, null);
+            new GenericDatumWriter<GenericRecord>(schema).write(record, encoder);
+            encoder.flush();
+            return out.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public static byte[] protobuf(IncomingMessage message, LocalSchemaRegistry registry) {
+        Descriptors.Descriptor type = ProtobufMessageDecoder.compile(registry.getById(PROTOBUF_SCHEMA_ID));
+        Descriptors.Descriptor payloadType = type.findFieldByName("payload").getMessageType();
+        Descriptors.Descriptor entryType = type.findFieldByName("metadata").getMessageType();
+        IncomingMessage.PayloadData payload = message.getPayload();
+
+        DynamicMessage.Builder payloadBuilder = DynamicMessage.newBuilder(payloadType)
+                .setField(payloadType.findFieldByName("customer_id"), payload.getCustomerId())
+                .setField(payloadType.findFieldByName("customer_name"), payload.getCustomerName())
+                .setField(payloadType.findFieldByName("email"), payload.getEmail())
+                .setField(payloadType.findFieldByName("phone"), payload.getPhone())
+                .setField(payloadType.findFieldByName("amount"), payload.getAmount())
+                .setField(payloadType.findFieldByName("currency"), payload.getCurrency())
+                .setField(payloadType.findFieldByName("active"), payload.getActive());
+        if (payload.getDescription() != null) {
+            payloadBuilder.setField(payloadType.findFieldByName("description"), payload.getDescription());
+        }
+
+        DynamicMessage.Builder builder = DynamicMessage.newBuilder(type)
+                .setField(type.findFieldByName("message_id"), message.getMessageId())
+                .setField(type.findFieldByName("event_type"), message.getEventType())
+                .setField(type.findFieldByName("payload"), payloadBuilder.build());
+        if (message.getTimestamp() != null) {
+            builder.setField(type.findFieldByName("timestamp_millis"), epochMillis(message.getTimestamp()));
+        }
+        if (message.getMetadata() != null) {
+            message.getMetadata().forEach((key, value) -> builder.addRepeatedField(type.findFieldByName("metadata"),
+                    DynamicMessage.newBuilder(entryType)
+                            .setField(entryType.findFieldByName("key"), key)
+                            .setField(entryType.findFieldByName("value"), value)
+                            .build()));
+        }
+        return builder.build().toByteArray();
+    }
+
+    private static long epochMillis(LocalDateTime timestamp) {
+        return timestamp.toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+}
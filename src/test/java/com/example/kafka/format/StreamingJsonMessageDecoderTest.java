@@ -0,0 +1,110 @@
+package com.example.kafka.format;
+
+import com.example.kafka.model.IncomingMessage;
+import org.apache.kafka.common.errors.SerializationException;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class StreamingJsonMessageDecoderTest {
+
+    private final StreamingJsonMessageDecoder streaming = new StreamingJsonMessageDecoder();
+    private final JsonMessageDecoder databind = new JsonMessageDecoder();
+
+    @Test
+    void shouldMatchDatabindForSampleData() throws IOException {
+        // Given
+        List<Path> samples;
+        try (Stream<Path> files = Files.list(Path.of("sample-data"))) {
+            samples = files.filter(path -> path.toString().endsWith("-message-1.json")
+                            || path.toString().endsWith("-message-2.json")
+                            || path.toString().endsWith("-message-3.json"))
+                    .toList();
+        }
+        assertThat(samples).isNotEmpty();
+
+        for (Path sample : samples) {
+            byte[] data = Files.readAllBytes(sample);
+
+            // When
+            Object expected = decodeOrError(databind, data);
+            Object actual = decodeOrError(streaming, data);
+
+            // Then
+            assertThat(actual).as(sample.toString()).isEqualTo(expected);
+        }
+    }
+
+    @Test
+    void shouldCoerceStringsAndSkipUnknownFields() {
+        // Given
+        String json = """
+                {
+                    "messageId": "MSG-001",
+                    "unknown": {"nested": [1, 2, {"deep": true}]},
+                    "eventType": "PAYMENT_CREATED",
+                    "timestamp": "2025-12-24T10:30:00",
+                    "payload": {
+                        "customerId": "CUST-123",
+                        "amount": "100.50",
+                        "active": "true",
+                        "description": null
+                    },
+                    "metadata": {"source": "web-app", "version": 2}
+                }
+                """;
+
+        // When
+        IncomingMessage result = streaming.decode(json.getBytes(StandardCharsets.UTF_8), null);
+
+        // Then
+        assertThat(result).isEqualTo(databind.decode(json.getBytes(StandardCharsets.UTF_8), null));
+        assertThat(result.getPayload().getAmount()).isEqualTo(100.50);
+        assertThat(result.getPayload().getActive()).isTrue();
+        assertThat(result.getMetadata()).containsEntry("version", "2");
+    }
+
+    @Test
+    void shouldInternLowCardinalityValues() {
+        // Given
+        byte[] first = "{\"eventType\":\"PAYMENT_CREATED\",\"payload\":{\"currency\":\"USD\"}}"
+                .getBytes(StandardCharsets.UTF_8);
+        byte[] second = "{\"eventType\":\"PAYMENT_CREATED\",\"payload\":{\"currency\":\"USD\"}}"
+                .getBytes(StandardCharsets.UTF_8);
+
+        // When
+        IncomingMessage a = streaming.decode(first, null);
+        IncomingMessage b = streaming.decode(second, null);
+
+        // Then
+        assertThat(a.getEventType()).isSameAs(b.getEventType());
+        assertThat(a.getPayload().getCurrency()).isSameAs(b.getPayload().getCurrency());
+    }
+
+    @Test
+    void shouldRejectMalformedTimestamp() {
+        // Given
+        byte[] data = "{\"timestamp\":\"2025-12-24 10:30:00\"}".getBytes(StandardCharsets.UTF_8);
+        byte[] invalidDate = "{\"timestamp\":\"2025-13-24T10:30:00\"}".getBytes(StandardCharsets.UTF_8);
+
+        // When & Then
+        assertThatThrownBy(() -> streaming.decode(data, null)).isInstanceOf(SerializationException.class);
+        assertThatThrownBy(() -> streaming.decode(invalidDate, null)).isInstanceOf(SerializationException.class);
+    }
+
+    private static Object decodeOrError(MessageDecoder decoder, byte[] data) {
+        try {
+            return decoder.decode(data, null);
+        } catch (RuntimeException e) {
+            return "error";
+        }
+    }
+}
@@ -1,7 +1,9 @@
 package com.example.kafka.integration;
 
 import com.example.kafka.config.ApplicationProperties;
+import com.example.kafka.model.DlqMessage;
 import com.example.kafka.model.IncomingMessage;
+import com.example.kafka.service.DlqReplayService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.github.tomakehurst.wiremock.WireMockServer;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
@@ -18,6 +20,7 @@ import org.springframework.kafka.listener.ContainerProperties;
 import org.springframework.kafka.listener.KafkaMessageListenerContainer;
 import org.springframework.kafka.listener.MessageListener;
 import org.springframework.kafka.support.serializer.JsonDeserializer;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
 import org.springframework.kafka.test.context.EmbeddedKafka;
 import org.springframework.kafka.test.utils.ContainerTestUtils;
 import org.springframework.test.context.ActiveProfiles;
@@ -36,11 +39,7 @@ import static org.assertj.core.api.Assertions.assertThat;
 @ActiveProfiles("test")
 @EmbeddedKafka(
         partitions = 1,
-        topics = {"test-input-topic", "test-dlq-topic"},
-        brokerProperties = {
-                "listeners=PLAINTEXT://localhost:9092",
-                "port=9092"
-        }
+        topics = {"test-input-topic", "test-dlq-topic"}
 )
 class KafkaIntegrationTest {
 
@@ -53,6 +52,12 @@ class KafkaIntegrationTest {
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private EmbeddedKafkaBroker embeddedKafka;
+
+    @Autowired
+    private DlqReplayService dlqReplayService;
+
     private WireMockServer wireMockServer;
     private KafkaMessageListenerContainer<String, Object> dlqContainer;
     private BlockingQueue<ConsumerRecord<String, Object>> dlqRecords;
@@ -69,7 +74,7 @@ class KafkaIntegrationTest {
         containerProperties.setMessageListener((MessageListener<String, Object>) dlqRecords::add);
 
         Map<String, Object> consumerProps = new HashMap<>();
-        consumerProps.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, "localhost:9092");
+        consumerProps.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, embeddedKafka.getBrokersAsString());
         consumerProps.put(ConsumerConfig.GROUP_ID_CONFIG, "test-dlq-consumer");
         consumerProps.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
         consumerProps.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
@@ -171,6 +176,45 @@ class KafkaIntegrationTest {
         verify(moreThanOrExactly(2), postRequestedFor(urlEqualTo("/api/v1/process")));
     }
 
+    @Test
+    void shouldReplayDlqRecordToSourceTopic() throws Exception {
+        // Given
+        stubFor(post(urlEqualTo("/api/v1/process"))
+                .willReturn(aResponse().withStatus(503)));
+        // A dead-lettered file source line cannot be sent back and must not block the replay
+        kafkaTemplate.send("test-dlq-topic", DlqMessage.builder()
+                .topic("file:backfill.ndjson")
+                .originalMessage(objectMapper.writeValueAsString(createValidMessage("MSG-FILE")))
+                .build()).get();
+        kafkaTemplate.send("test-input-topic", createValidMessage("MSG-003")).get();
+        assertThat(dlqRecords.poll(10, TimeUnit.SECONDS)).isNotNull();
+
+        wireMockServer.resetAll();
+        stubFor(post(urlEqualTo("/api/v1/process"))
+                .willReturn(aResponse()
+                        .withStatus(200)
+                        .withHeader("Content-Type", "application/json")
+                        .withBody("""
+                                {
+                                    "success": true,
+                                    "message": "Processed after replay",
+                                    "transaction_id": "MSG-003",
+                                    "status_code": 200
+                                }
+                                """)));
+
+        // When
+        DlqReplayService.Result result = dlqReplayService.replay("test-dlq-topic", 100);
+
+        // Then
+        assertThat(result.replayed()).isGreaterThanOrEqualTo(1);
+        assertThat(result.skipped()).isGreaterThanOrEqualTo(1);
+        assertThat(result.stoppedBy()).isNull();
+        Thread.sleep(3000);
+        verify(postRequestedFor(urlEqualTo("/api/v1/process"))
+                .withRequestBody(containing("MSG-003")));
+    }
+
     private IncomingMessage createValidMessage(String messageId) {
         IncomingMessage.PayloadData payload = IncomingMessage.PayloadData.builder()
                 .customerId("CUST-123")
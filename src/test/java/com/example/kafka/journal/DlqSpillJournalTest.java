@@ -0,0 +1,94 @@
+package com.example.kafka.journal;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DlqSpillJournalTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void shouldReturnRecordsInAppendOrder() {
+        // Given
+        try (DlqSpillJournal journal = new DlqSpillJournal(directory, 4096, 64 * 1024)) {
+            journal.append("key-1", bytes("first"), 1000L);
+            journal.append(null, bytes("second"), 2000L);
+
+            // When & Then
+            assertThat(journal.depth()).isEqualTo(2);
+            assertThat(journal.oldestEnqueuedAt()).isEqualTo(1000L);
+
+            DlqSpillJournal.Entry first = journal.peek();
+            assertThat(first.key()).isEqualTo("key-1");
+            assertThat(new String(first.value(), StandardCharsets.UTF_8)).isEqualTo("first");
+            journal.advance();
+
+            DlqSpillJournal.Entry second = journal.peek();
+            assertThat(second.key()).isNull();
+            assertThat(new String(second.value(), StandardCharsets.UTF_8)).isEqualTo("second");
+            journal.advance();
+
+            assertThat(journal.peek()).isNull();
+            assertThat(journal.depth()).isZero();
+        }
+    }
+
+    @Test
+    void shouldRecoverUndrainedRecordsAfterReopen() {
+        // Given
+        try (DlqSpillJournal journal = new DlqSpillJournal(directory, 4096, 64 * 1024)) {
+            journal.append("key-1", bytes("drained"), 1000L);
+            journal.append("key-2", bytes("pending"), 2000L);
+            journal.peek();
+            journal.advance();
+        }
+
+        // When
+        try (DlqSpillJournal reopened = new DlqSpillJournal(directory, 4096, 64 * 1024)) {
+
+            // Then
+            assertThat(reopened.depth()).isEqualTo(1);
+            assertThat(reopened.peek().key()).isEqualTo("key-2");
+        }
+    }
+
+    @Test
+    void shouldRejectAppendsBeyondDiskBudgetAndDeleteDrainedSegments() throws Exception {
+        // Given - two segments of 256 bytes, each holding two 100 byte records
+        try (DlqSpillJournal journal = new DlqSpillJournal(directory, 256, 512)) {
+            byte[] value = new byte[100];
+            for (int i = 0; i < 4; i++) {
+                assertThat(journal.append("k", value, i)).isTrue();
+            }
+
+            // When & Then
+            assertThat(journal.append("k", value, 5)).isFalse();
+            assertThat(segmentCount()).isEqualTo(2);
+
+            journal.peek();
+            journal.advance();
+            journal.peek();
+            journal.advance();
+            assertThat(journal.peek()).isNotNull();
+            assertThat(segmentCount()).isEqualTo(1);
+        }
+    }
+
+    private long segmentCount() throws Exception {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.count();
+        }
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
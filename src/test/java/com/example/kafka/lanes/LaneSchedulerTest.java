@@ -0,0 +1,80 @@
+package com.example.kafka.lanes;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LaneSchedulerTest {
+
+    @Test
+    void shouldGrantPermitsInProportionToLaneWeights() throws Exception {
+        // Given: one permit, held while both lanes queue up
+        LaneScheduler scheduler = new LaneScheduler(1);
+        LaneScheduler.Share orders = scheduler.share("orders", 3);
+        LaneScheduler.Share bulk = scheduler.share("bulk", 1);
+        LaneScheduler.Share holder = scheduler.share("holder", 1);
+        scheduler.acquire(holder);
+
+        List<String> grants = Collections.synchronizedList(new ArrayList<>());
+        List<Thread> waiters = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            waiters.add(waiter(scheduler, orders, grants));
+            waiters.add(waiter(scheduler, bulk, grants));
+        }
+        awaitWaiting(waiters);
+
+        // When
+        scheduler.release();
+        for (Thread waiter : waiters) {
+            waiter.join(5000);
+        }
+
+        // Then: while both lanes have work, orders gets three permits for each one bulk gets
+        assertThat(grants).hasSize(16);
+        assertThat(grants.subList(0, 8)).filteredOn("orders"::equals).hasSize(6);
+    }
+
+    @Test
+    void shouldGiveALoneLaneEveryPermit() throws Exception {
+        // Given
+        LaneScheduler scheduler = new LaneScheduler(2);
+        LaneScheduler.Share bulk = scheduler.share("bulk", 1);
+        scheduler.share("orders", 10);
+
+        // When
+        scheduler.acquire(bulk);
+        scheduler.acquire(bulk);
+
+        // Then
+        assertThat(scheduler.available()).isZero();
+        scheduler.release();
+        assertThat(scheduler.available()).isEqualTo(1);
+    }
+
+    private static Thread waiter(LaneScheduler scheduler, LaneScheduler.Share share, List<String> grants) {
+        Thread thread = new Thread(() -> {
+            try {
+                scheduler.acquire(share);
+                grants.add(share.lane());
+                scheduler.release();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        thread.start();
+        return thread;
+    }
+
+    private static void awaitWaiting(List<Thread> threads) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (threads.stream().anyMatch(thread -> thread.getState() != Thread.State.WAITING)
+                && System.nanoTime() < deadline) {
+            TimeUnit.MILLISECONDS.sleep(5);
+        }
+    }
+}
@@ -0,0 +1,238 @@
+package com.example.kafka.load;
+
+import com.example.kafka.KafkaRestBridgeApplication;
+import com.example.kafka.metrics.PipelineMetrics;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.config.MeterFilter;
+import io.micrometer.core.instrument.distribution.DistributionStatisticConfig;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import org.apache.kafka.clients.admin.Admin;
+import org.apache.kafka.clients.admin.AdminClientConfig;
+import org.apache.kafka.clients.admin.ListOffsetsResult;
+import org.apache.kafka.clients.admin.NewTopic;
+import org.apache.kafka.clients.admin.OffsetSpec;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.listener.MessageListenerContainer;
+import org.springframework.kafka.test.EmbeddedKafkaKraftBroker;
+import org.springframework.kafka.test.utils.ContainerTestUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Local end-to-end load harness: an embedded Kafka broker, the real application and an
+ * in-process REST stub, driven by synthetic traffic. For each scenario it reports
+ * throughput, consumer lag, end-to-end latency percentiles and DLQ counts.
+ *
+ * <pre>
+ * mvn -Pload test-compile exec:exec -Dload.args="--scenarios=baseline,flaky-upstream --messages=1000000"
+ * </pre>
+ *
+ * Latency is the application's own {@code pipeline.end.to.end} timer, from the record's
+ * create time to its acknowledgment, collapsed over partitions and event types.
+ */
+public class LoadHarness {
+
+    private static final Path REPORT = Path.of("target", "load-report.md");
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parse(args);
+        List<String> names = List.of(options.getOrDefault("scenarios", "baseline,error-mix").split(","));
+        long drainTimeoutSeconds = Long.parseLong(options.getOrDefault("drain-timeout-seconds", "900"));
+        String sinkMode = options.getOrDefault("sink", "rest");
+        // Dotted options such as --app.workers.enabled=true are passed through to the application
+        Map<String, Object> appProperties = new LinkedHashMap<>();
+        options.forEach((key, value) -> {
+            if (key.contains(".")) {
+                appProperties.put(key, value);
+            }
+        });
+
+        EmbeddedKafkaKraftBroker broker = new EmbeddedKafkaKraftBroker(1, 1);
+        broker.afterPropertiesSet();
+
+        List<LoadResult> results = new ArrayList<>();
+        try (Admin admin = Admin.create(Map.of(AdminClientConfig.BOOTSTRAP_SERVERS_CONFIG, broker.getBrokersAsString()))) {
+            for (String name : names) {
+                LoadScenario scenario = LoadScenario.of(name.trim(), options);
+                System.out.printf("%n=== %s: %,d messages ===%n", scenario.name(), scenario.messages());
+                LoadResult result = run(scenario, broker, admin, drainTimeoutSeconds, sinkMode, appProperties);
+                System.out.println(result.toRow());
+                results.add(result);
+            }
+        } finally {
+            broker.destroy();
+        }
+
+        String report = LoadResult.HEADER + results.stream().map(LoadResult::toRow).collect(Collectors.joining("\n")) + "\n";
+        Files.createDirectories(REPORT.getParent());
+        Files.writeString(REPORT, report);
+        System.out.println();
+        System.out.println(report);
+        System.out.println("Report written to " + REPORT.toAbsolutePath());
+        System.exit(0);
+    }
+
+    private static LoadResult run(LoadScenario scenario, EmbeddedKafkaKraftBroker broker, Admin admin,
+                                  long drainTimeoutSeconds, String sinkMode,
+                                  Map<String, Object> appProperties) throws Exception {
+        String inputTopic = "load-" + scenario.name() + "-" + System.currentTimeMillis();
+        String dlqTopic = inputTopic + "-dlq";
+        String groupId = inputTopic + "-group";
+        broker.addTopics(new NewTopic(inputTopic, scenario.partitions(), (short) 1), new NewTopic(dlqTopic, 1, (short) 1));
+
+        try (RestStub stub = new RestStub(scenario);
+             ConfigurableApplicationContext context = startApplication(scenario, broker, stub, inputTopic, dlqTopic, groupId, sinkMode, appProperties)) {
+
+            KafkaListenerEndpointRegistry registry = context.getBean(KafkaListenerEndpointRegistry.class);
+            for (MessageListenerContainer container : registry.getListenerContainers()) {
+                // Named pipelines read their own topics and are not measured here
+                String[] topics = container.getContainerProperties().getTopics();
+                if (topics != null && Arrays.asList(topics).contains(inputTopic)) {
+                    ContainerTestUtils.waitForAssignment(container, scenario.partitions());
+                }
+            }
+            MeterRegistry meters = context.getBean(MeterRegistry.class);
+
+            AtomicLong maxLag = new AtomicLong();
+            ScheduledExecutorService sampler = Executors.newSingleThreadScheduledExecutor();
+            sampler.scheduleAtFixedRate(() -> maxLag.accumulateAndGet(lag(admin, groupId, inputTopic, scenario.partitions()), Math::max),
+                    1, 1, TimeUnit.SECONDS);
+
+            long start = System.nanoTime();
+            long produced = new SyntheticLoadProducer(broker.getBrokersAsString()).produce(inputTopic, scenario);
+            long produceSeconds = TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - start);
+            System.out.printf("Produced %,d messages in %ds, draining...%n", produced, produceSeconds);
+
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(drainTimeoutSeconds);
+            while (completed(meters) < produced && System.nanoTime() < deadline) {
+                Thread.sleep(100);
+            }
+            double seconds = (System.nanoTime() - start) / 1e9;
+            sampler.shutdownNow();
+
+            long completed = completed(meters);
+            Timer delivered = meters.find(PipelineMetrics.END_TO_END_TIMER).tag("outcome", "delivered").timer();
+            return new LoadResult(scenario, produced, completed, seconds, maxLag.get(),
+                    lag(admin, groupId, inputTopic, scenario.partitions()),
+                    delivered != null ? delivered.takeSnapshot().percentileValues() : new ValueAtPercentile[0],
+                    endOffset(admin, dlqTopic), stub.requests.sum(), stub.serverErrors.sum());
+        }
+    }
+
+    private static ConfigurableApplicationContext startApplication(LoadScenario scenario, EmbeddedKafkaKraftBroker broker,
+                                                                   RestStub stub, String inputTopic, String dlqTopic,
+                                                                   String groupId, String sinkMode,
+                                                                   Map<String, Object> appProperties) {
+        Map<String, Object> properties = new LinkedHashMap<>();
+        properties.put("server.port", 0);
+        properties.put("spring.kafka.bootstrap-servers", broker.getBrokersAsString());
+        properties.put("spring.kafka.consumer.group-id", groupId);
+        properties.put("spring.kafka.listener.concurrency", scenario.concurrency());
+        properties.put("app.kafka.topic.input", inputTopic);
+        properties.put("app.kafka.topic.dlq", dlqTopic);
+        properties.put("app.rest-api.base-url", stub.baseUrl());
+        properties.put("app.rest-api.retry.initial-interval", 50);
+        properties.put("app.sink.mode", sinkMode);
+        properties.put("app.dlq.journal.directory", "target/load/" + inputTopic + "/dlq-journal");
+        properties.put("app.dlq.claim-check.directory", "target/load/" + inputTopic + "/dlq-blobs");
+        properties.put("logging.config", "classpath:logback-benchmark.xml");
+        properties.putAll(appProperties);
+
+        // Passed as arguments rather than default properties so that they override application.yml
+        String[] args = properties.entrySet().stream()
+                .map(entry -> "--" + entry.getKey() + "=" + entry.getValue())
+                .toArray(String[]::new);
+        return new SpringApplicationBuilder(KafkaRestBridgeApplication.class)
+                .initializers(context -> context.getBeanFactory().registerSingleton("loadHarnessMeterFilter", latencyFilter()))
+                .run(args);
+    }
+
+    /**
+     * Collapses the end-to-end timer to one series per outcome and gives it exact
+     * client-side percentiles over the whole run.
+     */
+    private static MeterFilter latencyFilter() {
+        return new MeterFilter() {
+            @Override
+            public Meter.Id map(Meter.Id id) {
+                return PipelineMetrics.END_TO_END_TIMER.equals(id.getName())
+                        ? MeterFilter.ignoreTags("eventType").map(id)
+                        : id;
+            }
+
+            @Override
+            public DistributionStatisticConfig configure(Meter.Id id, DistributionStatisticConfig config) {
+                if (!PipelineMetrics.END_TO_END_TIMER.equals(id.getName())) {
+                    return config;
+                }
+                return DistributionStatisticConfig.builder()
+                        .percentiles(0.5, 0.99, 0.999)
+                        .percentilePrecision(3)
+                        .expiry(Duration.ofDays(1))
+                        .bufferLength(1)
+                        .build()
+                        .merge(config);
+            }
+        };
+    }
+
+    private static long completed(MeterRegistry meters) {
+        return meters.find(PipelineMetrics.END_TO_END_TIMER).timers().stream().mapToLong(Timer::count).sum();
+    }
+
+    private static long lag(Admin admin, String groupId, String topic, int partitions) {
+        try {
+            Map<TopicPartition, OffsetAndMetadata> committed =
+                    admin.listConsumerGroupOffsets(groupId).partitionsToOffsetAndMetadata().get();
+            Map<TopicPartition, OffsetSpec> latest = IntStream.range(0, partitions).boxed()
+                    .collect(Collectors.toMap(p -> new TopicPartition(topic, p), p -> OffsetSpec.latest()));
+            Map<TopicPartition, ListOffsetsResult.ListOffsetsResultInfo> ends = admin.listOffsets(latest).all().get();
+            return ends.entrySet().stream().mapToLong(entry -> {
+                OffsetAndMetadata offset = committed.get(entry.getKey());
+                return entry.getValue().offset() - (offset != null ? offset.offset() : 0);
+            }).sum();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return 0;
+        } catch (ExecutionException e) {
+            return 0;
+        }
+    }
+
+    private static long endOffset(Admin admin, String topic) throws ExecutionException, InterruptedException {
+        TopicPartition partition = new TopicPartition(topic, 0);
+        return admin.listOffsets(Map.of(partition, OffsetSpec.latest())).all().get().get(partition).offset();
+    }
+
+    private static Map<String, String> parse(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (arg.startsWith("--") && arg.contains("=")) {
+                options.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+            }
+        }
+        return options;
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.kafka.load;
+
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Outcome of one scenario, rendered as a row of the markdown load report.
+ */
+record LoadResult(LoadScenario scenario, long produced, long completed, double seconds, long maxLag,
+                  long finalLag, ValueAtPercentile[] latency, long dlqRecords, long restRequests,
+                  long restServerErrors) {
+
+    static final String HEADER = """
+            | Scenario | Produced | Completed | Duration (s) | Throughput (msg/s) | Max lag | Final lag \
+            | p50 (ms) | p99 (ms) | p999 (ms) | DLQ | REST calls | REST 5xx |
+            |---|---|---|---|---|---|---|---|---|---|---|---|---|
+            """;
+
+    String toRow() {
+        return String.format(Locale.ROOT, "| %s | %d | %d | %.1f | %.0f | %d | %d | %s | %s | %s | %d | %d | %d |",
+                scenario.name(), produced, completed, seconds, completed / seconds, maxLag, finalLag,
+                percentile(0.5), percentile(0.99), percentile(0.999),
+                dlqRecords, restRequests, restServerErrors);
+    }
+
+    private String percentile(double percentile) {
+        for (ValueAtPercentile value : latency) {
+            if (value.percentile() == percentile) {
+                return String.format(Locale.ROOT, "%.1f", value.value(TimeUnit.MILLISECONDS));
+            }
+        }
+        return "-";
+    }
+}
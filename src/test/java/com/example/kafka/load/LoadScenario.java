@@ -0,0 +1,58 @@
+package com.example.kafka.load;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * One load harness run: how much traffic to produce and how the REST stub behaves.
+ *
+ * @param name              Scenario name, also used for topic and consumer group names
+ * @param messages          Number of messages to produce
+ * @param ratePerSecond     Produce rate, 0 for as fast as possible
+ * @param invalidRatio      Fraction of messages that fail validation and go to the DLQ
+ * @param latency           REST stub latency distribution, see {@link RestStub.Latency#parse}
+ * @param serverErrorRate   Fraction of REST calls answered with 503
+ * @param stallEveryMs      Interval between REST stub stalls, 0 for none
+ * @param stallDurationMs   Duration of each stall, during which every request hangs
+ * @param partitions        Input topic partitions
+ * @param concurrency       Listener concurrency
+ */
+public record LoadScenario(String name, long messages, int ratePerSecond, double invalidRatio,
+                           String latency, double serverErrorRate, long stallEveryMs, long stallDurationMs,
+                           int partitions, int concurrency) {
+
+    static final Map<String, LoadScenario> PRESETS = new LinkedHashMap<>();
+
+    static {
+        preset(new LoadScenario("baseline", 50_000, 0, 0.0, "fixed:1", 0.0, 0, 0, 6, 6));
+        preset(new LoadScenario("error-mix", 50_000, 0, 0.05, "fixed:1", 0.0, 0, 0, 6, 6));
+        preset(new LoadScenario("slow-upstream", 20_000, 0, 0.0, "lognormal:20,0.6", 0.0, 0, 0, 6, 6));
+        preset(new LoadScenario("flaky-upstream", 20_000, 0, 0.01, "uniform:1-10", 0.02, 0, 0, 6, 6));
+        preset(new LoadScenario("stalls", 20_000, 2_000, 0.0, "fixed:2", 0.0, 10_000, 2_000, 6, 6));
+    }
+
+    private static void preset(LoadScenario scenario) {
+        PRESETS.put(scenario.name(), scenario);
+    }
+
+    /**
+     * Looks up a preset and applies command-line overrides such as {@code messages=1000000}.
+     */
+    static LoadScenario of(String name, Map<String, String> overrides) {
+        LoadScenario preset = PRESETS.get(name);
+        if (preset == null) {
+            throw new IllegalArgumentException("Unknown scenario '" + name + "', expected one of " + PRESETS.keySet());
+        }
+        return new LoadScenario(
+                name,
+                Long.parseLong(overrides.getOrDefault("messages", String.valueOf(preset.messages))),
+                Integer.parseInt(overrides.getOrDefault("rate", String.valueOf(preset.ratePerSecond))),
+                Double.parseDouble(overrides.getOrDefault("invalid-ratio", String.valueOf(preset.invalidRatio))),
+                overrides.getOrDefault("latency", preset.latency),
+                Double.parseDouble(overrides.getOrDefault("error-rate", String.valueOf(preset.serverErrorRate))),
+                Long.parseLong(overrides.getOrDefault("stall-every-ms", String.valueOf(preset.stallEveryMs))),
+                Long.parseLong(overrides.getOrDefault("stall-ms", String.valueOf(preset.stallDurationMs))),
+                Integer.parseInt(overrides.getOrDefault("partitions", String.valueOf(preset.partitions))),
+                Integer.parseInt(overrides.getOrDefault("concurrency", String.valueOf(preset.concurrency))));
+    }
+}
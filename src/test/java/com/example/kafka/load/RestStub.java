@@ -0,0 +1,142 @@
+package com.example.kafka.load;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-process HTTP stub of the downstream REST API with configurable latency, 5xx rate
+ * and periodic stalls during which every request hangs until the stall ends.
+ */
+class RestStub implements AutoCloseable {
+
+    private static final byte[] OK_BODY =
+            "{\"success\":true,\"message\":\"accepted\",\"status_code\":200}".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] ERROR_BODY =
+            "{\"success\":false,\"message\":\"unavailable\",\"status_code\":503}".getBytes(StandardCharsets.UTF_8);
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final Latency latency;
+    private final double serverErrorRate;
+    private final long stallEveryMs;
+    private final long stallDurationMs;
+    private final long startedAt = System.currentTimeMillis();
+
+    static {
+        // Headers and body are written separately; without this, Nagle plus delayed ACKs adds ~40 ms per call
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+    }
+
+    final LongAdder requests = new LongAdder();
+    final LongAdder serverErrors = new LongAdder();
+
+    RestStub(LoadScenario scenario) throws IOException {
+        this.latency = Latency.parse(scenario.latency());
+        this.serverErrorRate = scenario.serverErrorRate();
+        this.stallEveryMs = scenario.stallEveryMs();
+        this.stallDurationMs = scenario.stallDurationMs();
+
+        this.executor = Executors.newFixedThreadPool(Math.max(16, scenario.concurrency() * 4), runnable -> {
+            Thread thread = new Thread(runnable, "rest-stub");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.server = HttpServer.create(new InetSocketAddress("localhost", 0), 512);
+        server.createContext("/", this::handle);
+        server.setExecutor(executor);
+        server.start();
+    }
+
+    String baseUrl() {
+        return "http://localhost:" + server.getAddress().getPort();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange; InputStream body = exchange.getRequestBody()) {
+            body.readAllBytes();
+            requests.increment();
+
+            sleep(stallRemainingMillis() + latency.sampleMillis());
+
+            boolean fail = serverErrorRate > 0 && ThreadLocalRandom.current().nextDouble() < serverErrorRate;
+            if (fail) {
+                serverErrors.increment();
+            }
+            byte[] response = fail ? ERROR_BODY : OK_BODY;
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(fail ? 503 : 200, response.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(response);
+            }
+        }
+    }
+
+    private long stallRemainingMillis() {
+        if (stallEveryMs <= 0) {
+            return 0;
+        }
+        long phase = (System.currentTimeMillis() - startedAt) % stallEveryMs;
+        long stallStart = stallEveryMs - stallDurationMs;
+        return phase >= stallStart ? stallEveryMs - phase : 0;
+    }
+
+    private static void sleep(double millis) {
+        if (millis <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep((long) millis, (int) ((millis % 1) * 1_000_000));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    /**
+     * Latency distribution: {@code fixed:5}, {@code uniform:2-20} or {@code lognormal:10,0.5}
+     * (median in milliseconds and sigma).
+     */
+    interface Latency {
+
+        double sampleMillis();
+
+        static Latency parse(String spec) {
+            String[] parts = spec.split(":", 2);
+            String args = parts.length > 1 ? parts[1] : "0";
+            return switch (parts[0]) {
+                case "fixed" -> {
+                    double millis = Double.parseDouble(args);
+                    yield () -> millis;
+                }
+                case "uniform" -> {
+                    String[] bounds = args.split("-");
+                    double min = Double.parseDouble(bounds[0]);
+                    double max = Double.parseDouble(bounds[1]);
+                    yield () -> ThreadLocalRandom.current().nextDouble(min, max);
+                }
+                case "lognormal" -> {
+                    String[] params = args.split(",");
+                    double mu = Math.log(Double.parseDouble(params[0]));
+                    double sigma = Double.parseDouble(params[1]);
+                    yield () -> Math.exp(mu + sigma * ThreadLocalRandom.current().nextGaussian());
+                }
+                default -> throw new IllegalArgumentException("Unknown latency distribution '" + spec + "'");
+            };
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.kafka.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.spi.LoggingEvent;
+import ch.qos.logback.classic.util.LogbackMDCAdapter;
+import ch.qos.logback.core.AppenderBase;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DroppingAsyncAppenderTest {
+
+    private final LoggerContext context = new LoggerContext();
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final List<ILoggingEvent> delivered = new CopyOnWriteArrayList<>();
+    private DroppingAsyncAppender appender;
+
+    @BeforeEach
+    void setUp() {
+        context.setMDCAdapter(new LogbackMDCAdapter());
+
+        AppenderBase<ILoggingEvent> blocking = new AppenderBase<>() {
+            @Override
+            protected void append(ILoggingEvent event) {
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                delivered.add(event);
+            }
+        };
+        blocking.setContext(context);
+        blocking.start();
+
+        appender = new DroppingAsyncAppender();
+        appender.setContext(context);
+        appender.setName("test");
+        appender.setQueueSize(10);
+        appender.setDiscardingThreshold(50);
+        appender.addAppender(blocking);
+        appender.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        appender.stop();
+    }
+
+    @Test
+    void shouldDropInsteadOfBlockingWhenQueueFills() throws InterruptedException {
+        // Given - the first event is taken by the worker and blocks it
+        appender.doAppend(event(Level.INFO));
+        Thread.sleep(100);
+
+        // When
+        for (int i = 0; i < 20; i++) {
+            appender.doAppend(event(Level.INFO));
+        }
+        for (int i = 0; i < 20; i++) {
+            appender.doAppend(event(Level.ERROR));
+        }
+
+        // Then - INFO stops at the 50% threshold, ERROR fills the rest of the queue
+        assertThat(appender.getDiscardedCount()).isEqualTo(15);
+        assertThat(appender.getOverflowCount()).isEqualTo(15);
+        assertThat(appender.getQueueDepth()).isEqualTo(10);
+
+        release.countDown();
+        appender.stop();
+        assertThat(delivered).hasSize(11);
+    }
+
+    private LoggingEvent event(Level level) {
+        return new LoggingEvent(getClass().getName(), context.getLogger("test"), level, "message", null, null);
+    }
+}
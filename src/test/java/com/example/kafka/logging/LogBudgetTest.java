@@ -0,0 +1,55 @@
+package com.example.kafka.logging;
+
+import com.example.kafka.config.ApplicationProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LogBudgetTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    @Test
+    void shouldLogOneInNSuccesses() {
+        // Given
+        ApplicationProperties properties = new ApplicationProperties();
+        properties.getLogging().setSuccessSampleRate(10);
+        LogBudget budget = new LogBudget(properties, registry);
+
+        // When
+        List<Long> decisions = new ArrayList<>();
+        for (int i = 0; i < 25; i++) {
+            decisions.add(budget.sampleSuccess());
+        }
+
+        // Then
+        assertThat(decisions.stream().filter(d -> d > 0)).containsExactly(1L, 10L, 10L);
+        assertThat(registry.get("logging.success.messages").tag("result", "logged").counter().count())
+                .isEqualTo(3);
+        assertThat(registry.get("logging.success.messages").tag("result", "suppressed").counter().count())
+                .isEqualTo(22);
+    }
+
+    @Test
+    void shouldRateLimitSuccessesPerSecond() {
+        // Given
+        ApplicationProperties properties = new ApplicationProperties();
+        properties.getLogging().setSuccessMaxPerSecond(5);
+        LogBudget budget = new LogBudget(properties, registry);
+
+        // When
+        long logged = 0;
+        for (int i = 0; i < 1000; i++) {
+            if (budget.sampleSuccess() > 0) {
+                logged++;
+            }
+        }
+
+        // Then - the loop may straddle a second boundary
+        assertThat(logged).isBetween(5L, 10L);
+    }
+}
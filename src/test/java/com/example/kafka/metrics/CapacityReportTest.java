@@ -0,0 +1,64 @@
+package com.example.kafka.metrics;
+
+import com.example.kafka.config.ApplicationProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CapacityReportTest {
+
+    private PipelineMetrics metrics;
+    private CapacityReport capacityReport;
+
+    @BeforeEach
+    void setUp() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        metrics = new PipelineMetrics(registry);
+        ApplicationProperties properties = new ApplicationProperties();
+        properties.getSink().setMode("null");
+        capacityReport = new CapacityReport(registry, properties, 4);
+    }
+
+    @Test
+    void shouldProjectThroughputFromStageTimePerMessage() {
+        // Given
+        for (int i = 0; i < 10; i++) {
+            metrics.stageTimer(PipelineMetrics.Stage.VALIDATE, "success").record(1, TimeUnit.MILLISECONDS);
+            metrics.stageTimer(PipelineMetrics.Stage.TRANSFORM, "success").record(1, TimeUnit.MILLISECONDS);
+            metrics.recordEndToEnd(System.currentTimeMillis(), 0, "PAYMENT_CREATED", "delivered");
+        }
+
+        // When
+        CapacityReport.Report report = capacityReport.report();
+
+        // Then
+        assertThat(report.sink()).isEqualTo("null");
+        assertThat(report.messages()).isEqualTo(10);
+        assertThat(report.stageMillisPerMessage()).isEqualTo(2.0);
+        assertThat(report.projectedPerThread()).isEqualTo(500.0);
+        assertThat(report.projectedMessagesPerSecond()).isEqualTo(2000.0);
+        assertThat(report.stages()).extracting(CapacityReport.StageCapacity::stage).containsExactly("validate", "transform");
+        assertThat(report.stages().get(0).shareOfTime()).isEqualTo(0.5);
+    }
+
+    @Test
+    void shouldExcludeTrafficBeforeReset() {
+        // Given
+        metrics.stageTimer(PipelineMetrics.Stage.VALIDATE, "success").record(50, TimeUnit.MILLISECONDS);
+        metrics.recordEndToEnd(System.currentTimeMillis(), 0, "PAYMENT_CREATED", "delivered");
+        capacityReport.reset();
+
+        // When
+        metrics.stageTimer(PipelineMetrics.Stage.VALIDATE, "success").record(2, TimeUnit.MILLISECONDS);
+        metrics.recordEndToEnd(System.currentTimeMillis(), 0, "PAYMENT_CREATED", "delivered");
+        CapacityReport.Report report = capacityReport.report();
+
+        // Then
+        assertThat(report.messages()).isEqualTo(1);
+        assertThat(report.stages().get(0).meanMillis()).isEqualTo(2.0);
+    }
+}
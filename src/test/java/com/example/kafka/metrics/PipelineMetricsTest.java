@@ -0,0 +1,97 @@
+package com.example.kafka.metrics;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PipelineMetricsTest {
+
+    private SimpleMeterRegistry registry;
+    private PipelineMetrics metrics;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        metrics = new PipelineMetrics(registry);
+    }
+
+    @Test
+    void shouldRecordStageTimingsByOutcome() {
+        // Given
+        long start = System.nanoTime();
+
+        // When
+        metrics.recordStage(PipelineMetrics.Stage.HTTP, "success", start);
+        metrics.recordStage(PipelineMetrics.Stage.HTTP, "success", start);
+        metrics.recordStage(PipelineMetrics.Stage.HTTP, "failure", start);
+
+        // Then
+        Timer success = registry.get(PipelineMetrics.STAGE_TIMER)
+                .tags("stage", "http", "outcome", "success").timer();
+        Timer failure = registry.get(PipelineMetrics.STAGE_TIMER)
+                .tags("stage", "http", "outcome", "failure").timer();
+        assertThat(success.count()).isEqualTo(2);
+        assertThat(failure.count()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldRecordEndToEndLatencyFromRecordTimestamp() {
+        // Given
+        long recordTimestamp = System.currentTimeMillis() - 250;
+
+        // When
+        metrics.recordEndToEnd(recordTimestamp, 3, "PAYMENT_CREATED", "delivered");
+        metrics.recordEndToEnd(-1, 3, "PAYMENT_CREATED", "delivered");
+
+        // Then
+        Timer timer = registry.get(PipelineMetrics.END_TO_END_TIMER)
+                .tags("eventType", "PAYMENT_CREATED", "outcome", "delivered").timer();
+        assertThat(timer.count()).isEqualTo(1);
+        assertThat(registry.get(PipelineMetrics.ACKNOWLEDGED_COUNTER)
+                .tags("partition", "3", "outcome", "delivered").counter().count()).isEqualTo(2);
+        assertThat(timer.totalTime(TimeUnit.MILLISECONDS)).isGreaterThanOrEqualTo(250);
+    }
+
+    @Test
+    void shouldRecordLatencyPercentilesPerAssignedPartition() {
+        // Given
+        long recordTimestamp = System.currentTimeMillis() - 100;
+
+        // When
+        metrics.recordEndToEnd(recordTimestamp, 1, "PAYMENT_CREATED", "delivered");
+        metrics.recordEndToEnd(recordTimestamp, 2, "PAYMENT_CREATED", "dlq");
+        metrics.removePartitions(List.of(2));
+
+        // Then
+        Timer partition = registry.get(PipelineMetrics.PARTITION_END_TO_END_TIMER).tag("partition", "1").timer();
+        assertThat(partition.count()).isEqualTo(1);
+        assertThat(partition.takeSnapshot().percentileValues()).hasSize(2);
+        assertThat(partition.takeSnapshot().histogramCounts()).isEmpty();
+        assertThat(registry.find(PipelineMetrics.PARTITION_END_TO_END_TIMER).tag("partition", "2").timer()).isNull();
+    }
+
+    @Test
+    void shouldCapEventTypeCardinality() {
+        // Given
+        for (int i = 0; i < PipelineMetrics.MAX_EVENT_TYPES; i++) {
+            metrics.recordEndToEnd(System.currentTimeMillis(), 0, "TYPE_" + i, "delivered");
+        }
+
+        // When
+        metrics.recordEndToEnd(System.currentTimeMillis(), 0, "ONE_TOO_MANY", "delivered");
+        metrics.recordEndToEnd(System.currentTimeMillis(), 0, null, "dlq");
+
+        // Then
+        assertThat(registry.find(PipelineMetrics.END_TO_END_TIMER).tag("eventType", "ONE_TOO_MANY").timer()).isNull();
+        assertThat(registry.get(PipelineMetrics.END_TO_END_TIMER).tag("eventType", PipelineMetrics.OTHER).timer().count())
+                .isEqualTo(1);
+        assertThat(registry.get(PipelineMetrics.END_TO_END_TIMER).tag("eventType", "unknown").timer().count())
+                .isEqualTo(1);
+    }
+}
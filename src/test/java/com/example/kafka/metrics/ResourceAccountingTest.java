@@ -0,0 +1,74 @@
+package com.example.kafka.metrics;
+
+import com.example.kafka.config.ApplicationProperties;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ResourceAccountingTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    @Test
+    void shouldChargeAllocationsToStageAndMessage() {
+        // Given
+        ApplicationProperties properties = new ApplicationProperties();
+        properties.getMetrics().setResourceAccounting(true);
+        ResourceAccounting accounting = new ResourceAccounting(properties, registry);
+        PipelineMetrics metrics = new PipelineMetrics(registry, accounting);
+
+        // When
+        metrics.beginMessage();
+        byte[] allocated = new byte[1024 * 1024];
+        metrics.recordStage(PipelineMetrics.Stage.TRANSFORM, "success", System.nanoTime());
+        metrics.recordStage(PipelineMetrics.Stage.HTTP, "success", System.nanoTime());
+        metrics.endMessage();
+
+        // Then
+        assertThat(allocated).hasSize(1024 * 1024);
+        DistributionSummary transform = registry.get("pipeline.stage.allocated").tag("stage", "transform").summary();
+        DistributionSummary http = registry.get("pipeline.stage.allocated").tag("stage", "http").summary();
+        DistributionSummary message = registry.get("pipeline.message.allocated").summary();
+        assertThat(transform.totalAmount()).isGreaterThanOrEqualTo(1024 * 1024);
+        assertThat(http.totalAmount()).isLessThan(1024 * 1024);
+        assertThat(message.totalAmount()).isGreaterThanOrEqualTo(1024 * 1024);
+        assertThat(registry.get("pipeline.message.cpu").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldTagMetersWithThePipeline() {
+        // Given
+        ApplicationProperties properties = new ApplicationProperties();
+        properties.getMetrics().setResourceAccounting(true);
+        ResourceAccounting accounting = new ResourceAccounting(properties, registry);
+        PipelineMetrics metrics = new PipelineMetrics(registry, accounting, "orders");
+
+        // When
+        metrics.beginMessage();
+        metrics.recordStage(PipelineMetrics.Stage.TRANSFORM, "success", System.nanoTime());
+        metrics.endMessage();
+
+        // Then
+        assertThat(registry.get("pipeline.message.cpu").tag("pipeline", "orders").timer().count()).isEqualTo(1);
+        assertThat(registry.get("pipeline.message.cpu").tag("pipeline", "default").timer().count()).isZero();
+        assertThat(registry.get("pipeline.stage.cpu").tag("pipeline", "orders").tag("stage", "transform")
+                .timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldRegisterNothingWhenDisabled() {
+        // Given
+        ResourceAccounting accounting = new ResourceAccounting(new ApplicationProperties(), registry);
+
+        // When
+        accounting.start();
+        accounting.stage(PipelineMetrics.DEFAULT_PIPELINE, PipelineMetrics.Stage.VALIDATE);
+        accounting.finish(PipelineMetrics.DEFAULT_PIPELINE);
+
+        // Then
+        assertThat(accounting.isEnabled()).isFalse();
+        assertThat(registry.find("pipeline.message.allocated").summary()).isNull();
+    }
+}
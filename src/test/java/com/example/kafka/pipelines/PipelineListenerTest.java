@@ -0,0 +1,91 @@
+package com.example.kafka.pipelines;
+
+import com.example.kafka.config.ApplicationProperties;
+import com.example.kafka.diagnostics.PipelineTracker;
+import com.example.kafka.exception.RestApiException;
+import com.example.kafka.metrics.PipelineMetrics;
+import com.example.kafka.model.IncomingMessage;
+import com.example.kafka.service.DeadLetterQueueService;
+import com.example.kafka.service.MessageProcessingService;
+import com.example.kafka.service.ValidationService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.springframework.kafka.support.Acknowledgment;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+class PipelineListenerTest {
+
+    private SimpleMeterRegistry registry;
+    private ValidationService validationService;
+    private MessageProcessingService processingService;
+    private DeadLetterQueueService dlqService;
+    private Acknowledgment acknowledgment;
+    private PipelineListener listener;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        validationService = mock(ValidationService.class);
+        processingService = mock(MessageProcessingService.class);
+        dlqService = mock(DeadLetterQueueService.class);
+        acknowledgment = mock(Acknowledgment.class);
+        listener = new PipelineListener(validationService, processingService, dlqService,
+                new PipelineMetrics(registry, null, "orders"), new PipelineTracker(new ApplicationProperties()));
+    }
+
+    @Test
+    void shouldDeliverAndAcknowledgeUnderPipelineTag() throws Exception {
+        // Given
+        ConsumerRecord<String, IncomingMessage> record = record();
+
+        // When
+        listener.onMessage(record, acknowledgment);
+
+        // Then
+        verify(processingService).processMessage(record.value());
+        verify(acknowledgment).acknowledge();
+        verify(dlqService, never())
+                .sendToDlq(ArgumentMatchers.<ConsumerRecord<String, ?>>any(), any(Exception.class), eq(0));
+        assertThat(registry.get(PipelineMetrics.STAGE_TIMER)
+                .tags("pipeline", "orders", "stage", "validate", "outcome", "success").timer().count())
+                .isEqualTo(1);
+        assertThat(registry.get(PipelineMetrics.STAGE_TIMER)
+                .tags("pipeline", "orders", "stage", "ack").timer().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void shouldSendFailuresToDlqAndAcknowledge() throws Exception {
+        // Given
+        ConsumerRecord<String, IncomingMessage> record = record();
+        RestApiException failure = new RestApiException("endpoint down");
+        doThrow(failure).when(processingService).processMessage(record.value());
+
+        // When
+        listener.onMessage(record, acknowledgment);
+
+        // Then
+        verify(dlqService).sendToDlq(record, failure, 0);
+        verify(acknowledgment).acknowledge();
+        assertThat(registry.get(PipelineMetrics.STAGE_TIMER)
+                .tags("pipeline", "orders", "stage", "dlq").timer().count())
+                .isEqualTo(1);
+    }
+
+    private static ConsumerRecord<String, IncomingMessage> record() {
+        IncomingMessage message = new IncomingMessage();
+        message.setMessageId("m-1");
+        message.setEventType("ORDER_CREATED");
+        return new ConsumerRecord<>("orders", 0, 42L, "k-1", message);
+    }
+}
@@ -0,0 +1,113 @@
+package com.example.kafka.polling;
+
+import com.example.kafka.config.ApplicationProperties;
+import com.example.kafka.model.IncomingMessage;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.core.ConsumerFactory;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class PollTunerTest {
+
+    private static final long MAX_POLL_INTERVAL_MS = 10_000;
+
+    private SimpleMeterRegistry registry;
+    private ConsumerFactory<String, IncomingMessage> consumerFactory;
+    private PollTuner tuner;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        consumerFactory = mock(ConsumerFactory.class);
+        // Target cycle 5 s, near limit at 8 s
+        tuner = new PollTuner(consumerFactory, new ApplicationProperties.PollTuning(), 10,
+                MAX_POLL_INTERVAL_MS, true, registry);
+    }
+
+    @Test
+    void shouldShrinkLimitAtOnceWhenRecordsSlowDownAndGrowItGradually() {
+        // When: 1 s per record
+        tuner.completeCycle(TimeUnit.SECONDS.toNanos(10), 10, 10_000);
+
+        // Then
+        assertThat(tuner.getLimit()).isEqualTo(5);
+        verify(consumerFactory).updateConfigs(argThat(configs ->
+                configs.get(ConsumerConfig.MAX_POLL_RECORDS_CONFIG).equals(5)
+                        && configs.get(ConsumerConfig.MAX_PARTITION_FETCH_BYTES_CONFIG)
+                        .equals(PollTuner.MIN_PARTITION_FETCH_BYTES)));
+        assertThat(registry.get("pipeline.poll.cycles.near.limit").counter().count()).isEqualTo(1);
+
+        // When: 0.1 s per record, smoothed towards the new rate
+        tuner.completeCycle(TimeUnit.MILLISECONDS.toNanos(500), 5, 5_000);
+
+        // Then: 1 s + 0.2 x (0.1 s - 1 s) = 0.82 s per record
+        assertThat(tuner.getLimit()).isEqualTo(6);
+        assertThat(registry.get("pipeline.poll.cycles.near.limit").counter().count()).isEqualTo(1);
+        assertThat(registry.get("pipeline.poll.cycle").timer().count()).isEqualTo(2);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldDeferRecordsBeyondLimitAndRewindTheirPartitions() {
+        // Given: a limit of 2 records per poll
+        tuner.completeCycle(TimeUnit.SECONDS.toNanos(25), 10, 10_000);
+        Consumer<String, IncomingMessage> consumer = mock(Consumer.class);
+
+        // When
+        ConsumerRecord<String, IncomingMessage> first = tuner.intercept(record(0, 100), consumer);
+        ConsumerRecord<String, IncomingMessage> second = tuner.intercept(record(0, 101), consumer);
+        ConsumerRecord<String, IncomingMessage> third = tuner.intercept(record(0, 102), consumer);
+        ConsumerRecord<String, IncomingMessage> fourth = tuner.intercept(record(0, 103), consumer);
+        ConsumerRecord<String, IncomingMessage> otherPartition = tuner.intercept(record(1, 7), consumer);
+        tuner.clearThreadState(consumer);
+        ConsumerRecord<String, IncomingMessage> nextPoll = tuner.intercept(record(0, 102), consumer);
+
+        // Then
+        assertThat(first).isNotNull();
+        assertThat(second).isNotNull();
+        assertThat(third).isNull();
+        assertThat(fourth).isNull();
+        assertThat(otherPartition).isNull();
+        assertThat(nextPoll).isNotNull();
+        verify(consumer).seek(new TopicPartition("input", 0), 102);
+        verify(consumer).seek(new TopicPartition("input", 1), 7);
+        verify(consumer, times(2)).seek(any(TopicPartition.class), anyLong());
+        assertThat(registry.get("pipeline.poll.records.deferred").counter().count()).isEqualTo(3);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldNeverDeferWithOutOfOrderAcks() {
+        // Given
+        PollTuner measuringOnly = new PollTuner(consumerFactory, new ApplicationProperties.PollTuning(), 1,
+                MAX_POLL_INTERVAL_MS, false, new SimpleMeterRegistry());
+        Consumer<String, IncomingMessage> consumer = mock(Consumer.class);
+
+        // When
+        measuringOnly.intercept(record(0, 1), consumer);
+        ConsumerRecord<String, IncomingMessage> beyondLimit = measuringOnly.intercept(record(0, 2), consumer);
+
+        // Then
+        assertThat(beyondLimit).isNotNull();
+        verify(consumer, times(0)).seek(any(TopicPartition.class), anyLong());
+    }
+
+    private static ConsumerRecord<String, IncomingMessage> record(int partition, long offset) {
+        return new ConsumerRecord<>("input", partition, offset, "key-" + offset, new IncomingMessage());
+    }
+}
@@ -0,0 +1,117 @@
+package com.example.kafka.rebalance;
+
+import com.example.kafka.config.ApplicationProperties;
+import com.example.kafka.diagnostics.PipelineTracker;
+import com.example.kafka.metrics.PipelineMetrics;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+class RevocationDrainerTest {
+
+    private static final TopicPartition PARTITION = new TopicPartition("input", 0);
+
+    private SimpleMeterRegistry registry;
+    private PipelineTracker tracker;
+    private Consumer<?, ?> consumer;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        tracker = new PipelineTracker(new ApplicationProperties());
+        consumer = mock(Consumer.class);
+    }
+
+    @Test
+    void shouldCancelQueuedRecordsAndDrainRunningOnesBeforeCommit() throws Exception {
+        // Given
+        RevocationDrainer drainer = new RevocationDrainer(tracker, new PipelineMetrics(registry), 5_000, registry);
+        drainer.onPartitionsAssigned(consumer, List.of(PARTITION));
+        RevocationDrainer.Ticket running = drainer.dispatch("input", 0, 10);
+        RevocationDrainer.Ticket queued = drainer.dispatch("input", 0, 11);
+        assertThat(drainer.begin(running)).isTrue();
+        CompletableFuture<Void> worker = CompletableFuture.runAsync(() -> {
+            sleep(100);
+            drainer.complete(running);
+        });
+
+        // When
+        drainer.onPartitionsRevokedBeforeCommit(consumer, List.of(PARTITION));
+        boolean queuedStarted = drainer.begin(queued);
+        tracker.onCommit(Map.of(PARTITION, new OffsetAndMetadata(11)));
+        drainer.onPartitionsRevokedAfterCommit(consumer, List.of(PARTITION));
+
+        // Then
+        assertThat(worker).isDone();
+        assertThat(queuedStarted).isFalse();
+        assertThat(registry.get("pipeline.rebalance.cancelled").counter().count()).isEqualTo(1);
+        DistributionSummary duplicates = registry.get("pipeline.rebalance.duplicates").summary();
+        assertThat(duplicates.count()).isEqualTo(1);
+        assertThat(duplicates.totalAmount()).isZero();
+    }
+
+    @Test
+    void shouldCountUncommittableAndUndrainedRecordsAsDuplicates() {
+        // Given: offset 10 is stuck, 11 and 12 completed out of order behind it
+        RevocationDrainer drainer = new RevocationDrainer(tracker, new PipelineMetrics(registry), 50, registry);
+        drainer.onPartitionsAssigned(consumer, List.of(PARTITION));
+        RevocationDrainer.Ticket stuck = drainer.dispatch("input", 0, 10);
+        drainer.begin(stuck);
+        for (long offset = 11; offset <= 12; offset++) {
+            RevocationDrainer.Ticket ticket = drainer.dispatch("input", 0, offset);
+            drainer.begin(ticket);
+            drainer.complete(ticket);
+        }
+        tracker.onCommit(Map.of(PARTITION, new OffsetAndMetadata(10)));
+
+        // When
+        drainer.onPartitionsRevokedBeforeCommit(consumer, List.of(PARTITION));
+        drainer.onPartitionsRevokedAfterCommit(consumer, List.of(PARTITION));
+
+        // Then
+        assertThat(drainer.owned(stuck)).isFalse();
+        assertThat(registry.get("pipeline.rebalance.duplicates").summary().totalAmount()).isEqualTo(3);
+        assertThat(registry.get("pipeline.rebalance.partitions").tag("event", "revoked").counter().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void shouldFenceRecordsDispatchedUnderAnEarlierAssignment() {
+        // Given
+        RevocationDrainer drainer = new RevocationDrainer(tracker, new PipelineMetrics(registry), 50, registry);
+        drainer.onPartitionsAssigned(consumer, List.of(PARTITION));
+        RevocationDrainer.Ticket stale = drainer.dispatch("input", 0, 10);
+
+        // When: lost and assigned back before the queued record ran
+        drainer.onPartitionsLost(consumer, List.of(PARTITION));
+        drainer.onPartitionsAssigned(consumer, List.of(PARTITION));
+        RevocationDrainer.Ticket fresh = drainer.dispatch("input", 0, 10);
+
+        // Then
+        assertThat(drainer.begin(stale)).isFalse();
+        assertThat(drainer.begin(fresh)).isTrue();
+        assertThat(drainer.owned(fresh)).isTrue();
+        assertThat(registry.get("pipeline.rebalance.partitions").tag("event", "lost").counter().count())
+                .isEqualTo(1);
+    }
+
+    private static void sleep(long millis) {
+        try {
+            TimeUnit.MILLISECONDS.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
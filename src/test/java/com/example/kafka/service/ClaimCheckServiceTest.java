@@ -0,0 +1,95 @@
+package com.example.kafka.service;
+
+import com.example.kafka.blob.FileSystemBlobStore;
+import com.example.kafka.config.ApplicationProperties;
+import com.example.kafka.model.DlqMessage;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ClaimCheckServiceTest {
+
+    @TempDir
+    Path directory;
+
+    private ClaimCheckService claimCheckService;
+
+    @BeforeEach
+    void setUp() {
+        ApplicationProperties properties = new ApplicationProperties();
+        properties.getDlq().getClaimCheck().setThresholdBytes(1024);
+
+        ObjectMapper objectMapper = new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+        claimCheckService = new ClaimCheckService(new FileSystemBlobStore(directory), objectMapper, properties);
+    }
+
+    @Test
+    void shouldKeepSmallMessagesInline() {
+        // Given
+        DlqMessage message = createMessage("{\"messageId\":\"MSG-001\"}");
+
+        // When
+        DlqMessage result = claimCheckService.offloadIfOversized(message);
+
+        // Then
+        assertThat(result).isSameAs(message);
+        assertThat(result.getPayloadRef()).isNull();
+    }
+
+    @Test
+    void shouldOffloadAndResolveOversizedMessages() throws IOException {
+        // Given
+        DlqMessage message = createMessage("x".repeat(10_000));
+
+        // When
+        DlqMessage stub = claimCheckService.offloadIfOversized(message);
+        DlqMessage resolved = claimCheckService.resolve(stub);
+
+        // Then
+        assertThat(stub.getOriginalMessage()).isNull();
+        assertThat(stub.getStackTrace()).isNull();
+        assertThat(stub.getPayloadRef()).startsWith("file:");
+        assertThat(stub.getPayloadChecksum()).startsWith("sha256:");
+        assertThat(stub.getOffset()).isEqualTo(42L);
+        assertThat(resolved).isEqualTo(message);
+    }
+
+    @Test
+    void shouldRejectPayloadWithChecksumMismatch() {
+        // Given
+        DlqMessage stub = claimCheckService.offloadIfOversized(createMessage("x".repeat(10_000)));
+        stub.setPayloadChecksum("sha256:0000");
+
+        // When & Then
+        assertThatThrownBy(() -> claimCheckService.resolve(stub))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("Checksum mismatch");
+    }
+
+    private DlqMessage createMessage(String originalMessage) {
+        return DlqMessage.builder()
+                .originalMessage(originalMessage)
+                .topic("input-messages")
+                .partition(0)
+                .offset(42L)
+                .errorType("ValidationException")
+                .errorMessage("Bean validation failed")
+                .stackTrace("ValidationException: Bean validation failed")
+                .timestamp(LocalDateTime.of(2025, 12, 24, 10, 30, 0))
+                .retryCount(0)
+                .build();
+    }
+}
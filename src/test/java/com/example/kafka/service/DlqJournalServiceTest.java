@@ -0,0 +1,128 @@
+package com.example.kafka.service;
+
+import com.example.kafka.config.ApplicationProperties;
+import com.example.kafka.config.DlqTopics;
+import com.example.kafka.config.KafkaProducerProfiles;
+import com.example.kafka.journal.DlqSpillJournal;
+import com.example.kafka.model.DlqMessage;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.common.errors.NotEnoughReplicasException;
+import org.apache.kafka.common.errors.RecordTooLargeException;
+import org.apache.kafka.common.errors.SerializationException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.kafka.core.KafkaTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeoutException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class DlqJournalServiceTest {
+
+    @TempDir
+    Path directory;
+
+    private ApplicationProperties properties;
+    private SimpleMeterRegistry registry;
+    private KafkaTemplate<String, Object> template;
+    private DlqJournalService journalService;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        properties = new ApplicationProperties();
+        properties.getDlq().getJournal().setDirectory(directory.toString());
+        properties.getDlq().getJournal().setDrainIntervalMs(60_000);
+        properties.getDlq().setSendTimeoutMs(1_000);
+        registry = new SimpleMeterRegistry();
+        template = mock(KafkaTemplate.class);
+        KafkaProducerProfiles producerProfiles = mock(KafkaProducerProfiles.class);
+        when(producerProfiles.template(anyString())).thenReturn(template);
+        ObjectMapper objectMapper = new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        journalService = new DlqJournalService(properties, producerProfiles, objectMapper, registry,
+                new DlqTopics(properties));
+    }
+
+    @AfterEach
+    void tearDown() {
+        journalService.shutdown();
+    }
+
+    @Test
+    void shouldQuarantineRecordsThatCanNeverBeSent() {
+        // Given
+        ApplicationProperties.Dlq.Journal config = properties.getDlq().getJournal();
+        DlqSpillJournal existing = new DlqSpillJournal(directory, config.getSegmentBytes(), config.getMaxBytes());
+        existing.append("k-0", "not json".getBytes(StandardCharsets.UTF_8), System.currentTimeMillis());
+        existing.close();
+        journalService.init();
+        journalService.spill("k-1", dlqMessage(1));
+        journalService.spill("k-2", dlqMessage(2));
+        when(template.send(any(), any(), any()))
+                .thenReturn(CompletableFuture.failedFuture(new RecordTooLargeException("too large")))
+                .thenReturn(CompletableFuture.completedFuture(null));
+
+        // When
+        journalService.drain();
+
+        // Then
+        assertThat(journalService.pendingRecords()).isZero();
+        assertThat(journalService.quarantinedRecords()).isEqualTo(2);
+        assertThat(registry.counter("dlq.journal.quarantined").count()).isEqualTo(2);
+        assertThat(registry.counter("dlq.journal.replayed").count()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldPauseOnRetriableFailure() {
+        // Given
+        journalService.init();
+        journalService.spill("k-1", dlqMessage(1));
+        when(template.send(any(), any(), any()))
+                .thenReturn(CompletableFuture.failedFuture(new NotEnoughReplicasException("not enough replicas")));
+
+        // When
+        journalService.drain();
+
+        // Then
+        assertThat(journalService.pendingRecords()).isEqualTo(1);
+        assertThat(journalService.quarantinedRecords()).isZero();
+    }
+
+    @Test
+    void shouldTreatOnlyTransientFailuresAsRetriable() {
+        assertThat(DlqJournalService.isRetriable(new ExecutionException(new NotEnoughReplicasException("x"))))
+                .isTrue();
+        assertThat(DlqJournalService.isRetriable(new TimeoutException())).isTrue();
+        assertThat(DlqJournalService.isRetriable(new ExecutionException(new RecordTooLargeException("x"))))
+                .isFalse();
+        assertThat(DlqJournalService.isRetriable(new SerializationException("x"))).isFalse();
+    }
+
+    private static DlqMessage dlqMessage(long offset) {
+        return DlqMessage.builder()
+                .originalMessage("{}")
+                .topic("input-messages")
+                .partition(0)
+                .offset(offset)
+                .errorType("RestApiException")
+                .errorMessage("REST API unavailable")
+                .timestamp(LocalDateTime.of(2025, 12, 24, 10, 31, 0))
+                .build();
+    }
+}
@@ -0,0 +1,123 @@
+package com.example.kafka.service;
+
+import com.example.kafka.blob.FileSystemBlobStore;
+import com.example.kafka.config.ApplicationProperties;
+import com.example.kafka.config.DlqTopics;
+import com.example.kafka.format.FormatAwareDeserializer;
+import com.example.kafka.model.DlqMessage;
+import com.example.kafka.model.IncomingMessage;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class DlqReplayServiceTest {
+
+    @TempDir
+    Path directory;
+
+    private ObjectMapper objectMapper;
+    private ClaimCheckService claimCheckService;
+    private DlqReplayService replayService;
+
+    @BeforeEach
+    void setUp() {
+        ApplicationProperties properties = new ApplicationProperties();
+        properties.getDlq().getClaimCheck().setThresholdBytes(1024);
+        objectMapper = new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        claimCheckService = new ClaimCheckService(new FileSystemBlobStore(directory), objectMapper, properties);
+        replayService = new DlqReplayService(properties, null, claimCheckService, new DlqTopics(properties),
+                objectMapper, "localhost:9092", "test-group");
+    }
+
+    @Test
+    void shouldRestoreOffloadedMessageForItsSourceTopic() throws IOException {
+        // Given
+        IncomingMessage original = message("x".repeat(10_000));
+        DlqMessage stub = claimCheckService.offloadIfOversized(dlqMessage(objectMapper.writeValueAsString(original)));
+
+        // When
+        ProducerRecord<String, Object> record = replayService.toSourceRecord("dlq-messages", "k-1",
+                objectMapper.writeValueAsBytes(stub));
+
+        // Then
+        assertThat(stub.getPayloadRef()).isNotNull();
+        assertThat(record.topic()).isEqualTo("input-messages");
+        assertThat(record.key()).isEqualTo("k-1");
+        assertThat(record.value()).isEqualTo(original);
+        assertThat(new String(record.headers().lastHeader(FormatAwareDeserializer.FORMAT_HEADER).value(),
+                StandardCharsets.UTF_8)).isEqualTo("json");
+    }
+
+    @Test
+    void shouldSkipUnreplayableAndStopOnUnresolvableRecords() throws IOException {
+        // Given
+        DlqMessage undecodable = dlqMessage("not json");
+        DlqMessage stub = claimCheckService.offloadIfOversized(dlqMessage(
+                objectMapper.writeValueAsString(message("x".repeat(10_000)))));
+        stub.setPayloadChecksum("sha256:0000");
+
+        // When / Then
+        assertThat(replayService.toSourceRecord("dlq-messages", null, objectMapper.writeValueAsBytes(undecodable)))
+                .isNull();
+        assertThatThrownBy(() -> replayService.toSourceRecord("dlq-messages", null, objectMapper.writeValueAsBytes(stub)))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("Checksum mismatch");
+    }
+
+    @Test
+    void shouldSkipRecordsWithoutKafkaSourceTopic() throws IOException {
+        // Given
+        String original = objectMapper.writeValueAsString(message("backfill"));
+        DlqMessage fileLine = dlqMessage(original);
+        fileLine.setTopic(FileSourceService.TOPIC_PREFIX + "2025-12.ndjson");
+        DlqMessage illegalTopic = dlqMessage(original);
+        illegalTopic.setTopic("orders/eu");
+
+        // When / Then
+        assertThat(replayService.toSourceRecord("dlq-messages", null, objectMapper.writeValueAsBytes(fileLine)))
+                .isNull();
+        assertThat(replayService.toSourceRecord("dlq-messages", null, objectMapper.writeValueAsBytes(illegalTopic)))
+                .isNull();
+    }
+
+    private static IncomingMessage message(String description) {
+        return IncomingMessage.builder()
+                .messageId("MSG-001")
+                .eventType("PAYMENT_CREATED")
+                .timestamp(LocalDateTime.of(2025, 12, 24, 10, 30, 0))
+                .payload(IncomingMessage.PayloadData.builder()
+                        .customerId("CUST-123")
+                        .customerName("John Doe")
+                        .description(description)
+                        .build())
+                .build();
+    }
+
+    private static DlqMessage dlqMessage(String originalMessage) {
+        return DlqMessage.builder()
+                .originalMessage(originalMessage)
+                .topic("input-messages")
+                .partition(0)
+                .offset(42L)
+                .errorType("RestApiException")
+                .errorMessage("REST API unavailable")
+                .stackTrace("RestApiException: REST API unavailable")
+                .timestamp(LocalDateTime.of(2025, 12, 24, 10, 31, 0))
+                .retryCount(3)
+                .build();
+    }
+}
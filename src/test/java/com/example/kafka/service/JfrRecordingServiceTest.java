@@ -0,0 +1,125 @@
+package com.example.kafka.service;
+
+import com.example.kafka.config.ApplicationProperties;
+import com.example.kafka.jfr.RecordContext;
+import com.example.kafka.jfr.RestAttemptEvent;
+import com.example.kafka.jfr.ValidationEvent;
+import com.example.kafka.metrics.PipelineMetrics;
+import com.example.kafka.model.IncomingMessage;
+import com.example.kafka.sink.MessageSink;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class JfrRecordingServiceTest {
+
+    @TempDir
+    Path tempDir;
+
+    private JfrRecordingService recordingService;
+
+    @BeforeEach
+    void setUp() {
+        ApplicationProperties properties = new ApplicationProperties();
+        properties.getJfr().setDirectory(tempDir.toString());
+        properties.getJfr().setSettings("none");
+        recordingService = new JfrRecordingService(properties);
+    }
+
+    @AfterEach
+    void tearDown() {
+        recordingService.close();
+        RecordContext.clear();
+    }
+
+    @Test
+    void shouldRecordPipelineEventsWithRecordCoordinates() throws Exception {
+        // Given
+        recordingService.start();
+        RecordContext.set("input-messages", 2, 42L, "MSG-001");
+
+        // When
+        ValidationEvent validation = new ValidationEvent();
+        validation.begin();
+        validation.finish("success");
+
+        RestAttemptEvent attempt = new RestAttemptEvent();
+        attempt.begin();
+        attempt.setAttempt(1);
+        attempt.setStatusCode(503);
+        attempt.finish("failure");
+
+        JfrRecordingService.Status status = recordingService.stop();
+
+        // Then
+        List<RecordedEvent> events = RecordingFile.readAllEvents(Path.of(status.file())).stream()
+                .filter(event -> event.getEventType().getName().startsWith("com.example.kafka."))
+                .toList();
+        assertThat(events).hasSize(2);
+
+        RecordedEvent recordedValidation = events.stream()
+                .filter(event -> event.getEventType().getName().equals("com.example.kafka.Validation"))
+                .findFirst().orElseThrow();
+        assertThat(recordedValidation.getString("messageId")).isEqualTo("MSG-001");
+        assertThat(recordedValidation.getInt("partition")).isEqualTo(2);
+        assertThat(recordedValidation.getLong("offset")).isEqualTo(42L);
+        assertThat(recordedValidation.getString("outcome")).isEqualTo("success");
+
+        RecordedEvent recordedAttempt = events.stream()
+                .filter(event -> event.getEventType().getName().equals("com.example.kafka.RestAttempt"))
+                .findFirst().orElseThrow();
+        assertThat(recordedAttempt.getInt("statusCode")).isEqualTo(503);
+        assertThat(recordedAttempt.getString("outcome")).isEqualTo("failure");
+    }
+
+    @Test
+    void shouldRecordFailedStagesWithFailureOutcome() throws Exception {
+        // Given
+        TransformationService transformationService = mock(TransformationService.class);
+        when(transformationService.transform(any())).thenThrow(new IllegalStateException("unmappable"));
+        MessageProcessingService processingService = new MessageProcessingService(transformationService,
+                mock(MessageSink.class), new PipelineMetrics(new SimpleMeterRegistry()));
+        recordingService.start();
+        RecordContext.set("input-messages", 0, 7L, "MSG-002");
+
+        // When
+        assertThatThrownBy(() -> processingService.processMessage(new IncomingMessage()))
+                .isInstanceOf(IllegalStateException.class);
+        JfrRecordingService.Status status = recordingService.stop();
+
+        // Then
+        RecordedEvent transformation = RecordingFile.readAllEvents(Path.of(status.file())).stream()
+                .filter(event -> event.getEventType().getName().equals("com.example.kafka.Transformation"))
+                .findFirst().orElseThrow();
+        assertThat(transformation.getString("messageId")).isEqualTo("MSG-002");
+        assertThat(transformation.getString("outcome")).isEqualTo("failure");
+    }
+
+    @Test
+    void shouldNotRecordEventsWithoutRecording() {
+        // Given
+        ValidationEvent event = new ValidationEvent();
+
+        // When
+        event.begin();
+        event.finish("success");
+
+        // Then
+        assertThat(event.isEnabled()).isFalse();
+        assertThat(recordingService.status().state()).isEqualTo("NONE");
+        assertThatThrownBy(() -> recordingService.dump()).isInstanceOf(IllegalStateException.class);
+    }
+}
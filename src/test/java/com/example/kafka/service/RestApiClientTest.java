@@ -95,7 +95,7 @@ class RestApiClientTest {
     }
 
     @Test
-    void shouldRetryOnServerError() {
+    void shouldRetryOnServerError() throws RestApiException {
         // Given
         ApiRequestDto request = createTestRequest();
 
@@ -128,11 +128,11 @@ class RestApiClientTest {
                                 """)));
 
         // When
-        assertThatThrownBy(() -> restApiClient.sendRequest(request))
-                .isInstanceOf(RestApiException.class);
+        ApiResponseDto response = restApiClient.sendRequest(request);
 
-        // Verify retries happened (at least 2 attempts)
-        verify(moreThanOrExactly(2), postRequestedFor(urlEqualTo("/api/v1/process")));
+        // Then
+        assertThat(response.getMessage()).isEqualTo("Processed after retry");
+        verify(exactly(3), postRequestedFor(urlEqualTo("/api/v1/process")));
     }
 
     @Test
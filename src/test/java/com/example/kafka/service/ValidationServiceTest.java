@@ -144,7 +144,7 @@ class ValidationServiceTest {
         // When & Then
         assertThatThrownBy(() -> validationService.validate(message))
                 .isInstanceOf(ValidationException.class)
-                .hasMessageContaining("name");
+                .hasMessageContaining("customerName");
     }
 
     @Test
@@ -0,0 +1,42 @@
+package com.example.kafka.sink;
+
+import com.example.kafka.model.ApiRequestDto;
+import com.example.kafka.model.ApiResponseDto;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RecordingSinkTest {
+
+    @Test
+    void shouldKeepOnlyTheMostRecentMessages() {
+        // Given
+        RecordingSink sink = new RecordingSink(3);
+
+        // When
+        for (int i = 0; i < 5; i++) {
+            sink.send(ApiRequestDto.builder().transactionId("TXN-" + i).build());
+        }
+
+        // Then
+        assertThat(sink.count()).isEqualTo(5);
+        assertThat(sink.recorded()).extracting(ApiRequestDto::getTransactionId)
+                .containsExactly("TXN-2", "TXN-3", "TXN-4");
+    }
+
+    @Test
+    void shouldReturnOwnResponsePerMessage() {
+        // Given
+        RecordingSink sink = new RecordingSink(3);
+
+        // When
+        ApiResponseDto first = sink.send(ApiRequestDto.builder().transactionId("TXN-1").build());
+        first.setMessage("changed by caller");
+        ApiResponseDto second = sink.send(ApiRequestDto.builder().transactionId("TXN-2").build());
+
+        // Then
+        assertThat(second).isNotSameAs(first);
+        assertThat(second.getMessage()).isEqualTo("recorded");
+        assertThat(second.getTransactionId()).isEqualTo("TXN-2");
+    }
+}
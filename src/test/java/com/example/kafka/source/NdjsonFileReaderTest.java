@@ -0,0 +1,93 @@
+package com.example.kafka.source;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class NdjsonFileReaderTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void shouldReadEveryLineOnceAcrossChunksAndSegments() throws IOException {
+        // Given
+        StringBuilder content = new StringBuilder();
+        List<String> expected = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            String line = "{\"messageId\":\"MSG-" + i + "\"}";
+            expected.add(line);
+            content.append(line).append(i % 7 == 0 ? "\r\n" : "\n");
+            if (i % 50 == 0) {
+                content.append("\n");
+            }
+        }
+        Path file = Files.writeString(directory.resolve("messages.ndjson"), content.toString().stripTrailing());
+
+        // When
+        List<String> lines = new ArrayList<>();
+        List<Long> offsets = new ArrayList<>();
+        try (NdjsonFileReader reader = new NdjsonFileReader(file, 0, 1024)) {
+            while (reader.hasNext()) {
+                for (NdjsonFileReader.Segment segment : reader.next().segments(3)) {
+                    segment.forEachLine((offset, line) -> {
+                        offsets.add(offset);
+                        lines.add(new String(line, StandardCharsets.UTF_8));
+                    });
+                }
+            }
+        }
+
+        // Then
+        assertThat(lines).containsExactlyElementsOf(expected);
+        byte[] bytes = Files.readAllBytes(file);
+        assertThat(offsets.get(1)).isEqualTo(content.indexOf(expected.get(1)));
+        assertThat(new String(bytes, offsets.get(150).intValue(), expected.get(150).length(), StandardCharsets.UTF_8))
+                .isEqualTo(expected.get(150));
+    }
+
+    @Test
+    void shouldResumeFromCheckpointedChunkEnd() throws IOException {
+        // Given
+        Path file = Files.writeString(directory.resolve("resume.ndjson"), "{\"a\":1}\n{\"a\":2}\n{\"a\":3}\n");
+        FileCheckpointStore checkpoints = new FileCheckpointStore(directory.resolve("checkpoints"));
+        try (NdjsonFileReader reader = new NdjsonFileReader(file, 0, 10)) {
+            NdjsonFileReader.Chunk first = reader.next();
+            checkpoints.save(file, first.end(), reader.size());
+        }
+
+        // When
+        List<String> lines = new ArrayList<>();
+        long resumeAt = checkpoints.load(file, Files.size(file));
+        try (NdjsonFileReader reader = new NdjsonFileReader(file, resumeAt, 10)) {
+            while (reader.hasNext()) {
+                reader.next().segments(2).forEach(segment ->
+                        segment.forEachLine((offset, line) -> lines.add(new String(line, StandardCharsets.UTF_8))));
+            }
+        }
+
+        // Then
+        assertThat(resumeAt).isEqualTo(8);
+        assertThat(lines).containsExactly("{\"a\":2}", "{\"a\":3}");
+    }
+
+    @Test
+    void shouldRejectLinesLongerThanTheChunk() throws IOException {
+        // Given
+        Path file = Files.writeString(directory.resolve("long.ndjson"), "x".repeat(64) + "\n{}\n");
+
+        // When / Then
+        try (NdjsonFileReader reader = new NdjsonFileReader(file, 0, 16)) {
+            assertThatThrownBy(reader::next).isInstanceOf(IOException.class).hasMessageContaining("longer than the chunk size");
+        }
+    }
+}
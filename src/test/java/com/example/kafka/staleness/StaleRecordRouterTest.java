@@ -0,0 +1,40 @@
+package com.example.kafka.staleness;
+
+import com.example.kafka.config.ApplicationProperties;
+import com.example.kafka.config.KafkaProducerProfiles;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+
+class StaleRecordRouterTest {
+
+    @Test
+    void shouldRejectThrottleOnTheListenerThreads() {
+        // Given
+        ApplicationProperties properties = new ApplicationProperties();
+        properties.getStaleness().getActions().put("PRICE_UPDATED", "throttle");
+
+        // When / Then
+        assertThatThrownBy(() -> router(properties))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("throttle");
+    }
+
+    @Test
+    void shouldAcceptThrottleWithWorkers() {
+        // Given
+        ApplicationProperties properties = new ApplicationProperties();
+        properties.getStaleness().setAction("throttle");
+        properties.getWorkers().setEnabled(true);
+
+        // When / Then
+        assertThatCode(() -> router(properties)).doesNotThrowAnyException();
+    }
+
+    private static StaleRecordRouter router(ApplicationProperties properties) {
+        return new StaleRecordRouter(properties, mock(KafkaProducerProfiles.class), new SimpleMeterRegistry());
+    }
+}
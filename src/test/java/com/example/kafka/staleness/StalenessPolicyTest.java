@@ -0,0 +1,46 @@
+package com.example.kafka.staleness;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StalenessPolicyTest {
+
+    private static final long NOW = 1_700_000_000_000L;
+
+    private final StalenessPolicy policy = new StalenessPolicy(
+            0,
+            Map.of("PRICE_UPDATED", 60_000L, "ORDER_CREATED", 3_600_000L),
+            StalenessPolicy.Action.CATCH_UP,
+            Map.of("PRICE_UPDATED", StalenessPolicy.Action.DLQ));
+
+    @Test
+    void shouldApplyTheTtlAndActionOfTheEventType() {
+        // When
+        StalenessPolicy.Action freshPrice = policy.evaluate(NOW - 60_000, "PRICE_UPDATED", NOW);
+        StalenessPolicy.Action stalePrice = policy.evaluate(NOW - 60_001, "PRICE_UPDATED", NOW);
+        StalenessPolicy.Action oldOrder = policy.evaluate(NOW - 600_000, "ORDER_CREATED", NOW);
+        StalenessPolicy.Action staleOrder = policy.evaluate(NOW - 3_600_001, "ORDER_CREATED", NOW);
+
+        // Then
+        assertThat(freshPrice).isEqualTo(StalenessPolicy.Action.DELIVER);
+        assertThat(stalePrice).isEqualTo(StalenessPolicy.Action.DLQ);
+        assertThat(oldOrder).isEqualTo(StalenessPolicy.Action.DELIVER);
+        assertThat(staleOrder).isEqualTo(StalenessPolicy.Action.CATCH_UP);
+    }
+
+    @Test
+    void shouldDeliverRecordsWithoutATtlOrTimestamp() {
+        // Given
+        StalenessPolicy withDefault = new StalenessPolicy(1_000, Map.of(), StalenessPolicy.Action.THROTTLE, Map.of());
+
+        // When / Then
+        assertThat(policy.evaluate(NOW - 86_400_000, "ORDER_CANCELLED", NOW)).isEqualTo(StalenessPolicy.Action.DELIVER);
+        assertThat(policy.evaluate(NOW - 86_400_000, null, NOW)).isEqualTo(StalenessPolicy.Action.DELIVER);
+        assertThat(policy.evaluate(-1, "PRICE_UPDATED", NOW)).isEqualTo(StalenessPolicy.Action.DELIVER);
+        assertThat(withDefault.evaluate(NOW - 1_001, null, NOW)).isEqualTo(StalenessPolicy.Action.THROTTLE);
+        assertThat(StalenessPolicy.Action.fromName("catch-up")).isEqualTo(StalenessPolicy.Action.CATCH_UP);
+    }
+}
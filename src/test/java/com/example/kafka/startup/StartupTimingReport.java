@@ -0,0 +1,98 @@
+package com.example.kafka.startup;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares startup of the {@code fast-startup} build in four modes: plain, AOT-processed
+ * bean definitions, the AppCDS archive, and both. Each run launches a fresh JVM that exits
+ * as soon as the application context is refreshed ({@code spring.context.exit=onRefresh}),
+ * so no broker or REST API is needed and the figure is wall time from launch to a ready
+ * context, the part AOT and CDS affect. Modes are interleaved across rounds to spread noise.
+ *
+ * <pre>
+ * mvn -Pfast-startup package -DskipTests -Dstartup.runs=10
+ * </pre>
+ */
+public class StartupTimingReport {
+
+    private static final Map<String, List<String>> MODES = new LinkedHashMap<>();
+
+    static {
+        MODES.put("default", List.of());
+        MODES.put("aot", List.of("-Dspring.aot.enabled=true"));
+        MODES.put("cds", List.of("-XX:SharedArchiveFile=application.jsa"));
+        MODES.put("aot+cds", List.of("-Dspring.aot.enabled=true", "-XX:SharedArchiveFile=application.jsa"));
+    }
+
+    public static void main(String[] args) throws Exception {
+        Path directory = Path.of(args[0]);
+        String jar = args[1];
+        int runs = args.length > 2 ? Integer.parseInt(args[2]) : 5;
+
+        Map<String, long[]> timings = new LinkedHashMap<>();
+        MODES.keySet().forEach(mode -> timings.put(mode, new long[runs]));
+        for (int run = 0; run < runs; run++) {
+            for (Map.Entry<String, List<String>> mode : MODES.entrySet()) {
+                timings.get(mode.getKey())[run] = launch(directory, jar, mode.getKey(), mode.getValue());
+            }
+        }
+
+        long baseline = median(timings.get("default"));
+        StringBuilder report = new StringBuilder("| Mode | Median (ms) | Min (ms) | Speed-up |\n|---|---|---|---|\n");
+        for (Map.Entry<String, long[]> timing : timings.entrySet()) {
+            long median = median(timing.getValue());
+            report.append(String.format(Locale.ROOT, "| %s | %d | %d | %.2fx |%n", timing.getKey(), median,
+                    Arrays.stream(timing.getValue()).min().orElse(0), (double) baseline / median));
+        }
+
+        Path output = directory.resolve("startup-report.md");
+        Files.writeString(output, report);
+        System.out.println();
+        System.out.println("Startup to refreshed context, " + runs + " run(s) per mode:");
+        System.out.println(report);
+        System.out.println("Report written to " + output.toAbsolutePath());
+    }
+
+    private static long launch(Path directory, String jar, String mode, List<String> options)
+            throws IOException, InterruptedException {
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        command.addAll(options);
+        command.add("-Dspring.context.exit=onRefresh");
+        command.add("-jar");
+        command.add(jar);
+
+        File log = directory.resolve("startup-" + mode.replace('+', '-') + ".log").toFile();
+        long start = System.nanoTime();
+        Process process = new ProcessBuilder(command)
+                .directory(directory.toFile())
+                .redirectErrorStream(true)
+                .redirectOutput(log)
+                .start();
+        if (!process.waitFor(5, TimeUnit.MINUTES)) {
+            process.destroyForcibly();
+            throw new IllegalStateException("Startup in mode " + mode + " did not finish, see " + log);
+        }
+        long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        if (process.exitValue() != 0) {
+            throw new IllegalStateException("Startup in mode " + mode + " failed, see " + log);
+        }
+        return elapsed;
+    }
+
+    private static long median(long[] values) {
+        long[] sorted = values.clone();
+        Arrays.sort(sorted);
+        return sorted[sorted.length / 2];
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.kafka.tenancy;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FairQueueTest {
+
+    private final List<String> overQuota = new ArrayList<>();
+
+    @Test
+    void shouldServeTenantsByWeightAndEachTenantInOrder() {
+        // Given: a noisy tenant queued first, then a quiet one with twice the weight
+        FairQueue<String> queue = new FairQueue<>(100, 100,
+                Map.of("quiet", new FairQueue.Policy(2, 0)), new FairQueue.Policy(1, 0), overQuota::add);
+        for (int i = 0; i < 6; i++) {
+            queue.offer("noisy", "noisy-" + i, 0);
+        }
+        for (int i = 0; i < 4; i++) {
+            queue.offer("quiet", "quiet-" + i, 0);
+        }
+
+        // When
+        List<String> served = new ArrayList<>();
+        for (String next = queue.poll(0); next != null; next = queue.poll(0)) {
+            served.add(next);
+        }
+
+        // Then
+        assertThat(served).containsExactly(
+                "noisy-0", "quiet-0", "quiet-1", "noisy-1", "quiet-2", "quiet-3",
+                "noisy-2", "noisy-3", "noisy-4", "noisy-5");
+    }
+
+    @Test
+    void shouldHoldBackATenantOverItsQuotaWithoutBlockingOthers() {
+        // Given: two records a second for the noisy tenant
+        FairQueue<String> queue = new FairQueue<>(100, 100,
+                Map.of("noisy", new FairQueue.Policy(1, 2)), new FairQueue.Policy(1, 0), overQuota::add);
+        for (int i = 0; i < 4; i++) {
+            queue.offer("noisy", "noisy-" + i, 0);
+        }
+        queue.offer("quiet", "quiet-0", 0);
+
+        // When
+        List<String> now = new ArrayList<>();
+        for (String next = queue.poll(0); next != null; next = queue.poll(0)) {
+            now.add(next);
+        }
+        long wait = queue.nanosUntilEligible(0);
+        String later = queue.poll(wait);
+
+        // Then
+        assertThat(now).containsExactly("noisy-0", "quiet-0", "noisy-1");
+        assertThat(overQuota).containsOnly("noisy");
+        assertThat(wait).isEqualTo(TimeUnit.MILLISECONDS.toNanos(500));
+        assertThat(later).isEqualTo("noisy-2");
+    }
+
+    @Test
+    void shouldRefuseRecordsBeyondATenantsCapacity() {
+        // Given
+        FairQueue<String> queue = new FairQueue<>(2, 100, Map.of(), new FairQueue.Policy(1, 0), overQuota::add);
+
+        // When
+        boolean first = queue.offer("noisy", "noisy-0", 0);
+        boolean second = queue.offer("noisy", "noisy-1", 0);
+        boolean third = queue.offer("noisy", "noisy-2", 0);
+        boolean other = queue.offer("quiet", "quiet-0", 0);
+
+        // Then
+        assertThat(first).isTrue();
+        assertThat(second).isTrue();
+        assertThat(third).isFalse();
+        assertThat(other).isTrue();
+        assertThat(queue.size("noisy")).isEqualTo(2);
+    }
+}
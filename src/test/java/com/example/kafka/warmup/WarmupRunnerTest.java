@@ -0,0 +1,89 @@
+package com.example.kafka.warmup;
+
+import com.example.kafka.config.ApplicationProperties;
+import com.example.kafka.model.IncomingMessage;
+import com.example.kafka.service.TransformationService;
+import com.example.kafka.service.ValidationService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.boot.DefaultApplicationArguments;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.listener.MessageListenerContainer;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class WarmupRunnerTest {
+
+    @Mock
+    private ValidationService validationService;
+
+    @Mock
+    private KafkaListenerEndpointRegistry listenerRegistry;
+
+    @Mock
+    private MessageListenerContainer container;
+
+    private ApplicationProperties properties;
+    private WarmupRunner runner;
+
+    @BeforeEach
+    void setUp() {
+        properties = new ApplicationProperties();
+        properties.getRestApi().setBaseUrl("http://localhost:1");
+        ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+        runner = new WarmupRunner(properties, validationService, new TransformationService(), objectMapper,
+                new RestTemplate(), listenerRegistry, new SimpleMeterRegistry(), 2);
+    }
+
+    @Test
+    void shouldStartListenersAfterWarmupEvenWhenRestApiIsUnreachable() throws Exception {
+        // Given
+        properties.getWarmup().setIterations(500);
+        when(listenerRegistry.getListenerContainers()).thenReturn(List.of(container));
+
+        // When
+        runner.run(new DefaultApplicationArguments());
+
+        // Then
+        verify(validationService, atLeastOnce()).validate(any(IncomingMessage.class));
+        verify(container).start();
+    }
+
+    @Test
+    void shouldStopExercisingThePipelineWhenTheBudgetRunsOut() {
+        // Given
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(200);
+
+        // When
+        long run = runner.exercisePipeline(Integer.MAX_VALUE, deadline);
+
+        // Then
+        assertThat(run).isPositive().isLessThan(Integer.MAX_VALUE);
+        assertThat(System.nanoTime()).isGreaterThanOrEqualTo(deadline);
+    }
+
+    @Test
+    void shouldIncludeInvalidVariants() {
+        // When
+        List<IncomingMessage> messages = WarmupRunner.syntheticMessages(64);
+
+        // Then
+        assertThat(messages).hasSize(64);
+        assertThat(messages).filteredOn(message -> message.getPayload().getEmail().startsWith("not-")).hasSize(8);
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.kafka.workers;
+
+import com.example.kafka.config.ApplicationProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ConcurrencyControllerTest {
+
+    private ProcessingWorkerPool pool;
+    private ConcurrencyController controller;
+
+    @BeforeEach
+    void setUp() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        ApplicationProperties.Workers config = new ApplicationProperties.Workers();
+        config.setMinWorkers(1);
+        config.setMaxWorkers(32);
+        config.setDrainTargetSeconds(60);
+        config.setScaleUpChecks(2);
+        config.setScaleDownChecks(3);
+        config.setCooldownMs(10_000);
+        pool = new ProcessingWorkerPool(4, 32, 64, registry);
+        controller = new ConcurrencyController(pool, new KafkaListenerEndpointRegistry(), config, 30, registry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        pool.close();
+    }
+
+    @Test
+    void shouldSizeByLittlesLawWithinBounds() {
+        // 100 msg/s arriving plus 6000 behind over 60 s, at 50 ms each: 200/s x 0.05 s = 10 workers
+        assertThat(controller.desiredWorkers(100, 6000, 0.05)).isEqualTo(10);
+        // Capped by what the listeners can have outstanding
+        assertThat(controller.desiredWorkers(10_000, 0, 0.05)).isEqualTo(30);
+        assertThat(controller.desiredWorkers(1, 0, 0.001)).isEqualTo(1);
+    }
+
+    @Test
+    void shouldApplyHysteresisAndCooldown() {
+        // Given
+        long now = System.nanoTime();
+        long afterCooldown = now + TimeUnit.SECONDS.toNanos(11);
+
+        // When / Then: one high reading is not enough, two are
+        assertThat(controller.decide(4, 10, now)).isEqualTo(4);
+        assertThat(controller.decide(4, 10, now)).isEqualTo(10);
+
+        // Sustained low readings wait out the cooldown after that resize
+        assertThat(controller.decide(10, 2, now)).isEqualTo(10);
+        assertThat(controller.decide(10, 2, now)).isEqualTo(10);
+        assertThat(controller.decide(10, 2, now)).isEqualTo(10);
+
+        // A reading within the dead band resets the count
+        assertThat(controller.decide(10, 7, afterCooldown)).isEqualTo(10);
+        assertThat(controller.decide(10, 2, afterCooldown)).isEqualTo(10);
+        assertThat(controller.decide(10, 2, afterCooldown)).isEqualTo(10);
+        // Then steps down a quarter at a time
+        assertThat(controller.decide(10, 2, afterCooldown)).isEqualTo(8);
+    }
+}
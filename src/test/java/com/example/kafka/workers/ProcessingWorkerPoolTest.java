@@ -0,0 +1,95 @@
+package com.example.kafka.workers;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ProcessingWorkerPoolTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private ProcessingWorkerPool pool;
+
+    @AfterEach
+    void tearDown() {
+        pool.close();
+    }
+
+    @Test
+    void shouldKeepPerKeyOrderAcrossResizes() throws InterruptedException {
+        // Given
+        pool = new ProcessingWorkerPool(2, 8, 64, registry);
+        Map<String, List<Integer>> seen = new ConcurrentHashMap<>();
+        int perKey = 200;
+        CountDownLatch done = new CountDownLatch(perKey * 10);
+
+        // When
+        for (int i = 0; i < perKey; i++) {
+            if (i == 50) {
+                pool.resize(8);
+            } else if (i == 120) {
+                pool.resize(3);
+            }
+            for (int k = 0; k < 10; k++) {
+                String key = "customer-" + k;
+                int sequence = i;
+                pool.submit(key, () -> {
+                    seen.computeIfAbsent(key, ignored -> Collections.synchronizedList(new ArrayList<>())).add(sequence);
+                    done.countDown();
+                });
+            }
+        }
+
+        // Then
+        assertThat(done.await(10, TimeUnit.SECONDS)).isTrue();
+        assertThat(pool.activeWorkers()).isEqualTo(3);
+        assertThat(seen).hasSize(10);
+        seen.values().forEach(sequences -> assertThat(sequences).isSorted().hasSize(perKey));
+        assertThat(registry.get("pipeline.workers.resizes").tag("direction", "up").counter().count()).isEqualTo(1);
+        assertThat(registry.get("pipeline.workers.resizes").tag("direction", "down").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldBlockSubmittersWhenFull() throws InterruptedException {
+        // Given
+        pool = new ProcessingWorkerPool(1, 1, 2, registry);
+        CountDownLatch release = new CountDownLatch(1);
+        pool.submit(null, () -> await(release));
+        pool.submit(null, () -> await(release));
+
+        // When
+        Thread submitter = new Thread(() -> {
+            try {
+                pool.submit(null, () -> { });
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        submitter.start();
+        submitter.join(200);
+
+        // Then
+        assertThat(submitter.isAlive()).isTrue();
+        assertThat(pool.inFlight()).isEqualTo(2);
+        release.countDown();
+        submitter.join(2000);
+        assertThat(submitter.isAlive()).isFalse();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}